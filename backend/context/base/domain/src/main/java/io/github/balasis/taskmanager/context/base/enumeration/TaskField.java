@@ -0,0 +1,14 @@
+package io.github.balasis.taskmanager.context.base.enumeration;
+
+// the groups of task fields a stale patch is merged by. each group has its
+// own "last changed at version" stamp on Task; a patch made against an older
+// version only conflicts on the groups that moved since.
+// STATE covers the whole review workflow: taskState, reviewersDecision,
+// reviewedBy and reviewComment change together.
+public enum TaskField {
+    TITLE,
+    DESCRIPTION,
+    STATE,
+    DUE_DATE,
+    LIMITS
+}
@@ -0,0 +1,11 @@
+package io.github.balasis.taskmanager.context.base.enumeration;
+
+// one entry of a bulk participant diff.
+// ADD: give the user the role on the task
+// REMOVE: take the role away from the user
+// CHANGE_ROLE: the user's ASSIGNEE entry becomes REVIEWER or the other way round
+public enum TaskParticipantChangeType {
+    ADD,
+    REMOVE,
+    CHANGE_ROLE
+}
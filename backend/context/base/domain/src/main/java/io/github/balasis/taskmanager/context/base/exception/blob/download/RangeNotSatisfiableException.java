@@ -0,0 +1,17 @@
+package io.github.balasis.taskmanager.context.base.exception.blob.download;
+
+// the requested Range starts past the end of the file. the web layer answers
+// 416 with the real size so the client can restart or give up.
+public class RangeNotSatisfiableException extends BlobDownloadException {
+
+    private final long size;
+
+    public RangeNotSatisfiableException(String message, long size) {
+        super(message);
+        this.size = size;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.balasis.taskmanager.context.base.exception.business;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskField;
+
+import java.util.Set;
+
+// a task edit was made against an old version and someone else changed the
+// same fields since. the web layer answers 409 with the current task so the
+// client can show both sides without another round trip.
+public class TaskVersionConflictException extends BusinessRuleException {
+
+    private final Long groupId;
+    private final Long taskId;
+    private final Set<TaskField> conflictingFields;
+
+    public TaskVersionConflictException(Long groupId, Long taskId, Set<TaskField> conflictingFields) {
+        super("The task was changed by someone else (" + conflictingFields + "). Review the latest version and try again.");
+        this.groupId = groupId;
+        this.taskId = taskId;
+        this.conflictingFields = conflictingFields;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Set<TaskField> getConflictingFields() {
+        return conflictingFields;
+    }
+}
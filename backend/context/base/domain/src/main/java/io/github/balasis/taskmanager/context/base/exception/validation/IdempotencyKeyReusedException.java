@@ -0,0 +1,12 @@
+package io.github.balasis.taskmanager.context.base.exception.validation;
+
+import io.github.balasis.taskmanager.context.base.exception.TaskManagerException;
+
+// an Idempotency-Key came back with a different query or body than the
+// request that first used it. the web layer answers 422 rather than
+// replaying a response that belongs to another request.
+public class IdempotencyKeyReusedException extends TaskManagerException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -15,7 +15,7 @@ public class PlanLimits {
 
     // Absolute ceiling on file size — no plan, override, or admin can exceed this.
     // Protects against excessive per-request resource consumption
-    // (downloads are proxied, not SAS-redirected).
+    // (downloads up to the redirect threshold are proxied).
     public static final long HARD_CAP_FILE_SIZE_BYTES = 100L * 1024 * 1024; // 100 MB
 
     @Value("${app.max-users:10000}")
@@ -158,6 +158,17 @@ public class PlanLimits {
         };
     }
 
+    // download redirect
+
+    // files above this many bytes are handed to the client as a short-lived
+    // read SAS (302) instead of being streamed through the JVM. 0 proxies everything.
+    @Value("${app.download-redirect-threshold-bytes:8388608}")
+    private long downloadRedirectThresholdBytes;
+
+    public boolean redirectsDownload(long fileSizeBytes) {
+        return downloadRedirectThresholdBytes > 0 && fileSizeBytes > downloadRedirectThresholdBytes;
+    }
+
     // download timeout tiers
 
     // Per-tier caps on download duration. Keeps free-tier tight to limit
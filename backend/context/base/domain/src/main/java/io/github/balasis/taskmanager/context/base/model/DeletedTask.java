@@ -20,7 +20,10 @@ import lombok.experimental.SuperBuilder;
 @Entity
 @Table(name = "DeletedTasks",
         uniqueConstraints = @UniqueConstraint(columnNames = {"group_id","deletedTaskId"}),
-        indexes = @Index(name = "idx_dt_group_deleted", columnList = "group_id, deletedAt")
+        indexes = {
+                @Index(name = "idx_dt_group_deleted", columnList = "group_id, deletedAt"),
+                @Index(name = "idx_dt_group_seq",     columnList = "group_id, seq")
+        }
 )
 public class DeletedTask extends BaseModel{
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,4 +37,8 @@ public class DeletedTask extends BaseModel{
 
     @Column(nullable = false)
     private java.time.Instant deletedAt;
+
+    // group change sequence the delete was stamped with
+    @Column(nullable = false)
+    private long seq;
 }
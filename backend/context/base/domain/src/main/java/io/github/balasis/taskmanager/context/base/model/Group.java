@@ -71,10 +71,12 @@ public class Group extends BaseModel{
     // refreshGroup and only gets new data when lastChangeInGroup has advanced.
     // we split them so the poller can tell if it needs to refetch tasks vs members.
     // lastChangeInGroupNoJoins is for lightweight changes that dont touch child entities.
-    @Column
+    // both are written only by GroupLastChangeFlusher's raise-only UPDATEs, so
+    // they're updatable = false like changeSeq below.
+    @Column(updatable = false)
     private Instant lastChangeInGroup;
 
-    @Column
+    @Column(updatable = false)
     private Instant lastChangeInGroupNoJoins;
 
     // set when a task gets deleted, so the refresh endpoint can send tombstones
@@ -85,6 +87,31 @@ public class Group extends BaseModel{
     @Column
     private Instant lastMemberChangeDate;
 
+    // monotonic per-group change sequence. only ever advanced by the atomic
+    // GroupRepository.bumpChangeSeq UPDATE — updatable = false so a flush of a
+    // stale managed entity can never roll it back. the three below record the
+    // seq of the last change of each kind, mirroring the timestamps above.
+    @Column(nullable = false, updatable = false)
+    private long changeSeq = 0;
+
+    @Column(nullable = false)
+    private long noJoinsChangeSeq = 0;
+
+    @Column(nullable = false)
+    private long memberChangeSeq = 0;
+
+    @Column(nullable = false)
+    private long deleteTaskSeq = 0;
+
+    // set when the leader deletes the group. the memberships go right away so
+    // nobody sees the group any more; GroupDeletionWorker purges the rest in
+    // chunks and counts the tasks it has removed so far in deletionPurgedTasks.
+    @Column
+    private Instant deletionRequestedAt;
+
+    @Column(nullable = false, updatable = false)
+    private long deletionPurgedTasks = 0;
+
     // set by the maintenance job after cleanup, used for staleness detection
     @Column
     private Instant lastMaintenanceDate;
@@ -1,10 +1,12 @@
 package io.github.balasis.taskmanager.context.base.model;
 
 import io.github.balasis.taskmanager.context.base.enumeration.ReviewersDecision;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskField;
 import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -13,17 +15,22 @@ import java.util.Set;
 // the core work unit. belongs to exactly one group. has a state machine lifecycle:
 // TODO -> IN_PROGRESS -> TO_BE_REVIEWED -> DONE (with some allowed backwards transitions).
 // the group_id + title pair is unique so you cant have two tasks with the same name in one group.
+// @DynamicUpdate: a flush writes only the columns that changed, so a request that
+// only bumps comment counts or change stamps can't write back stale titles,
+// states etc. loaded before someone else's edit.
 @Getter
 @Setter
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "Tasks",
         uniqueConstraints = @UniqueConstraint(columnNames = {"title", "group_id"}),
         indexes = {
         @Index(name = "idx_task_group",             columnList = "group_id"),
-        @Index(name = "idx_task_group_lastchange",   columnList = "group_id, lastChangeDate")
+        @Index(name = "idx_task_group_lastchange",   columnList = "group_id, lastChangeDate"),
+        @Index(name = "idx_task_group_seq",          columnList = "group_id, changeSeq")
 })
 public class Task extends BaseModel{
     @Column(nullable = false, length = 150)
@@ -107,6 +114,11 @@ public class Task extends BaseModel{
     @Column
     private Instant lastChangeDateInComments;
 
+    // group change sequence of the last change to this task (any kind),
+    // the exact counterpart of lastChangeDate for seq-based refreshes
+    @Column(nullable = false)
+    private long changeSeq = 0;
+
     @Column
     private Instant createdAt;
 
@@ -118,6 +130,15 @@ public class Task extends BaseModel{
     @Column
     private Long commentCount;
 
+    // set while CommentPurgeWorker removes the comments created before it;
+    // commentPurgeDeleted counts what the current/last purge removed so far.
+    // both only move through TaskRepository updates.
+    @Column(updatable = false)
+    private Instant commentPurgeBefore;
+
+    @Column(nullable = false, updatable = false)
+    private long commentPurgeDeleted = 0;
+
     @Column
     private Integer priority;
 
@@ -135,6 +156,51 @@ public class Task extends BaseModel{
     @Column
     private Long maxFileSizeBytes;
 
+    // edit version. clients send it back as expectedVersion when editing.
+    // only moves through TaskRepository.claimNextVersion (guarded UPDATE that
+    // also takes the row lock), so like changeSeq it's not updatable from the
+    // entity and comments, uploads and change tracking never move it.
+    @Column(nullable = false, updatable = false)
+    private long version = 0;
+
+    // version at which each TaskField group last changed. an edit made
+    // against an older version conflicts only on the groups stamped later.
+    @Column(nullable = false)
+    private long titleVersion = 0;
+
+    @Column(nullable = false)
+    private long descriptionVersion = 0;
+
+    @Column(nullable = false)
+    private long stateVersion = 0;
+
+    @Column(nullable = false)
+    private long dueDateVersion = 0;
+
+    @Column(nullable = false)
+    private long limitsVersion = 0;
+
+    public long fieldVersion(TaskField field) {
+        return switch (field) {
+            case TITLE -> titleVersion;
+            case DESCRIPTION -> descriptionVersion;
+            case STATE -> stateVersion;
+            case DUE_DATE -> dueDateVersion;
+            case LIMITS -> limitsVersion;
+        };
+    }
+
+    // stamps the group with the current (just claimed) version
+    public void touchField(TaskField field) {
+        switch (field) {
+            case TITLE -> titleVersion = version;
+            case DESCRIPTION -> descriptionVersion = version;
+            case STATE -> stateVersion = version;
+            case DUE_DATE -> dueDateVersion = version;
+            case LIMITS -> limitsVersion = version;
+        }
+    }
+
     @PrePersist
     protected void onCreate(){
         createdAt = Instant.now();
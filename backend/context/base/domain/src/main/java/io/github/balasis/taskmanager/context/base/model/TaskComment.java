@@ -17,6 +17,7 @@ import java.time.Instant;
 @Entity
 @Table(name = "TaskComments", indexes = {
         @Index(name = "idx_tc_task",    columnList = "task_id"),
+        @Index(name = "idx_tc_task_created", columnList = "task_id, createdAt"),
         @Index(name = "idx_tc_creator", columnList = "creator_id")
 })
 public class TaskComment extends BaseModel{
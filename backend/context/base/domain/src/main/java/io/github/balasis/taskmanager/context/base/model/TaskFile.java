@@ -20,7 +20,8 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "TaskFiles", indexes = {
-        @Index(name = "idx_tf_task", columnList = "task_id")
+        @Index(name = "idx_tf_task", columnList = "task_id"),
+        @Index(name = "ux_tf_file_url", columnList = "fileUrl", unique = true)
 })
 public class TaskFile extends BaseModel{
     @Column(length = 500)
@@ -32,6 +33,17 @@ public class TaskFile extends BaseModel{
     @Column
     private Long fileSize;
 
+    // recorded at upload so a download is one GET. contentMd5 is base64 as
+    // storage reports it; blobETag pins ranged reads to the bytes uploaded.
+    @Column(length = 255)
+    private String contentType;
+
+    @Column(length = 24)
+    private String contentMd5;
+
+    @Column(length = 64)
+    private String blobETag;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id")
     private Task task;
@@ -11,11 +11,14 @@ import io.github.balasis.taskmanager.context.base.exception.ratelimit.ServiceOve
 import io.github.balasis.taskmanager.context.base.exception.auth.UnauthenticatedException;
 import io.github.balasis.taskmanager.context.base.exception.authorization.UnauthorizedException;
 import io.github.balasis.taskmanager.context.base.exception.blob.download.BlobDownloadTaskFileException;
+import io.github.balasis.taskmanager.context.base.exception.blob.download.RangeNotSatisfiableException;
 import io.github.balasis.taskmanager.context.base.exception.blob.upload.BlobUploadException;
 import io.github.balasis.taskmanager.context.base.exception.business.BusinessRuleException;
 import io.github.balasis.taskmanager.context.base.exception.notfound.TaskFileBlobNotFoundException;
+import io.github.balasis.taskmanager.context.base.exception.validation.IdempotencyKeyReusedException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -51,6 +54,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<String> handleConstraintViolationException(ConstraintViolationException e) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -114,6 +122,15 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    // Content-Range "bytes */size" is how RFC 9110 tells the client the real length
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<String> handleRangeNotSatisfiable(RangeNotSatisfiableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getSize())
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(TaskFileBlobNotFoundException.class)
     public ResponseEntity<String> handleMissingBlob(TaskFileBlobNotFoundException ex) {
         return ResponseEntity
@@ -12,6 +12,7 @@ import io.github.balasis.taskmanager.engine.core.repository.RefreshTokenReposito
 import io.github.balasis.taskmanager.engine.core.repository.UserRepository;
 import io.github.balasis.taskmanager.engine.core.repository.GroupRepository;
 import io.github.balasis.taskmanager.engine.core.service.DefaultImageService;
+import io.github.balasis.taskmanager.engine.core.service.GroupChangeTracker;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -56,6 +57,7 @@ public class DevAuthController extends BaseComponent {
     private final JwtService jwtService;
     private final DefaultImageService defaultImageService;
     private final PlanLimits planLimits;
+    private final GroupChangeTracker groupChangeTracker;
 
     @Value("${app.dev-auth-secret:}")
     private String devAuthSecret;
@@ -154,7 +156,9 @@ public class DevAuthController extends BaseComponent {
                             existing.setPreviousPlan(null);
                             existing.setDowngradeGraceDeadline(null);
                         }
-                        groupRepository.touchLastChangeByOwnerId(existing.getId(), Instant.now());
+                        Instant now = Instant.now();
+                        groupRepository.touchLastChangeByOwnerId(existing.getId(), now);
+                        groupChangeTracker.groupsChanged(groupRepository.findIdsByOwnerId(existing.getId()), now);
                     }
                 }
                 return userRepository.save(existing);
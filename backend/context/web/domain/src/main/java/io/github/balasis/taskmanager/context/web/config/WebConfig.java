@@ -1,6 +1,7 @@
 package io.github.balasis.taskmanager.context.web.config;
 
 import io.github.balasis.taskmanager.context.web.interceptor.AccountBanInterceptor;
+import io.github.balasis.taskmanager.context.web.interceptor.IdempotencyInterceptor;
 import io.github.balasis.taskmanager.context.web.interceptor.RateLimitInterceptor;
 import io.github.balasis.taskmanager.context.web.jwt.JwtInterceptor;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -22,8 +24,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
-// interceptor chain ordering: JWT (1) → rate-limit (2) → account-ban (3).
-// bounded thread pool for StreamingResponseBody downloads (default 15 threads).
+// interceptor chain ordering: JWT (1) → rate-limit (2) → idempotency (3) → account-ban (4).
+// StreamingResponseBody downloads run on a bounded pool (default 15 threads)
+// or, with app.download-virtual-threads, one virtual thread each.
 // CORS: production domain + localhost origins; dev profiles auto-discover
 // local-network IPs so mobile testing via Vite network URL works.
 @Configuration
@@ -34,6 +37,7 @@ public class WebConfig implements WebMvcConfigurer {
 
     private final JwtInterceptor jwtInterceptor;
     private final RateLimitInterceptor rateLimitInterceptor;
+    private final IdempotencyInterceptor idempotencyInterceptor;
     private final AccountBanInterceptor accountBanInterceptor;
     private final Environment environment;
 
@@ -43,6 +47,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${app.download-threads:15}")
     private int downloadThreads;
 
+    @Value("${app.download-virtual-threads:false}")
+    private boolean downloadVirtualThreads;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry){
 
@@ -56,15 +63,32 @@ public class WebConfig implements WebMvcConfigurer {
                 .order(2)
                 .excludePathPatterns("/auth/**", "/health", "/actuator/health", "/h2-console", "/");
 
-        registry.addInterceptor(accountBanInterceptor)
+        registry.addInterceptor(idempotencyInterceptor)
                 .addPathPatterns("/**")
                 .order(3)
                 .excludePathPatterns("/auth/**", "/health", "/actuator/health", "/h2-console");
+
+        registry.addInterceptor(accountBanInterceptor)
+                .addPathPatterns("/**")
+                .order(4)
+                .excludePathPatterns("/auth/**", "/health", "/actuator/health", "/h2-console");
     }
 
-    // without this Spring spawns unbounded threads per download (SimpleAsyncTaskExecutor)
+    // without this Spring spawns unbounded platform threads per download (SimpleAsyncTaskExecutor).
+    // with app.download-virtual-threads every stream gets its own virtual thread
+    // instead: a stream blocked on blob I/O or a slow client costs a few KB, not a
+    // pooled thread, and DownloadGate's stream limit is what bounds concurrency.
     @Override
     public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(150_000); // sits above TEAM tier cap (120 s)
+
+        if (downloadVirtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dl-stream-");
+            executor.setVirtualThreads(true);
+            configurer.setTaskExecutor(executor);
+            return;
+        }
+
         ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
         pool.setCorePoolSize(downloadThreads);
         pool.setMaxPoolSize(downloadThreads);
@@ -73,7 +97,6 @@ public class WebConfig implements WebMvcConfigurer {
         pool.initialize();
 
         configurer.setTaskExecutor(pool);
-        configurer.setDefaultTimeout(150_000); // sits above TEAM tier cap (120 s)
     }
 
     @Override
@@ -4,6 +4,8 @@ import io.github.balasis.taskmanager.context.base.component.BaseComponent;
 import io.github.balasis.taskmanager.context.base.enumeration.AnalysisType;
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
 import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
+import io.github.balasis.taskmanager.context.base.exception.business.TaskVersionConflictException;
+import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFieldValueException;
 import io.github.balasis.taskmanager.context.base.limits.PlanLimits;
 import io.github.balasis.taskmanager.context.base.model.TaskAnalysisSnapshot;
 import io.github.balasis.taskmanager.context.base.model.User;
@@ -21,40 +23,57 @@ import io.github.balasis.taskmanager.context.web.resource.group.outbound.GroupOu
 import io.github.balasis.taskmanager.context.web.resource.taskanalysis.outbound.TaskAnalysisEstimateResource;
 import io.github.balasis.taskmanager.context.web.resource.taskanalysis.outbound.TaskAnalysisSnapshotResource;
 import io.github.balasis.taskmanager.engine.core.dto.AnalysisEstimateDto;
+import io.github.balasis.taskmanager.engine.core.dto.CommentPurgeStatusDto;
 import io.github.balasis.taskmanager.engine.core.dto.FileReviewInfoDto;
+import io.github.balasis.taskmanager.engine.core.dto.GroupChangesDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupFileDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupRefreshDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupWithPreviewDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskCreateDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
 import io.github.balasis.taskmanager.engine.core.dto.TaskPreviewDto;
 import io.github.balasis.taskmanager.context.web.resource.groupevent.outbound.GroupEventOutboundResource;
 import io.github.balasis.taskmanager.context.web.resource.groupinvitation.inbound.GroupInvitationInboundResource;
 import io.github.balasis.taskmanager.context.web.resource.groupmembership.outbound.GroupMembershipOutboundResource;
 import io.github.balasis.taskmanager.context.web.resource.task.inbound.TaskInboundPatchResource;
+import io.github.balasis.taskmanager.context.web.resource.task.inbound.TaskBulkInboundResource;
 import io.github.balasis.taskmanager.context.web.resource.task.inbound.TaskInboundResource;
+import io.github.balasis.taskmanager.context.web.resource.task.outbound.TaskConflictOutboundResource;
 import io.github.balasis.taskmanager.context.web.resource.task.outbound.TaskOutboundResource;
 import io.github.balasis.taskmanager.context.web.resource.task.outbound.TaskPreviewOutboundResource;
 import io.github.balasis.taskmanager.context.web.resource.taskcomment.inbound.TaskCommentInboundResource;
+import io.github.balasis.taskmanager.context.web.resource.taskfile.inbound.TaskFileUploadInboundResource;
 import io.github.balasis.taskmanager.context.web.resource.taskcomment.outbound.TaskCommentOutboundResource;
+import io.github.balasis.taskmanager.context.web.resource.taskparticipant.inbound.TaskParticipantBulkInboundResource;
 import io.github.balasis.taskmanager.context.web.resource.taskparticipant.inbound.TaskParticipantInboundResource;
+import io.github.balasis.taskmanager.context.web.stream.ChangeWaitRegistry;
+import io.github.balasis.taskmanager.context.web.stream.GroupStreamRegistry;
 import io.github.balasis.taskmanager.context.web.throttle.DownloadGate;
 import io.github.balasis.taskmanager.context.web.validation.ResourceDataValidator;
 import io.github.balasis.taskmanager.engine.core.service.GroupService;
 import io.github.balasis.taskmanager.engine.core.service.UserService;
 import io.github.balasis.taskmanager.engine.core.transfer.TaskFileDownload;
+import io.github.balasis.taskmanager.engine.core.transfer.TaskFileUploadTarget;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.ChangeType;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.PresenceService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.HashSet;
@@ -66,6 +85,7 @@ import java.util.Set;
 // invitations, member management, comment intelligence (analysis + summary), file reviews.
 // downloads use DownloadGate for per-user concurrency limiting and ETag-based 304s.
 // smart-poll endpoints (hasGroupChanged etc.) return 409/204 so the frontend avoids refetching.
+// /stream pushes the same change signals over SSE; the polls stay as the fallback.
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/groups")
@@ -88,6 +108,8 @@ public class GroupController extends BaseComponent {
     private final PresenceService presenceService;
     private final PlanLimits planLimits;
     private final DownloadGate downloadGate;
+    private final GroupStreamRegistry groupStreamRegistry;
+    private final ChangeWaitRegistry changeWaitRegistry;
     private final ObjectMapper objectMapper;
 
     private static final TypeReference<List<String>> STRING_LIST =
@@ -140,20 +162,60 @@ public class GroupController extends BaseComponent {
 
         // Piggyback a presence heartbeat, the user is actively viewing this group.
         // Best-effort: PresenceService swallows Redis failures internally.
-        try {
-            presenceService.heartbeat(groupId, effectiveCurrentUser.getUserId());
-        } catch (Exception ignored) { }
+        groupStreamRegistry.presenceHeartbeat(groupId, effectiveCurrentUser.getUserId());
 
         return changed
                 ? ResponseEntity.status(409).build()
                 : ResponseEntity.noContent().build();
     }
 
+    // batched dashboard poll: one request instead of one has-changed per group
+    // plus the invitations check. body is {groupId: lastSeen}.
+    @PostMapping(path = "/changes")
+    public ResponseEntity<GroupChangesDto> findChangedGroups(
+            @RequestBody Map<Long, Instant> lastSeenByGroup
+    ) {
+        return ResponseEntity.ok(groupService.findChangedGroups(lastSeenByGroup));
+    }
+
+    // long-poll variant: same 409/204 contract, but parks until a change for the
+    // group is committed or the wait (capped at 30 s) runs out
+    @GetMapping(path = "/{groupId}/has-changed", params = "wait")
+    public DeferredResult<ResponseEntity<Void>> awaitGroupChange(
+            @PathVariable Long groupId,
+            @RequestParam Instant lastSeen,
+            @RequestParam int wait
+    ) {
+        var result = changeWaitRegistry.await(groupId, wait,
+                event -> event.type() == ChangeType.GROUP || event.type() == ChangeType.TASK_DELETED,
+                () -> groupService.hasGroupChanged(groupId, lastSeen));
+        groupStreamRegistry.presenceHeartbeat(groupId, effectiveCurrentUser.getUserId());
+        return result;
+    }
+
+    // live change notifications for one group. events: group, task, task_deleted,
+    // comments, members, presence — each only says what to refetch.
+    @GetMapping(path = "/{groupId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGroupChanges(@PathVariable Long groupId) {
+        groupService.checkMembership(groupId);
+        return groupStreamRegistry.open(groupId, effectiveCurrentUser.getUserId());
+    }
+
+    // the ETag comes from one stamp query that doubles as the membership check,
+    // so a 304 skips the tasks+participants fetch-join and the serialisation
     @GetMapping(path = "/{groupId}")
     public ResponseEntity<GroupWithPreviewDto> getGroupWithPreviewTasks(
-            @PathVariable Long groupId
+            @PathVariable Long groupId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ){
-        return ResponseEntity.ok(groupService.findGroupWithPreviewTasks(groupId));
+        String etag = "\"g-" + groupId + "-" + groupService.findGroupSnapshotVersion(groupId) + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                .body(groupService.findGroupWithPreviewTasks(groupId));
     }
 
     @GetMapping(path = "/{groupId}/presence")
@@ -165,18 +227,36 @@ public class GroupController extends BaseComponent {
     @GetMapping(path = "/{groupId}/refresh")
     public ResponseEntity<GroupRefreshDto> refreshGroup(
             @PathVariable Long groupId,
-            @RequestParam Instant lastSeen
+            @RequestParam(required = false) Instant lastSeen,
+            @RequestParam(required = false) Long sinceSeq,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(groupService.refreshGroup(groupId, lastSeen));
+        if (lastSeen == null && sinceSeq == null) {
+            throw new InvalidFieldValueException("Either sinceSeq or lastSeen is required");
+        }
+        // same version as the snapshot; the since-params are part of the URL
+        // so a cached refresh response is only ever matched against itself
+        String etag = "\"gr-" + groupId + "-" + groupService.findGroupSnapshotVersion(groupId) + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                .body(groupService.refreshGroup(groupId, lastSeen, sinceSeq));
     }
 
     @GetMapping(path = "/{groupId}/task/{taskId}/has-changed")
     public ResponseEntity<Void> hasTaskChanged(
             @PathVariable Long groupId,
             @PathVariable Long taskId,
-            @RequestParam Instant since
+            @RequestParam(required = false) Instant since,
+            @RequestParam(required = false) Long sinceSeq
     ) {
-        if (groupService.hasTaskChanged(groupId, taskId, since)) {
+        if (since == null && sinceSeq == null) {
+            throw new InvalidFieldValueException("Either sinceSeq or since is required");
+        }
+        if (groupService.hasTaskChanged(groupId, taskId, since, sinceSeq)) {
             return ResponseEntity.status(409).build();
         }
         return ResponseEntity.noContent().build();
@@ -194,6 +274,18 @@ public class GroupController extends BaseComponent {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping(path = "/{groupId}/task/{taskId}/comments/has-changed", params = "wait")
+    public DeferredResult<ResponseEntity<Void>> awaitCommentsChange(
+            @PathVariable Long groupId,
+            @PathVariable Long taskId,
+            @RequestParam Instant since,
+            @RequestParam int wait
+    ) {
+        return changeWaitRegistry.await(groupId, wait,
+                event -> event.type() == ChangeType.COMMENTS && taskId.equals(event.taskId()),
+                () -> groupService.hasCommentsChanged(groupId, taskId, since));
+    }
+
 
 
     @GetMapping("/{groupId}/groupMemberships")
@@ -289,6 +381,18 @@ public class GroupController extends BaseComponent {
         return ResponseEntity.ok(mapAndEnrich(task, groupId));
     }
 
+    @PostMapping(path = "/{groupId}/tasks/bulk")
+    public ResponseEntity<Set<TaskPreviewDto>> createTasks(
+            @PathVariable Long groupId,
+            @RequestBody TaskBulkInboundResource inbound
+    ) {
+        resourceDataValidator.validateResourceData(inbound);
+        List<TaskCreateDto> tasks = inbound.getTasks().stream()
+                .map(t -> new TaskCreateDto(taskInboundMapper.toDomain(t), t.getAssignedIds(), t.getReviewerIds()))
+                .toList();
+        return ResponseEntity.ok(groupService.createTasks(groupId, tasks));
+    }
+
     @GetMapping(path = "/{groupId}/tasks/search")
     public ResponseEntity<Set<TaskPreviewDto>> findTasksWithFilters(
             @PathVariable Long groupId,
@@ -404,7 +508,8 @@ public class GroupController extends BaseComponent {
             ){
         resourceDataValidator.validateResourceData(taskInboundPatchResource);
         var task = groupService.patchTask(groupId, taskId,
-                taskInboundMapper.toDomain(taskInboundPatchResource));
+                taskInboundMapper.toDomain(taskInboundPatchResource),
+                taskInboundPatchResource.getExpectedVersion());
         return ResponseEntity.ok(mapAndEnrich(task, groupId));
     }
 
@@ -424,20 +529,33 @@ public class GroupController extends BaseComponent {
             @RequestBody TaskInboundPatchResource taskInboundPatchResource
     ){
         resourceDataValidator.validateResourceData(taskInboundPatchResource);
-        var task = groupService.reviewTask(groupId, taskId, taskInboundMapper.toDomain(taskInboundPatchResource));
+        var task = groupService.reviewTask(groupId, taskId, taskInboundMapper.toDomain(taskInboundPatchResource),
+                taskInboundPatchResource.getExpectedVersion());
         return ResponseEntity.ok(mapAndEnrich(task, groupId));
     }
 
     @PostMapping(path = "/{groupId}/task/{taskId}/to-be-reviewed")
     public ResponseEntity<TaskOutboundResource> markTaskToBeReviewed(
             @PathVariable Long groupId,
-            @PathVariable Long taskId
+            @PathVariable Long taskId,
+            @RequestParam(required = false) Long expectedVersion
     ) {
         return ResponseEntity.ok(
-                mapAndEnrich(groupService.markTaskToBeReviewed(groupId, taskId), groupId)
+                mapAndEnrich(groupService.markTaskToBeReviewed(groupId, taskId, expectedVersion), groupId)
         );
     }
 
+    // takes precedence over the generic 409 in GlobalExceptionHandler. the
+    // failed edit already rolled back, so this reads the committed task.
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<TaskConflictOutboundResource> handleTaskVersionConflict(TaskVersionConflictException e) {
+        var task = groupService.getTask(e.getGroupId(), e.getTaskId());
+        var current = mapAndEnrich(task, e.getGroupId());
+        enrichFileReviews(task, current);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new TaskConflictOutboundResource(e.getMessage(), e.getConflictingFields(), current));
+    }
+
     @PostMapping(path="/{groupId}/task/{taskId}/taskParticipants")
     public ResponseEntity<TaskOutboundResource> addParticipant(
             @PathVariable Long groupId,
@@ -452,6 +570,19 @@ public class GroupController extends BaseComponent {
        );
     }
 
+    @PostMapping(path = "/{groupId}/tasks/participants")
+    public ResponseEntity<Set<TaskPreviewDto>> applyParticipantChanges(
+            @PathVariable Long groupId,
+            @RequestBody TaskParticipantBulkInboundResource inbound
+    ) {
+        resourceDataValidator.validateResourceData(inbound);
+        List<TaskParticipantChangeDto> changes = inbound.getChanges().stream()
+                .map(c -> new TaskParticipantChangeDto(c.getTaskId(), c.getUserId(),
+                        c.getTaskParticipantRole(), c.getType()))
+                .toList();
+        return ResponseEntity.ok(groupService.applyTaskParticipantChanges(groupId, changes));
+    }
+
     @PostMapping(path = "/{groupId}/task/{taskId}/files",
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<TaskOutboundResource> addTaskFile(
@@ -476,6 +607,52 @@ public class GroupController extends BaseComponent {
         ));
     }
 
+    // direct uploads: the file goes from the browser straight to blob storage,
+    // only these two small JSON calls hit the app
+    @PostMapping(path = "/{groupId}/task/{taskId}/files/uploads")
+    public ResponseEntity<TaskFileUploadTarget> prepareTaskFileUpload(
+            @PathVariable Long groupId,
+            @PathVariable Long taskId,
+            @RequestBody TaskFileUploadInboundResource upload
+    ) {
+        resourceDataValidator.validateResourceData(upload);
+        return ResponseEntity.ok(groupService.prepareTaskFileUpload(
+                groupId, taskId, upload.getName(), upload.getSize()));
+    }
+
+    @PostMapping(path = "/{groupId}/task/{taskId}/files/uploads/finalize")
+    public ResponseEntity<TaskOutboundResource> finalizeTaskFileUpload(
+            @PathVariable Long groupId,
+            @PathVariable Long taskId,
+            @RequestBody TaskFileUploadInboundResource upload
+    ) {
+        resourceDataValidator.validateResourceData(upload);
+        return ResponseEntity.ok(mapAndEnrich(groupService.finalizeTaskFileUpload(groupId, taskId,
+                upload.getBlobName(), upload.getName(), upload.getSize(), upload.getContentType()), groupId));
+    }
+
+    @PostMapping(path = "/{groupId}/task/{taskId}/assignee-files/uploads")
+    public ResponseEntity<TaskFileUploadTarget> prepareAssigneeTaskFileUpload(
+            @PathVariable Long groupId,
+            @PathVariable Long taskId,
+            @RequestBody TaskFileUploadInboundResource upload
+    ) {
+        resourceDataValidator.validateResourceData(upload);
+        return ResponseEntity.ok(groupService.prepareAssigneeTaskFileUpload(
+                groupId, taskId, upload.getName(), upload.getSize()));
+    }
+
+    @PostMapping(path = "/{groupId}/task/{taskId}/assignee-files/uploads/finalize")
+    public ResponseEntity<TaskOutboundResource> finalizeAssigneeTaskFileUpload(
+            @PathVariable Long groupId,
+            @PathVariable Long taskId,
+            @RequestBody TaskFileUploadInboundResource upload
+    ) {
+        resourceDataValidator.validateResourceData(upload);
+        return ResponseEntity.ok(mapAndEnrich(groupService.finalizeAssigneeTaskFileUpload(groupId, taskId,
+                upload.getBlobName(), upload.getName(), upload.getSize(), upload.getContentType()), groupId));
+    }
+
     @PostMapping(path = "/{groupId}/task/{taskId}/comments")
     public ResponseEntity<TaskCommentOutboundResource> addTaskComment(
             @PathVariable Long groupId,
@@ -535,7 +712,10 @@ public class GroupController extends BaseComponent {
             @PathVariable Long groupId,
             @PathVariable Long taskId,
             @PathVariable Long fileId,
-            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest request
     ) {
         String etag = "\"tf-" + fileId + "\"";
 
@@ -548,30 +728,32 @@ public class GroupController extends BaseComponent {
         User currentUser = userService.findCurrentUser();
         long userId = currentUser.getId();
 
-        // reserve a slot before we even touch blob storage
-        downloadGate.acquire(userId);
+        // the slot is taken (waiting for one if need be) before the service
+        // call, so nothing is charged for a download that can't run and the
+        // wait holds no transaction. a redirect to storage hands it straight
+        // back: the bytes don't go through this instance.
+        DownloadGate.Slot slot = downloadGate.acquire(userId);
         try {
-            TaskFileDownload download = groupService.downloadTaskFile(groupId, taskId, fileId);
-            long timeoutMs = planLimits.computeDownloadTimeoutMs(download.size(), currentUser.getSubscriptionPlan());
+            TaskFileDownload download = groupService.downloadTaskFile(groupId, taskId, fileId,
+                    requestedRange(range, ifRange, etag));
+            if (download.redirectUrl() != null) {
+                slot.release();
+                return redirectToStorage(download);
+            }
+            long timeoutMs = planLimits.computeDownloadTimeoutMs(download.contentLength(), currentUser.getSubscriptionPlan());
 
+            downloadGate.releaseWith(request, slot);
             StreamingResponseBody body = out -> {
                 try (var in = download.content()) {
                     transferWithTimeout(in, out, timeoutMs);
                 } finally {
-                    downloadGate.release(userId);
+                    slot.release();
                 }
             };
-            return ResponseEntity.ok()
-                    .eTag(etag)
-                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + StringSanitizer.sanitizeFilenameForHeader(download.filename()) + "\"")
-                    .contentLength(download.size())
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(body);
+            return fileDownloadResponse(download, etag, body);
         } catch (Exception e) {
             // if anything blows up before the StreamingResponseBody runs, free the slot
-            downloadGate.release(userId);
+            slot.release();
             throw e;
         }
     }
@@ -581,7 +763,10 @@ public class GroupController extends BaseComponent {
             @PathVariable Long groupId,
             @PathVariable Long taskId,
             @PathVariable Long fileId,
-            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest request
     ) {
         String etag = "\"af-" + fileId + "\"";
 
@@ -593,32 +778,77 @@ public class GroupController extends BaseComponent {
         User currentUser = userService.findCurrentUser();
         long userId = currentUser.getId();
 
-        downloadGate.acquire(userId);
+        DownloadGate.Slot slot = downloadGate.acquire(userId);
         try {
-            TaskFileDownload download = groupService.downloadAssigneeTaskFile(groupId, taskId, fileId);
-            long timeoutMs = planLimits.computeDownloadTimeoutMs(download.size(), currentUser.getSubscriptionPlan());
+            TaskFileDownload download = groupService.downloadAssigneeTaskFile(groupId, taskId, fileId,
+                    requestedRange(range, ifRange, etag));
+            if (download.redirectUrl() != null) {
+                slot.release();
+                return redirectToStorage(download);
+            }
+            long timeoutMs = planLimits.computeDownloadTimeoutMs(download.contentLength(), currentUser.getSubscriptionPlan());
 
+            downloadGate.releaseWith(request, slot);
             StreamingResponseBody body = out -> {
                 try (var in = download.content()) {
                     transferWithTimeout(in, out, timeoutMs);
                 } finally {
-                    downloadGate.release(userId);
+                    slot.release();
                 }
             };
-            return ResponseEntity.ok()
-                    .eTag(etag)
-                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + StringSanitizer.sanitizeFilenameForHeader(download.filename()) + "\"")
-                    .contentLength(download.size())
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(body);
+            return fileDownloadResponse(download, etag, body);
         } catch (Exception e) {
-            downloadGate.release(userId);
+            slot.release();
             throw e;
         }
     }
 
+    // single ranges only — a multi-range request just gets the whole file,
+    // which RFC 9110 allows. so does an If-Range that doesn't match our ETag
+    // (the file was replaced, or it's a date we never handed out) and a Range
+    // header we can't parse.
+    private static HttpRange requestedRange(String range, String ifRange, String etag) {
+        if (range == null) return null;
+        if (ifRange != null && !ifRange.equals(etag)) return null;
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    // large files: storage serves the bytes straight from the signed URL,
+    // so this request is done before the transfer starts. the URL is a
+    // credential until it expires — nothing may cache the redirect.
+    private static ResponseEntity<StreamingResponseBody> redirectToStorage(TaskFileDownload download) {
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(download.redirectUrl()))
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-store")
+                .build();
+    }
+
+    // 200 with the whole file, or 206 with Content-Range for a slice.
+    // Accept-Ranges tells clients a dropped download can be resumed.
+    private static ResponseEntity<StreamingResponseBody> fileDownloadResponse(
+            TaskFileDownload download, String etag, StreamingResponseBody body) {
+        var builder = download.range() == null
+                ? ResponseEntity.ok()
+                : ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes " + download.range().start() + "-"
+                                + download.range().end() + "/" + download.size());
+        return builder
+                .eTag(etag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + StringSanitizer.sanitizeFilenameForHeader(download.filename()) + "\"")
+                .contentLength(download.contentLength())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
     @DeleteMapping("/{groupId}/task/{taskId}/taskParticipant/{taskParticipantId}")
     public ResponseEntity<Void> removeParticipant(
             @PathVariable Long groupId,
@@ -779,13 +1009,20 @@ public class GroupController extends BaseComponent {
         return ResponseEntity.ok(toSnapshotResource(snap));
     }
 
+    // 202: the comments are deleted in the background, poll the GET below
     @DeleteMapping("/{groupId}/task/{taskId}/comments/bulk")
-    public ResponseEntity<Map<String, Integer>> bulkDeleteComments(
+    public ResponseEntity<CommentPurgeStatusDto> bulkDeleteComments(
             @PathVariable Long groupId,
             @PathVariable Long taskId,
             @RequestParam Instant before) {
-        int deleted = groupService.bulkDeleteCommentsBefore(groupId, taskId, before);
-        return ResponseEntity.ok(Map.of("deleted", deleted));
+        return ResponseEntity.accepted().body(groupService.bulkDeleteCommentsBefore(groupId, taskId, before));
+    }
+
+    @GetMapping("/{groupId}/task/{taskId}/comments/bulk")
+    public ResponseEntity<CommentPurgeStatusDto> getBulkDeleteCommentsStatus(
+            @PathVariable Long groupId,
+            @PathVariable Long taskId) {
+        return ResponseEntity.ok(groupService.getCommentPurgeStatus(groupId, taskId));
     }
 
     // private helpers
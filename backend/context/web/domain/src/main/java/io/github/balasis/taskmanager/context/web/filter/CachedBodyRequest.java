@@ -0,0 +1,100 @@
+package io.github.balasis.taskmanager.context.web.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// reads the body up front so IdempotencyInterceptor can fingerprint it
+// before the handler gets to it; the handler then reads the same bytes again.
+// only used for the JSON writes that carry an Idempotency-Key.
+// at most MAX_BODY_BYTES are held. a longer body is marked truncated (the
+// interceptor refuses the key for it) and reads on past the held bytes from
+// the container's stream.
+public class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    public static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    private final byte[] body;
+    private final boolean truncated;
+
+    public CachedBodyRequest(HttpServletRequest request) throws IOException {
+        super(request);
+        byte[] head = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        this.body = head;
+        this.truncated = head.length > MAX_BODY_BYTES;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        InputStream in = truncated
+                ? new SequenceInputStream(new ByteArrayInputStream(body), super.getInputStream())
+                : new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            private boolean finished;
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            // the held bytes are in memory, and the container's stream stays
+            // in blocking mode since its own setReadListener is never called
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // always ready, so the listener reads through to the end in one
+            // onDataAvailable and gets onAllDataRead right after
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    if (!finished) readListener.onDataAvailable();
+                    if (finished) readListener.onAllDataRead();
+                } catch (IOException | RuntimeException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b < 0) finished = true;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                if (n < 0) finished = true;
+                return n;
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        Charset charset = getCharacterEncoding() != null
+                ? Charset.forName(getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+}
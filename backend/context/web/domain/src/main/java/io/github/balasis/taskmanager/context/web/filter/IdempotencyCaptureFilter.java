@@ -0,0 +1,46 @@
+package io.github.balasis.taskmanager.context.web.filter;
+
+import io.github.balasis.taskmanager.context.web.interceptor.IdempotencyInterceptor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+// buffers the response body of write requests that carry an Idempotency-Key
+// so IdempotencyInterceptor can store it once the handler is done, and
+// holds their request body so the interceptor can fingerprint it first.
+// multipart bodies stay with the container, which keeps the parsed parts.
+// everything else (downloads included) is passed through unwrapped.
+@Component
+public class IdempotencyCaptureFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(IdempotencyInterceptor.HEADER) == null
+                || !IdempotencyInterceptor.METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletRequest wrappedRequest = isMultipart(request) ? request : new CachedBodyRequest(request);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(wrappedRequest, wrapper);
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+}
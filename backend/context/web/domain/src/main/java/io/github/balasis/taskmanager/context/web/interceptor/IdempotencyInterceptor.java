@@ -0,0 +1,191 @@
+package io.github.balasis.taskmanager.context.web.interceptor;
+
+import io.github.balasis.taskmanager.context.base.exception.business.BusinessRuleException;
+import io.github.balasis.taskmanager.context.base.exception.validation.IdempotencyKeyReusedException;
+import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFieldValueException;
+import io.github.balasis.taskmanager.context.web.filter.CachedBodyRequest;
+import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.Lookup;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.StoredResponse;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// replays the stored response when a write request is retried with the same
+// Idempotency-Key header, so a retry after a lost response doesn't upload,
+// charge budgets or queue emails a second time. runs at interceptor order 3,
+// after rate limiting (a replay still costs a token) and before the ban check.
+//
+// keys are scoped to user + method + path, so the same client key on another
+// endpoint or from another user never collides. the claim keeps a fingerprint
+// of the query string and body; the key coming back with a different one is
+// answered 422 instead of replaying another request's response.
+// only 2xx responses are kept; anything else releases the key and the retry
+// runs for real. request and response bodies are held by
+// IdempotencyCaptureFilter, which wraps only requests that carry the header.
+@Component
+@RequiredArgsConstructor
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private static final String KEY_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".key";
+    private static final String FINGERPRINT_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".fingerprint";
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_\\-]{8,128}");
+
+    // bigger responses aren't worth holding in Redis; the retry just runs
+    private static final int MAX_STORED_BODY_BYTES = 256 * 1024;
+
+    private final IdempotencyStoreService idempotencyStoreService;
+    private final EffectiveCurrentUser effectiveCurrentUser;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response,
+                             Object handler) throws IOException, ServletException {
+
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String clientKey = request.getHeader(HEADER);
+        if (clientKey == null || !METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        if (!KEY_PATTERN.matcher(clientKey).matches()) {
+            throw new InvalidFieldValueException(
+                    HEADER + " must be 8-128 letters, digits, '-' or '_'.");
+        }
+        CachedBodyRequest cached = WebUtils.getNativeRequest(request, CachedBodyRequest.class);
+        if (cached != null && cached.isTruncated()) {
+            throw new InvalidFieldValueException(HEADER + " can only be sent with bodies up to "
+                    + CachedBodyRequest.MAX_BODY_BYTES / (1024 * 1024) + " MB.");
+        }
+
+        Long userId = null;
+        try {
+            userId = effectiveCurrentUser.getUserId();
+        } catch (Exception ignored) {
+
+        }
+
+        if (userId == null) {
+            return true;
+        }
+
+        String key = userId + ":" + request.getMethod() + ":" + request.getRequestURI() + ":" + clientKey;
+        String fingerprint = fingerprint(request);
+        Lookup lookup = idempotencyStoreService.claim(key, fingerprint);
+
+        switch (lookup.outcome()) {
+            case CLAIMED -> {
+                request.setAttribute(KEY_ATTRIBUTE, key);
+                request.setAttribute(FINGERPRINT_ATTRIBUTE, fingerprint);
+                return true;
+            }
+            case IN_FLIGHT -> throw new BusinessRuleException(
+                    "A request with this " + HEADER + " is still being processed.");
+            case MISMATCH -> throw new IdempotencyKeyReusedException(
+                    HEADER + " was already used for a different request.");
+            default -> {
+                replay(response, lookup.response());
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+
+        String key = (String) request.getAttribute(KEY_ATTRIBUTE);
+        if (key == null) {
+            return;
+        }
+        String fingerprint = (String) request.getAttribute(FINGERPRINT_ATTRIBUTE);
+        request.removeAttribute(KEY_ATTRIBUTE);
+        request.removeAttribute(FINGERPRINT_ATTRIBUTE);
+
+        ContentCachingResponseWrapper captured =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        int status = response.getStatus();
+
+        if (ex == null && captured != null
+                && status >= 200 && status < 300
+                && captured.getContentSize() <= MAX_STORED_BODY_BYTES) {
+            idempotencyStoreService.complete(key, fingerprint,
+                    new StoredResponse(status, response.getContentType(), captured.getContentAsByteArray()));
+        } else {
+            idempotencyStoreService.release(key, fingerprint);
+        }
+    }
+
+    // SHA-256 over the query string and the body. a multipart body is taken
+    // part by part (name, filename, content) from the parts the container
+    // already parsed; any other body comes from CachedBodyRequest.
+    private static String fingerprint(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest = sha256();
+        String query = request.getQueryString();
+        digest.update((query != null ? query : "").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+            for (Part part : request.getParts()) {
+                digest.update((part.getName() + "\0" + part.getSubmittedFileName() + "\0")
+                        .getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = part.getInputStream()) {
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, n);
+                    }
+                }
+                digest.update((byte) 0);
+            }
+        } else {
+            CachedBodyRequest cached = WebUtils.getNativeRequest(request, CachedBodyRequest.class);
+            if (cached != null) {
+                digest.update(cached.getBody());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        response.getOutputStream().write(stored.body());
+    }
+}
@@ -2,6 +2,7 @@ package io.github.balasis.taskmanager.context.web.interceptor;
 
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.RateLimitService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,8 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 // delegates to RateLimitService (Bucket4j dual-bucket) which throws 429
 // if either bucket is exhausted. runs at interceptor order 2.
+// async re-dispatches (DeferredResult long-polls, streamed downloads) run the
+// interceptor chain a second time for the same request — only the first is charged.
 @Component
 @RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
@@ -22,6 +25,10 @@ public class RateLimitInterceptor implements HandlerInterceptor {
                              HttpServletResponse response,
                              Object handler) {
 
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
         Long userId = null;
         try {
             userId = effectiveCurrentUser.getUserId();
@@ -0,0 +1,23 @@
+package io.github.balasis.taskmanager.context.web.resource.task.inbound;
+
+import io.github.balasis.taskmanager.context.web.resource.BaseInboundResource;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// body of POST /groups/{groupId}/tasks/bulk. how many fit is decided by the
+// service against the group's remaining task allowance.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkInboundResource extends BaseInboundResource {
+
+    @NotEmpty(message = "tasks must not be empty")
+    private List<@Valid TaskInboundResource> tasks;
+}
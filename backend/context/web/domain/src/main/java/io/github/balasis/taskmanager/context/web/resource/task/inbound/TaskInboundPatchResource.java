@@ -33,4 +33,8 @@ public class TaskInboundPatchResource extends BaseInboundResource {
 
     @jakarta.validation.constraints.Min(value = 1, message = "maxFileSizeBytes must be at least 1")
     private Long maxFileSizeBytes;
+
+    // the task version the edit was made on (TaskOutboundResource.version).
+    // optional: without it the edit overwrites whatever is there.
+    private Long expectedVersion;
 }
@@ -0,0 +1,19 @@
+package io.github.balasis.taskmanager.context.web.resource.task.outbound;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskField;
+import lombok.*;
+
+import java.util.Set;
+
+// 409 body of a versioned task edit: which fields collided and the task as it
+// is now, so the client can merge without refetching
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskConflictOutboundResource {
+    private String message;
+    private Set<TaskField> conflictingFields;
+    private TaskOutboundResource current;
+}
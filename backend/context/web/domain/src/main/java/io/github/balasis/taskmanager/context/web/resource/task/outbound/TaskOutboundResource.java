@@ -28,6 +28,10 @@ public class TaskOutboundResource extends BaseOutboundResource {
     private String reviewComment;
     private UserOutboundResource lastEditBy;
     private Instant lastEditDate;
+    // echoed back as sinceSeq on the task has-changed poll
+    private Long changeSeq;
+    // sent back as expectedVersion when editing the task
+    private Long version;
 
     private Integer effectiveMaxCreatorFiles;
     private Integer effectiveMaxAssigneeFiles;
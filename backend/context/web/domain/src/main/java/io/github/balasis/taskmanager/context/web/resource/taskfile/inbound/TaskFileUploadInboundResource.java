@@ -0,0 +1,32 @@
+package io.github.balasis.taskmanager.context.web.resource.taskfile.inbound;
+
+import io.github.balasis.taskmanager.context.web.resource.BaseInboundResource;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// direct upload, both steps. blobName is what the prepare step returned and
+// is only read on finalize; contentType is the type the client PUT the blob
+// with (x-ms-blob-content-type).
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskFileUploadInboundResource extends BaseInboundResource {
+    @NotBlank(message = "File name cannot be blank")
+    @Size(max = 255, message = "File name must be at most 255 characters")
+    private String name;
+
+    @Positive(message = "File cannot be empty")
+    private long size;
+
+    @Size(max = 255, message = "Content type must be at most 255 characters")
+    private String contentType;
+
+    @Size(max = 500, message = "Blob name must be at most 500 characters")
+    private String blobName;
+}
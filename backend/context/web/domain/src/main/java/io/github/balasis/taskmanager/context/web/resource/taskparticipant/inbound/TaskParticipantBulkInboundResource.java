@@ -0,0 +1,23 @@
+package io.github.balasis.taskmanager.context.web.resource.taskparticipant.inbound;
+
+import io.github.balasis.taskmanager.context.web.resource.BaseInboundResource;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+// body of POST /groups/{groupId}/tasks/participants — a participant diff that
+// may span several tasks of the group. capped because the task and user ids
+// end up in IN lists, and SQL Server stops at ~2100 parameters per statement.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskParticipantBulkInboundResource extends BaseInboundResource {
+    @NotEmpty(message = "changes must not be empty")
+    @Size(max = 500, message = "at most 500 changes per request")
+    private List<@Valid TaskParticipantChangeInboundResource> changes;
+}
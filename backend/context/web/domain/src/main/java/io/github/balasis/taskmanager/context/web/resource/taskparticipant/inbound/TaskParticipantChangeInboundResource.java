@@ -0,0 +1,26 @@
+package io.github.balasis.taskmanager.context.web.resource.taskparticipant.inbound;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantChangeType;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+import io.github.balasis.taskmanager.context.web.resource.BaseInboundResource;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskParticipantChangeInboundResource extends BaseInboundResource {
+    @NotNull
+    private Long taskId;
+
+    @NotNull
+    private Long userId;
+
+    @NotNull
+    private TaskParticipantRole taskParticipantRole;
+
+    @NotNull
+    private TaskParticipantChangeType type;
+}
@@ -0,0 +1,89 @@
+package io.github.balasis.taskmanager.context.web.stream;
+
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.GroupChangeEvent;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+// per-instance registry of parked has-changed long-polls (?wait=N), keyed by groupId.
+//
+// a parked request is a DeferredResult: the Tomcat worker goes back to the pool
+// as soon as the controller returns, and no DB connection is held (open-in-view
+// is off, the membership/version check has already committed).
+//
+// waiters are woken by the group-change broadcast, which is published from the
+// write path after commit and delivered to every replica — so a write served by
+// another instance still wakes the requests parked here. a wake answers 409
+// without re-reading the versions; worst case is one extra refetch when the
+// client had already seen that change. timeouts answer 204, same as a plain poll.
+@Component
+public class ChangeWaitRegistry {
+
+    // stays well below the async request timeout in WebConfig and typical proxy idle limits
+    public static final int MAX_WAIT_SECONDS = 30;
+
+    private record Waiter(Predicate<GroupChangeEvent> matches, DeferredResult<ResponseEntity<Void>> result) {}
+
+    private final Map<Long, Set<Waiter>> byGroup = new ConcurrentHashMap<>();
+
+    public ChangeWaitRegistry(GroupChangeBroadcastService groupChangeBroadcastService) {
+        groupChangeBroadcastService.subscribe(this::onEvent);
+    }
+
+    // the waiter is registered BEFORE changedNow runs, so a change committed
+    // between the check and the park can't slip through unnoticed.
+    // changedNow also does the authorization — if it throws, nothing stays parked.
+    public DeferredResult<ResponseEntity<Void>> await(Long groupId, int waitSeconds,
+                                                      Predicate<GroupChangeEvent> matches,
+                                                      BooleanSupplier changedNow) {
+        long timeoutMs = Math.min(Math.max(waitSeconds, 1), MAX_WAIT_SECONDS) * 1000L;
+        DeferredResult<ResponseEntity<Void>> result =
+                new DeferredResult<>(timeoutMs, ResponseEntity.noContent().build());
+        Waiter waiter = new Waiter(matches, result);
+
+        byGroup.compute(groupId, (k, set) -> {
+            Set<Waiter> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(waiter);
+            return target;
+        });
+        result.onCompletion(() -> remove(groupId, waiter));
+
+        boolean changed;
+        try {
+            changed = changedNow.getAsBoolean();
+        } catch (RuntimeException e) {
+            remove(groupId, waiter);
+            throw e;
+        }
+        if (changed) {
+            result.setResult(ResponseEntity.status(409).build());
+        }
+        return result;
+    }
+
+    // runs on the Redis I/O thread — setResult only schedules the async
+    // dispatch, so it's cheap enough to do inline
+    private void onEvent(GroupChangeEvent event) {
+        Set<Waiter> waiters = byGroup.get(event.groupId());
+        if (waiters == null) return;
+        for (Waiter waiter : waiters) {
+            if (waiter.matches().test(event)) {
+                waiter.result().setResult(ResponseEntity.status(409).build());
+            }
+        }
+    }
+
+    private void remove(Long groupId, Waiter waiter) {
+        byGroup.computeIfPresent(groupId, (k, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
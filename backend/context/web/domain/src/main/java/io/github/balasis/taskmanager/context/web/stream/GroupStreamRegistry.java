@@ -0,0 +1,156 @@
+package io.github.balasis.taskmanager.context.web.stream;
+
+import io.github.balasis.taskmanager.context.base.component.BaseComponent;
+import io.github.balasis.taskmanager.context.base.exception.business.LimitExceededException;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.ChangeType;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.GroupChangeEvent;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.PresenceService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// per-replica registry of open GET /groups/{id}/stream connections.
+//
+// every replica subscribes to the group-change broadcast and pushes each event
+// to the streams it holds for that group. the events only say what changed
+// (group, task X, comments of task X, members, presence) — the client refetches
+// through the regular endpoints, so authorization stays where it already is.
+//
+// SseEmitter is async: an open stream holds a socket, not a Tomcat worker or
+// a DB connection. sends happen on a virtual thread per event because the
+// broadcast listener runs on the Redis I/O thread, and a slow client must not
+// stall message delivery for everyone else.
+//
+// streams time out after 5 min, below the 10 min JWT lifetime, so a revoked
+// session or removed member can't keep listening indefinitely. EventSource
+// reconnects on its own and the reconnect goes through the membership check.
+@Component
+public class GroupStreamRegistry extends BaseComponent {
+
+    private static final long STREAM_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    // a few tabs per user is normal, dozens is a leak or abuse
+    private static final int MAX_STREAMS_PER_USER = 5;
+
+    private record Subscriber(Long groupId, Long userId, SseEmitter emitter) {}
+
+    private final Map<Long, Set<Subscriber>> byGroup = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> perUser = new ConcurrentHashMap<>();
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final GroupChangeBroadcastService groupChangeBroadcastService;
+    private final PresenceService presenceService;
+
+    public GroupStreamRegistry(GroupChangeBroadcastService groupChangeBroadcastService,
+                               PresenceService presenceService) {
+        this.groupChangeBroadcastService = groupChangeBroadcastService;
+        this.presenceService = presenceService;
+        groupChangeBroadcastService.subscribe(this::onEvent);
+    }
+
+    // caller must have checked group membership already
+    public SseEmitter open(Long groupId, Long userId) {
+        AtomicInteger count = perUser.computeIfAbsent(userId, k -> new AtomicInteger(0));
+        if (count.incrementAndGet() > MAX_STREAMS_PER_USER) {
+            count.decrementAndGet();
+            throw new LimitExceededException(
+                    "Too many open live-update connections — close some tabs and try again");
+        }
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(groupId, userId, emitter);
+        // add inside compute so it can't race remove() dropping an emptied set
+        byGroup.compute(groupId, (k, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // first event flushes the headers so the browser's EventSource fires onopen
+        send(subscriber, SseEmitter.event().name("ready").data(""));
+        presenceHeartbeat(groupId, userId);
+        return emitter;
+    }
+
+    // presence heartbeat that also announces arrivals to everyone watching the group
+    public void presenceHeartbeat(Long groupId, Long userId) {
+        try {
+            if (presenceService.heartbeat(groupId, userId)) {
+                groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.PRESENCE, null));
+            }
+        } catch (Exception ignored) { }
+    }
+
+    // keeps idle connections alive through proxies (Azure front ends drop
+    // silent connections after ~4 min) and keeps streaming users "present"
+    // since they no longer hit has-changed, which is where heartbeats used to come from
+    @Scheduled(fixedDelay = 30_000)
+    public void keepAlive() {
+        Set<String> heartbeated = new HashSet<>();
+        for (Set<Subscriber> subscribers : byGroup.values()) {
+            for (Subscriber s : subscribers) {
+                send(s, SseEmitter.event().comment("ping"));
+                if (heartbeated.add(s.groupId() + ":" + s.userId())) {
+                    presenceHeartbeat(s.groupId(), s.userId());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byGroup.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter().complete()));
+        fanOut.shutdown();
+    }
+
+    private void onEvent(GroupChangeEvent event) {
+        Set<Subscriber> subscribers = byGroup.get(event.groupId());
+        if (subscribers == null || subscribers.isEmpty()) return;
+
+        fanOut.execute(() -> {
+            String data = event.taskId() != null ? "{\"taskId\":" + event.taskId() + "}" : "{}";
+            for (Subscriber s : subscribers) {
+                send(s, SseEmitter.event().name(event.type().name().toLowerCase()).data(data));
+            }
+        });
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            // client went away — the container completes the emitter on its own,
+            // we just stop sending to it
+            remove(subscriber);
+        }
+    }
+
+    // called from several callbacks for the same stream (error, then completion),
+    // so only the call that actually removed it releases the per-user slot
+    private void remove(Subscriber subscriber) {
+        boolean[] removed = {false};
+        byGroup.computeIfPresent(subscriber.groupId(), (k, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (!removed[0]) return;
+
+        perUser.computeIfPresent(subscriber.userId(), (k, count) ->
+                count.decrementAndGet() <= 0 ? null : count);
+    }
+}
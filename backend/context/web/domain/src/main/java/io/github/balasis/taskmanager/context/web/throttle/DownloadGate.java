@@ -1,37 +1,124 @@
 package io.github.balasis.taskmanager.context.web.throttle;
 
 import io.github.balasis.taskmanager.context.base.exception.business.LimitExceededException;
+import io.github.balasis.taskmanager.context.base.exception.ratelimit.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
-// Per-user concurrent-download limiter using ConcurrentHashMap + AtomicInteger.
-// Stops a single user from saturating the async thread pool.
+// Two limits on proxied downloads:
+//  - per user, MAX_CONCURRENT_PER_USER in flight. over that is rejected right
+//    away — one user shouldn't queue up the instance for everyone else.
+//  - globally, a fair semaphore of app.download-max-streams. this is the
+//    real capacity control: each open stream holds a blob read buffer and a
+//    socket, so the count is sized for memory and bandwidth, not threads.
+//    when it's full a request waits up to app.download-queue-timeout-ms for
+//    a stream to finish before getting a 503 (which the frontend retries).
+//    the controller acquires before calling the service, so the wait never
+//    holds a transaction or a pooled connection.
 @Component
 public class DownloadGate {
 
     private static final int MAX_CONCURRENT_PER_USER = 3;
 
     private final ConcurrentHashMap<Long, AtomicInteger> active = new ConcurrentHashMap<>();
+    private final Semaphore streams;
+    private final long queueTimeoutMs;
 
-    // Reserves a download slot. Throws if the user already has MAX_CONCURRENT_PER_USER in flight.
-    public void acquire(Long userId) {
+    public DownloadGate(@Value("${app.download-max-streams:15}") int maxStreams,
+                        @Value("${app.download-queue-timeout-ms:3000}") long queueTimeoutMs) {
+        this.streams = new Semaphore(maxStreams, true);
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    // Reserves a download slot. Throws if the user already has MAX_CONCURRENT_PER_USER
+    // in flight, or if no global stream frees up within the queue timeout.
+    public Slot acquire(Long userId) {
         AtomicInteger count = active.computeIfAbsent(userId, k -> new AtomicInteger(0));
         int now = count.incrementAndGet();
         if (now > MAX_CONCURRENT_PER_USER) {
-            count.decrementAndGet(); // undo — they're over the limit
+            releaseUser(userId); // undo — they're over the limit
             throw new LimitExceededException(
                     "Too many concurrent downloads — please wait for one to finish before starting another");
         }
+
+        boolean acquired;
+        try {
+            acquired = streams.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            releaseUser(userId);
+            throw new ServiceOverloadedException("Downloads are busy right now, please try again in a moment");
+        }
+        return new Slot(userId);
     }
 
-    // Releases a download slot. Called in the finally block of StreamingResponseBody
-    // so it fires after the transfer completes (or errors) on the async thread.
-    public void release(Long userId) {
+    // Ties the slot to the async request that streams the body. The
+    // StreamingResponseBody's finally only runs if the body gets to run:
+    // an async timeout, an error, or the executor rejecting the body would
+    // otherwise keep the slot forever. afterCompletion fires whichever way
+    // the request ends, the others free the slot as soon as it's known.
+    public void releaseWith(HttpServletRequest request, Slot slot) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(slot, new CallableProcessingInterceptor() {
+            @Override
+            public <T> Object handleTimeout(NativeWebRequest webRequest, Callable<T> task) {
+                slot.release();
+                return RESULT_NONE;
+            }
+
+            @Override
+            public <T> Object handleError(NativeWebRequest webRequest, Callable<T> task, Throwable t) {
+                slot.release();
+                return RESULT_NONE;
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest webRequest, Callable<T> task, Object concurrentResult) {
+                slot.release(); // the body returned or threw
+            }
+
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                slot.release();
+            }
+        });
+    }
+
+    private void releaseUser(Long userId) {
         // atomically decrement; remove the entry entirely when it hits 0
         // so the map doesn't grow unbounded over time
         active.computeIfPresent(userId, (key, count) ->
                 count.decrementAndGet() <= 0 ? null : count);
     }
+
+    // One reserved download. release() may be called from every path that
+    // can end the download; only the first call gives the slot back.
+    public final class Slot {
+
+        private final Long userId;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Slot(Long userId) {
+            this.userId = userId;
+        }
+
+        public void release() {
+            if (!released.compareAndSet(false, true)) return;
+            streams.release();
+            releaseUser(userId);
+        }
+    }
 }
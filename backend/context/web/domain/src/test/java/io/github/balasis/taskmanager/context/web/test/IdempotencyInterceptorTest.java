@@ -0,0 +1,213 @@
+package io.github.balasis.taskmanager.context.web.test;
+
+import io.github.balasis.taskmanager.context.base.exception.validation.IdempotencyKeyReusedException;
+import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFieldValueException;
+import io.github.balasis.taskmanager.context.web.filter.CachedBodyRequest;
+import io.github.balasis.taskmanager.context.web.interceptor.IdempotencyInterceptor;
+import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.Lookup;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.Outcome;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.StoredResponse;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// the interceptor scopes the client's key to user + method + path and claims
+// it with a fingerprint of the query and body, so a reused key only replays
+// for the request it was first used on
+class IdempotencyInterceptorTest {
+
+    private static final String PATH = "/api/groups/1/task/2/comments";
+    private static final String CLIENT_KEY = "abcdefgh12";
+
+    private IdempotencyStoreService store;
+    private IdempotencyInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(IdempotencyStoreService.class);
+        EffectiveCurrentUser effectiveCurrentUser = mock(EffectiveCurrentUser.class);
+        when(effectiveCurrentUser.getUserId()).thenReturn(5L);
+        when(store.claim(anyString(), anyString())).thenReturn(Lookup.CLAIMED);
+        interceptor = new IdempotencyInterceptor(store, effectiveCurrentUser);
+    }
+
+    // what IdempotencyCaptureFilter hands on for a JSON write with the header
+    private static HttpServletRequest jsonPost(String query, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.addHeader(IdempotencyInterceptor.HEADER, CLIENT_KEY);
+        request.setQueryString(query);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return new CachedBodyRequest(request);
+    }
+
+    private static MockHttpServletRequest multipartPost(byte[] file) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/groups/1/tasks");
+        request.addHeader(IdempotencyInterceptor.HEADER, CLIENT_KEY);
+        request.setContentType("multipart/form-data; boundary=x");
+        request.addPart(new MockPart("data", "{\"title\":\"t\"}".getBytes(StandardCharsets.UTF_8)));
+        request.addPart(new MockPart("files", "a.txt", file));
+        return request;
+    }
+
+    private String claimedFingerprint(HttpServletRequest request) throws Exception {
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        verify(store, atLeastOnce()).claim(anyString(), fingerprint.capture());
+        return fingerprint.getValue();
+    }
+
+    @Test
+    void requestWithoutTheHeaderIsNotClaimed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void keyIsScopedToUserMethodAndPath() throws Exception {
+        interceptor.preHandle(jsonPost(null, "{\"comment\":\"hi\"}"), new MockHttpServletResponse(), null);
+
+        verify(store).claim(eq("5:POST:" + PATH + ":" + CLIENT_KEY), anyString());
+    }
+
+    @Test
+    void sameQueryAndBodyGiveTheSameFingerprint() throws Exception {
+        String first = claimedFingerprint(jsonPost("a=1", "{\"comment\":\"hi\"}"));
+        String second = claimedFingerprint(jsonPost("a=1", "{\"comment\":\"hi\"}"));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void anotherBodyGivesAnotherFingerprint() throws Exception {
+        String first = claimedFingerprint(jsonPost(null, "{\"comment\":\"hi\"}"));
+        String second = claimedFingerprint(jsonPost(null, "{\"comment\":\"bye\"}"));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void anotherQueryGivesAnotherFingerprint() throws Exception {
+        String first = claimedFingerprint(jsonPost("expectedVersion=3", "{}"));
+        String second = claimedFingerprint(jsonPost("expectedVersion=4", "{}"));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void anotherUploadedFileGivesAnotherFingerprint() throws Exception {
+        String first = claimedFingerprint(multipartPost(new byte[]{1, 2, 3}));
+        String second = claimedFingerprint(multipartPost(new byte[]{1, 2, 4}));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        when(store.claim(anyString(), anyString())).thenReturn(Lookup.MISMATCH);
+
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                interceptor.preHandle(jsonPost(null, "{}"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void completedRequestIsReplayedWithoutRunningTheHandler() throws Exception {
+        byte[] body = "{\"id\":7}".getBytes(StandardCharsets.UTF_8);
+        when(store.claim(anyString(), anyString()))
+                .thenReturn(new Lookup(Outcome.COMPLETED, new StoredResponse(201, "application/json", body)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(jsonPost(null, "{}"), response, null));
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader("Idempotent-Replayed"));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void successfulResponseIsStoredUnderTheClaimedFingerprint() throws Exception {
+        HttpServletRequest request = jsonPost(null, "{\"comment\":\"hi\"}");
+        String fingerprint = claimedFingerprint(request);
+        ContentCachingResponseWrapper response = new ContentCachingResponseWrapper(new MockHttpServletResponse());
+        response.setStatus(201);
+        response.getOutputStream().write("{\"id\":7}".getBytes(StandardCharsets.UTF_8));
+
+        interceptor.afterCompletion(request, response, null, null);
+
+        verify(store).complete(eq("5:POST:" + PATH + ":" + CLIENT_KEY), eq(fingerprint), any(StoredResponse.class));
+        verify(store, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void failedResponseReleasesTheClaim() throws Exception {
+        HttpServletRequest request = jsonPost(null, "{}");
+        String fingerprint = claimedFingerprint(request);
+        ContentCachingResponseWrapper response = new ContentCachingResponseWrapper(new MockHttpServletResponse());
+        response.setStatus(409);
+
+        interceptor.afterCompletion(request, response, null, null);
+
+        verify(store).release("5:POST:" + PATH + ":" + CLIENT_KEY, fingerprint);
+        verify(store, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    void bodyAboveTheCapIsRefusedWithoutAClaim() throws Exception {
+        String body = "x".repeat(CachedBodyRequest.MAX_BODY_BYTES + 1);
+
+        assertThrows(InvalidFieldValueException.class, () ->
+                interceptor.preHandle(jsonPost(null, body), new MockHttpServletResponse(), null));
+        verify(store, never()).claim(anyString(), anyString());
+    }
+
+    @Test
+    void cachedBodyCanStillBeReadThroughAReadListener() throws Exception {
+        HttpServletRequest request = jsonPost(null, "{\"comment\":\"hi\"}");
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[4];
+                int n;
+                while (in.isReady() && (n = in.read(buffer)) >= 0) read.write(buffer, 0, n);
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        assertTrue(allRead.get());
+        assertEquals("{\"comment\":\"hi\"}", read.toString(StandardCharsets.UTF_8));
+    }
+}
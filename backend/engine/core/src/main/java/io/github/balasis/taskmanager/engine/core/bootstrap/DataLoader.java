@@ -403,7 +403,7 @@ public class DataLoader extends BaseComponent {
             groupService.addTaskComment(groupId, toBeReviewed.getId(), "Seed comment: ready for review soon");
             withUser(member2, () -> {
                 groupService.addTaskComment(groupId, toBeReviewed.getId(), "Seed assignee comment: marking for review");
-                groupService.markTaskToBeReviewed(groupId, toBeReviewed.getId());
+                groupService.markTaskToBeReviewed(groupId, toBeReviewed.getId(), null);
             });
 
             Task done = groupService.createTask(
@@ -421,14 +421,14 @@ public class DataLoader extends BaseComponent {
             );
             withUser(member1, () -> {
                 groupService.addTaskComment(groupId, done.getId(), "Seed assignee comment: implemented fix");
-                groupService.markTaskToBeReviewed(groupId, done.getId());
+                groupService.markTaskToBeReviewed(groupId, done.getId(), null);
             });
             withUser(reviewer, () -> {
                 groupService.addTaskComment(groupId, done.getId(), "Seed reviewer comment: reviewing now");
                 groupService.reviewTask(groupId, done.getId(), Task.builder()
                         .reviewersDecision(ReviewersDecision.APPROVE)
                         .reviewComment("Seed review: looks good, approved")
-                        .build());
+                        .build(), null);
             });
         });
     }
@@ -95,7 +95,7 @@ public class QueryCacheWarmUp extends BaseComponent {
                     return;
                 }
 
-                logger.info("SQL plan cache warm-up: starting (19 repositories, ~112 queries)");
+                logger.info("SQL plan cache warm-up: starting (19 repositories, ~148 queries)");
                 long start = System.nanoTime();
 
                 warmUpBootstrapLockRepository();
@@ -164,6 +164,7 @@ public class QueryCacheWarmUp extends BaseComponent {
         logger.info("  Warming: DeletedTaskRepository");
         try {
             deletedTaskRepository.findDeletedTaskIdsByGroupIdAndDeletedAtAfter(DUMMY, Instant.EPOCH);
+            deletedTaskRepository.findDeletedTaskIdsByGroupIdAndSeqAfter(DUMMY, 0L);
             deletedTaskRepository.deleteAllByGroup_Id(DUMMY);
         } catch (Exception e) { logger.debug("  Incomplete: DeletedTaskRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  DeletedTaskRepository");
@@ -193,6 +194,8 @@ public class QueryCacheWarmUp extends BaseComponent {
             fileReviewStatusRepository.deleteAllByTaskAssigneeFileGroupId(DUMMY);
             fileReviewStatusRepository.deleteAllByTaskFileTaskId(DUMMY);
             fileReviewStatusRepository.deleteAllByTaskAssigneeFileTaskId(DUMMY);
+            fileReviewStatusRepository.purgeByTaskFileTaskIds(List.of(DUMMY));
+            fileReviewStatusRepository.purgeByTaskAssigneeFileTaskIds(List.of(DUMMY));
         } catch (Exception e) { logger.debug("  Incomplete: FileReviewStatusRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  FileReviewStatusRepository");
     }
@@ -202,6 +205,8 @@ public class QueryCacheWarmUp extends BaseComponent {
         try {
             groupEventRepository.findAllByGroup_Id(DUMMY, PAGE);
             groupEventRepository.deleteAllByGroup_Id(DUMMY);
+            groupEventRepository.findIdsByGroupId(DUMMY, PAGE);
+            groupEventRepository.purgeByIds(List.of(DUMMY));
         } catch (Exception e) { logger.debug("  Incomplete: GroupEventRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  GroupEventRepository");
     }
@@ -237,12 +242,16 @@ public class QueryCacheWarmUp extends BaseComponent {
             groupMembershipRepository.findByUserIdAndGroupId(DUMMY, DUMMY);
             groupMembershipRepository.findByUserIdWithGroup(DUMMY);
             groupMembershipRepository.existsByGroupIdAndUserId(DUMMY, DUMMY);
+            groupMembershipRepository.findChangeStampsForMember(DUMMY, List.of(DUMMY));
+            groupMembershipRepository.findSnapshotStamp(DUMMY, DUMMY);
             groupMembershipRepository.findByGroupIdAndUserId(DUMMY, DUMMY);
+            groupMembershipRepository.findByGroupIdAndUserIdIn(DUMMY, List.of(DUMMY));
             groupMembershipRepository.deleteAllByGroup_Id(DUMMY);
             groupMembershipRepository.findByGroup_Id(DUMMY, PAGE);
             groupMembershipRepository.findByIdWithUser(DUMMY);
-            groupMembershipRepository.searchByGroupIdAndUser(DUMMY, WARMUP, PAGE);
             groupMembershipRepository.deleteByGroupIdAndUserId(DUMMY, DUMMY);
+            groupMembershipRepository.markGroupEventsSeen(DUMMY, DUMMY, Instant.EPOCH);
+            groupMembershipRepository.findGroupIdsByUserId(DUMMY);
             groupMembershipRepository.findByGroup_IdAndRole(DUMMY, Role.GUEST);
             groupMembershipRepository.findByUser_IdAndGroup_Id(DUMMY, DUMMY);
             groupMembershipRepository.countByUser_Id(DUMMY);
@@ -262,7 +271,16 @@ public class QueryCacheWarmUp extends BaseComponent {
             groupRepository.findByIdWithOwner(DUMMY);
             groupRepository.adminSearchGroups(WARMUP, PAGE);
             groupRepository.adminFindAllGroups(PAGE);
+            groupRepository.findIdsByOwnerId(DUMMY);
             groupRepository.touchLastChangeByOwnerId(DUMMY, Instant.now());
+            groupRepository.advanceLastChange(DUMMY, Instant.EPOCH);
+            groupRepository.advanceLastChangeNoJoins(DUMMY, Instant.EPOCH);
+            groupRepository.bumpChangeSeq(DUMMY);
+            groupRepository.findChangeSeq(DUMMY);
+            groupRepository.findSeqs(DUMMY);
+            groupRepository.findIdsPendingDeletion();
+            groupRepository.addDeletionProgress(DUMMY, 0);
+            groupRepository.purgeById(DUMMY);
         } catch (Exception e) { logger.debug("  Incomplete: GroupRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  GroupRepository");
     }
@@ -309,7 +327,9 @@ public class QueryCacheWarmUp extends BaseComponent {
         logger.info("  Warming: TaskAssigneeFileRepository");
         try {
             taskAssigneeFileRepository.findAllByGroupId(DUMMY);
+            taskAssigneeFileRepository.existsByFileUrl(WARMUP);
             taskAssigneeFileRepository.findAllByGroupIdAndParticipant(DUMMY, DUMMY);
+            taskAssigneeFileRepository.purgeByTaskIds(List.of(DUMMY));
         } catch (Exception e) { logger.debug("  Incomplete: TaskAssigneeFileRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  TaskAssigneeFileRepository");
     }
@@ -323,9 +343,10 @@ public class QueryCacheWarmUp extends BaseComponent {
             taskCommentRepository.findByIdWithTaskAndCreator(DUMMY);
             taskCommentRepository.detachCreatorFromGroupComments(DUMMY, DUMMY, WARMUP);
             taskCommentRepository.detachCreatorFromAllComments(DUMMY, WARMUP);
-            taskCommentRepository.adminFilterComments(DUMMY, DUMMY, DUMMY, PAGE);
-            taskCommentRepository.deleteByTaskIdAndCreatedAtBefore(DUMMY, Instant.EPOCH);
+            taskCommentRepository.findIdsByTaskIdCreatedBefore(DUMMY, Instant.EPOCH, PAGE);
+            taskCommentRepository.purgeByIds(List.of(DUMMY));
             taskCommentRepository.countAndSumCharsByTaskId(DUMMY);
+            taskCommentRepository.purgeByTaskIds(List.of(DUMMY));
         } catch (Exception e) { logger.debug("  Incomplete: TaskCommentRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  TaskCommentRepository");
     }
@@ -334,7 +355,9 @@ public class QueryCacheWarmUp extends BaseComponent {
         logger.info("  Warming: TaskFileRepository");
         try {
             taskFileRepository.findAllByGroupId(DUMMY);
+            taskFileRepository.existsByFileUrl(WARMUP);
             taskFileRepository.findAllByGroupIdAndParticipant(DUMMY, DUMMY);
+            taskFileRepository.purgeByTaskIds(List.of(DUMMY));
         } catch (Exception e) { logger.debug("  Incomplete: TaskFileRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  TaskFileRepository");
     }
@@ -345,6 +368,8 @@ public class QueryCacheWarmUp extends BaseComponent {
             taskParticipantRepository.deleteByUserIdAndGroupId(DUMMY, DUMMY);
             taskParticipantRepository.deleteReviewersByUserIdAndGroupId(DUMMY, DUMMY);
             taskParticipantRepository.findAllByTask_idAndUser_id(DUMMY, DUMMY);
+            taskParticipantRepository.findIndexRows(DUMMY, -1L);
+            taskParticipantRepository.purgeByTaskIds(List.of(DUMMY));
         } catch (Exception e) { logger.debug("  Incomplete: TaskParticipantRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  TaskParticipantRepository");
     }
@@ -355,16 +380,28 @@ public class QueryCacheWarmUp extends BaseComponent {
             taskRepository.existsByTitleAndGroup_Id(WARMUP, DUMMY);
             taskRepository.existsByTitleAndGroup_IdAndIdNot(WARMUP, DUMMY, DUMMY);
             taskRepository.countByGroup_Id(DUMMY);
+            taskRepository.findExistingTitles(DUMMY, List.of(WARMUP));
             taskRepository.deleteAllByGroup_Id(DUMMY);
+            taskRepository.findIdsByGroupId(DUMMY, PAGE);
+            taskRepository.purgeByIds(List.of(DUMMY));
             taskRepository.findByIdWithFullFetchParticipantsAndFiles(DUMMY);
             taskRepository.findByIdWithParticipantsAndFiles(DUMMY);
             taskRepository.findByIdWithTaskParticipants(DUMMY);
+            taskRepository.findAllWithTaskParticipants(DUMMY, List.of(DUMMY));
             taskRepository.findByIdWithFiles(DUMMY);
             taskRepository.findByIdWithFilesAndGroup(DUMMY);
-            taskRepository.searchBy(DUMMY, DUMMY, null, null, null);
-            taskRepository.searchTasksForPreviewWithFilters(DUMMY, null, null, null, null, null);
-            taskRepository.findChangedSince(DUMMY, Instant.EPOCH);
-            taskRepository.filterTaskIds(DUMMY, null, null, null, null, null, null, null, null, null);
+            taskRepository.findPreviewRows(DUMMY, DUMMY);
+            taskRepository.findPreviewRowsByIds(DUMMY, DUMMY, List.of(DUMMY));
+            taskRepository.findPreviewRowsChangedSince(DUMMY, DUMMY, Instant.EPOCH);
+            taskRepository.findPreviewRowsChangedSinceSeq(DUMMY, DUMMY, 0L);
+            taskRepository.findChangeSeq(DUMMY, DUMMY);
+            taskRepository.findIndexRows(DUMMY, -1L);
+            taskRepository.claimNextVersion(DUMMY, 0L);
+            taskRepository.startCommentPurge(DUMMY, Instant.EPOCH);
+            taskRepository.findIdsPendingCommentPurge();
+            taskRepository.findCommentPurgeBefore(DUMMY);
+            taskRepository.addCommentPurgeProgress(DUMMY, 0);
+            taskRepository.finishCommentPurge(DUMMY, 0);
             taskRepository.nullifyReviewedByForUser(DUMMY);
             taskRepository.nullifyLastEditByForUser(DUMMY);
             taskRepository.adminSearchTasks(WARMUP, PAGE);
@@ -383,13 +420,16 @@ public class QueryCacheWarmUp extends BaseComponent {
             userRepository.addStorageUsage(DUMMY, 0L, Long.MAX_VALUE);
             userRepository.subtractStorageUsage(DUMMY, 0L);
             userRepository.addDownloadUsage(DUMMY, 0L, Long.MAX_VALUE);
+            userRepository.findUsedStorageBytes(DUMMY);
+            userRepository.findUsedDownloadBytesMonth(DUMMY);
+            userRepository.applyStorageDelta(DUMMY, 0L);
+            userRepository.applyDownloadDelta(DUMMY, 0L);
             userRepository.incrementEmailUsage(DUMMY, Integer.MAX_VALUE);
+            userRepository.chargeEmailUsage(DUMMY, 0, Integer.MAX_VALUE);
             userRepository.incrementImageScanUsage(DUMMY, Integer.MAX_VALUE);
             userRepository.decrementImageScanUsage(DUMMY);
             userRepository.incrementTaskAnalysisCredits(DUMMY, 0, Integer.MAX_VALUE);
             userRepository.decrementTaskAnalysisCredits(DUMMY, 0);
-            userRepository.searchUser(WARMUP, PAGE);
-            userRepository.searchUserForInvites(DUMMY, WARMUP, WARMUP, PAGE);
         } catch (Exception e) { logger.debug("  Incomplete: UserRepository — {}", e.getMessage()); }
         logger.info("  Warmed:  UserRepository");
     }
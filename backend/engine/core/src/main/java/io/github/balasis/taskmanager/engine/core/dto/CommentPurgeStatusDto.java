@@ -0,0 +1,7 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import java.time.Instant;
+
+// progress of a task's "delete comments before" purge. before is null once no
+// purge is running; deleted then still reports what the last one removed.
+public record CommentPurgeStatusDto(boolean running, Instant before, long deleted, long commentCount) {}
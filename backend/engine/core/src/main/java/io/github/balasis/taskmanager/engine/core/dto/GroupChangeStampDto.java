@@ -0,0 +1,7 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import java.time.Instant;
+
+// JPQL constructor projection: just the two timestamps hasGroupChanged compares,
+// without loading the Group entity. used by the batched dashboard poll.
+public record GroupChangeStampDto(Long groupId, Instant lastChangeInGroup, Instant lastDeleteTaskDate) {}
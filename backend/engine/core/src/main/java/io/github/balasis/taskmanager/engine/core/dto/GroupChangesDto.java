@@ -0,0 +1,9 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import java.util.Set;
+
+// answer to the batched dashboard poll (POST /groups/changes).
+// changedGroupIds: groups with a change after the client's lastSeen for them.
+// removedGroupIds: requested groups the caller is no longer a member of
+// (left, kicked, or the group was deleted) so the sidebar can drop them.
+public record GroupChangesDto(Set<Long> changedGroupIds, Set<Long> removedGroupIds, boolean hasNewInvitations) {}
@@ -19,11 +19,14 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@JsonPropertyOrder({"sn", "c", "mc", "n", "d", "an", "diu", "iu", "aen", "aaen", "ds", "lged", "op", "db", "udb", "sb", "usb", "mcf", "maf", "mfsb", "mt", "mm", "ddce", "ct", "dti"})
+@JsonPropertyOrder({"sn", "sq", "c", "mc", "n", "d", "an", "diu", "iu", "aen", "aaen", "ds", "lged", "op", "db", "udb", "sb", "usb", "mcf", "maf", "mfsb", "mt", "mm", "ddce", "ct", "dti"})
 public class GroupRefreshDto {
 
     @JsonProperty("sn")   private Instant serverNow;
 
+    // the group's change seq at read time — sent back as sinceSeq next poll
+    @JsonProperty("sq")   private long serverSeq;
+
     @JsonProperty("c")    private boolean changed;
 
     @JsonProperty("mc")   private boolean membersChanged;
@@ -0,0 +1,4 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+// JPQL constructor projection: the group's change seqs, read without loading the Group
+public record GroupSeqsDto(long changeSeq, long memberChangeSeq) {}
@@ -0,0 +1,18 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import io.github.balasis.taskmanager.context.base.enumeration.Role;
+import io.github.balasis.taskmanager.context.base.enumeration.SubscriptionPlan;
+
+import java.time.Instant;
+
+// JPQL constructor projection: every column the group snapshot / refresh
+// payload depends on that the group change seq doesn't already cover, minus
+// the owner's usage counters. digested into the ETag for GET /groups/{id}
+// without loading any entity.
+public record GroupSnapshotStampDto(
+        long changeSeq,
+        Instant lastGroupEventDate,
+        Role role,
+        SubscriptionPlan ownerPlan,
+        String ownerName,
+        Instant lastSeenComments) {}
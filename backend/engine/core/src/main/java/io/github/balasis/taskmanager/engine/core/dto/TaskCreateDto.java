@@ -0,0 +1,9 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import io.github.balasis.taskmanager.context.base.model.Task;
+
+import java.util.Set;
+
+// one entry of a bulk task create: the task shell plus the users to attach.
+// files aren't part of bulk create, they go through the per-task upload endpoints.
+public record TaskCreateDto(Task task, Set<Long> assignedIds, Set<Long> reviewerIds) {}
@@ -0,0 +1,20 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
+
+import java.time.Instant;
+
+// JPQL constructor projection: the filterable columns of one task, as loaded
+// into TaskFilterIndex. the file counts come from correlated subqueries.
+public record TaskIndexRow(
+        Long taskId,
+        TaskState taskState,
+        Integer priority,
+        Instant dueDate,
+        Long creatorFileCount,
+        Long assigneeFileCount) {
+
+    public boolean hasFiles() {
+        return creatorFileCount > 0 || assigneeFileCount > 0;
+    }
+}
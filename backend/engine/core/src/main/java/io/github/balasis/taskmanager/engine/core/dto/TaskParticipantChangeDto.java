@@ -0,0 +1,9 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantChangeType;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+
+// one line of a bulk participant diff. for CHANGE_ROLE, role is the role the
+// user ends up with.
+public record TaskParticipantChangeDto(Long taskId, Long userId, TaskParticipantRole role,
+                                       TaskParticipantChangeType type) {}
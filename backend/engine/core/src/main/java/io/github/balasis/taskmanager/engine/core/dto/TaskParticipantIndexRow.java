@@ -0,0 +1,6 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+
+// JPQL constructor projection: one participant link (task, user, role) for TaskFilterIndex
+public record TaskParticipantIndexRow(Long taskId, Long userId, TaskParticipantRole role) {}
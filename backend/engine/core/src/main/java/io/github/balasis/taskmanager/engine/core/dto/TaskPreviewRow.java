@@ -0,0 +1,24 @@
+package io.github.balasis.taskmanager.engine.core.dto;
+
+import io.github.balasis.taskmanager.context.base.enumeration.Role;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
+
+import java.time.Instant;
+
+// JPQL constructor projection behind every task card (TaskPreviewDto). the two
+// counts are the caller's own participant rows on the task (any role) and the
+// ones with unread comments; creatorRole is the creator's current role in the
+// group, null once they left. nothing here is a managed entity.
+public record TaskPreviewRow(
+        Long id,
+        String title,
+        TaskState taskState,
+        Instant createdAt,
+        Instant dueDate,
+        Long commentCount,
+        String creatorName,
+        Integer priority,
+        Long creatorId,
+        Long callerParticipations,
+        Long callerUnreadParticipations,
+        Role creatorRole) {}
@@ -24,5 +24,14 @@ public interface DeletedTaskRepository extends JpaRepository<DeletedTask, Long>
         Set<Long> findDeletedTaskIdsByGroupIdAndDeletedAtAfter(@Param("groupId") Long groupId,
                                                                                                                         @Param("since") Instant since);
 
+        @Query("""
+                SELECT dt.deletedTaskId
+                FROM DeletedTask dt
+                WHERE dt.group.id = :groupId
+                    AND dt.seq > :sinceSeq
+        """)
+        Set<Long> findDeletedTaskIdsByGroupIdAndSeqAfter(@Param("groupId") Long groupId,
+                                                         @Param("sinceSeq") long sinceSeq);
+
     void deleteAllByGroup_Id(Long groupId);
 }
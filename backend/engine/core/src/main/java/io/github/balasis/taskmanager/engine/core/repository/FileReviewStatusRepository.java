@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -54,4 +55,14 @@ public interface FileReviewStatusRepository extends JpaRepository<FileReviewStat
     @Query("DELETE FROM FileReviewStatus frs WHERE frs.taskAssigneeFile.id IN " +
            "(SELECT af.id FROM TaskAssigneeFile af WHERE af.task.id = :taskId)")
     void deleteAllByTaskAssigneeFileTaskId(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query("DELETE FROM FileReviewStatus frs WHERE frs.taskFile.id IN " +
+           "(SELECT tf.id FROM TaskFile tf WHERE tf.task.id IN :taskIds)")
+    void purgeByTaskFileTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM FileReviewStatus frs WHERE frs.taskAssigneeFile.id IN " +
+           "(SELECT af.id FROM TaskAssigneeFile af WHERE af.task.id IN :taskIds)")
+    void purgeByTaskAssigneeFileTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -6,6 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 // audit log for group-level events (member joined, role changed, etc.)
 // paginated because groups can accumulate a lot of events over time
@@ -15,4 +20,11 @@ public interface GroupEventRepository extends JpaRepository<GroupEvent,Long> {
 
     @Modifying
     void deleteAllByGroup_Id(Long groupId);
+
+    @Query("SELECT e.id FROM GroupEvent e WHERE e.group.id = :groupId")
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM GroupEvent e WHERE e.id IN :ids")
+    int purgeByIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,14 +2,19 @@ package io.github.balasis.taskmanager.engine.core.repository;
 
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
 import io.github.balasis.taskmanager.context.base.model.GroupMembership;
+import io.github.balasis.taskmanager.engine.core.dto.GroupChangeStampDto;
+import io.github.balasis.taskmanager.engine.core.dto.GroupSnapshotStampDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +22,7 @@ import java.util.Optional;
 // findByUserIdWithGroup is the main query for the dashboard sidebar —
 // it loads all groups a user belongs to in one shot with fetch joins.
 @Repository
-public interface GroupMembershipRepository extends JpaRepository<GroupMembership,Long> {
+public interface GroupMembershipRepository extends JpaRepository<GroupMembership, Long>, JpaSpecificationExecutor<GroupMembership> {
 
     Optional<GroupMembership> findByUserIdAndGroupId(Long userId, Long groupId);
 
@@ -32,8 +37,43 @@ public interface GroupMembershipRepository extends JpaRepository<GroupMembership
 
     boolean existsByGroupIdAndUserId(Long groupId, Long userId);
 
+    // batched dashboard poll: the join doubles as the membership check, so groups
+    // the user isn't in simply don't come back. one row per group, no entity load.
+    @Query("""
+    select new io.github.balasis.taskmanager.engine.core.dto.GroupChangeStampDto(
+        g.id, g.lastChangeInGroup, g.lastDeleteTaskDate)
+    from GroupMembership gm
+    join gm.group g
+    where gm.user.id = :userId
+      and g.id in :groupIds
+""")
+    List<GroupChangeStampDto> findChangeStampsForMember(@Param("userId") Long userId,
+                                                        @Param("groupIds") Collection<Long> groupIds);
+
+    // ETag source for the group snapshot. like findChangeStampsForMember the join
+    // is the membership check — no row means not a member. the subquery picks up
+    // the caller's own comment read markers, which feed "new comments" flags.
+    @Query("""
+    select new io.github.balasis.taskmanager.engine.core.dto.GroupSnapshotStampDto(
+        g.changeSeq, g.lastGroupEventDate, gm.role,
+        o.subscriptionPlan, o.name,
+        (select max(tp.lastSeenTaskComments)
+         from TaskParticipant tp
+         where tp.user.id = :userId
+           and tp.task.group.id = :groupId))
+    from GroupMembership gm
+    join gm.group g
+    join g.owner o
+    where gm.user.id = :userId
+      and g.id = :groupId
+""")
+    Optional<GroupSnapshotStampDto> findSnapshotStamp(@Param("groupId") Long groupId,
+                                                      @Param("userId") Long userId);
+
     Optional<GroupMembership> findByGroupIdAndUserId(Long groupId, Long reviewerId);
 
+    List<GroupMembership> findByGroupIdAndUserIdIn(Long groupId, Collection<Long> userIds);
+
     @Modifying
     void deleteAllByGroup_Id(Long groupId);
 
@@ -46,19 +86,20 @@ public interface GroupMembershipRepository extends JpaRepository<GroupMembership
     @Query("SELECT gm FROM GroupMembership gm JOIN FETCH gm.user WHERE gm.id = :id AND gm.group.id = :groupId")
     Optional<GroupMembership> findByIdAndGroupIdWithUser(@Param("id") Long id, @Param("groupId") Long groupId);
 
-        @EntityGraph(attributePaths = {"user"})
-        @Query("""
-        select gm
-        from GroupMembership gm
-        where gm.group.id = :groupId
-            and (:q IS NULL OR gm.user.name like concat('%', :q, '%') OR gm.user.email like concat('%', :q, '%'))
-""")
-        Page<GroupMembership> searchByGroupIdAndUser(@Param("groupId") Long groupId, @Param("q") String q, Pageable pageable);
-
     @Modifying
     @Query("delete from GroupMembership gm where gm.group.id = :groupId and gm.user.id = :userId")
     void deleteByGroupIdAndUserId(@Param("groupId") Long groupId, @Param("userId") Long userId);
 
+    // the events page stamps lastSeenGroupEvents without loading the row;
+    // 0 when the membership is gone
+    @Modifying
+    @Query("update GroupMembership gm set gm.lastSeenGroupEvents = :seenAt where gm.group.id = :groupId and gm.user.id = :userId")
+    int markGroupEventsSeen(@Param("groupId") Long groupId, @Param("userId") Long userId,
+                            @Param("seenAt") Instant seenAt);
+
+    @Query("select gm.group.id from GroupMembership gm where gm.user.id = :userId")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+
     Optional<GroupMembership> findByGroup_IdAndRole(Long groupId, Role role);
 
     GroupMembership findByUser_IdAndGroup_Id(Long currentUserId, Long groupId);
@@ -1,6 +1,7 @@
 package io.github.balasis.taskmanager.engine.core.repository;
 
 import io.github.balasis.taskmanager.context.base.model.Group;
+import io.github.balasis.taskmanager.engine.core.dto.GroupSeqsDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 // group queries are split between admin views (full eager fetches for the
@@ -52,14 +54,16 @@ public interface GroupRepository extends JpaRepository<Group,Long> {
         LEFT JOIN FETCH g.owner o
         LEFT JOIN FETCH g.memberships
         LEFT JOIN FETCH g.tasks
-        WHERE g.name LIKE concat('%', :q, '%')
-           OR o.name LIKE concat('%', :q, '%')
+        WHERE g.deletionRequestedAt IS NULL
+          AND (g.name LIKE concat('%', :q, '%')
+           OR o.name LIKE concat('%', :q, '%'))
     """, countQuery = """
         SELECT COUNT(g)
         FROM Group g
         LEFT JOIN g.owner o
-        WHERE g.name LIKE concat('%', :q, '%')
-           OR o.name LIKE concat('%', :q, '%')
+        WHERE g.deletionRequestedAt IS NULL
+          AND (g.name LIKE concat('%', :q, '%')
+           OR o.name LIKE concat('%', :q, '%'))
     """)
     Page<Group> adminSearchGroups(@Param("q") String q, Pageable pageable);
 
@@ -69,13 +73,70 @@ public interface GroupRepository extends JpaRepository<Group,Long> {
         LEFT JOIN FETCH g.owner
         LEFT JOIN FETCH g.memberships
         LEFT JOIN FETCH g.tasks
-    """, countQuery = "SELECT COUNT(g) FROM Group g")
+        WHERE g.deletionRequestedAt IS NULL
+    """, countQuery = "SELECT COUNT(g) FROM Group g WHERE g.deletionRequestedAt IS NULL")
     Page<Group> adminFindAllGroups(Pageable pageable);
 
+    // groups waiting for GroupDeletionWorker, oldest request first
+    @Query("SELECT g.id FROM Group g WHERE g.deletionRequestedAt IS NOT NULL ORDER BY g.deletionRequestedAt")
+    List<Long> findIdsPendingDeletion();
+
+    // also takes the group row lock, so two replicas never purge the same chunk
+    @Modifying
+    @Query("""
+        UPDATE Group g
+        SET g.deletionPurgedTasks = g.deletionPurgedTasks + :purged
+        WHERE g.id = :groupId
+          AND g.deletionRequestedAt IS NOT NULL
+    """)
+    int addDeletionProgress(@Param("groupId") Long groupId, @Param("purged") long purged);
+
+    @Modifying
+    @Query("DELETE FROM Group g WHERE g.id = :groupId")
+    int purgeById(@Param("groupId") Long groupId);
+
+    // ids of the groups touchLastChangeByOwnerId is about to bump, so the
+    // change-version cache can be raised along with the rows
+    @Query("SELECT g.id FROM Group g WHERE g.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
     @Modifying
     @Query("UPDATE Group g SET g.lastChangeInGroup = :now WHERE g.owner.id = :ownerId")
     void touchLastChangeByOwnerId(@Param("ownerId") Long ownerId, @Param("now") Instant now);
 
+    // GroupLastChangeFlusher's coalesced writes. raise-only, so an out-of-order
+    // flush from another replica can't move the stamp backwards.
+    @Modifying
+    @Query("""
+        UPDATE Group g SET g.lastChangeInGroup = :at
+        WHERE g.id = :groupId AND (g.lastChangeInGroup IS NULL OR g.lastChangeInGroup < :at)
+    """)
+    int advanceLastChange(@Param("groupId") Long groupId, @Param("at") Instant at);
+
+    @Modifying
+    @Query("""
+        UPDATE Group g SET g.lastChangeInGroupNoJoins = :at
+        WHERE g.id = :groupId AND (g.lastChangeInGroupNoJoins IS NULL OR g.lastChangeInGroupNoJoins < :at)
+    """)
+    int advanceLastChangeNoJoins(@Param("groupId") Long groupId, @Param("at") Instant at);
+
+    // allocates the group's next change sequence number. the UPDATE holds the
+    // row lock until commit, which is what keeps seq order == commit order —
+    // GroupChangeTracker only runs it from beforeCommit so that's a short hold.
+    @Modifying
+    @Query("UPDATE Group g SET g.changeSeq = g.changeSeq + 1 WHERE g.id = :groupId")
+    int bumpChangeSeq(@Param("groupId") Long groupId);
+
+    @Query("SELECT g.changeSeq FROM Group g WHERE g.id = :groupId")
+    Long findChangeSeq(@Param("groupId") Long groupId);
+
+    @Query("""
+        SELECT new io.github.balasis.taskmanager.engine.core.dto.GroupSeqsDto(g.changeSeq, g.memberChangeSeq)
+        FROM Group g
+        WHERE g.id = :groupId
+    """)
+    Optional<GroupSeqsDto> findSeqs(@Param("groupId") Long groupId);
+
     // Atomically bumps the group's member counter.
     // Returns 0 (no rows updated) when the group is already at its cap,
     // so the caller can reject the join.
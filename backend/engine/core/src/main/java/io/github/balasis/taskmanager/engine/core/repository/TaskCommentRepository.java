@@ -5,18 +5,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 // comments have a soft-link to their creator that gets nullified when a user
 // leaves or is removed. the creatorNameSnapshot field preserves the display name
 // so old comments dont show "unknown" — thats what detachCreator* does.
-public interface TaskCommentRepository extends JpaRepository<TaskComment, Long> {
+public interface TaskCommentRepository extends JpaRepository<TaskComment, Long>, JpaSpecificationExecutor<TaskComment> {
     long countByTask_Id(Long taskId);
 
     @EntityGraph(attributePaths = {"creator"})
@@ -55,29 +57,21 @@ public interface TaskCommentRepository extends JpaRepository<TaskComment, Long>
     void detachCreatorFromAllComments(@Param("userId") Long userId,
                                       @Param("creatorName") String creatorName);
 
+    // CommentPurgeWorker: next batch of comments to purge, oldest first
     @Query("""
-        SELECT tc
+        SELECT tc.id
         FROM TaskComment tc
-        LEFT JOIN FETCH tc.task t
-        LEFT JOIN FETCH t.group g
-        LEFT JOIN FETCH tc.creator c
-        WHERE (:taskId IS NULL OR t.id = :taskId)
-          AND (:groupId IS NULL OR g.id = :groupId)
-          AND (:creatorId IS NULL OR c.id = :creatorId)
-    """)
-    Page<TaskComment> adminFilterComments(@Param("taskId") Long taskId,
-                                          @Param("groupId") Long groupId,
-                                          @Param("creatorId") Long creatorId,
-                                          Pageable pageable);
-
-    @Modifying
-    @Query("""
-        DELETE FROM TaskComment tc
         WHERE tc.task.id = :taskId
           AND tc.createdAt < :before
+        ORDER BY tc.createdAt
     """)
-    int deleteByTaskIdAndCreatedAtBefore(@Param("taskId") Long taskId,
-                                         @Param("before") Instant before);
+    List<Long> findIdsByTaskIdCreatedBefore(@Param("taskId") Long taskId,
+                                            @Param("before") Instant before,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TaskComment tc WHERE tc.id IN :ids")
+    int purgeByIds(@Param("ids") Collection<Long> ids);
 
     // used by the analysis credits estimator to gauge how much text a task has
     @Query("""
@@ -86,4 +80,9 @@ public interface TaskCommentRepository extends JpaRepository<TaskComment, Long>
         WHERE tc.task.id = :taskId
     """)
     List<Object[]> countAndSumCharsByTaskId(@Param("taskId") Long taskId);
+
+    // GroupDeletionWorker: removes one chunk of a deleted group's tasks
+    @Modifying
+    @Query("DELETE FROM TaskComment c WHERE c.task.id IN :taskIds")
+    int purgeByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -2,10 +2,12 @@ package io.github.balasis.taskmanager.engine.core.repository;
 
 import io.github.balasis.taskmanager.context.base.model.TaskFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 // creator-uploaded files (task attachments set by leader/manager).
@@ -14,6 +16,9 @@ import java.util.List;
 @Repository
 public interface TaskFileRepository extends JpaRepository<TaskFile, Long> {
 
+    // direct-upload finalize: a blob name can back at most one row
+    boolean existsByFileUrl(String fileUrl);
+
     @Query("SELECT f FROM TaskFile f LEFT JOIN FETCH f.uploadedBy JOIN FETCH f.task t "
          + "WHERE t.group.id = :groupId")
     List<TaskFile> findAllByGroupId(@Param("groupId") Long groupId);
@@ -23,4 +28,9 @@ public interface TaskFileRepository extends JpaRepository<TaskFile, Long> {
          + "(SELECT tp FROM TaskParticipant tp WHERE tp.task = t AND tp.user.id = :userId)")
     List<TaskFile> findAllByGroupIdAndParticipant(@Param("groupId") Long groupId,
                                                   @Param("userId") Long userId);
+
+    // GroupDeletionWorker: removes one chunk of a deleted group's tasks
+    @Modifying
+    @Query("DELETE FROM TaskFile tf WHERE tf.task.id IN :taskIds")
+    int purgeByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
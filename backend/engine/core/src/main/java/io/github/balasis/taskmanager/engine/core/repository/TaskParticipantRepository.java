@@ -1,12 +1,14 @@
 package io.github.balasis.taskmanager.engine.core.repository;
 
 import io.github.balasis.taskmanager.context.base.model.TaskParticipant;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantIndexRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 // handles the junction table between tasks and users (with role: ASSIGNEE, REVIEWER, CREATOR).
@@ -31,4 +33,20 @@ public interface TaskParticipantRepository extends JpaRepository<TaskParticipant
     void deleteReviewersByUserIdAndGroupId(@Param("userId") Long userId, @Param("groupId") Long groupId);
 
     List<TaskParticipant> findAllByTask_idAndUser_id(Long taskId, Long userId);
+
+    // participant links of every task in the group stamped after sinceSeq
+    // (-1 for all of them) — feeds TaskFilterIndex
+    @Query("""
+        select new io.github.balasis.taskmanager.engine.core.dto.TaskParticipantIndexRow(
+            tp.task.id, tp.user.id, tp.taskParticipantRole)
+        from TaskParticipant tp
+        where tp.task.group.id = :groupId
+          and tp.task.changeSeq > :sinceSeq
+    """)
+    List<TaskParticipantIndexRow> findIndexRows(@Param("groupId") Long groupId, @Param("sinceSeq") long sinceSeq);
+
+    // GroupDeletionWorker: removes one chunk of a deleted group's tasks
+    @Modifying
+    @Query("DELETE FROM TaskParticipant tp WHERE tp.task.id IN :taskIds")
+    int purgeByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
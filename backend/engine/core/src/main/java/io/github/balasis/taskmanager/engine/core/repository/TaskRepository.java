@@ -1,16 +1,21 @@
 package io.github.balasis.taskmanager.engine.core.repository;
 
-import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
 import io.github.balasis.taskmanager.context.base.model.Task;
+import io.github.balasis.taskmanager.engine.core.dto.TaskIndexRow;
+import io.github.balasis.taskmanager.engine.core.dto.TaskPreviewRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -19,13 +24,18 @@ import java.util.Set;
 // on the task detail and task list pages. each findBy* variant fetches a
 // different set of associations depending on what the caller needs.
 @Repository
-public interface TaskRepository extends JpaRepository<Task,Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     boolean existsByTitleAndGroup_Id(String title, Long groupId);
 
     boolean existsByTitleAndGroup_IdAndIdNot(String title, Long groupId, Long id);
 
     long countByGroup_Id(Long groupId);
 
+    // bulk create checks all requested titles with one query instead of an exists per task
+    @Query("SELECT t.title FROM Task t WHERE t.group.id = :groupId AND t.title IN :titles")
+    Set<String> findExistingTitles(@Param("groupId") Long groupId,
+                                   @Param("titles") Collection<String> titles);
+
     @Modifying
     void deleteAllByGroup_Id(Long groupId);
 
@@ -70,6 +80,17 @@ public interface TaskRepository extends JpaRepository<Task,Long> {
     """)
     Optional<Task> findByIdWithTaskParticipants(@Param("taskId") Long taskId);
 
+    // bulk participant diff: every touched task with its participants in one query
+    @Query("""
+    SELECT DISTINCT t
+    FROM Task t
+    LEFT JOIN FETCH t.taskParticipants tp
+    LEFT JOIN FETCH tp.user
+    WHERE t.group.id = :groupId AND t.id IN :taskIds
+    """)
+    List<Task> findAllWithTaskParticipants(@Param("groupId") Long groupId,
+                                           @Param("taskIds") Collection<Long> taskIds);
+
     @Query("""
     SELECT t
     FROM Task t
@@ -89,136 +110,91 @@ public interface TaskRepository extends JpaRepository<Task,Long> {
 """)
     Optional<Task> findByIdWithFilesAndGroup(@Param("taskId") Long taskId);
 
-    @Query("""
-    SELECT DISTINCT t
-    FROM Task t
-    LEFT JOIN FETCH t.taskParticipants tp
-    LEFT JOIN FETCH tp.user
-    WHERE t.group.id = :groupId
-      AND (:taskState IS NULL OR t.taskState = :taskState)
-      AND (
-            (:reviewer IS TRUE AND t.id IN (
-                SELECT t2.id
-                FROM Task t2
-                JOIN t2.taskParticipants tp2
-                WHERE tp2.taskParticipantRole = 'REVIEWER' AND tp2.user.id = :userId
-            ))
-         OR (:assigned IS TRUE AND t.id IN (
-                SELECT t2.id
-                FROM Task t2
-                JOIN t2.taskParticipants tp2
-                WHERE tp2.taskParticipantRole = 'ASSIGNEE' AND tp2.user.id = :userId
-            ))
-         OR (:reviewer IS NULL AND :assigned IS NULL)
-      )
-""")
-    Set<Task> searchBy(
-           @Param("groupId") Long groupId,
-           @Param("userId") Long userId,
-           @Param("reviewer") Boolean reviewer,
-           @Param("assigned") Boolean assigned,
-           @Param("taskState") TaskState taskState
-    );
-
-        @Query("""
-        SELECT DISTINCT t
+    // task cards are read through TaskPreviewRow projections: one flat row per
+    // task with the caller-specific bits answered by correlated subqueries, so
+    // no Task / TaskParticipant / User entities get hydrated for a board load.
+    // the select list is shared; each query below only adds its WHERE.
+    String PREVIEW_ROW_SELECT = """
+        SELECT new io.github.balasis.taskmanager.engine.core.dto.TaskPreviewRow(
+            t.id, t.title, t.taskState, t.createdAt, t.dueDate, t.commentCount,
+            t.creatorNameSnapshot, t.priority, t.creatorIdSnapshot,
+            (SELECT COUNT(p) FROM TaskParticipant p
+              WHERE p.task = t AND p.user.id = :userId),
+            (SELECT COUNT(p) FROM TaskParticipant p
+              WHERE p.task = t AND p.user.id = :userId
+                AND p.lastSeenTaskComments < t.lastCommentDate),
+            (SELECT cm.role FROM GroupMembership cm
+              WHERE cm.group.id = t.group.id AND cm.user.id = t.creatorIdSnapshot))
         FROM Task t
-        LEFT JOIN FETCH t.taskParticipants tp
-        LEFT JOIN FETCH tp.user
         WHERE t.group.id = :groupId
-        AND (:dueDateBefore IS NULL OR (t.dueDate IS NOT NULL AND t.dueDate <= :dueDateBefore))
-        AND (:creatorId IS NULL OR t.id IN (
-            SELECT t1.id
-            FROM Task t1
-            JOIN t1.taskParticipants tp1
-            WHERE tp1.taskParticipantRole = 'CREATOR' AND tp1.user.id = :creatorId
-        ))
-        AND (:reviewerId IS NULL OR t.id IN (
-            SELECT t2.id
-            FROM Task t2
-            JOIN t2.taskParticipants tp2
-            WHERE tp2.taskParticipantRole = 'REVIEWER' AND tp2.user.id = :reviewerId
-        ))
-        AND (:assigneeId IS NULL OR t.id IN (
-            SELECT t3.id
-            FROM Task t3
-            JOIN t3.taskParticipants tp3
-            WHERE tp3.taskParticipantRole = 'ASSIGNEE' AND tp3.user.id = :assigneeId
-        ))
-        AND (:participantUserId IS NULL OR t.id IN (
-            SELECT t4.id
-            FROM Task t4
-            JOIN t4.taskParticipants tp4
-            WHERE tp4.user.id = :participantUserId
-        ))
+        """;
+
+    @Query(PREVIEW_ROW_SELECT)
+    List<TaskPreviewRow> findPreviewRows(
+        @Param("groupId") Long groupId,
+        @Param("userId") Long userId
+    );
+
+    // board filters resolve to ids through TaskFilterIndex first
+    @Query(PREVIEW_ROW_SELECT + """
+        AND t.id IN :taskIds
     """)
-        Set<Task> searchTasksForPreviewWithFilters(
-            @Param("groupId") Long groupId,
-            @Param("creatorId") Long creatorId,
-            @Param("reviewerId") Long reviewerId,
-            @Param("assigneeId") Long assigneeId,
-            @Param("participantUserId") Long participantUserId,
-            @Param("dueDateBefore") Instant dueDateBefore
-        );
+    List<TaskPreviewRow> findPreviewRowsByIds(
+        @Param("groupId") Long groupId,
+        @Param("userId") Long userId,
+        @Param("taskIds") Collection<Long> taskIds
+    );
 
     // used by the smart-poll refresh — only returns tasks changed since
     // the client's last poll timestamp to minimize payload size
-    @Query("""
-        SELECT DISTINCT t
-        FROM Task t
-        LEFT JOIN FETCH t.taskParticipants tp
-        LEFT JOIN FETCH tp.user
-        WHERE t.group.id = :groupId
-          AND t.lastChangeDate > :since
+    @Query(PREVIEW_ROW_SELECT + """
+        AND t.lastChangeDate > :since
     """)
-    Set<Task> findChangedSince(
+    List<TaskPreviewRow> findPreviewRowsChangedSince(
         @Param("groupId") Long groupId,
+        @Param("userId") Long userId,
         @Param("since") Instant since
     );
 
-    // returns just IDs matching filter criteria — the frontend sends these
-    // filters and then fetches full task data for the matching set
+    // seq-based variant of findPreviewRowsChangedSince — exact, no clock skew window needed
+    @Query(PREVIEW_ROW_SELECT + """
+        AND t.changeSeq > :sinceSeq
+    """)
+    List<TaskPreviewRow> findPreviewRowsChangedSinceSeq(
+        @Param("groupId") Long groupId,
+        @Param("userId") Long userId,
+        @Param("sinceSeq") long sinceSeq
+    );
+
+    @Query("SELECT t.changeSeq FROM Task t WHERE t.id = :taskId AND t.group.id = :groupId")
+    Optional<Long> findChangeSeq(@Param("taskId") Long taskId, @Param("groupId") Long groupId);
+
+    // filterable columns of every task in the group stamped after sinceSeq
+    // (-1 for all of them) — feeds TaskFilterIndex, which does the filtering
     @Query("""
-        SELECT DISTINCT t.id
+        SELECT new io.github.balasis.taskmanager.engine.core.dto.TaskIndexRow(
+            t.id, t.taskState, t.priority, t.dueDate,
+            (SELECT COUNT(cf) FROM TaskFile cf WHERE cf.task = t),
+            (SELECT COUNT(af) FROM TaskAssigneeFile af WHERE af.task = t))
         FROM Task t
         WHERE t.group.id = :groupId
-        AND (:dueDateBefore IS NULL OR (t.dueDate IS NOT NULL AND t.dueDate <= :dueDateBefore))
-        AND (:priorityMin IS NULL OR t.priority >= :priorityMin)
-        AND (:priorityMax IS NULL OR t.priority <= :priorityMax)
-        AND (:taskState IS NULL OR t.taskState = :taskState)
-        AND (:hasFiles IS NULL
-            OR (:hasFiles = TRUE AND (SIZE(t.creatorFiles) > 0 OR SIZE(t.assigneeFiles) > 0))
-            OR (:hasFiles = FALSE AND SIZE(t.creatorFiles) = 0 AND SIZE(t.assigneeFiles) = 0)
-        )
-        AND (:creatorId IS NULL OR t.id IN (
-            SELECT t1.id FROM Task t1 JOIN t1.taskParticipants tp1
-            WHERE tp1.taskParticipantRole = 'CREATOR' AND tp1.user.id = :creatorId
-        ))
-        AND (:reviewerId IS NULL OR t.id IN (
-            SELECT t2.id FROM Task t2 JOIN t2.taskParticipants tp2
-            WHERE tp2.taskParticipantRole = 'REVIEWER' AND tp2.user.id = :reviewerId
-        ))
-        AND (:assigneeId IS NULL OR t.id IN (
-            SELECT t3.id FROM Task t3 JOIN t3.taskParticipants tp3
-            WHERE tp3.taskParticipantRole = 'ASSIGNEE' AND tp3.user.id = :assigneeId
-        ))
-        AND (:participantUserId IS NULL OR t.id IN (
-            SELECT t4.id FROM Task t4 JOIN t4.taskParticipants tp4
-            WHERE tp4.user.id = :participantUserId
-        ))
+          AND t.changeSeq > :sinceSeq
     """)
-    Set<Long> filterTaskIds(
-            @Param("groupId") Long groupId,
-            @Param("creatorId") Long creatorId,
-            @Param("reviewerId") Long reviewerId,
-            @Param("assigneeId") Long assigneeId,
-            @Param("participantUserId") Long participantUserId,
-            @Param("dueDateBefore") Instant dueDateBefore,
-            @Param("priorityMin") Integer priorityMin,
-            @Param("priorityMax") Integer priorityMax,
-            @Param("taskState") TaskState taskState,
-            @Param("hasFiles") Boolean hasFiles
-    );
+    List<TaskIndexRow> findIndexRows(@Param("groupId") Long groupId, @Param("sinceSeq") long sinceSeq);
+
+    // claims the next edit version. 0 rows = another edit committed since the
+    // task was loaded. the row lock it takes is held until commit, so edits of
+    // the same task queue here instead of overwriting each other.
+    @Modifying
+    @Query("UPDATE Task t SET t.version = t.version + 1 WHERE t.id = :taskId AND t.version = :version")
+    int claimNextVersion(@Param("taskId") Long taskId, @Param("version") long version);
+
+    // row lock on the task until commit. finalizing a direct upload takes it
+    // before checking that the blob isn't a file row yet, so a repeated
+    // finalize waits for the first one and then sees its row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :taskId")
+    Optional<Task> findByIdForUpdate(@Param("taskId") Long taskId);
 
     // cleanup for user deletion: nullify FK references so the user row can
     // be removed without violating foreign key constraints
@@ -246,4 +222,43 @@ public interface TaskRepository extends JpaRepository<Task,Long> {
     """)
     Page<Task> adminFindAllTasks(Pageable pageable);
 
+    // GroupDeletionWorker: next chunk of a deleted group's tasks
+    @Query("SELECT t.id FROM Task t WHERE t.group.id = :groupId ORDER BY t.id")
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :taskIds")
+    int purgeByIds(@Param("taskIds") Collection<Long> taskIds);
+
+    // CommentPurgeWorker. starting fails (0 rows) while a purge is still running
+    @Modifying
+    @Query("""
+        UPDATE Task t
+        SET t.commentPurgeBefore = :before, t.commentPurgeDeleted = 0
+        WHERE t.id = :taskId
+          AND t.commentPurgeBefore IS NULL
+    """)
+    int startCommentPurge(@Param("taskId") Long taskId, @Param("before") Instant before);
+
+    @Query("SELECT t.id FROM Task t WHERE t.commentPurgeBefore IS NOT NULL")
+    List<Long> findIdsPendingCommentPurge();
+
+    @Query("SELECT t.commentPurgeBefore FROM Task t WHERE t.id = :taskId")
+    Instant findCommentPurgeBefore(@Param("taskId") Long taskId);
+
+    // also takes the task row lock, so two replicas never purge the same batch
+    @Modifying
+    @Query("""
+        UPDATE Task t
+        SET t.commentPurgeDeleted = t.commentPurgeDeleted + :deleted,
+            t.commentCount = t.commentCount - :deleted
+        WHERE t.id = :taskId
+          AND t.commentPurgeBefore IS NOT NULL
+    """)
+    int addCommentPurgeProgress(@Param("taskId") Long taskId, @Param("deleted") long deleted);
+
+    // the exact recount also absorbs comments added or deleted while purging
+    @Modifying
+    @Query("UPDATE Task t SET t.commentPurgeBefore = null, t.commentCount = :commentCount WHERE t.id = :taskId")
+    int finishCommentPurge(@Param("taskId") Long taskId, @Param("commentCount") long commentCount);
 }
@@ -1,9 +1,8 @@
 package io.github.balasis.taskmanager.engine.core.repository;
 
 import io.github.balasis.taskmanager.context.base.model.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -20,7 +19,7 @@ import java.util.Optional;
 // caller can tell if the budget was exceeded (0 = over budget, 1 = success).
 // this avoids read-then-write races without pessimistic locks.
 @Repository
-public interface UserRepository extends JpaRepository<User,Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByAzureKey(String azureKey);
 
     Optional<User> findByEmail(String email);
@@ -71,6 +70,39 @@ public interface UserRepository extends JpaRepository<User,Long> {
                          @Param("size") long size,
                          @Param("budget") long budget);
 
+    // BudgetLedger seeds its Redis total from these rather than from a User
+    // the caller loaded earlier in the request
+    @Query("SELECT u.usedStorageBytes FROM User u WHERE u.id = :userId")
+    Long findUsedStorageBytes(@Param("userId") Long userId);
+
+    @Query("SELECT u.usedDownloadBytesMonth FROM User u WHERE u.id = :userId")
+    Long findUsedDownloadBytesMonth(@Param("userId") Long userId);
+
+    // BudgetLedger.flush: applies the net bytes charged / refunded through the
+    // Redis ledger since the last flush. no budget guard — Redis already
+    // enforced it; clamps at zero like subtractStorageUsage.
+    @Modifying
+    @Query("""
+        UPDATE User u
+        SET u.usedStorageBytes = CASE
+            WHEN u.usedStorageBytes + :delta >= 0 THEN u.usedStorageBytes + :delta
+            ELSE 0 END
+        WHERE u.id = :userId
+    """)
+    int applyStorageDelta(@Param("userId") Long userId,
+                          @Param("delta") long delta);
+
+    @Modifying
+    @Query("""
+        UPDATE User u
+        SET u.usedDownloadBytesMonth = CASE
+            WHEN u.usedDownloadBytesMonth + :delta >= 0 THEN u.usedDownloadBytesMonth + :delta
+            ELSE 0 END
+        WHERE u.id = :userId
+    """)
+    int applyDownloadDelta(@Param("userId") Long userId,
+                           @Param("delta") long delta);
+
     // Atomically bumps the owner's monthly email counter.
     // Returns 0 (no rows updated) when the quota would be exceeded,
     // so the caller silently skips the email.
@@ -84,6 +116,19 @@ public interface UserRepository extends JpaRepository<User,Long> {
     int incrementEmailUsage(@Param("userId") Long userId,
                             @Param("quota") int quota);
 
+    // bulk form of incrementEmailUsage: charges all :count units or none.
+    // one statement on the owner's row however many recipients a notify has.
+    @Modifying
+    @Query("""
+        UPDATE User u
+        SET u.usedEmailsMonth = COALESCE(u.usedEmailsMonth, 0) + :count
+        WHERE u.id = :userId
+          AND COALESCE(u.usedEmailsMonth, 0) + :count <= :quota
+    """)
+    int chargeEmailUsage(@Param("userId") Long userId,
+                         @Param("count") int count,
+                         @Param("quota") int quota);
+
     @Modifying
     @Query("""
         UPDATE User u
@@ -124,28 +169,6 @@ public interface UserRepository extends JpaRepository<User,Long> {
     int decrementTaskAnalysisCredits(@Param("userId") Long userId,
                                      @Param("credits") int credits);
 
-    @Query("""
-    select u
-    from User u
-    where (:q IS NULL OR u.name like concat('%',:q,'%')
-              OR u.email like concat('%',:q,'%'))
-    """)
-    Page<User> searchUser(@Param("q") String q, Pageable pageable);
-
-    // search for invite targets: excludes users already in the group,
-    // and optionally filters by tenant id for org-scoped invitations
-    @Query("""
-    select u
-    from User u
-    where (:q IS NULL OR u.name like concat('%',:q,'%')
-              OR u.email like concat('%',:q,'%'))
-      and not exists (
-          select gm.id from GroupMembership gm where gm.user = u and gm.group.id = :groupId
-      )
-      and (:tenantId IS NULL OR u.tenantId = :tenantId)
-    """)
-    Page<User> searchUserForInvites(@Param("groupId") Long groupId, @Param("q") String q, @Param("tenantId") String tenantId, Pageable pageable);
-
     // Admin demotion: on admin login, demote any OTHER user who still has ADMIN.
     // Fires only when the KV-matching admin logs in — zero overhead for regular users.
     @Modifying
@@ -0,0 +1,37 @@
+package io.github.balasis.taskmanager.engine.core.repository.specification;
+
+import io.github.balasis.taskmanager.context.base.model.GroupMembership;
+import io.github.balasis.taskmanager.context.base.model.User;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// dynamic filter for the group member search box
+public final class GroupMembershipSpecifications {
+
+    private GroupMembershipSpecifications() {}
+
+    // the user is fetched for the member list; the name / email LIKE is only
+    // added when there is something to search for
+    @SuppressWarnings("unchecked")
+    public static Specification<GroupMembership> searchInGroup(Long groupId, String q) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("group").get("id"), groupId));
+
+            if (!SpecificationSupport.isBlank(q)) {
+                Join<GroupMembership, User> user = SpecificationSupport.isCountQuery(query)
+                        ? root.join("user")
+                        : (Join<GroupMembership, User>) (Join<?, ?>) root.fetch("user");
+                String pattern = SpecificationSupport.containsPattern(q);
+                predicates.add(cb.or(cb.like(user.get("name"), pattern), cb.like(user.get("email"), pattern)));
+            } else if (!SpecificationSupport.isCountQuery(query)) {
+                root.fetch("user");
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
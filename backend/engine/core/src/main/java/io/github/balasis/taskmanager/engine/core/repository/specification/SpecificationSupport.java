@@ -0,0 +1,25 @@
+package io.github.balasis.taskmanager.engine.core.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+
+// small helpers shared by the *Specifications classes
+final class SpecificationSupport {
+
+    private SpecificationSupport() {}
+
+    // Page<T> queries run the same specification a second time for the
+    // count(*) — fetch joins are only legal in the first one
+    static boolean isCountQuery(CriteriaQuery<?> query) {
+        Class<?> resultType = query.getResultType();
+        return resultType == Long.class || resultType == long.class;
+    }
+
+    // same "contains" match the old JPQL did with concat('%', :q, '%')
+    static String containsPattern(String q) {
+        return "%" + q + "%";
+    }
+
+    static boolean isBlank(String q) {
+        return q == null || q.isBlank();
+    }
+}
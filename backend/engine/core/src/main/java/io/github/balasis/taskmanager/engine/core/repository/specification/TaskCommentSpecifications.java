@@ -0,0 +1,41 @@
+package io.github.balasis.taskmanager.engine.core.repository.specification;
+
+import io.github.balasis.taskmanager.context.base.model.Task;
+import io.github.balasis.taskmanager.context.base.model.TaskComment;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// dynamic filters for the admin comment browser. only the ids that were
+// passed end up in the WHERE, see TaskSpecifications for why.
+public final class TaskCommentSpecifications {
+
+    private TaskCommentSpecifications() {}
+
+    // task, group and creator are fetched for the admin table columns
+    public static Specification<TaskComment> adminFilter(Long taskId, Long groupId, Long creatorId) {
+        return (root, query, cb) -> {
+            if (!SpecificationSupport.isCountQuery(query)) {
+                Fetch<TaskComment, Task> task = root.fetch("task", JoinType.LEFT);
+                task.fetch("group", JoinType.LEFT);
+                root.fetch("creator", JoinType.LEFT);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (taskId != null) {
+                predicates.add(cb.equal(root.get("task").get("id"), taskId));
+            }
+            if (groupId != null) {
+                predicates.add(cb.equal(root.get("task").get("group").get("id"), groupId));
+            }
+            if (creatorId != null) {
+                predicates.add(cb.equal(root.get("creator").get("id"), creatorId));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
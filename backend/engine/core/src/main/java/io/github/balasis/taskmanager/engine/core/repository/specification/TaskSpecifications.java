@@ -0,0 +1,72 @@
+package io.github.balasis.taskmanager.engine.core.repository.specification;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
+import io.github.balasis.taskmanager.context.base.model.Task;
+import io.github.balasis.taskmanager.context.base.model.TaskParticipant;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// dynamic filters for Task. each call emits only the predicates that were
+// actually asked for, so every filter shape gets its own SQL text (and its own
+// plan on SQL Server) instead of one "(:x IS NULL OR ...)" plan sniffed on
+// whichever combination happened to run first.
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    // "my tasks" in a group: reviewer / assigned pick the participant roles of
+    // the caller to match (OR'ed); both null means no role filter at all.
+    // participants and their users are fetched, the task page renders them.
+    public static Specification<Task> myTasks(Long groupId, Long userId,
+                                              Boolean reviewer, Boolean assigned, TaskState taskState) {
+        return (root, query, cb) -> {
+            if (!SpecificationSupport.isCountQuery(query)) {
+                Fetch<Task, TaskParticipant> tp = root.fetch("taskParticipants", JoinType.LEFT);
+                tp.fetch("user", JoinType.LEFT);
+                query.distinct(true);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("group").get("id"), groupId));
+            if (taskState != null) {
+                predicates.add(cb.equal(root.get("taskState"), taskState));
+            }
+            if (reviewer != null || assigned != null) {
+                List<Predicate> roles = new ArrayList<>();
+                if (Boolean.TRUE.equals(reviewer)) {
+                    roles.add(hasParticipant(root, query, cb, userId, TaskParticipantRole.REVIEWER));
+                }
+                if (Boolean.TRUE.equals(assigned)) {
+                    roles.add(hasParticipant(root, query, cb, userId, TaskParticipantRole.ASSIGNEE));
+                }
+                // an explicit false on its own matched nothing in the old query either
+                predicates.add(roles.isEmpty() ? cb.disjunction() : cb.or(roles.toArray(Predicate[]::new)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // EXISTS semi-join on TaskParticipants(user_id, task_id, role) — the
+    // unique constraint's index answers it with a single seek per task,
+    // where the old "t.id IN (select ... join ...)" re-joined Tasks
+    private static Predicate hasParticipant(Root<Task> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                            Long userId, TaskParticipantRole role) {
+        Subquery<Integer> sq = query.subquery(Integer.class);
+        Root<TaskParticipant> tp = sq.from(TaskParticipant.class);
+        sq.select(cb.literal(1)).where(
+                cb.equal(tp.get("task"), root),
+                cb.equal(tp.get("user").get("id"), userId),
+                cb.equal(tp.get("taskParticipantRole"), role));
+        return cb.exists(sq);
+    }
+}
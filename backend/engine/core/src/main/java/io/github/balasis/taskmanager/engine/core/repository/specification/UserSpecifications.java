@@ -0,0 +1,53 @@
+package io.github.balasis.taskmanager.engine.core.repository.specification;
+
+import io.github.balasis.taskmanager.context.base.model.GroupMembership;
+import io.github.balasis.taskmanager.context.base.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// dynamic filters for user search. a blank query adds no predicate at all,
+// so "list everyone" is a plain paged scan rather than a LIKE plan.
+public final class UserSpecifications {
+
+    private UserSpecifications() {}
+
+    public static Specification<User> search(String q) {
+        return (root, query, cb) -> SpecificationSupport.isBlank(q)
+                ? cb.conjunction()
+                : nameOrEmailContains(root, cb, q);
+    }
+
+    // invite targets: users not already in the group, optionally limited to
+    // one Entra tenant for org-scoped invitations
+    public static Specification<User> inviteCandidates(Long groupId, String q, String tenantId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!SpecificationSupport.isBlank(q)) {
+                predicates.add(nameOrEmailContains(root, cb, q));
+            }
+            if (tenantId != null) {
+                predicates.add(cb.equal(root.get("tenantId"), tenantId));
+            }
+
+            Subquery<Integer> member = query.subquery(Integer.class);
+            Root<GroupMembership> gm = member.from(GroupMembership.class);
+            member.select(cb.literal(1)).where(
+                    cb.equal(gm.get("user"), root),
+                    cb.equal(gm.get("group").get("id"), groupId));
+            predicates.add(cb.not(cb.exists(member)));
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Predicate nameOrEmailContains(Root<User> root, CriteriaBuilder cb, String q) {
+        String pattern = SpecificationSupport.containsPattern(q);
+        return cb.or(cb.like(root.get("name"), pattern), cb.like(root.get("email"), pattern));
+    }
+}
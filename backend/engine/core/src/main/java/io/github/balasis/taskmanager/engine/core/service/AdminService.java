@@ -2,6 +2,7 @@ package io.github.balasis.taskmanager.engine.core.service;
 
 import io.github.balasis.taskmanager.context.base.enumeration.SubscriptionPlan;
 import io.github.balasis.taskmanager.context.base.enumeration.SystemRole;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskField;
 import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
 import io.github.balasis.taskmanager.context.base.exception.authorization.InvalidRoleException;
 import io.github.balasis.taskmanager.context.base.exception.business.BusinessRuleException;
@@ -9,6 +10,9 @@ import io.github.balasis.taskmanager.context.base.exception.notfound.EntityNotFo
 import io.github.balasis.taskmanager.context.base.exception.notfound.TaskFileNotFoundException;
 import io.github.balasis.taskmanager.context.base.model.*;
 import io.github.balasis.taskmanager.engine.core.repository.*;
+import io.github.balasis.taskmanager.engine.core.repository.specification.TaskCommentSpecifications;
+import io.github.balasis.taskmanager.engine.core.repository.specification.UserSpecifications;
+import io.github.balasis.taskmanager.engine.core.service.authorization.AuthorizationService;
 import io.github.balasis.taskmanager.engine.core.transfer.TaskFileDownload;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
 import io.github.balasis.taskmanager.engine.infrastructure.blob.service.BlobStorageService;
@@ -20,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 // admin panel backend: bypasses normal authorization and uses SystemRole.ADMIN
 // checks instead. every method calls requireAdmin() first.
@@ -37,11 +42,13 @@ public class AdminService {
     private final GroupMembershipRepository groupMembershipRepository;
     private final GroupInvitationRepository groupInvitationRepository;
     private final GroupEventRepository groupEventRepository;
-    private final DeletedTaskRepository deletedTaskRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final TaskParticipantRepository taskParticipantRepository;
-    private final FileReviewStatusRepository fileReviewStatusRepository;
     private final BlobStorageService blobStorageService;
+    private final GroupChangeTracker groupChangeTracker;
+    private final GroupDeletionWorker groupDeletionWorker;
+    private final TaskFilterIndex taskFilterIndex;
+    private final AuthorizationService authorizationService;
 
     // gate method: checks SystemRole from the DB, not from the JWT.
     // this way revoking admin in the DB takes effect immediately.
@@ -57,7 +64,7 @@ public class AdminService {
     @Transactional(readOnly = true)
     public Page<User> listUsers(String q, Pageable pageable) {
         requireAdmin();
-        return userRepository.searchUser(q, pageable);
+        return userRepository.findAll(UserSpecifications.search(q), pageable);
     }
 
     @Transactional(readOnly = true)
@@ -81,7 +88,8 @@ public class AdminService {
     @Transactional(readOnly = true)
     public Page<TaskComment> listComments(Long taskId, Long groupId, Long creatorId, Pageable pageable) {
         requireAdmin();
-        return taskCommentRepository.adminFilterComments(taskId, groupId, creatorId, pageable);
+        return taskCommentRepository.findAll(
+                TaskCommentSpecifications.adminFilter(taskId, groupId, creatorId), pageable);
     }
 
     @Transactional(readOnly = true)
@@ -124,8 +132,8 @@ public class AdminService {
                 .filter(f -> f.getId().equals(fileId))
                 .findFirst()
                 .orElseThrow(() -> new TaskFileNotFoundException("File not found"));
-        var download = blobStorageService.downloadTaskFile(file.getFileUrl());
-        return new TaskFileDownload(download.inputStream(), file.getName(), download.size());
+        var download = blobStorageService.downloadTaskFile(file.getFileUrl(), file.getBlobETag());
+        return new TaskFileDownload(download.inputStream(), file.getName(), download.size(), null);
     }
 
     @Transactional(readOnly = true)
@@ -138,8 +146,8 @@ public class AdminService {
                 .filter(f -> f.getId().equals(fileId))
                 .findFirst()
                 .orElseThrow(() -> new TaskFileNotFoundException("File not found"));
-        var download = blobStorageService.downloadTaskAssigneeFile(file.getFileUrl());
-        return new TaskFileDownload(download.inputStream(), file.getName(), download.size());
+        var download = blobStorageService.downloadTaskAssigneeFile(file.getFileUrl(), file.getBlobETag());
+        return new TaskFileDownload(download.inputStream(), file.getName(), download.size(), null);
     }
 
     // plan change handling: downgrading starts a 7-day grace period
@@ -169,7 +177,9 @@ public class AdminService {
             }
             // touching the group's lastChangeInGroup so the frontend
             // polling picks up the changed plan-derived limits
-            groupRepository.touchLastChangeByOwnerId(userId, Instant.now());
+            Instant now = Instant.now();
+            groupRepository.touchLastChangeByOwnerId(userId, now);
+            groupChangeTracker.groupsChanged(groupRepository.findIdsByOwnerId(userId), now);
         }
         if (allowEmailNotification != null) user.setAllowEmailNotification(allowEmailNotification);
 
@@ -219,6 +229,18 @@ public class AdminService {
         if (priority != null) task.setPriority(priority);
         if (dueDate != null) task.setDueDate(dueDate);
 
+        // admin edits apply unconditionally but still take a version, so a
+        // member editing from the older version hits a conflict instead of
+        // silently overwriting them
+        if (taskRepository.claimNextVersion(taskId, task.getVersion()) == 0) {
+            throw new BusinessRuleException("The task was changed meanwhile, reload it and try again.");
+        }
+        task.setVersion(task.getVersion() + 1);
+        if (title != null && !title.isBlank()) task.touchField(TaskField.TITLE);
+        if (description != null && !description.isBlank()) task.touchField(TaskField.DESCRIPTION);
+        if (taskState != null) task.touchField(TaskField.STATE);
+        if (dueDate != null) task.touchField(TaskField.DUE_DATE);
+
         task.setLastEditDate(Instant.now());
         return taskRepository.save(task);
     }
@@ -240,7 +262,8 @@ public class AdminService {
     // 2. clear any "reviewed by" and "last edit by" refs in tasks
     // 3. delete invitations (both sent and received)
     // 4. delete refresh tokens
-    // 5. finally delete the user row
+    // 5. finally delete the user row (its memberships go with it, so their
+    //    cached roles are dropped here and on the other replicas)
     // cant delete admins or users who still own groups.
     @Transactional
     public void deleteUser(Long userId) {
@@ -264,30 +287,25 @@ public class AdminService {
         taskRepository.nullifyLastEditByForUser(userId);
         groupInvitationRepository.deleteAllByUser_IdOrInvitedBy_Id(userId, userId);
         refreshTokenRepository.deleteAllByUser_Id(userId);
+        List<Long> groupIds = groupMembershipRepository.findGroupIdsByUserId(userId);
         userRepository.delete(user);
+        for (Long groupId : groupIds) {
+            authorizationService.invalidateMembership(groupId, userId);
+            groupChangeTracker.invalidate(groupId);
+        }
     }
 
-    // group deletion cascade (admin path, same order as GroupService.delete
-    // but without the blob cleanup since admin delete is a hard nuke):
-    // invitations -> tombstones -> file reviews -> tasks -> memberships -> group
+    // admin path takes the same route as GroupService.delete: the group
+    // disappears now, GroupDeletionWorker purges its rows in the background
     @Transactional
     public void deleteGroup(Long groupId) {
         requireAdmin();
         var group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new EntityNotFoundException("Group not found"));
 
-        groupInvitationRepository.deleteAllByGroup_Id(groupId);
-
-        deletedTaskRepository.deleteAllByGroup_Id(groupId);
-
-        fileReviewStatusRepository.deleteAllByTaskFileGroupId(groupId);
-        fileReviewStatusRepository.deleteAllByTaskAssigneeFileGroupId(groupId);
-
-        taskRepository.deleteAllByGroup_Id(groupId);
-
-        groupMembershipRepository.deleteAllByGroup_Id(groupId);
-
-        groupRepository.delete(group);
+        groupDeletionWorker.requestDeletion(group);
+        groupChangeTracker.invalidate(groupId);
+        taskFilterIndex.evict(groupId);
     }
 
     @Transactional
@@ -297,6 +315,9 @@ public class AdminService {
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
 
         taskRepository.delete(task);
+        // no tombstone on the admin path, so drop the cached versions and let
+        // the has-changed polls fall back to SQL and see the task is gone
+        groupChangeTracker.invalidate(task.getGroup().getId());
     }
 
     @Transactional
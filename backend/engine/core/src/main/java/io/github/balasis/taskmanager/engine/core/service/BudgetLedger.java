@@ -0,0 +1,179 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import io.github.balasis.taskmanager.context.base.model.User;
+import io.github.balasis.taskmanager.engine.core.repository.UserRepository;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService.Budget;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService.Reservation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// storage / download budget charging for group leaders, in front of the
+// Redis ledger (BudgetLedgerService).
+//
+// charge: reserve in Redis; on a miss seed the total from a fresh read of the
+// leader's counter (the caller's row may be minutes old) and try once more;
+// if Redis is still unavailable or the seed was skipped fall
+// back to the old guarded UPDATE on Users. a Redis reservation is handed back
+// if the surrounding transaction rolls back, since the SQL side of it only
+// happens later in flush().
+// refund: applied after commit, so a rolled-back delete never gives bytes back.
+// a download that broke off refunds what it never sent the same way.
+//
+// flush() moves the pending Redis deltas into Users every few seconds, and
+// only tells the ledger they're gone once the write committed. that is
+// the drift window for the SQL columns; maintenance's reconcileStorageBudgets
+// still re-derives storage from the file rows and wins on the next re-seed.
+@Service
+public class BudgetLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetLedger.class);
+
+    private final BudgetLedgerService ledger;
+    private final UserRepository userRepository;
+    private final TransactionTemplate txTemplate;
+
+    public BudgetLedger(BudgetLedgerService ledger, UserRepository userRepository,
+                        PlatformTransactionManager txManager) {
+        this.ledger = ledger;
+        this.userRepository = userRepository;
+        // flush and the after-commit refunds always run in their own transaction
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // false when the charge would go over the budget
+    public boolean chargeStorage(User leader, long sizeBytes, long budget) {
+        return charge(Budget.STORAGE, leader, sizeBytes, budget);
+    }
+
+    public boolean chargeDownload(User owner, long sizeBytes, long budget) {
+        return charge(Budget.DOWNLOAD, owner, sizeBytes, budget);
+    }
+
+    public void refundStorage(User leader, long sizeBytes) {
+        if (sizeBytes <= 0) return;
+        Long userId = leader.getId();
+        afterCommit(() -> {
+            if (!ledger.refund(Budget.STORAGE, userId, sizeBytes)) {
+                txTemplate.executeWithoutResult(status ->
+                        userRepository.subtractStorageUsage(userId, sizeBytes));
+            }
+        });
+    }
+
+    // the unsent rest of a download that broke off. the stream is closed long
+    // after the charging transaction committed, so this applies right away.
+    public void refundDownload(User owner, long sizeBytes) {
+        if (sizeBytes <= 0) return;
+        Long userId = owner.getId();
+        afterCommit(() -> {
+            if (!ledger.refund(Budget.DOWNLOAD, userId, sizeBytes)) {
+                txTemplate.executeWithoutResult(status ->
+                        userRepository.applyDownloadDelta(userId, -sizeBytes));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 5_000)
+    public void flush() {
+        for (Budget budget : Budget.values()) {
+            Map<Long, Long> deltas = ledger.drainPending(budget);
+            if (deltas.isEmpty()) continue;
+            try {
+                txTemplate.executeWithoutResult(status -> deltas.forEach((userId, delta) -> {
+                    if (budget == Budget.STORAGE) {
+                        userRepository.applyStorageDelta(userId, delta);
+                    } else {
+                        userRepository.applyDownloadDelta(userId, delta);
+                    }
+                }));
+            } catch (RuntimeException e) {
+                ledger.restorePending(budget);
+                logger.warn("Failed to persist {} budget deltas for {} user(s): {}",
+                        budget, deltas.size(), e.getMessage());
+                continue;
+            }
+            ledger.confirmFlushed(budget);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private boolean charge(Budget budget, User user, long amount, long limit) {
+        Long userId = user.getId();
+        Reservation reservation = ledger.reserve(budget, userId, amount, limit);
+        if (reservation == Reservation.MISS) {
+            long epoch = ledger.flushEpoch(budget);
+            Long used = budget == Budget.STORAGE
+                    ? userRepository.findUsedStorageBytes(userId)
+                    : userRepository.findUsedDownloadBytesMonth(userId);
+            ledger.seed(budget, userId, used != null ? used : 0L, epoch);
+            reservation = ledger.reserve(budget, userId, amount, limit);
+        }
+
+        switch (reservation) {
+            case RESERVED -> {
+                releaseOnRollback(budget, userId, amount);
+                return true;
+            }
+            case EXCEEDED -> {
+                return false;
+            }
+            default -> {
+                // Redis unavailable — same guarded UPDATE as before the ledger
+                int updated = budget == Budget.STORAGE
+                        ? userRepository.addStorageUsage(userId, amount, limit)
+                        : userRepository.addDownloadUsage(userId, amount, limit);
+                return updated == 1;
+            }
+        }
+    }
+
+    private void releaseOnRollback(Budget budget, Long userId, long amount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) return;
+                if (!ledger.refund(budget, userId, amount)) {
+                    // the cached total expired meanwhile, but the pending +amount
+                    // will still reach SQL — cancel it there
+                    txTemplate.executeWithoutResult(s -> {
+                        if (budget == Budget.STORAGE) {
+                            userRepository.applyStorageDelta(userId, -amount);
+                        } else {
+                            userRepository.applyDownloadDelta(userId, -amount);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// the loop shared by the background purge workers (GroupDeletionWorker,
+// CommentPurgeWorker): read the pending ids, then run one short transaction
+// after another for each of them until it reports done or the run budget is
+// spent. whatever is left over is picked up by the next run.
+//
+// a run takes up to runBudgetMs, so it doesn't run on the scheduler pool,
+// which BudgetLedger.flush, GroupLastChangeFlusher and the drainers share.
+// the subclass' @Scheduled tick only hands the run to this worker's own
+// thread and returns; a tick that finds the previous run still going is skipped.
+abstract class ChunkedPurgeWorker {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final String label;
+    private final long runBudgetMs;
+    private final ExecutorService runner;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean stopping = false;
+
+    protected final TransactionTemplate txTemplate;
+
+    protected ChunkedPurgeWorker(String label, long runBudgetMs, PlatformTransactionManager txManager) {
+        this.label = label;
+        this.runBudgetMs = runBudgetMs;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.runner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, label.replace(' ', '-'));
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ids with work left, oldest first
+    protected abstract List<Long> findPending();
+
+    // one bounded transaction's worth of work on id. returns true once it's finished.
+    protected abstract boolean purgeChunk(Long id);
+
+    // called from the subclass' @Scheduled method
+    protected void startRun() {
+        if (stopping || !running.compareAndSet(false, true)) return;
+        try {
+            runner.execute(() -> {
+                try {
+                    run();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false); // shutting down
+        }
+    }
+
+    void run() {
+        long deadline = System.currentTimeMillis() + runBudgetMs;
+        List<Long> pending;
+        try {
+            pending = findPending();
+        } catch (RuntimeException e) {
+            logger.warn("Could not read pending {} work: {}", label, e.getMessage());
+            return;
+        }
+
+        for (Long id : pending) {
+            try {
+                boolean done = false;
+                while (!done && !stopping && System.currentTimeMillis() < deadline) {
+                    done = Boolean.TRUE.equals(txTemplate.execute(status -> purgeChunk(id)));
+                }
+            } catch (RuntimeException e) {
+                // the chunk rolled back; the next run picks the id up again
+                logger.warn("{} of {} failed: {}", label, id, e.getMessage());
+            }
+            if (stopping || System.currentTimeMillis() >= deadline) return;
+        }
+    }
+
+    // lets the chunk in flight commit; the rest waits for the next start
+    @PreDestroy
+    void shutdown() {
+        stopping = true;
+        runner.shutdown();
+        try {
+            if (!runner.awaitTermination(10, TimeUnit.SECONDS)) {
+                runner.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            runner.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
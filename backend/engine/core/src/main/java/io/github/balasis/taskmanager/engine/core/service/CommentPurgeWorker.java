@@ -0,0 +1,101 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import io.github.balasis.taskmanager.context.base.model.Task;
+import io.github.balasis.taskmanager.engine.core.repository.TaskCommentRepository;
+import io.github.balasis.taskmanager.engine.core.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+// deletes a task's comments older than a cutoff in the background.
+//
+// the bulk "delete comments before" used to be one DELETE in the request's
+// transaction; on a task with tens of thousands of comments SQL Server could
+// escalate that to a table lock on TaskComments and stall comment reads for
+// every task. now the request only stamps Tasks.commentPurgeBefore and this
+// worker deletes BATCH comments per transaction (ids selected with a page,
+// which the dialect renders as TOP / FETCH FIRST, then DELETE ... IN), far
+// below the escalation threshold.
+//
+// each batch lowers commentCount and raises commentPurgeDeleted, so the status
+// endpoint and the task previews follow along. every batch starts by taking
+// the task row lock, so replicas running the same schedule take turns.
+// the run loop itself is ChunkedPurgeWorker's.
+@Service
+public class CommentPurgeWorker extends ChunkedPurgeWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentPurgeWorker.class);
+
+    static final long POLL_INTERVAL_MS = 2_000;
+
+    static final int BATCH = 500;
+
+    // a run stops after this long and leaves the rest to the next one
+    static final long RUN_BUDGET_MS = 10_000;
+
+    private final TaskRepository taskRepository;
+    private final TaskCommentRepository taskCommentRepository;
+    private final GroupChangeTracker groupChangeTracker;
+
+    public CommentPurgeWorker(TaskRepository taskRepository,
+                              TaskCommentRepository taskCommentRepository,
+                              GroupChangeTracker groupChangeTracker,
+                              PlatformTransactionManager txManager) {
+        super("comment purge", RUN_BUDGET_MS, txManager);
+        this.taskRepository = taskRepository;
+        this.taskCommentRepository = taskCommentRepository;
+        this.groupChangeTracker = groupChangeTracker;
+    }
+
+    @Scheduled(fixedDelay = POLL_INTERVAL_MS)
+    public void purgePending() {
+        startRun();
+    }
+
+    @Override
+    protected List<Long> findPending() {
+        return taskRepository.findIdsPendingCommentPurge();
+    }
+
+    // one short transaction. returns true once the purge is finished.
+    @Override
+    protected boolean purgeChunk(Long taskId) {
+        if (taskRepository.addCommentPurgeProgress(taskId, 0) == 0) {
+            return true; // finished meanwhile, or the task is gone
+        }
+        Instant before = taskRepository.findCommentPurgeBefore(taskId);
+
+        List<Long> ids = taskCommentRepository.findIdsByTaskIdCreatedBefore(taskId, before, PageRequest.of(0, BATCH));
+        if (!ids.isEmpty()) {
+            int deleted = taskCommentRepository.purgeByIds(ids);
+            taskRepository.addCommentPurgeProgress(taskId, deleted);
+            touchComments(taskId);
+            return false;
+        }
+
+        taskRepository.finishCommentPurge(taskId, taskCommentRepository.countByTask_Id(taskId));
+        touchComments(taskId);
+        logger.info("Comment purge of task {} finished", taskId);
+        return true;
+    }
+
+    // same stamps as GroupServiceImpl.touchTaskChange(task, false, false, true),
+    // so open task pages refetch the comments and previews pick up the count
+    private void touchComments(Long taskId) {
+        Task task = taskRepository.findById(taskId).orElse(null);
+        if (task == null) return;
+        Long groupId = task.getGroup().getId();
+        Instant now = Instant.now();
+        task.setLastChangeDate(now);
+        task.setLastChangeDateInComments(now);
+        groupChangeTracker.stampSeq(groupId, task::setChangeSeq);
+        groupChangeTracker.taskChanged(groupId, taskId, now, true);
+        groupChangeTracker.groupChanged(groupId, now, false);
+    }
+}
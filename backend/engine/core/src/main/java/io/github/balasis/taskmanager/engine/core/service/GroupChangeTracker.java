@@ -0,0 +1,234 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import io.github.balasis.taskmanager.engine.core.repository.GroupRepository;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.ChangeVersionCacheService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.ChangeType;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.GroupChangeEvent;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// write-through side of the change-tracking timestamps. the touch* helpers in
+// GroupServiceImpl call in here with the same instant they stamp on the entity;
+// the bumps are collected per group for the current transaction and, only after
+// commit, pushed to the version cache and broadcast to the SSE streams. a
+// rolled-back change never shows up as "changed", and a client reacting to a
+// push never refetches before the SQL row is visible.
+// outside a transaction (or with no synchronization active) it flushes at once.
+// the has-changed polls read through here too and seed the cache on a miss.
+// it also hands out the per-group change sequence numbers (see stampSeq), and
+// queues committed group bumps for GroupLastChangeFlusher, which owns the
+// durable Groups.lastChange* columns.
+@Service
+@RequiredArgsConstructor
+public class GroupChangeTracker {
+
+    private final ChangeVersionCacheService changeVersionCacheService;
+    private final GroupChangeBroadcastService groupChangeBroadcastService;
+    private final GroupRepository groupRepository;
+    private final GroupLastChangeFlusher groupLastChangeFlusher;
+
+    // separate resource key for the per-transaction seq map so it doesn't
+    // share a lifecycle with the pending change sets
+    private final Object seqResourceKey = new Object();
+
+    public void groupChanged(Long groupId, Instant at) {
+        groupChanged(groupId, at, false);
+    }
+
+    // also queues the coalesced Groups.lastChange* write once the change commits
+    public void groupChanged(Long groupId, Instant at, boolean noJoins) {
+        pending(groupId, changes -> changes.groupChanged(at));
+        if (groupId != null) {
+            afterCommit(() -> groupLastChangeFlusher.groupChanged(groupId, noJoins));
+        }
+    }
+
+    // used for bulk SQL bumps like touchLastChangeByOwnerId, which never go
+    // through the entity touch helpers — so the seq is advanced here instead.
+    // that UPDATE already wrote the column, nothing to hand to the flusher.
+    public void groupsChanged(Collection<Long> groupIds, Instant at) {
+        for (Long groupId : groupIds) {
+            stampSeq(groupId, seq -> {});
+            pending(groupId, changes -> changes.groupChanged(at));
+        }
+    }
+
+    public void memberChanged(Long groupId, Instant at) {
+        pending(groupId, changes -> changes.memberChanged(at));
+    }
+
+    public void taskChanged(Long groupId, Long taskId, Instant at, boolean comments) {
+        pending(groupId, changes -> {
+            changes.taskChanged(taskId, at);
+            if (comments) changes.commentsChanged(taskId, at);
+        });
+    }
+
+    public void taskDeleted(Long groupId, Long taskId, Instant at) {
+        pending(groupId, changes -> changes.taskDeleted(taskId, at));
+    }
+
+    // drops the group's hash after commit (and anything still pending for it)
+    // when a change can't be expressed as a raise — a deleted group, or a task
+    // removed without a tombstone. the next poll re-seeds it from SQL.
+    public void invalidate(Long groupId) {
+        if (groupId == null) return;
+        var byGroup = TransactionSynchronizationManager.getResource(this);
+        if (byGroup instanceof Map<?, ?> pendingByGroup) {
+            pendingByGroup.remove(groupId);
+        }
+        afterCommit(() -> {
+            changeVersionCacheService.evict(groupId);
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.GROUP, null));
+            // the memberships went with the group — lets role caches drop it
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.MEMBERS, null));
+        });
+    }
+
+    // hands stamp the group's change sequence number for this transaction.
+    // the number is allocated in beforeCommit, not here: bumping
+    // Groups.changeSeq takes the group row lock until commit, and doing it
+    // last keeps that lock to the commit itself rather than the whole
+    // request. holding it through the commit is still what makes two writers
+    // to the same group commit in seq order, so a client that has seen seq N
+    // can never later miss a row stamped <= N. every stamp for the group in
+    // the transaction gets the same number, and since the entity setters run
+    // before the commit flush they go out with it. groups are bumped in id
+    // order, so two transactions touching the same groups (an owner's plan
+    // change bumps all of theirs) can't take the row locks crosswise.
+    // outside a transaction the seq is allocated and stamped at once.
+    public void stampSeq(Long groupId, LongConsumer stamp) {
+        if (groupId == null) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stamp.accept(allocateSeq(groupId));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, List<LongConsumer>> stamps =
+                (Map<Long, List<LongConsumer>>) TransactionSynchronizationManager.getResource(seqResourceKey);
+        if (stamps == null) {
+            Map<Long, List<LongConsumer>> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(seqResourceKey, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    created.forEach((id, pendingStamps) -> {
+                        long seq = allocateSeq(id);
+                        pendingStamps.forEach(s -> s.accept(seq));
+                    });
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(seqResourceKey);
+                }
+            });
+            stamps = created;
+        }
+        stamps.computeIfAbsent(groupId, id -> new ArrayList<>()).add(stamp);
+    }
+
+    public ChangeVersionCacheService.GroupVersions getGroupVersions(Long groupId) {
+        return changeVersionCacheService.getGroupVersions(groupId);
+    }
+
+    public Instant getTaskChange(Long groupId, Long taskId) {
+        return changeVersionCacheService.getTaskChange(groupId, taskId);
+    }
+
+    public Instant getCommentChange(Long groupId, Long taskId) {
+        return changeVersionCacheService.getCommentChange(groupId, taskId);
+    }
+
+    // seeding after a cache miss comes from a read that may already be stale,
+    // which is fine because the cache only ever moves forward
+    public void seed(Long groupId, GroupChangeSet values) {
+        changeVersionCacheService.record(groupId, values);
+    }
+
+    private void pending(Long groupId, Consumer<GroupChangeSet> change) {
+        // a group created in this transaction has no id yet — nothing cached to update
+        if (groupId == null) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            GroupChangeSet changes = new GroupChangeSet();
+            change.accept(changes);
+            flush(groupId, changes);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, GroupChangeSet> byGroup =
+                (Map<Long, GroupChangeSet>) TransactionSynchronizationManager.getResource(this);
+        if (byGroup == null) {
+            Map<Long, GroupChangeSet> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GroupChangeTracker.this);
+                    if (status == STATUS_COMMITTED) {
+                        created.forEach(GroupChangeTracker.this::flush);
+                    }
+                }
+            });
+            byGroup = created;
+        }
+        change.accept(byGroup.computeIfAbsent(groupId, id -> new GroupChangeSet()));
+    }
+
+    private long allocateSeq(Long groupId) {
+        groupRepository.bumpChangeSeq(groupId);
+        Long seq = groupRepository.findChangeSeq(groupId);
+        return seq != null ? seq : 0;
+    }
+
+    private void flush(Long groupId, GroupChangeSet changes) {
+        changeVersionCacheService.record(groupId, changes);
+
+        if (changes.getGroupChange() != null) {
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.GROUP, null));
+        }
+        if (changes.getMemberChange() != null) {
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.MEMBERS, null));
+        }
+        for (Long taskId : changes.getTaskChanges().keySet()) {
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.TASK, taskId));
+        }
+        for (Long taskId : changes.getCommentChanges().keySet()) {
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.COMMENTS, taskId));
+        }
+        for (Long taskId : changes.getDeletedTaskIds()) {
+            groupChangeBroadcastService.publish(new GroupChangeEvent(groupId, ChangeType.TASK_DELETED, taskId));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
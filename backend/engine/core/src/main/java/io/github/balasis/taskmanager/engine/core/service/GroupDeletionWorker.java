@@ -0,0 +1,134 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import io.github.balasis.taskmanager.context.base.model.Group;
+import io.github.balasis.taskmanager.engine.core.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+// deletes groups in the background.
+//
+// a full group (hundreds of tasks, each with comments, participants, files and
+// file reviews) used to be removed in the request's transaction, holding locks
+// on half the schema for as long as that took. now the request only calls
+// requestDeletion: the memberships and invitations go right away, which hides
+// the group from every member, and Groups.deletionRequestedAt is stamped.
+//
+// the worker (see ChunkedPurgeWorker for the loop) then purges each pending
+// group in short transactions of TASK_CHUNK tasks (children first, bulk DELETEs by task id), then its events,
+// then the tombstones and the group row. Groups.deletionPurgedTasks counts the
+// progress. every chunk starts by taking the group row lock, so replicas
+// running the same schedule take turns instead of deleting the same rows.
+//
+// blobs aren't touched here: once the TaskFiles / Groups rows are gone the
+// maintenance orphan sweeper removes them.
+@Service
+public class GroupDeletionWorker extends ChunkedPurgeWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupDeletionWorker.class);
+
+    static final long POLL_INTERVAL_MS = 5_000;
+
+    // tasks per transaction — each one drags its comments, participants and files along
+    static final int TASK_CHUNK = 25;
+    static final int EVENT_CHUNK = 500;
+
+    // a run stops after this long and leaves the rest to the next one
+    static final long RUN_BUDGET_MS = 20_000;
+
+    private final GroupRepository groupRepository;
+    private final GroupMembershipRepository groupMembershipRepository;
+    private final GroupInvitationRepository groupInvitationRepository;
+    private final GroupEventRepository groupEventRepository;
+    private final DeletedTaskRepository deletedTaskRepository;
+    private final TaskRepository taskRepository;
+    private final TaskCommentRepository taskCommentRepository;
+    private final TaskParticipantRepository taskParticipantRepository;
+    private final TaskFileRepository taskFileRepository;
+    private final TaskAssigneeFileRepository taskAssigneeFileRepository;
+    private final FileReviewStatusRepository fileReviewStatusRepository;
+
+    public GroupDeletionWorker(GroupRepository groupRepository,
+                               GroupMembershipRepository groupMembershipRepository,
+                               GroupInvitationRepository groupInvitationRepository,
+                               GroupEventRepository groupEventRepository,
+                               DeletedTaskRepository deletedTaskRepository,
+                               TaskRepository taskRepository,
+                               TaskCommentRepository taskCommentRepository,
+                               TaskParticipantRepository taskParticipantRepository,
+                               TaskFileRepository taskFileRepository,
+                               TaskAssigneeFileRepository taskAssigneeFileRepository,
+                               FileReviewStatusRepository fileReviewStatusRepository,
+                               PlatformTransactionManager txManager) {
+        super("group deletion", RUN_BUDGET_MS, txManager);
+        this.groupRepository = groupRepository;
+        this.groupMembershipRepository = groupMembershipRepository;
+        this.groupInvitationRepository = groupInvitationRepository;
+        this.groupEventRepository = groupEventRepository;
+        this.deletedTaskRepository = deletedTaskRepository;
+        this.taskRepository = taskRepository;
+        this.taskCommentRepository = taskCommentRepository;
+        this.taskParticipantRepository = taskParticipantRepository;
+        this.taskFileRepository = taskFileRepository;
+        this.taskAssigneeFileRepository = taskAssigneeFileRepository;
+        this.fileReviewStatusRepository = fileReviewStatusRepository;
+    }
+
+    // runs in the caller's transaction. the caller still has to drop the
+    // group's caches (GroupChangeTracker.invalidate, TaskFilterIndex.evict).
+    public void requestDeletion(Group group) {
+        if (group.getDeletionRequestedAt() != null) return;
+        group.setDeletionRequestedAt(Instant.now());
+        groupInvitationRepository.deleteAllByGroup_Id(group.getId());
+        groupMembershipRepository.deleteAllByGroup_Id(group.getId());
+        groupRepository.save(group);
+    }
+
+    @Scheduled(fixedDelay = POLL_INTERVAL_MS)
+    public void purgePending() {
+        startRun();
+    }
+
+    @Override
+    protected List<Long> findPending() {
+        return groupRepository.findIdsPendingDeletion();
+    }
+
+    // one bounded transaction. returns true once the group row itself is gone.
+    @Override
+    protected boolean purgeChunk(Long groupId) {
+        if (groupRepository.addDeletionProgress(groupId, 0) == 0) {
+            return true; // purged meanwhile by another replica
+        }
+
+        List<Long> taskIds = taskRepository.findIdsByGroupId(groupId, PageRequest.of(0, TASK_CHUNK));
+        if (!taskIds.isEmpty()) {
+            fileReviewStatusRepository.purgeByTaskFileTaskIds(taskIds);
+            fileReviewStatusRepository.purgeByTaskAssigneeFileTaskIds(taskIds);
+            taskCommentRepository.purgeByTaskIds(taskIds);
+            taskParticipantRepository.purgeByTaskIds(taskIds);
+            taskFileRepository.purgeByTaskIds(taskIds);
+            taskAssigneeFileRepository.purgeByTaskIds(taskIds);
+            taskRepository.purgeByIds(taskIds);
+            groupRepository.addDeletionProgress(groupId, taskIds.size());
+            return false;
+        }
+
+        List<Long> eventIds = groupEventRepository.findIdsByGroupId(groupId, PageRequest.of(0, EVENT_CHUNK));
+        if (!eventIds.isEmpty()) {
+            groupEventRepository.purgeByIds(eventIds);
+            return false;
+        }
+
+        deletedTaskRepository.deleteAllByGroup_Id(groupId);
+        groupRepository.purgeById(groupId);
+        logger.info("Deleted group {} fully purged", groupId);
+        return true;
+    }
+}
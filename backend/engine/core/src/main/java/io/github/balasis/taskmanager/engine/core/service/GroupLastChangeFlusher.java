@@ -0,0 +1,80 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import io.github.balasis.taskmanager.engine.core.repository.GroupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// coalesces the Groups.lastChangeInGroup / lastChangeInGroupNoJoins writes.
+//
+// those two columns used to be set on the Group entity by every task, comment,
+// file and participant change, which turned each of them into a full UPDATE of
+// the same Groups row. the change itself is already pushed to the Redis version
+// cache and the SSE streams after commit (GroupChangeTracker), and seq-mode
+// clients never read the timestamps — so the durable copy only has to catch up.
+// committed bumps land here and the scheduler writes each dirty group at most
+// once per FLUSH_INTERVAL_MS, in its own short transaction. the one ordered
+// write left on the request path is the Groups.changeSeq bump, and that runs
+// in beforeCommit so it only holds the row lock for the commit itself.
+//
+// the flush stamps the flush time, not the change time: a timestamp-mode client
+// that polled between the commit and the flush has a lastSeen later than the
+// change, and must still see the column move past it. at worst that client
+// refetches the group once more. the UPDATEs only ever raise the column, so
+// replicas flushing the same group in any order is fine.
+@Service
+public class GroupLastChangeFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupLastChangeFlusher.class);
+
+    static final long FLUSH_INTERVAL_MS = 2_000;
+
+    private final GroupRepository groupRepository;
+    private final TransactionTemplate txTemplate;
+
+    // groupId -> true when the no-joins column has to move as well
+    private final Map<Long, Boolean> dirty = new ConcurrentHashMap<>();
+
+    public GroupLastChangeFlusher(GroupRepository groupRepository, PlatformTransactionManager txManager) {
+        this.groupRepository = groupRepository;
+        this.txTemplate = new TransactionTemplate(txManager);
+    }
+
+    // call after commit only — a rolled-back change must not move the columns
+    public void groupChanged(Long groupId, boolean noJoins) {
+        if (groupId == null) return;
+        dirty.merge(groupId, noJoins, Boolean::logicalOr);
+    }
+
+    @Scheduled(fixedDelay = FLUSH_INTERVAL_MS)
+    public void flush() {
+        for (Long groupId : dirty.keySet()) {
+            Boolean noJoins = dirty.remove(groupId);
+            if (noJoins == null) continue;
+            Instant now = Instant.now();
+            try {
+                txTemplate.executeWithoutResult(status -> {
+                    groupRepository.advanceLastChange(groupId, now);
+                    if (noJoins) groupRepository.advanceLastChangeNoJoins(groupId, now);
+                });
+            } catch (RuntimeException e) {
+                // put it back; a newer bump may have arrived meanwhile, keep the wider flag
+                dirty.merge(groupId, noJoins, Boolean::logicalOr);
+                logger.warn("Failed to flush last-change stamp for group {}: {}", groupId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
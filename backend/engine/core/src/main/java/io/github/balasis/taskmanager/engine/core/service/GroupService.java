@@ -8,16 +8,22 @@ import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRol
 import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
 import io.github.balasis.taskmanager.context.base.model.*;
 import io.github.balasis.taskmanager.engine.core.dto.AnalysisEstimateDto;
+import io.github.balasis.taskmanager.engine.core.dto.CommentPurgeStatusDto;
 import io.github.balasis.taskmanager.engine.core.dto.EffectiveFileLimitsDto;
 import io.github.balasis.taskmanager.engine.core.dto.FileReviewInfoDto;
+import io.github.balasis.taskmanager.engine.core.dto.GroupChangesDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupFileDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupRefreshDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupWithPreviewDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskCreateDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
 import io.github.balasis.taskmanager.engine.core.dto.TaskPreviewDto;
 import io.github.balasis.taskmanager.context.base.model.TaskComment;
 import io.github.balasis.taskmanager.engine.core.transfer.TaskFileDownload;
+import io.github.balasis.taskmanager.engine.core.transfer.TaskFileUploadTarget;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpRange;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.Instant;
@@ -50,8 +56,12 @@ public interface GroupService{
     Set<GroupInvitation> findInvitationsSentByMe();
 
     Task createTask(Long groupId, Task task, Set<Long> assignedIds, Set<Long> reviewerIds, Set<MultipartFile> files);
-    Task patchTask(Long groupId ,Long taskId, Task task);
-    Task reviewTask(Long groupId, Long taskId, Task task);
+    Set<TaskPreviewDto> createTasks(Long groupId, List<TaskCreateDto> tasks);
+    // expectedVersion: the task version the client edited; null applies the
+    // edit unconditionally. throws TaskVersionConflictException when a field
+    // being edited was changed after that version.
+    Task patchTask(Long groupId ,Long taskId, Task task, Long expectedVersion);
+    Task reviewTask(Long groupId, Long taskId, Task task, Long expectedVersion);
     Task getTask(Long groupId, Long taskId);
     Set<Task> findMyTasks(Long groupId, Boolean reviewer, Boolean assigned, TaskState taskState);
 
@@ -61,7 +71,9 @@ public interface GroupService{
     TaskComment addTaskComment(Long groupId, Long taskId, String comment);
     TaskComment patchTaskComment(Long groupId, Long taskId, Long commentId, String comment);
     void deleteTaskComment(Long groupId, Long taskId, Long commentId);
-    int bulkDeleteCommentsBefore(Long groupId, Long taskId, java.time.Instant before);
+    // queues a background purge; poll getCommentPurgeStatus for progress
+    CommentPurgeStatusDto bulkDeleteCommentsBefore(Long groupId, Long taskId, java.time.Instant before);
+    CommentPurgeStatusDto getCommentPurgeStatus(Long groupId, Long taskId);
 
         Set<TaskPreviewDto> findTasksWithPreviewByFilters(
             Long groupId,
@@ -76,23 +88,34 @@ public interface GroupService{
 
     Task addTaskParticipant(Long groupId, Long taskId , Long userId, TaskParticipantRole taskParticipantRole);
     void removeTaskParticipant(Long groupId, Long taskId, Long taskParticipantId);
+    Set<TaskPreviewDto> applyTaskParticipantChanges(Long groupId, List<TaskParticipantChangeDto> changes);
     void notifyTaskParticipant(Long groupId, Long taskId, Long userId, String customNote);
     void notifyTaskParticipants(Long groupId, Long taskId, Set<Long> userIds, String customNote);
     Task addTaskFile(Long groupId, Long taskId, MultipartFile file);
+    // direct upload: prepare checks limits and budget and hands out a write-only
+    // URL; finalize checks what actually landed in storage, charges and adds the row
+    TaskFileUploadTarget prepareTaskFileUpload(Long groupId, Long taskId, String filename, long sizeBytes);
+    Task finalizeTaskFileUpload(Long groupId, Long taskId, String blobName, String filename,
+                                long sizeBytes, String contentType);
     void removeTaskFile(Long groupId, Long taskId, Long fileId);
-    TaskFileDownload downloadTaskFile(Long groupId, Long taskId, Long fileId);
+    // requested is the client's Range, or null for the whole file
+    TaskFileDownload downloadTaskFile(Long groupId, Long taskId, Long fileId, HttpRange requested);
 
     Task addAssigneeTaskFile(Long groupId, Long taskId, MultipartFile file);
+    TaskFileUploadTarget prepareAssigneeTaskFileUpload(Long groupId, Long taskId, String filename, long sizeBytes);
+    Task finalizeAssigneeTaskFileUpload(Long groupId, Long taskId, String blobName, String filename,
+                                        long sizeBytes, String contentType);
     void removeAssigneeTaskFile(Long groupId, Long taskId, Long fileId);
-    TaskFileDownload downloadAssigneeTaskFile(Long groupId, Long taskId, Long fileId);
+    TaskFileDownload downloadAssigneeTaskFile(Long groupId, Long taskId, Long fileId, HttpRange requested);
 
-    Task markTaskToBeReviewed(Long groupId, Long taskId);
+    Task markTaskToBeReviewed(Long groupId, Long taskId, Long expectedVersion);
     Page<GroupEvent> findAllGroupEvents(Long groupId, Pageable pageable);
     void deleteAllGroupEvents(Long groupId);
 
     // refresh returns only the parts that changed since the client's
-    // last-seen timestamp, keeping polling payloads small
-    GroupRefreshDto refreshGroup(Long groupId, Instant lastSeen);
+    // last-seen change seq (or, for older clients, last-seen timestamp),
+    // keeping polling payloads small
+    GroupRefreshDto refreshGroup(Long groupId, Instant lastSeen, Long sinceSeq);
 
     void deleteTask(Long groupId, Long taskId);
 
@@ -119,12 +142,20 @@ public interface GroupService{
     boolean hasNewInvitations();
 
     boolean hasGroupChanged(Long groupId, Instant lastSeen);
-    boolean hasTaskChanged(Long groupId, Long taskId, Instant since);
+
+    // dashboard variant of hasGroupChanged + hasNewInvitations in one call:
+    // groupId -> lastSeen in, changed / no-longer-accessible groups out
+    GroupChangesDto findChangedGroups(Map<Long, Instant> lastSeenByGroup);
+    boolean hasTaskChanged(Long groupId, Long taskId, Instant since, Long sinceSeq);
     boolean hasCommentsChanged(Long groupId, Long taskId, Instant since);
 
     // Lightweight membership gate — throws if the caller is not a member
     void checkMembership(Long groupId);
 
+    // membership gate that also returns an opaque version of what the caller
+    // would see in the group snapshot; equal versions mean an equal payload
+    String findGroupSnapshotVersion(Long groupId);
+
     // Comment Intelligence (Teams Pro only)
     // AI-driven analysis of task comment threads. estimate shows the
     // credit cost before the user commits; requestAnalysis actually
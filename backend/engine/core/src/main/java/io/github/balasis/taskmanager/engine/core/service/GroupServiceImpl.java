@@ -5,24 +5,33 @@ import io.github.balasis.taskmanager.context.base.exception.authorization.Unauth
 import io.github.balasis.taskmanager.context.base.utils.StringSanitizer;
 import io.github.balasis.taskmanager.shared.enums.BlobDefaultImageContainer;
 import io.github.balasis.taskmanager.engine.core.dto.EffectiveFileLimitsDto;
+import io.github.balasis.taskmanager.engine.core.dto.GroupChangesDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupRefreshDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupWithPreviewDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskCreateDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
 import io.github.balasis.taskmanager.engine.core.dto.TaskPreviewDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskPreviewRow;
 import io.github.balasis.taskmanager.engine.core.dto.FileReviewInfoDto;
 import io.github.balasis.taskmanager.engine.core.dto.GroupFileDto;
 import io.github.balasis.taskmanager.engine.core.dto.AnalysisEstimateDto;
+import io.github.balasis.taskmanager.engine.core.dto.CommentPurgeStatusDto;
 import io.github.balasis.taskmanager.context.base.enumeration.AnalysisType;
 import io.github.balasis.taskmanager.context.base.enumeration.FileReviewDecision;
 import io.github.balasis.taskmanager.context.base.enumeration.InvitationStatus;
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
 import io.github.balasis.taskmanager.context.base.enumeration.SubscriptionPlan;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskField;
 import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
 import io.github.balasis.taskmanager.context.base.enumeration.ReviewersDecision;
 import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
 import io.github.balasis.taskmanager.context.base.exception.authorization.NotAGroupMemberException;
+import io.github.balasis.taskmanager.context.base.exception.blob.download.RangeNotSatisfiableException;
+import io.github.balasis.taskmanager.context.base.exception.blob.upload.BlobUploadTaskFileException;
 import io.github.balasis.taskmanager.context.base.exception.business.BusinessRuleException;
 import io.github.balasis.taskmanager.context.base.exception.business.InvalidMembershipRemovalException;
 import io.github.balasis.taskmanager.context.base.exception.business.LimitExceededException;
+import io.github.balasis.taskmanager.context.base.exception.business.TaskVersionConflictException;
 import io.github.balasis.taskmanager.context.base.exception.ratelimit.DownloadBudgetExceededException;
 import io.github.balasis.taskmanager.context.base.limits.PlanLimits;
 import io.github.balasis.taskmanager.context.base.exception.notfound.*;
@@ -30,8 +39,13 @@ import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFi
 import io.github.balasis.taskmanager.context.base.model.*;
 import io.github.balasis.taskmanager.shared.enums.BlobContainerType;
 import io.github.balasis.taskmanager.engine.core.repository.*;
+import io.github.balasis.taskmanager.engine.core.repository.specification.GroupMembershipSpecifications;
+import io.github.balasis.taskmanager.engine.core.repository.specification.TaskSpecifications;
 import io.github.balasis.taskmanager.engine.core.service.authorization.AuthorizationService;
+import io.github.balasis.taskmanager.engine.core.transfer.ByteRange;
+import io.github.balasis.taskmanager.engine.core.transfer.ResumePointInputStream;
 import io.github.balasis.taskmanager.engine.core.transfer.TaskFileDownload;
+import io.github.balasis.taskmanager.engine.core.transfer.TaskFileUploadTarget;
 import io.github.balasis.taskmanager.engine.core.validation.GroupValidator;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
 import io.github.balasis.taskmanager.engine.infrastructure.blob.service.BlobStorageService;
@@ -40,6 +54,7 @@ import io.github.balasis.taskmanager.engine.infrastructure.email.EmailClient;
 import io.github.balasis.taskmanager.engine.infrastructure.email.EmailQueueService;
 import io.github.balasis.taskmanager.engine.infrastructure.email.TaskEmailTemplates;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.DownloadGuardService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeSet;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.ImageChangeLimiterService;
 import io.github.balasis.taskmanager.engine.infrastructure.textanalytics.TaskAnalysisService;
 import io.github.balasis.taskmanager.engine.core.util.PiiDetector;
@@ -49,16 +64,22 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 // main service for everything group-related: CRUD, memberships, tasks, files,
@@ -97,6 +118,10 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     private final ImageChangeLimiterService imageChangeLimiterService;
     private final ImageModerationService imageModerationService;
     private final TaskAnalysisService taskAnalysisService;
+    private final GroupChangeTracker groupChangeTracker;
+    private final TaskFilterIndex taskFilterIndex;
+    private final BudgetLedger budgetLedger;
+    private final GroupDeletionWorker groupDeletionWorker;
     // injected to read app.public-url for email deep links
     private final org.springframework.core.env.Environment environment;
 
@@ -134,48 +159,132 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         return planDefault;
     }
 
-    // charges storage atomically via a @Modifying query with a WHERE guard.
-    // if two uploads race, the second one sees the incremented value and
-    // can still fail if the budget is tight. updated==0 means the row
-    // didn't match the WHERE (usage + size <= budget), so we reject.
+    // charges storage atomically through the Redis budget ledger (falls back
+    // to the guarded UPDATE on Users when Redis is down). if two uploads race,
+    // the second one sees the incremented total and can still fail if the
+    // budget is tight.
     private void chargeStorageBudget(User leader, long sizeBytes) {
         long budget = planLimits.storageBudgetBytes(leader.getSubscriptionPlan());
-        int updated = userRepository.addStorageUsage(leader.getId(), sizeBytes, budget);
-        if (updated == 0) {
+        if (!budgetLedger.chargeStorage(leader, sizeBytes, budget)) {
+            throw new LimitExceededException("Storage budget exceeded. Delete some files or upgrade your plan.");
+        }
+    }
+
+    // early check for direct uploads, nothing is reserved: the bytes aren't
+    // there yet. usedStorageBytes can trail the ledger by a few seconds, which
+    // is fine since finalize charges through chargeStorageBudget for real.
+    private void ensureStorageBudgetFits(User leader, long sizeBytes) {
+        long budget = planLimits.storageBudgetBytes(leader.getSubscriptionPlan());
+        if (leader.getUsedStorageBytes() + sizeBytes > budget) {
             throw new LimitExceededException("Storage budget exceeded. Delete some files or upgrade your plan.");
         }
     }
 
+    // staged names handed out by prepare start with the task id and end in the
+    // staging suffix; a name that doesn't was never prepared for this task.
+    // returns the final blob name, which must not back a file row yet.
+    private String requireDirectUploadBlob(Long taskId, String stagedName, Predicate<String> alreadyFinalized) {
+        String suffix = BlobStorageService.STAGED_UPLOAD_SUFFIX;
+        if (stagedName == null || !stagedName.startsWith(taskId + "-") || !stagedName.endsWith(suffix)
+                || stagedName.contains("/")) {
+            throw new InvalidFieldValueException("Unknown upload");
+        }
+        String blobName = stagedName.substring(0, stagedName.length() - suffix.length());
+        if (alreadyFinalized.test(blobName)) {
+            throw new BusinessRuleException("This upload was already added to the task");
+        }
+        return blobName;
+    }
+
+    // null when the uploaded blob is what the client announced
+    private static String directUploadMismatch(BlobStorageService.BlobInfo blob, long sizeBytes,
+                                               String contentType, long maxFileSize) {
+        if (blob == null) return "The file was not uploaded, or the upload link expired";
+        if (blob.size() != sizeBytes) return "The uploaded file is incomplete";
+        if (blob.size() > maxFileSize) {
+            return "Task file exceeds max size of " + (maxFileSize / (1024 * 1024)) + " MB";
+        }
+        // storage stores application/octet-stream when the PUT names no type
+        String expected = contentType == null || contentType.isBlank() ? "application/octet-stream" : contentType;
+        if (!expected.equalsIgnoreCase(blob.contentType())) return "The uploaded file type does not match";
+        return null;
+    }
+
     // Always refund — keeps usedStorageBytes accurate regardless of current plan.
     private void refundStorageBudget(User leader, Long fileSizeBytes) {
         if (fileSizeBytes == null || fileSizeBytes <= 0) return;
-        userRepository.subtractStorageUsage(leader.getId(), fileSizeBytes);
+        budgetLedger.refundStorage(leader, fileSizeBytes);
     }
 
     // Charges the group owner's monthly download budget. Legacy files with
     // size 0 pass through for free (uploaded before budget tracking).
-    private void chargeDownloadBudget(Long groupId, long sizeBytes) {
-        if (sizeBytes <= 0) return;
+    // Returns the owner charged, null when nothing was.
+    private User chargeDownloadBudget(Long groupId, long sizeBytes) {
+        if (sizeBytes <= 0) return null;
         User owner = findGroupLeader(groupId);
         SubscriptionPlan ownerPlan = owner.getSubscriptionPlan();
         long budget = planLimits.downloadBudgetBytes(ownerPlan);
-        int updated = userRepository.addDownloadUsage(owner.getId(), sizeBytes, budget);
-        if (updated == 0) {
+        if (!budgetLedger.chargeDownload(owner, sizeBytes, budget)) {
             throw new DownloadBudgetExceededException(
                     "Your group's download budget for this month has been reached.");
         }
+        return owner;
+    }
+
+    // turns the client's Range into concrete offsets. null means serve the
+    // whole file: no Range, or a legacy file whose size we never recorded.
+    private ByteRange resolveRange(HttpRange requested, long fileSize) {
+        if (requested == null || fileSize <= 0) return null;
+        try {
+            return new ByteRange(requested.getRangeStart(fileSize), requested.getRangeEnd(fileSize));
+        } catch (IllegalArgumentException e) {
+            throw new RangeNotSatisfiableException("Requested range is outside the file", fileSize);
+        }
     }
 
+    // the client may have received less than we read from the blob: the
+    // last blob block and the socket buffers can still be in flight
+    private static final long RESUME_SLACK_BYTES = 4L * 1024 * 1024;
+
     // optional per-file daily cap. if the group leader has it turned on,
     // Redis tracks <userId:fileId> keys with a 24h TTL. if the key already
     // exists the service throws, preventing the same user from re-downloading
     // the same file within a day. This is a group-level toggle.
-    private void checkRepeatGuard(Group group, Long fileId) {
+    //
+    // a Range request counts too, unless it resumes a guarded stream of this
+    // file that broke off (see trackDelivery): the server recorded where,
+    // and a start at most RESUME_SLACK_BYTES before that point is the same
+    // download continuing. the point is consumed, so a client can't keep
+    // re-fetching the file with Range: bytes=1- and friends.
+    private void checkRepeatGuard(Group group, Long fileId, ByteRange range) {
         if (!Boolean.TRUE.equals(group.getDailyDownloadCapEnabled())) return;
         long userId = effectiveCurrentUser.getUserId();
+        if (range != null && range.start() > 0) {
+            long resumeAt = downloadGuardService.takeResumePoint(userId, fileId);
+            if (resumeAt > 0 && range.start() >= resumeAt - RESUME_SLACK_BYTES) return;
+        }
         downloadGuardService.checkRepeatDownload(userId, fileId);
     }
 
+    // a proxied stream is charged up front for every byte it's meant to send.
+    // closed before its last byte, it gives the unsent rest back to the
+    // owner's budget, and under the repeat guard also records where it
+    // stopped, which is what checkRepeatGuard accepts as a resume. the resume
+    // then pays for its own range, so a dropped download costs what was sent
+    // (plus whatever was still in flight when it broke off).
+    private InputStream trackDelivery(Group group, Long fileId, ByteRange range,
+                                      BlobStorageService.BlobDownload download, User chargedOwner, long charged) {
+        boolean guarded = Boolean.TRUE.equals(group.getDailyDownloadCapEnabled());
+        if (!guarded && chargedOwner == null) return download.inputStream();
+        long userId = effectiveCurrentUser.getUserId();
+        long start = range != null ? range.start() : 0;
+        long expected = range != null ? range.length() : download.size();
+        return new ResumePointInputStream(download.inputStream(), start, expected, offset -> {
+            if (guarded) downloadGuardService.recordResumePoint(userId, fileId, offset);
+            if (chargedOwner != null) budgetLedger.refundDownload(chargedOwner, charged - (offset - start));
+        });
+    }
+
     @Override
     public Group create(Group group){
         // lock the creator's User row to serialize concurrent creates —
@@ -336,25 +445,19 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         return groupRepository.save(existingGroup);
     }
 
-    // delete order matters because of FK constraints:
-    // invitations -> tombstones -> file review statuses -> tasks -> memberships -> group
+    // only hides the group here (memberships and invitations go, the row gets
+    // stamped); GroupDeletionWorker purges tasks, events and the row itself in
+    // small transactions afterwards. the custom image blob is left to the
+    // orphan sweeper once the row is gone.
     @Override
     public void delete(Long groupId) {
         authorizationService.requireRoleIn(groupId,Set.of(Role.GROUP_LEADER));
 
-        // clean up the custom blob if there is one
-        Group group = groupRepository.findById(groupId).orElse(null);
-        if (group != null && group.getImgUrl() != null) {
-            blobStorageService.deleteGroupImage(group.getImgUrl());
-        }
-
-        groupInvitationRepository.deleteAllByGroup_Id(groupId);
-        deletedTaskRepository.deleteAllByGroup_Id(groupId);
-        fileReviewStatusRepository.deleteAllByTaskFileGroupId(groupId);
-        fileReviewStatusRepository.deleteAllByTaskAssigneeFileGroupId(groupId);
-        taskRepository.deleteAllByGroup_Id(groupId);
-        groupMembershipRepository.deleteAllByGroup_Id(groupId);
-        groupRepository.deleteById(groupId);
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
+        groupDeletionWorker.requestDeletion(group);
+        groupChangeTracker.invalidate(groupId);
+        taskFilterIndex.evict(groupId);
     }
 
     // image upload flow: ban check -> paid plan gate -> burst limiter -> scan quota
@@ -442,7 +545,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     public Page<GroupMembership> searchGroupMembers(Long groupId, String q, Pageable pageable) {
         authorizationService.requireAnyRoleIn(groupId);
         String normalized = (q == null || q.isBlank()) ? null : q.trim();
-        return groupMembershipRepository.searchByGroupIdAndUser(groupId, normalized, pageable);
+        return groupMembershipRepository.findAll(GroupMembershipSpecifications.searchInGroup(groupId, normalized), pageable);
     }
 
     // marks the requester's lastSeenGroupEvents so the frontend knows
@@ -450,10 +553,9 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     @Override
     public Page<GroupEvent> findAllGroupEvents(Long groupId, Pageable pageable) {
         authorizationService.requireAnyRoleIn(groupId);
-        GroupMembership requestersMembership = groupMembershipRepository.findByUserIdAndGroupId(effectiveCurrentUser.getUserId(),groupId)
-                .orElseThrow(() -> new EntityNotFoundException("Requester not found in the group"));
-        requestersMembership.setLastSeenGroupEvents(Instant.now());
-        groupMembershipRepository.save(requestersMembership);
+        if (groupMembershipRepository.markGroupEventsSeen(groupId, effectiveCurrentUser.getUserId(), Instant.now()) == 0) {
+            throw new EntityNotFoundException("Requester not found in the group");
+        }
         return groupEventRepository.findAllByGroup_Id(groupId, pageable);
     }
 
@@ -470,44 +572,16 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     @Override
     @Transactional(readOnly = true)
         public GroupWithPreviewDto findGroupWithPreviewTasks(Long groupId) {
-        authorizationService.requireAnyRoleIn(groupId);
-        Group group = groupRepository.findByIdWithTasksAndParticipants(groupId)
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
+        Group group = groupRepository.findByIdWithOwner(groupId)
             .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
 
         // leaders and task managers see all tasks; regular members only see
         // tasks where they are a participant
         Long currentUserId = effectiveCurrentUser.getUserId();
-        var membershipOpt = groupMembershipRepository.findByGroupIdAndUserId(groupId, currentUserId);
-        boolean isLeaderOrManager = membershipOpt.isPresent() && (
-            membershipOpt.get().getRole() == Role.GROUP_LEADER ||
-            membershipOpt.get().getRole() == Role.TASK_MANAGER
-        );
-        Role currentUserRole = membershipOpt.isPresent() ? membershipOpt.get().getRole() : null;
 
-        Set<TaskPreviewDto> previews = group.getTasks().stream()
-            .map(task -> {
-                boolean accessible = isLeaderOrManager || task.getTaskParticipants().stream()
-                    .anyMatch(tp -> tp.getUser().getId().equals(currentUserId));
-                boolean areThereNewCommentsToBeRead = task.getTaskParticipants().stream()
-                        .anyMatch(tp -> tp.getUser().getId().equals(currentUserId)
-                                &&  tp.getLastSeenTaskComments()!=null && task.getLastCommentDate()!=null
-                                && tp.getLastSeenTaskComments().isBefore(task.getLastCommentDate()) );
-
-                return TaskPreviewDto.builder()
-                    .id(task.getId())
-                    .title(task.getTitle())
-                    .taskState(task.getTaskState())
-                    .createdAt(task.getCreatedAt())
-                    .dueDate(task.getDueDate())
-                    .commentCount(task.getCommentCount())
-                    .accessible(accessible)
-                    .newCommentsToBeRead(areThereNewCommentsToBeRead)
-                    .creatorName(task.getCreatorNameSnapshot())
-                    .priority(task.getPriority())
-                    .deletable(computeIsDeletable(task, currentUserRole, groupId, currentUserId))
-                    .build();
-            })
-            .collect(Collectors.toSet());
+        Set<TaskPreviewDto> previews = toTaskPreviews(
+                taskRepository.findPreviewRows(groupId, currentUserId), currentUserRole);
 
         // blob URLs need the container prefix prepended so the SAS token works.
         // custom uploaded images live in GROUP_IMAGES, defaults live in
@@ -570,14 +644,11 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
             Boolean assigneeIsMe,
             Instant dueDateBefore
     ) {
-        authorizationService.requireAnyRoleIn(groupId);
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
         Long currentUserId = effectiveCurrentUser.getUserId();
-        var membershipOpt = groupMembershipRepository.findByGroupIdAndUserId(groupId, currentUserId);
-        boolean isLeaderOrManager = membershipOpt.isPresent() && (
-                membershipOpt.get().getRole() == Role.GROUP_LEADER ||
-                membershipOpt.get().getRole() == Role.TASK_MANAGER
-        );
-        Role currentUserRole = membershipOpt.isPresent() ? membershipOpt.get().getRole() : null;
+        boolean isLeaderOrManager =
+                currentUserRole == Role.GROUP_LEADER ||
+                currentUserRole == Role.TASK_MANAGER;
 
         // the "IsMe" booleans let the frontend say "show tasks where I am
         // the creator" without knowing its own userId
@@ -595,80 +666,28 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
                 .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
 
             if (!hasFilters) {
-                // no-filter path: use the eager-fetch query that loads all
-                // tasks + participants in one shot
-                Group group = groupRepository.findByIdWithTasksAndParticipants(groupId)
-                    .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
-
-                return group.getTasks().stream()
-                    .map(task -> {
-                    boolean accessible = isLeaderOrManager || task.getTaskParticipants().stream()
-                        .anyMatch(tp -> tp.getUser().getId().equals(currentUserId));
-
-                    boolean areThereNewCommentsToBeRead = task.getTaskParticipants().stream()
-                        .anyMatch(tp -> tp.getUser().getId().equals(currentUserId)
-                            && tp.getLastSeenTaskComments() != null
-                            && task.getLastCommentDate() != null
-                            && tp.getLastSeenTaskComments().isBefore(task.getLastCommentDate()));
-
-                    return TaskPreviewDto.builder()
-                        .id(task.getId())
-                        .title(task.getTitle())
-                        .taskState(task.getTaskState())
-                        .createdAt(task.getCreatedAt())
-                        .dueDate(task.getDueDate())
-                        .commentCount(task.getCommentCount())
-                        .accessible(accessible)
-                        .newCommentsToBeRead(areThereNewCommentsToBeRead)
-                        .creatorName(task.getCreatorNameSnapshot())
-                        .priority(task.getPriority())
-                        .deletable(computeIsDeletable(task, currentUserRole, groupId, currentUserId))
-                        .build();
-                    })
-                    .collect(Collectors.toSet());
+                return toTaskPreviews(taskRepository.findPreviewRows(groupId, currentUserId), currentUserRole);
             }
 
             // non-leader/manager users need the participantUserId filter
             // so they only see tasks they're part of
-            // with filters: use the filtered query. for non-leader/manager
-            // we pass participantUserId to restrict visibility.
             Long participantUserId = isLeaderOrManager ? null : currentUserId;
 
-            Set<Task> tasks = taskRepository.searchTasksForPreviewWithFilters(
-                groupId,
+            Set<Long> taskIds = taskFilterIndex.filter(groupId, new TaskFilterIndex.Criteria(
                 effectiveCreatorId,
                 effectiveReviewerId,
                 effectiveAssigneeId,
                 participantUserId,
-                dueDateBefore
-            );
-
-            return tasks.stream()
-                .map(task -> {
-                    boolean accessible = isLeaderOrManager || task.getTaskParticipants().stream()
-                        .anyMatch(tp -> tp.getUser().getId().equals(currentUserId));
-
-                    boolean areThereNewCommentsToBeRead = task.getTaskParticipants().stream()
-                        .anyMatch(tp -> tp.getUser().getId().equals(currentUserId)
-                            && tp.getLastSeenTaskComments() != null
-                            && task.getLastCommentDate() != null
-                            && tp.getLastSeenTaskComments().isBefore(task.getLastCommentDate()));
-
-                    return TaskPreviewDto.builder()
-                        .id(task.getId())
-                        .title(task.getTitle())
-                        .taskState(task.getTaskState())
-                        .createdAt(task.getCreatedAt())
-                        .dueDate(task.getDueDate())
-                        .commentCount(task.getCommentCount())
-                        .accessible(accessible)
-                        .newCommentsToBeRead(areThereNewCommentsToBeRead)
-                        .creatorName(task.getCreatorNameSnapshot())
-                        .priority(task.getPriority())
-                        .deletable(computeIsDeletable(task, currentUserRole, groupId, currentUserId))
-                        .build();
-                })
-                .collect(Collectors.toSet());
+                dueDateBefore,
+                null,
+                null,
+                null,
+                null
+            ));
+            if (taskIds.isEmpty()) {
+                return Set.of();
+            }
+            return toTaskPreviews(taskRepository.findPreviewRowsByIds(groupId, currentUserId, taskIds), currentUserRole);
     }
 
     @Override
@@ -732,6 +751,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         taskParticipantRepository.deleteByUserIdAndGroupId(targetsId, groupId);
         groupMembershipRepository.deleteByGroupIdAndUserId(groupId, targetsId);
         groupRepository.decrementMemberCount(groupId);
+        authorizationService.invalidateMembership(groupId, targetsId);
     }
 
     // changing role: if someone loses TASK_MANAGER or REVIEWER, we also
@@ -755,6 +775,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         touchGroupChange(groupRepository.getReferenceById(groupId), false);
         touchMemberChange(groupRepository.getReferenceById(groupId));
         GroupMembership saved = groupMembershipRepository.save(target);
+        authorizationService.invalidateMembership(groupId, target.getUser().getId());
         return saved;
     }
 
@@ -875,6 +896,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
                             .role(groupInvitation.getUserToBeInvitedRole())
                             .build()
             );
+            authorizationService.invalidateMembership(group.getId(), groupInvitation.getUser().getId());
 
             touchLastGroupEventDate(groupInvitation.getGroup());
             touchGroupChange(groupInvitation.getGroup(), false);
@@ -996,12 +1018,15 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
             chargeStorageBudget(leader, totalSize);
 
             for (MultipartFile file : files){
-                String url = blobStorageService.uploadTaskFile(file, savedTask.getId(), maxFileSize);
+                var stored = blobStorageService.uploadTaskFile(file, savedTask.getId(), maxFileSize);
                 var taskFile = TaskFile.builder()
-                        .fileUrl(url)
+                        .fileUrl(stored.blobName())
                         .name(StringSanitizer.sanitizeFilename(file.getOriginalFilename()))
                         .task(savedTask)
-                        .fileSize(file.getSize())
+                        .fileSize(stored.size())
+                        .contentType(stored.contentType())
+                        .contentMd5(stored.contentMd5())
+                        .blobETag(stored.etag())
                         .uploadedBy(currentUser)
                         .build();
                 savedTask.getCreatorFiles().add(taskFile);
@@ -1018,19 +1043,106 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         return thefetchedOne;
     }
 
+    // bulk variant of createTask for onboarding: the role check, task limit,
+    // member validation and title check run once for the whole request, the
+    // tasks (participants cascade) go out in JDBC batches via saveAll, and the
+    // group seq / change stamps are bumped once. no files — those are uploaded
+    // per task afterwards. all or nothing: one bad entry rejects the request.
+    @Override
+    public Set<TaskPreviewDto> createTasks(Long groupId, List<TaskCreateDto> tasks) {
+        Role currentUserRole = authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+        Long currentUserId = effectiveCurrentUser.getUserId();
+
+        Set<Long> assignedIds = new HashSet<>();
+        Set<Long> reviewerIds = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        for (TaskCreateDto entry : tasks) {
+            if (entry.assignedIds() != null) assignedIds.addAll(entry.assignedIds());
+            if (entry.reviewerIds() != null) reviewerIds.addAll(entry.reviewerIds());
+            if (!titles.add(entry.task().getTitle())) {
+                throw new BusinessRuleException("Duplicate task title in request: " + entry.task().getTitle());
+            }
+        }
+        groupValidator.validateForCreateTasks(groupId, assignedIds, reviewerIds);
+
+        User leader = findGroupLeader(groupId);
+        int maxTasks = planLimits.maxTasksPerGroup(leader.getSubscriptionPlan());
+        long remaining = maxTasks - taskRepository.countByGroup_Id(groupId);
+        if (tasks.size() > remaining) {
+            throw new LimitExceededException("A group can have at most " + maxTasks + " tasks, "
+                    + Math.max(remaining, 0) + " more can be created");
+        }
+
+        Set<String> taken = taskRepository.findExistingTitles(groupId, titles);
+        if (!taken.isEmpty()) {
+            throw new BusinessRuleException("Tasks with these titles already exist in this group: " + taken);
+        }
+
+        var currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new UserNotFoundException("Logged in user not found"));
+        Group group = groupRepository.getReferenceById(groupId);
+        User creatorRef = userRepository.getReferenceById(currentUserId);
+
+        // one seq for the whole batch (it's per transaction anyway)
+        Instant now = Instant.now();
+        List<Task> toSave = new ArrayList<>(tasks.size());
+        groupChangeTracker.stampSeq(groupId, seq -> toSave.forEach(task -> task.setChangeSeq(seq)));
+
+        for (TaskCreateDto entry : tasks) {
+            Task task = entry.task();
+            task.setGroup(group);
+            task.setCreatorIdSnapshot(currentUserId);
+            task.setCreatorNameSnapshot(currentUser.getName());
+            task.setLastChangeDate(now);
+            task.setLastChangeDateNoJoins(now);
+            task.setLastChangeDateInParticipants(now);
+
+            task.getTaskParticipants().add(participant(task, creatorRef, TaskParticipantRole.CREATOR));
+            if (entry.assignedIds() != null) {
+                for (Long assignedId : entry.assignedIds()) {
+                    task.getTaskParticipants().add(participant(task,
+                            userRepository.getReferenceById(assignedId), TaskParticipantRole.ASSIGNEE));
+                }
+            }
+            if (entry.reviewerIds() != null) {
+                for (Long reviewerId : entry.reviewerIds()) {
+                    task.getTaskParticipants().add(participant(task,
+                            userRepository.getReferenceById(reviewerId), TaskParticipantRole.REVIEWER));
+                }
+            }
+            toSave.add(task);
+        }
+
+        Set<Long> taskIds = new HashSet<>();
+        for (Task saved : taskRepository.saveAll(toSave)) {
+            taskIds.add(saved.getId());
+            groupChangeTracker.taskChanged(groupId, saved.getId(), now, false);
+        }
+        touchGroupChange(group, false);
+
+        // the preview query flushes the pending inserts first
+        return toTaskPreviews(taskRepository.findPreviewRowsByIds(groupId, currentUserId, taskIds), currentUserRole);
+    }
+
+    private static TaskParticipant participant(Task task, User user, TaskParticipantRole role) {
+        return TaskParticipant.builder()
+                .task(task)
+                .user(user)
+                .taskParticipantRole(role)
+                .build();
+    }
+
     // leader/task manager can see every task in the group.
     // regular members can only access tasks where they have a participant entry.
     @Override
     @Transactional(readOnly = true)
     public Task getTask(Long groupId, Long taskId){
-        authorizationService.requireAnyRoleIn(groupId);
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
 
         Long currentUserId = effectiveCurrentUser.getUserId();
-        var membershipOpt = groupMembershipRepository.findByUser_IdAndGroup_Id(currentUserId, groupId);
-        boolean isLeaderOrManager = membershipOpt != null && (
-                membershipOpt.getRole() == Role.GROUP_LEADER ||
-                membershipOpt.getRole() == Role.TASK_MANAGER
-        );
+        boolean isLeaderOrManager =
+                currentUserRole == Role.GROUP_LEADER ||
+                currentUserRole == Role.TASK_MANAGER;
 
         Task task = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(
@@ -1051,14 +1163,17 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     @Transactional(readOnly = true)
     public Set<Task> findMyTasks(Long groupId, Boolean reviewer, Boolean assigned, TaskState taskState) {
         authorizationService.requireAnyRoleIn(groupId);
-        return taskRepository.searchBy(groupId, effectiveCurrentUser.getUserId(), reviewer, assigned, taskState);
+        return new HashSet<>(taskRepository.findAll(
+                TaskSpecifications.myTasks(groupId, effectiveCurrentUser.getUserId(), reviewer, assigned, taskState)));
     }
 
     // patchTask: partial update, each field null-checked.
     // special handling: if moving OUT of TO_BE_REVIEWED, clear all file
     // review statuses so reviewers start fresh next time.
+    // versioned: see claimTaskEdit. fields sent with their current value
+    // count as unchanged, so they never conflict.
     @Override
-    public Task patchTask(Long groupId, Long taskId, Task task) {
+    public Task patchTask(Long groupId, Long taskId, Task task, Long expectedVersion) {
         authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
         groupValidator.validateForPatchTask(groupId, taskId, task);
 
@@ -1069,6 +1184,20 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         User curUser = userRepository.getReferenceById(effectiveCurrentUser.getUserId());
         var fetchedTask = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + "is not found"));
+
+        Set<TaskField> edited = EnumSet.noneOf(TaskField.class);
+        if (differs(task.getTitle(), fetchedTask.getTitle())) edited.add(TaskField.TITLE);
+        if (differs(task.getDescription(), fetchedTask.getDescription())) edited.add(TaskField.DESCRIPTION);
+        if (differs(task.getTaskState(), fetchedTask.getTaskState())
+                || differs(task.getReviewersDecision(), fetchedTask.getReviewersDecision())
+                || differs(task.getReviewComment(), fetchedTask.getReviewComment()))
+            edited.add(TaskField.STATE);
+        if (differs(task.getDueDate(), fetchedTask.getDueDate())) edited.add(TaskField.DUE_DATE);
+        if (differs(task.getMaxAssigneeFiles(), fetchedTask.getMaxAssigneeFiles())
+                || differs(task.getMaxFileSizeBytes(), fetchedTask.getMaxFileSizeBytes()))
+            edited.add(TaskField.LIMITS);
+        claimTaskEdit(groupId, fetchedTask, expectedVersion, edited);
+
         if (task.getTitle()!= null)
             fetchedTask.setTitle(task.getTitle());
         if (task.getDescription()!= null)
@@ -1102,12 +1231,17 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
     // reviewer decision: APPROVE transitions task to DONE (and wipes file
     // reviews), anything else bounces it back to IN_PROGRESS.
+    // a review always rewrites the state, so any state change after the
+    // reviewer's version is a conflict.
     @Override
-    public Task reviewTask(Long groupId, Long taskId, Task task) {
+    public Task reviewTask(Long groupId, Long taskId, Task task, Long expectedVersion) {
         var fetchedTask = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
 
         groupValidator.validateReviewTask(fetchedTask, groupId, effectiveCurrentUser.getUserId());
+        if (task.getReviewersDecision() != null || task.getReviewComment() != null) {
+            claimTaskEdit(groupId, fetchedTask, expectedVersion, EnumSet.of(TaskField.STATE));
+        }
 
         if (task.getReviewersDecision() != null) {
             fetchedTask.setReviewersDecision(task.getReviewersDecision());
@@ -1128,6 +1262,36 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         return taskRepository.save(fetchedTask);
     }
 
+    // versioned edit: when the client's version is behind, only the field
+    // groups this edit touches are compared — edits to other fields made in
+    // the meantime are kept and this one is merged on top. then the next
+    // version is claimed (guarded UPDATE, row lock held until commit) and the
+    // touched groups are stamped with it. no expectedVersion = last write wins.
+    private void claimTaskEdit(Long groupId, Task task, Long expectedVersion, Set<TaskField> edited) {
+        if (edited.isEmpty()) return;
+
+        if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            Set<TaskField> conflicts = EnumSet.noneOf(TaskField.class);
+            for (TaskField field : edited) {
+                if (task.fieldVersion(field) > expectedVersion) conflicts.add(field);
+            }
+            if (!conflicts.isEmpty()) {
+                throw new TaskVersionConflictException(groupId, task.getId(), conflicts);
+            }
+        }
+
+        // lost the race to an edit that committed after the task was loaded
+        if (taskRepository.claimNextVersion(task.getId(), task.getVersion()) == 0) {
+            throw new TaskVersionConflictException(groupId, task.getId(), edited);
+        }
+        task.setVersion(task.getVersion() + 1);
+        edited.forEach(task::touchField);
+    }
+
+    private static boolean differs(Object edited, Object current) {
+        return edited != null && !edited.equals(current);
+    }
+
     @Override
     public Task addTaskParticipant(Long groupId, Long taskId, Long userId, TaskParticipantRole taskParticipantRole) {
         authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
@@ -1163,6 +1327,50 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         touchTaskChange(task, false, true, false);
     }
 
+    // participant diff across any number of tasks of the group: the tasks are
+    // loaded in one query, the whole diff is validated up front (one membership
+    // query), and each task that changed is touched once. returns the previews
+    // of the changed tasks.
+    @Override
+    public Set<TaskPreviewDto> applyTaskParticipantChanges(Long groupId, List<TaskParticipantChangeDto> changes) {
+        Role currentUserRole = authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+
+        Set<Long> taskIds = new HashSet<>();
+        for (TaskParticipantChangeDto change : changes) taskIds.add(change.taskId());
+
+        Map<Long, Task> tasksById = new HashMap<>();
+        for (Task task : taskRepository.findAllWithTaskParticipants(groupId, taskIds)) {
+            tasksById.put(task.getId(), task);
+        }
+        for (Long taskId : taskIds) {
+            if (!tasksById.containsKey(taskId)) {
+                throw new TaskNotFoundException("Task with id " + taskId + " is not found");
+            }
+        }
+        groupValidator.validateTaskParticipantChanges(groupId, tasksById, changes);
+
+        for (TaskParticipantChangeDto change : changes) {
+            Task task = tasksById.get(change.taskId());
+            switch (change.type()) {
+                case ADD -> task.getTaskParticipants().add(participant(task,
+                        userRepository.getReferenceById(change.userId()), change.role()));
+                case REMOVE -> task.getTaskParticipants().removeIf(tp ->
+                        tp.getTaskParticipantRole() == change.role() && tp.getUser().getId().equals(change.userId()));
+                case CHANGE_ROLE -> task.getTaskParticipants().stream()
+                        .filter(tp -> tp.getUser().getId().equals(change.userId())
+                                && tp.getTaskParticipantRole() != TaskParticipantRole.CREATOR)
+                        .forEach(tp -> tp.setTaskParticipantRole(change.role()));
+            }
+        }
+        for (Task task : tasksById.values()) {
+            touchTaskChange(task, false, true, false);
+        }
+        taskRepository.saveAll(tasksById.values());
+
+        return toTaskPreviews(taskRepository.findPreviewRowsByIds(groupId, effectiveCurrentUser.getUserId(), taskIds),
+                currentUserRole);
+    }
+
     @Override
     public void notifyTaskParticipant(Long groupId, Long taskId, Long userId, String customNote) {
         authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
@@ -1234,12 +1442,10 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         if (targets.isEmpty()) throw new LimitExceededException("No reachable recipients");
 
-        // charge one email unit per recipient
-        for (int i = 0; i < targets.size(); i++) {
-            int charged = userRepository.incrementEmailUsage(owner.getId(), quota);
-            if (charged == 0) throw new LimitExceededException(
-                    "Monthly email quota exhausted after " + i + " of " + targets.size() + " emails");
-        }
+        // charge one email unit per recipient, all or nothing in a single UPDATE
+        int charged = userRepository.chargeEmailUsage(owner.getId(), targets.size(), quota);
+        if (charged == 0) throw new LimitExceededException(
+                "Monthly email quota cannot cover " + targets.size() + " emails");
 
         EmailClient emailClient = emailClientProvider.getIfAvailable();
         if (emailClient != null) {
@@ -1247,9 +1453,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
             String body = TaskEmailTemplates.notifyBody(
                     caller.getName(), task.getTitle(), group.getName(),
                     groupId, taskId, safeNote, appUrl);
-            for (User target : targets) {
-                emailQueueService.enqueue(target.getEmail(), subject, body);
-            }
+            emailQueueService.enqueueAll(targets.stream().map(User::getEmail).toList(), subject, body);
         }
     }
 
@@ -1269,12 +1473,15 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         chargeStorageBudget(leader, file.getSize());
 
-        String url = blobStorageService.uploadTaskFile(file, taskId, maxFileSize);
+        var stored = blobStorageService.uploadTaskFile(file, taskId, maxFileSize);
         task.getCreatorFiles().add(TaskFile.builder()
                 .task(task)
                 .name(StringSanitizer.sanitizeFilename(file.getOriginalFilename()))
-                .fileUrl(url)
-                .fileSize(file.getSize())
+                .fileUrl(stored.blobName())
+                .fileSize(stored.size())
+                .contentType(stored.contentType())
+                .contentMd5(stored.contentMd5())
+                .blobETag(stored.etag())
                 .uploadedBy(userRepository.getReferenceById(effectiveCurrentUser.getUserId()))
                 .build());
         touchTaskChange(task, false, false, false);
@@ -1282,10 +1489,84 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
     }
 
-    // download charges the group leader's monthly download budget.
+    @Override
+    public TaskFileUploadTarget prepareTaskFileUpload(Long groupId, Long taskId, String filename, long sizeBytes) {
+        authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+        var task = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
+
+        User leader = findGroupLeader(groupId);
+        SubscriptionPlan leaderPlan = leader.getSubscriptionPlan();
+        Group group = task.getGroup();
+        int maxCreator = resolveMaxCreatorFiles(task, group, leaderPlan);
+        long maxFileSize = resolveMaxFileSizeBytes(task, group, leaderPlan);
+
+        groupValidator.validateAddTaskFile(task, groupId, sizeBytes, maxCreator);
+        ensureStorageBudgetFits(leader, sizeBytes);
+
+        var target = blobStorageService.prepareTaskFileUpload(filename, sizeBytes, taskId, maxFileSize);
+        return new TaskFileUploadTarget(target.blobName(), target.uploadUrl(), target.expiresAt());
+    }
+
+    // re-checks everything prepare did (the file count may have moved since)
+    // and that the staged blob is the one announced. any mismatch drops it;
+    // otherwise it's copied to its final name, which the row points at.
+    @Override
+    public Task finalizeTaskFileUpload(Long groupId, Long taskId, String blobName, String filename,
+                                       long sizeBytes, String contentType) {
+        authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+        // a double submit of the same finalize queues here; the second one
+        // then fails the existsByFileUrl check instead of charging again
+        taskRepository.findByIdForUpdate(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
+        var task = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
+
+        User leader = findGroupLeader(groupId);
+        SubscriptionPlan leaderPlan = leader.getSubscriptionPlan();
+        Group group = task.getGroup();
+        int maxCreator = resolveMaxCreatorFiles(task, group, leaderPlan);
+        long maxFileSize = resolveMaxFileSizeBytes(task, group, leaderPlan);
+
+        groupValidator.validateAddTaskFile(task, groupId, sizeBytes, maxCreator);
+        requireDirectUploadBlob(taskId, blobName, taskFileRepository::existsByFileUrl);
+
+        var blob = blobStorageService.getTaskFileInfo(blobName);
+        String mismatch = directUploadMismatch(blob, sizeBytes, contentType, maxFileSize);
+        if (mismatch != null) {
+            if (blob != null) blobStorageService.discardTaskFileUpload(blobName);
+            throw new BlobUploadTaskFileException(mismatch);
+        }
+
+        var stored = blobStorageService.promoteTaskFileUpload(blobName, blob.etag());
+        try {
+            chargeStorageBudget(leader, stored.size());
+        } catch (LimitExceededException e) {
+            blobStorageService.discardTaskFileUpload(stored.blobName());
+            throw e;
+        }
+
+        task.getCreatorFiles().add(TaskFile.builder()
+                .task(task)
+                .name(StringSanitizer.sanitizeFilename(filename))
+                .fileUrl(stored.blobName())
+                .fileSize(stored.size())
+                .contentType(stored.contentType())
+                .contentMd5(stored.contentMd5())
+                .blobETag(stored.etag())
+                .uploadedBy(userRepository.getReferenceById(effectiveCurrentUser.getUserId()))
+                .build());
+        touchTaskChange(task, false, false, false);
+        return taskRepository.save(task);
+    }
+
+    // download charges the group leader's monthly download budget, for the
+    // bytes actually served — a resumed download only pays for the rest.
     // legacy files (size==0, uploaded before we tracked sizes) pass free.
+    // files above the redirect threshold get a read SAS instead of a stream;
+    // the Range goes along with the redirect and storage serves it.
     @Transactional // read-write: charges the owner's monthly download budget
-    public TaskFileDownload downloadTaskFile(Long groupId, Long taskId, Long fileId) {
+    public TaskFileDownload downloadTaskFile(Long groupId, Long taskId, Long fileId, HttpRange requested) {
         authorizationService.requireAnyRoleIn(groupId);
 
         var task = taskRepository.findByIdWithParticipantsAndFiles(taskId)
@@ -1298,11 +1579,26 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
                 .findFirst()
                 .orElseThrow(() -> new TaskFileNotFoundException("File not found"));
 
-        checkRepeatGuard(task.getGroup(), fileId);
-        chargeDownloadBudget(groupId, file.getFileSize());
+        // the signed URL is good for the whole blob, whatever Range came with
+        // the request, so a redirect is guarded and charged as a full download
+        if (planLimits.redirectsDownload(file.getFileSize())) {
+            checkRepeatGuard(task.getGroup(), fileId, null);
+            chargeDownloadBudget(groupId, file.getFileSize());
+            return TaskFileDownload.redirect(
+                    blobStorageService.taskFileDownloadUrl(file.getFileUrl(), file.getName()),
+                    file.getName(), file.getFileSize());
+        }
+
+        ByteRange range = resolveRange(requested, file.getFileSize());
+        checkRepeatGuard(task.getGroup(), fileId, range);
+        long charged = range != null ? range.length() : file.getFileSize();
+        User chargedOwner = chargeDownloadBudget(groupId, charged);
 
-        var download = blobStorageService.downloadTaskFile(file.getFileUrl());
-        return new TaskFileDownload(download.inputStream(), file.getName(), download.size());
+        var download = range == null
+                ? blobStorageService.downloadTaskFile(file.getFileUrl(), file.getBlobETag())
+                : blobStorageService.downloadTaskFile(file.getFileUrl(), file.getBlobETag(), range.start(), range.length());
+        return new TaskFileDownload(trackDelivery(task.getGroup(), fileId, range, download, chargedOwner, charged),
+                file.getName(), download.size(), range);
 
     }
 
@@ -1349,18 +1645,88 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         chargeStorageBudget(leader, file.getSize());
 
-        String url = blobStorageService.uploadTaskAssigneeFile(file, taskId, maxFileSize);
+        var stored = blobStorageService.uploadTaskAssigneeFile(file, taskId, maxFileSize);
         task.getAssigneeFiles().add(TaskAssigneeFile.builder()
             .task(task)
             .name(StringSanitizer.sanitizeFilename(file.getOriginalFilename()))
-            .fileUrl(url)
-            .fileSize(file.getSize())
+            .fileUrl(stored.blobName())
+            .fileSize(stored.size())
+            .contentType(stored.contentType())
+            .contentMd5(stored.contentMd5())
+            .blobETag(stored.etag())
             .uploadedBy(userRepository.getReferenceById(effectiveCurrentUser.getUserId()))
             .build());
         touchTaskChange(task, false, false, false);
         return taskRepository.save(task);
         }
 
+    @Override
+    public TaskFileUploadTarget prepareAssigneeTaskFileUpload(Long groupId, Long taskId, String filename, long sizeBytes) {
+        authorizationService.requireAnyRoleIn(groupId);
+        var task = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
+
+        User leader = findGroupLeader(groupId);
+        SubscriptionPlan leaderPlan = leader.getSubscriptionPlan();
+        Group group = task.getGroup();
+        int maxAssignee = resolveMaxAssigneeFiles(task, group, leaderPlan);
+        long maxFileSize = resolveMaxFileSizeBytes(task, group, leaderPlan);
+
+        groupValidator.validateAddAssigneeTaskFile(task, groupId, sizeBytes, maxAssignee);
+        ensureStorageBudgetFits(leader, sizeBytes);
+
+        var target = blobStorageService.prepareTaskAssigneeFileUpload(filename, sizeBytes, taskId, maxFileSize);
+        return new TaskFileUploadTarget(target.blobName(), target.uploadUrl(), target.expiresAt());
+    }
+
+    @Override
+    public Task finalizeAssigneeTaskFileUpload(Long groupId, Long taskId, String blobName, String filename,
+                                               long sizeBytes, String contentType) {
+        authorizationService.requireAnyRoleIn(groupId);
+        // same serialization as finalizeTaskFileUpload
+        taskRepository.findByIdForUpdate(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
+        var task = taskRepository.findByIdWithFullFetchParticipantsAndFiles(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
+
+        User leader = findGroupLeader(groupId);
+        SubscriptionPlan leaderPlan = leader.getSubscriptionPlan();
+        Group group = task.getGroup();
+        int maxAssignee = resolveMaxAssigneeFiles(task, group, leaderPlan);
+        long maxFileSize = resolveMaxFileSizeBytes(task, group, leaderPlan);
+
+        groupValidator.validateAddAssigneeTaskFile(task, groupId, sizeBytes, maxAssignee);
+        requireDirectUploadBlob(taskId, blobName, taskAssigneeFileRepository::existsByFileUrl);
+
+        var blob = blobStorageService.getTaskAssigneeFileInfo(blobName);
+        String mismatch = directUploadMismatch(blob, sizeBytes, contentType, maxFileSize);
+        if (mismatch != null) {
+            if (blob != null) blobStorageService.discardTaskAssigneeFileUpload(blobName);
+            throw new BlobUploadTaskFileException(mismatch);
+        }
+
+        var stored = blobStorageService.promoteTaskAssigneeFileUpload(blobName, blob.etag());
+        try {
+            chargeStorageBudget(leader, stored.size());
+        } catch (LimitExceededException e) {
+            blobStorageService.discardTaskAssigneeFileUpload(stored.blobName());
+            throw e;
+        }
+
+        task.getAssigneeFiles().add(TaskAssigneeFile.builder()
+                .task(task)
+                .name(StringSanitizer.sanitizeFilename(filename))
+                .fileUrl(stored.blobName())
+                .fileSize(stored.size())
+                .contentType(stored.contentType())
+                .contentMd5(stored.contentMd5())
+                .blobETag(stored.etag())
+                .uploadedBy(userRepository.getReferenceById(effectiveCurrentUser.getUserId()))
+                .build());
+        touchTaskChange(task, false, false, false);
+        return taskRepository.save(task);
+    }
+
         @Override
         public void removeAssigneeTaskFile(Long groupId, Long taskId, Long fileId) {
         authorizationService.requireAnyRoleIn(groupId);
@@ -1386,7 +1752,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         @Override
         @Transactional // read-write: charges the owner's monthly download budget
-        public TaskFileDownload downloadAssigneeTaskFile(Long groupId, Long taskId, Long fileId) {
+        public TaskFileDownload downloadAssigneeTaskFile(Long groupId, Long taskId, Long fileId, HttpRange requested) {
         authorizationService.requireAnyRoleIn(groupId);
 
         var task = taskRepository.findByIdWithParticipantsAndFiles(taskId)
@@ -1399,23 +1765,39 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
             .findFirst()
             .orElseThrow(() -> new TaskFileNotFoundException("File not found"));
 
-        checkRepeatGuard(task.getGroup(), fileId);
-        chargeDownloadBudget(groupId, file.getFileSize());
+        if (planLimits.redirectsDownload(file.getFileSize())) {
+            checkRepeatGuard(task.getGroup(), fileId, null);
+            chargeDownloadBudget(groupId, file.getFileSize());
+            return TaskFileDownload.redirect(
+                blobStorageService.taskAssigneeFileDownloadUrl(file.getFileUrl(), file.getName()),
+                file.getName(), file.getFileSize());
+        }
+
+        ByteRange range = resolveRange(requested, file.getFileSize());
+        checkRepeatGuard(task.getGroup(), fileId, range);
+        long charged = range != null ? range.length() : file.getFileSize();
+        User chargedOwner = chargeDownloadBudget(groupId, charged);
 
-        var download = blobStorageService.downloadTaskAssigneeFile(file.getFileUrl());
-        return new TaskFileDownload(download.inputStream(), file.getName(), download.size());
+        var download = range == null
+            ? blobStorageService.downloadTaskAssigneeFile(file.getFileUrl(), file.getBlobETag())
+            : blobStorageService.downloadTaskAssigneeFile(file.getFileUrl(), file.getBlobETag(), range.start(), range.length());
+        return new TaskFileDownload(trackDelivery(task.getGroup(), fileId, range, download, chargedOwner, charged),
+                file.getName(), download.size(), range);
         }
 
         // markTaskToBeReviewed: assignee workflow action. wipes any
         // existing file reviews so reviewers evaluation starts fresh.
         @Override
-        public Task markTaskToBeReviewed(Long groupId, Long taskId) {
+        public Task markTaskToBeReviewed(Long groupId, Long taskId, Long expectedVersion) {
         authorizationService.requireAnyRoleIn(groupId);
 
         var task = taskRepository.findByIdWithTaskParticipants(taskId)
             .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
 
         groupValidator.validateAssigneeMarkTaskToBeReviewed(task, groupId);
+        // re-marking still wipes the file reviews, so even an unchanged state
+        // counts as an edit of STATE
+        claimTaskEdit(groupId, task, expectedVersion, EnumSet.of(TaskField.STATE));
         fileReviewStatusRepository.deleteAllByTaskFileTaskId(taskId);
         fileReviewStatusRepository.deleteAllByTaskAssigneeFileTaskId(taskId);
         task.setTaskState(TaskState.TO_BE_REVIEWED);
@@ -1483,49 +1865,65 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         taskRepository.save(task);
     }
 
+    // only queues the purge; CommentPurgeWorker deletes in small batches
     @Override
-    public int bulkDeleteCommentsBefore(Long groupId, Long taskId, Instant before) {
+    public CommentPurgeStatusDto bulkDeleteCommentsBefore(Long groupId, Long taskId, Instant before) {
         authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+        Task task = findTaskInGroup(groupId, taskId);
 
-        Task task = taskRepository.findByIdWithParticipantsAndFiles(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " is not found"));
-
-        if (!task.getGroup().getId().equals(groupId)) {
-            throw new BusinessRuleException("Task does not belong to the group");
-        }
-
-        int deleted = taskCommentRepository.deleteByTaskIdAndCreatedAtBefore(taskId, before);
-
-        if (deleted > 0) {
-            long currentCount = taskCommentRepository.countByTask_Id(taskId);
-            task.setCommentCount(currentCount);
-            touchTaskChange(task, false, false, true);
-            taskRepository.save(task);
+        if (taskRepository.startCommentPurge(taskId, before) == 0) {
+            throw new BusinessRuleException("Comments of this task are already being deleted, try again when that finishes");
         }
+        return new CommentPurgeStatusDto(true, before, 0, task.getCommentCount() == null ? 0 : task.getCommentCount());
+    }
 
-        return deleted;
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPurgeStatusDto getCommentPurgeStatus(Long groupId, Long taskId) {
+        authorizationService.requireRoleIn(groupId, Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+        Task task = findTaskInGroup(groupId, taskId);
+        return new CommentPurgeStatusDto(task.getCommentPurgeBefore() != null, task.getCommentPurgeBefore(),
+                task.getCommentPurgeDeleted(), task.getCommentCount() == null ? 0 : task.getCommentCount());
     }
 
     // Incremental polling: the frontend periodically calls refreshGroup with
-    // the timestamp of its last successful refresh. We compare that against
-    // the group's multiple "last change" timestamps to decide what changed.
+    // the group change sequence (serverSeq) of its last successful refresh.
+    // We compare that against the group's per-area seqs to decide what changed.
     // This avoids re-fetching the entire group on every poll.
+    // Older clients still send only the lastSeen timestamp; that path keeps
+    // the old Instant comparisons (and their clock-skew allowances).
     @Override
     @Transactional(readOnly = true)
-    public GroupRefreshDto refreshGroup(Long groupId, Instant lastSeen) {
-        authorizationService.requireAnyRoleIn(groupId);
+    public GroupRefreshDto refreshGroup(Long groupId, Instant lastSeen, Long sinceSeq) {
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
         Instant serverNow = Instant.now();
 
         Group group = groupRepository.findByIdWithOwner(groupId)
                 .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
 
-        boolean groupChanged = group.getLastChangeInGroup() != null && group.getLastChangeInGroup().isAfter(lastSeen);
-        // groupNoJoinsChanged: metadata changes (name, desc, image) but NOT
-        // member joins/leaves. This distinction lets the frontend skip
-        // re-rendering the member list when only the name changed.
-        boolean groupNoJoinsChanged = group.getLastChangeInGroupNoJoins() != null && group.getLastChangeInGroupNoJoins().isAfter(lastSeen);
-        boolean tasksDeleted = group.getLastDeleteTaskDate() != null && group.getLastDeleteTaskDate().isAfter(lastSeen);
-        boolean membersChanged = group.getLastMemberChangeDate() != null && group.getLastMemberChangeDate().isAfter(lastSeen);
+        // the seq is read before the task/tombstone queries below, so anything
+        // committed in between is at worst sent twice — never skipped
+        boolean bySeq = sinceSeq != null;
+        long serverSeq = group.getChangeSeq();
+
+        boolean groupChanged;
+        boolean groupNoJoinsChanged;
+        boolean tasksDeleted;
+        boolean membersChanged;
+        if (bySeq) {
+            groupChanged = serverSeq > sinceSeq;
+            groupNoJoinsChanged = group.getNoJoinsChangeSeq() > sinceSeq;
+            tasksDeleted = group.getDeleteTaskSeq() > sinceSeq;
+            membersChanged = group.getMemberChangeSeq() > sinceSeq;
+        } else {
+            groupChanged = group.getLastChangeInGroup() != null && group.getLastChangeInGroup().isAfter(lastSeen);
+            // groupNoJoinsChanged: metadata changes (name, desc, image) but NOT
+            // member joins/leaves. This distinction lets the frontend skip
+            // re-rendering the member list when only the name changed.
+            groupNoJoinsChanged = group.getLastChangeInGroupNoJoins() != null && group.getLastChangeInGroupNoJoins().isAfter(lastSeen);
+            tasksDeleted = group.getLastDeleteTaskDate() != null && group.getLastDeleteTaskDate().isAfter(lastSeen);
+            membersChanged = group.getLastMemberChangeDate() != null && group.getLastMemberChangeDate().isAfter(lastSeen);
+        }
 
         // always return plan limits even if nothing changed, so the frontend
         // stays synced if the admin changed the user's plan
@@ -1535,6 +1933,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         if (!groupChanged && !tasksDeleted) {
             return GroupRefreshDto.builder()
                     .serverNow(serverNow)
+                    .serverSeq(serverSeq)
                     .changed(false)
                     .membersChanged(membersChanged)
                     .ownerPlan(ownerPlan.name())
@@ -1555,6 +1954,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         GroupRefreshDto.GroupRefreshDtoBuilder builder = GroupRefreshDto.builder()
                 .serverNow(serverNow)
+                .serverSeq(serverSeq)
                 .changed(true)
                 .membersChanged(membersChanged)
                 .ownerPlan(ownerPlan.name())
@@ -1590,43 +1990,19 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         }
 
         Long currentUserId = effectiveCurrentUser.getUserId();
-        var membershipOpt = groupMembershipRepository.findByGroupIdAndUserId(groupId, currentUserId);
-        boolean isLeaderOrManager = membershipOpt.isPresent() && (
-                membershipOpt.get().getRole() == Role.GROUP_LEADER ||
-                        membershipOpt.get().getRole() == Role.TASK_MANAGER
-        );
-        Role currentUserRole = membershipOpt.isPresent() ? membershipOpt.get().getRole() : null;
-
-        Set<Task> changedTasks = taskRepository.findChangedSince(groupId, lastSeen);
-        Set<TaskPreviewDto> taskPreviews = changedTasks.stream()
-                .map(task -> {
-                    boolean accessible = isLeaderOrManager || task.getTaskParticipants().stream()
-                            .anyMatch(tp -> tp.getUser().getId().equals(currentUserId));
-                    boolean areThereNewCommentsToBeRead = task.getTaskParticipants().stream()
-                            .anyMatch(tp -> tp.getUser().getId().equals(currentUserId)
-                                    && tp.getLastSeenTaskComments() != null
-                                    && task.getLastCommentDate() != null
-                                    && tp.getLastSeenTaskComments().isBefore(task.getLastCommentDate()));
-                    return TaskPreviewDto.builder()
-                            .id(task.getId())
-                            .title(task.getTitle())
-                            .taskState(task.getTaskState())
-                            .createdAt(task.getCreatedAt())
-                            .dueDate(task.getDueDate())
-                            .commentCount(task.getCommentCount())
-                            .accessible(accessible)
-                            .newCommentsToBeRead(areThereNewCommentsToBeRead)
-                            .creatorName(task.getCreatorNameSnapshot())
-                            .priority(task.getPriority())
-                            .deletable(computeIsDeletable(task, currentUserRole, groupId, currentUserId))
-                            .build();
-                })
-                .collect(Collectors.toSet());
-        builder.changedTasks(taskPreviews);
 
-        // for deleted tasks, look back 3 extra seconds to avoid clock-skew
-        // races where the frontend lastSeen is just barely after the delete
-        if (tasksDeleted) {
+        var changedRows = bySeq
+                ? taskRepository.findPreviewRowsChangedSinceSeq(groupId, currentUserId, sinceSeq)
+                : taskRepository.findPreviewRowsChangedSince(groupId, currentUserId, lastSeen);
+        builder.changedTasks(toTaskPreviews(changedRows, currentUserRole));
+
+        // seq mode is exact. the timestamp mode looks back 3 extra seconds to
+        // avoid clock-skew races where the frontend lastSeen is just barely after the delete
+        if (tasksDeleted && bySeq) {
+            builder.deletedTaskIds(
+                    deletedTaskRepository.findDeletedTaskIdsByGroupIdAndSeqAfter(groupId, sinceSeq)
+            );
+        } else if (tasksDeleted) {
             Instant cutoff = lastSeen.minusSeconds(3);
             builder.deletedTaskIds(
                     deletedTaskRepository.findDeletedTaskIdsByGroupIdAndDeletedAtAfter(groupId, cutoff)
@@ -1641,7 +2017,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     // which task IDs disappeared since its last refresh.
     @Override
     public void deleteTask(Long groupId, Long taskId) {
-        authorizationService.requireRoleIn(groupId,Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
+        Role currentUserRole = authorizationService.requireRoleIn(groupId,Set.of(Role.GROUP_LEADER, Role.TASK_MANAGER));
         var curUser = userRepository.findById(effectiveCurrentUser.getUserId()).orElseThrow();
         var taskToBeDeleted = taskRepository.findById(taskId).orElseThrow(
                 ()-> new EntityNotFoundException("Task to be deleted doesnt exist"));
@@ -1653,8 +2029,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         // task manager privilege check: can't delete tasks created by
         // leaders or other task managers (protects hierarchy)
-        var currentMembershipForDelete = groupMembershipRepository.findByGroupIdAndUserId(groupId, effectiveCurrentUser.getUserId());
-        if (currentMembershipForDelete.isPresent() && currentMembershipForDelete.get().getRole() == Role.TASK_MANAGER) {
+        if (currentUserRole == Role.TASK_MANAGER) {
             Long creatorId = taskToBeDeleted.getCreatorIdSnapshot();
             if (creatorId != null && !creatorId.equals(effectiveCurrentUser.getUserId())) {
                 var creatorMembership = groupMembershipRepository.findByGroupIdAndUserId(groupId, creatorId);
@@ -1676,26 +2051,29 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
             .build();
         deletedTaskRepository.save(delTask);
         groupOfTask.setLastDeleteTaskDate(now);
+        groupChangeTracker.stampSeq(groupId, seq -> {
+            delTask.setSeq(seq);
+            groupOfTask.setDeleteTaskSeq(seq);
+        });
         taskRepository.deleteById(taskId);
         groupEventRepository.save(GroupEvent.builder()
                 .group(groupOfTask)
                 .description("Task '" + taskToBeDeleted.getTitle() + "' has been deleted by "
                 + curUser.getName()).build());
         groupOfTask.setLastGroupEventDate(now);
-        groupOfTask.setLastChangeInGroup(now);
+        groupChangeTracker.taskDeleted(groupId, taskId, now);
+        groupChangeTracker.groupChanged(groupId, now);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Set<Long> findAccessibleTaskIds(Long groupId) {
-        authorizationService.requireAnyRoleIn(groupId);
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
         Long currentUserId = effectiveCurrentUser.getUserId();
 
-        var membershipOpt = groupMembershipRepository.findByUser_IdAndGroup_Id(currentUserId, groupId);
-        boolean isLeaderOrManager = membershipOpt!=null && (
-                membershipOpt.getRole() == Role.GROUP_LEADER ||
-                membershipOpt.getRole() == Role.TASK_MANAGER
-        );
+        boolean isLeaderOrManager =
+                currentUserRole == Role.GROUP_LEADER ||
+                currentUserRole == Role.TASK_MANAGER;
 
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
@@ -1724,12 +2102,12 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
             Boolean hasFiles
     ) {
 
-        var membership = authorizationService.requireAnyRoleInAndGet(groupId);
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
         Long currentUserId = effectiveCurrentUser.getUserId();
 
         boolean isLeaderOrManager =
-                membership.getRole() == Role.GROUP_LEADER ||
-                membership.getRole() == Role.TASK_MANAGER;
+                currentUserRole == Role.GROUP_LEADER ||
+                currentUserRole == Role.TASK_MANAGER;
 
         Long effectiveCreatorId  = Boolean.TRUE.equals(creatorIsMe)  ? currentUserId : creatorId;
         Long effectiveReviewerId = Boolean.TRUE.equals(reviewerIsMe) ? currentUserId : reviewerId;
@@ -1737,8 +2115,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
 
         Long participantUserId = isLeaderOrManager ? null : currentUserId;
 
-        return taskRepository.filterTaskIds(
-                groupId,
+        return taskFilterIndex.filter(groupId, new TaskFilterIndex.Criteria(
                 effectiveCreatorId,
                 effectiveReviewerId,
                 effectiveAssigneeId,
@@ -1748,7 +2125,7 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
                 priorityMax,
                 taskState,
                 hasFiles
-        );
+        ));
     }
 
     // change-tracking timestamps
@@ -1767,14 +2144,20 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     // noJoins=false means a member join/leave which bumps the general timestamp
     private void touchGroupChange(Group group, boolean noJoins) {
         Instant now = Instant.now();
-        group.setLastChangeInGroup(now);
         if (noJoins) {
-            group.setLastChangeInGroupNoJoins(now);
+            groupChangeTracker.stampSeq(group.getId(), group::setNoJoinsChangeSeq);
+        } else {
+            groupChangeTracker.stampSeq(group.getId(), seq -> {});
         }
+        // the lastChange* columns are written by GroupLastChangeFlusher after commit
+        groupChangeTracker.groupChanged(group.getId(), now, noJoins);
     }
 
     private void touchMemberChange(Group group) {
-        group.setLastMemberChangeDate(Instant.now());
+        Instant now = Instant.now();
+        group.setLastMemberChangeDate(now);
+        groupChangeTracker.stampSeq(group.getId(), group::setMemberChangeSeq);
+        groupChangeTracker.memberChanged(group.getId(), now);
     }
 
     // task-level change tracking: separate flags for participants vs comments
@@ -1785,6 +2168,8 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         if (noJoins) task.setLastChangeDateNoJoins(now);
         if (participants) task.setLastChangeDateInParticipants(now);
         if (comments) task.setLastChangeDateInComments(now);
+        groupChangeTracker.stampSeq(task.getGroup().getId(), task::setChangeSeq);
+        groupChangeTracker.taskChanged(task.getGroup().getId(), task.getId(), now, comments);
         touchGroupChange(task.getGroup(), false);
     }
 
@@ -1811,37 +2196,92 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     @Transactional(readOnly = true)
     public boolean hasGroupChanged(Long groupId, Instant lastSeen) {
         authorizationService.requireAnyRoleIn(groupId);
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
-        boolean groupChanged = group.getLastChangeInGroup() != null && group.getLastChangeInGroup().isAfter(lastSeen);
-        boolean tasksDeleted = group.getLastDeleteTaskDate() != null && group.getLastDeleteTaskDate().isAfter(lastSeen);
+        Instant lastChange;
+        Instant lastDelete;
+        var cached = groupChangeTracker.getGroupVersions(groupId);
+        if (cached != null) {
+            lastChange = cached.lastChange();
+            lastDelete = cached.lastDelete();
+        } else {
+            Group group = groupRepository.findById(groupId)
+                    .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
+            lastChange = group.getLastChangeInGroup();
+            lastDelete = group.getLastDeleteTaskDate();
+            groupChangeTracker.seed(groupId, new GroupChangeSet()
+                    .groupChanged(orEpoch(lastChange))
+                    .taskDeleted(null, orEpoch(lastDelete)));
+        }
+        boolean groupChanged = lastChange != null && lastChange.isAfter(lastSeen);
+        boolean tasksDeleted = lastDelete != null && lastDelete.isAfter(lastSeen);
     return groupChanged || tasksDeleted;
     }
 
+    // one joined query answers both "is the caller a member" and "what are the
+    // group's change stamps" for every requested group; the invitation flag is
+    // the same user-row read hasNewInvitations does. the map is capped so the
+    // IN list stays small — TEAM's maxGroups is far below it.
+    @Override
+    @Transactional(readOnly = true)
+    public GroupChangesDto findChangedGroups(Map<Long, Instant> lastSeenByGroup) {
+        if (lastSeenByGroup.size() > 50) {
+            throw new InvalidFieldValueException("At most 50 groups can be checked per request");
+        }
+
+        Set<Long> changed = new HashSet<>();
+        Set<Long> removed = new HashSet<>(lastSeenByGroup.keySet());
+        if (!lastSeenByGroup.isEmpty()) {
+            Long userId = effectiveCurrentUser.getUserId();
+            for (var stamp : groupMembershipRepository.findChangeStampsForMember(userId, lastSeenByGroup.keySet())) {
+                removed.remove(stamp.groupId());
+                Instant lastSeen = lastSeenByGroup.get(stamp.groupId());
+                boolean groupChanged = lastSeen == null
+                        || (stamp.lastChangeInGroup() != null && stamp.lastChangeInGroup().isAfter(lastSeen))
+                        || (stamp.lastDeleteTaskDate() != null && stamp.lastDeleteTaskDate().isAfter(lastSeen));
+                if (groupChanged) changed.add(stamp.groupId());
+            }
+        }
+
+        return new GroupChangesDto(changed, removed, hasNewInvitations());
+    }
+
     // hasTaskChanged uses a 5-second buffer (plusSeconds(5)) to avoid
-    // false positives from the user's own recent edits bouncing back
+    // false positives from the user's own recent edits bouncing back.
+    // with sinceSeq (the task's changeSeq as last fetched) the check is exact:
+    // the caller's own edit already came back with its seq, so no buffer.
     @Override
     @Transactional(readOnly = true)
-    public boolean hasTaskChanged(Long groupId, Long taskId, Instant since) {
+    public boolean hasTaskChanged(Long groupId, Long taskId, Instant since, Long sinceSeq) {
         authorizationService.requireAnyRoleIn(groupId);
-        var task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found"));
-        if (!task.getGroup().getId().equals(groupId)) {
-            throw new TaskNotFoundException("Task not found in this group");
+        if (sinceSeq != null) {
+            long taskSeq = taskRepository.findChangeSeq(taskId, groupId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task with id " + taskId + " not found in this group"));
+            return taskSeq > sinceSeq;
         }
-        return task.getLastChangeDate() != null && task.getLastChangeDate().isAfter(since.plusSeconds(5));
+        Instant lastChange = groupChangeTracker.getTaskChange(groupId, taskId);
+        if (lastChange == null) {
+            var task = findTaskInGroup(groupId, taskId);
+            lastChange = task.getLastChangeDate();
+            groupChangeTracker.seed(groupId, new GroupChangeSet().taskChanged(taskId, orEpoch(lastChange)));
+        }
+        return lastChange != null && lastChange.isAfter(since.plusSeconds(5));
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean hasCommentsChanged(Long groupId, Long taskId, Instant since) {
         authorizationService.requireAnyRoleIn(groupId);
-        var task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found"));
-        if (!task.getGroup().getId().equals(groupId)) {
-            throw new TaskNotFoundException("Task not found in this group");
+        Instant lastChange = groupChangeTracker.getCommentChange(groupId, taskId);
+        if (lastChange == null) {
+            var task = findTaskInGroup(groupId, taskId);
+            lastChange = task.getLastChangeDateInComments();
+            groupChangeTracker.seed(groupId, new GroupChangeSet().commentsChanged(taskId, orEpoch(lastChange)));
         }
-        return task.getLastChangeDateInComments() != null && task.getLastChangeDateInComments().isAfter(since);
+        return lastChange != null && lastChange.isAfter(since);
+    }
+
+    // a null column is cached as EPOCH so "never changed" is still a cache hit
+    private static Instant orEpoch(Instant at) {
+        return at != null ? at : Instant.EPOCH;
     }
 
     @Override
@@ -1850,21 +2290,72 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
         authorizationService.requireAnyRoleIn(groupId);
     }
 
+    // the seq moves on any group/task/member change (and on the owner's plan
+    // change); the rest of the stamp is the per-caller state the snapshot
+    // renders but doesn't bump it. that part goes through SHA-256 rather than a
+    // 32-bit hash, so two states never share a tag. the owner's usage counters
+    // are left out: they move on every download and would make nearly every
+    // poll a miss, so the usage figures in a snapshot can lag until the seq moves.
+    // the owner name goes last, so a '|' in it can't shift the other fields.
+    @Override
+    @Transactional(readOnly = true)
+    public String findGroupSnapshotVersion(Long groupId) {
+        var stamp = groupMembershipRepository.findSnapshotStamp(groupId, effectiveCurrentUser.getUserId())
+                .orElseThrow(() -> new NotAGroupMemberException("Not a member of this group"));
+        String state = String.join("|",
+                String.valueOf(stamp.lastGroupEventDate()),
+                String.valueOf(stamp.lastSeenComments()),
+                stamp.role().name(),
+                stamp.ownerPlan().name(),
+                String.valueOf(stamp.ownerName()));
+        byte[] digest = sha256().digest(state.getBytes(StandardCharsets.UTF_8));
+        return stamp.changeSeq() + "-" + HexFormat.of().formatHex(digest, 0, 16);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    // builds the task cards from projection rows in one pass. leaders and task
+    // managers can open every task; everyone else only the ones they're on.
+    private Set<TaskPreviewDto> toTaskPreviews(List<TaskPreviewRow> rows, Role currentUserRole) {
+        boolean isLeaderOrManager = currentUserRole == Role.GROUP_LEADER || currentUserRole == Role.TASK_MANAGER;
+        Long currentUserId = effectiveCurrentUser.getUserId();
+        return rows.stream()
+                .map(row -> TaskPreviewDto.builder()
+                        .id(row.id())
+                        .title(row.title())
+                        .taskState(row.taskState())
+                        .createdAt(row.createdAt())
+                        .dueDate(row.dueDate())
+                        .commentCount(row.commentCount())
+                        .accessible(isLeaderOrManager || row.callerParticipations() > 0)
+                        .newCommentsToBeRead(row.callerUnreadParticipations() > 0)
+                        .creatorName(row.creatorName())
+                        .priority(row.priority())
+                        .deletable(computeIsDeletable(row, currentUserRole, currentUserId))
+                        .build())
+                .collect(Collectors.toSet());
+    }
+
     // determines if the current user can delete a specific task.
     // leaders can delete anything, task managers can only delete tasks
     // created by members who aren't leaders or other task managers.
-    private boolean computeIsDeletable(Task task, Role currentUserRole, Long groupId, Long currentUserId) {
+    // the creator's role comes with the row, so this no longer queries per task.
+    private static boolean computeIsDeletable(TaskPreviewRow row, Role currentUserRole, Long currentUserId) {
         if (currentUserRole == null) return false;
         if (currentUserRole == Role.GROUP_LEADER) return true;
         if (currentUserRole != Role.TASK_MANAGER) return false;
-        Long creatorId = task.getCreatorIdSnapshot();
+        Long creatorId = row.creatorId();
         if (creatorId == null) return true;
 
         if (creatorId.equals(currentUserId)) return true;
-        var creatorMembership = groupMembershipRepository.findByGroupIdAndUserId(groupId, creatorId);
-        return creatorMembership.isEmpty() ||
-            (creatorMembership.get().getRole() != Role.GROUP_LEADER &&
-             creatorMembership.get().getRole() != Role.TASK_MANAGER);
+        return row.creatorRole() != Role.GROUP_LEADER &&
+               row.creatorRole() != Role.TASK_MANAGER;
     }
 
     // Comment Intelligence
@@ -1958,14 +2449,12 @@ public class GroupServiceImpl extends BaseComponent implements GroupService{
     @Override
     @Transactional(readOnly = true)
     public List<GroupFileDto> getGroupFiles(Long groupId) {
-        authorizationService.requireAnyRoleIn(groupId);
+        Role currentUserRole = authorizationService.requireAnyRoleIn(groupId);
 
         Long currentUserId = effectiveCurrentUser.getUserId();
-        var membershipOpt = groupMembershipRepository.findByUser_IdAndGroup_Id(currentUserId, groupId);
-        boolean isLeaderOrManager = membershipOpt != null && (
-                membershipOpt.getRole() == Role.GROUP_LEADER ||
-                membershipOpt.getRole() == Role.TASK_MANAGER
-        );
+        boolean isLeaderOrManager =
+                currentUserRole == Role.GROUP_LEADER ||
+                currentUserRole == Role.TASK_MANAGER;
 
         List<TaskFile> creatorFiles = isLeaderOrManager
                 ? taskFileRepository.findAllByGroupId(groupId)
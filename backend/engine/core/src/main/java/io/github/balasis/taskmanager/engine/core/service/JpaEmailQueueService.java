@@ -8,6 +8,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 // core-layer impl of EmailQueueService. persists a PENDING row,
 // EmailQueueDrainer picks it up and sends through ACS or SMTP.
 @Service
@@ -20,12 +22,23 @@ public class JpaEmailQueueService implements EmailQueueService {
     @Override
     @Transactional
     public void enqueue(String to, String subject, String body) {
-        outboxRepository.save(EmailOutbox.builder()
+        outboxRepository.save(pending(to, subject, body));
+    }
+
+    // saveAll + hibernate.jdbc.batch_size sends the inserts as JDBC batches
+    @Override
+    @Transactional
+    public void enqueueAll(List<String> to, String subject, String body) {
+        outboxRepository.saveAll(to.stream().map(address -> pending(address, subject, body)).toList());
+    }
+
+    private static EmailOutbox pending(String to, String subject, String body) {
+        return EmailOutbox.builder()
                 .toAddress(to)
                 .subject(subject)
                 .body(body)
                 .status("PENDING")
                 .retryCount(0)
-                .build());
+                .build();
     }
 }
@@ -0,0 +1,309 @@
+package io.github.balasis.taskmanager.engine.core.service;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
+import io.github.balasis.taskmanager.context.base.exception.notfound.GroupNotFoundException;
+import io.github.balasis.taskmanager.engine.core.dto.GroupSeqsDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskIndexRow;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantIndexRow;
+import io.github.balasis.taskmanager.engine.core.repository.DeletedTaskRepository;
+import io.github.balasis.taskmanager.engine.core.repository.GroupRepository;
+import io.github.balasis.taskmanager.engine.core.repository.TaskParticipantRepository;
+import io.github.balasis.taskmanager.engine.core.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// in-process bitmap index over the filterable task columns of a group, so the
+// board filters (state, priority, due date, has-files, creator / assignee /
+// reviewer / participant) are BitSet intersections instead of the old catch-all
+// SQL with four correlated IN subqueries.
+//
+// each indexed task gets a dense slot number within its group; every bitmap is
+// keyed by slot. the index is kept in step with the per-group change seq: on
+// each filter call it reads the group's seqs (one PK row), and if the group
+// moved on it pulls only the tasks / tombstones stamped after the seq it last
+// saw. a member change (which deletes participant links in bulk without
+// touching the tasks) or an old index forces a full rebuild instead. because
+// the sync is driven from SQL, writes on other replicas are picked up too.
+//
+// the group's lock is only held to decide what to read and to merge it, never
+// across the delta queries, so a slow read doesn't queue every other filter
+// on the group behind it. a merge only goes in if nothing else was merged
+// since the read was planned; otherwise the request looks again and usually
+// finds the index already caught up by whoever got there first.
+//
+// groups are kept LRU up to MAX_GROUPS; an evicted group is rebuilt lazily
+// the next time someone filters it.
+@Service
+@RequiredArgsConstructor
+public class TaskFilterIndex {
+
+    private static final int MAX_GROUPS = 500;
+
+    // tombstones are purged after a few days by maintenance; rebuilding well
+    // before that also covers the rare admin edits that don't bump the seq
+    private static final Duration MAX_INDEX_AGE = Duration.ofMinutes(10);
+
+    private final GroupRepository groupRepository;
+    private final TaskRepository taskRepository;
+    private final TaskParticipantRepository taskParticipantRepository;
+    private final DeletedTaskRepository deletedTaskRepository;
+
+    private final Map<Long, GroupIndex> byGroup = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GroupIndex> eldest) {
+            return size() > MAX_GROUPS;
+        }
+    };
+
+    // every criterion is optional (null = don't filter on it), same as the query it replaces
+    public record Criteria(
+            Long creatorId,
+            Long reviewerId,
+            Long assigneeId,
+            Long participantUserId,
+            Instant dueDateBefore,
+            Integer priorityMin,
+            Integer priorityMax,
+            TaskState taskState,
+            Boolean hasFiles) {
+
+        public boolean isEmpty() {
+            return creatorId == null && reviewerId == null && assigneeId == null && participantUserId == null
+                    && dueDateBefore == null && priorityMin == null && priorityMax == null
+                    && taskState == null && hasFiles == null;
+        }
+    }
+
+    // must run inside a transaction so the seq read and the delta reads share a connection
+    public Set<Long> filter(Long groupId, Criteria criteria) {
+        GroupSeqsDto seqs = groupRepository.findSeqs(groupId)
+                .orElseThrow(() -> new GroupNotFoundException("Group with id " + groupId + " not found"));
+
+        GroupIndex index;
+        synchronized (byGroup) {
+            index = byGroup.computeIfAbsent(groupId, id -> new GroupIndex());
+        }
+        while (true) {
+            long sinceSeq;
+            long merges;
+            synchronized (index) {
+                if (isCurrent(index, seqs)) return index.query(criteria);
+                sinceSeq = needsRebuild(index, seqs) ? -1 : index.seq;
+                merges = index.merges;
+            }
+            Delta delta = load(groupId, sinceSeq);
+            synchronized (index) {
+                if (index.merges == merges) {
+                    merge(index, delta, seqs);
+                    return index.query(criteria);
+                }
+            }
+        }
+    }
+
+    public void evict(Long groupId) {
+        synchronized (byGroup) {
+            byGroup.remove(groupId);
+        }
+    }
+
+    private static boolean needsRebuild(GroupIndex index, GroupSeqsDto seqs) {
+        return index.builtAt == null
+                || seqs.memberChangeSeq() > index.seq
+                || index.builtAt.isBefore(Instant.now().minus(MAX_INDEX_AGE));
+    }
+
+    private static boolean isCurrent(GroupIndex index, GroupSeqsDto seqs) {
+        return !needsRebuild(index, seqs) && seqs.changeSeq() <= index.seq;
+    }
+
+    // what changed since sinceSeq (-1 = everything), read without the lock
+    private record Delta(long sinceSeq, List<TaskIndexRow> tasks,
+                         Map<Long, List<TaskParticipantIndexRow>> participantsByTask,
+                         Set<Long> deletedTaskIds) {}
+
+    private Delta load(Long groupId, long sinceSeq) {
+        Map<Long, List<TaskParticipantIndexRow>> participantsByTask = new HashMap<>();
+        for (var row : taskParticipantRepository.findIndexRows(groupId, sinceSeq)) {
+            participantsByTask.computeIfAbsent(row.taskId(), id -> new ArrayList<>()).add(row);
+        }
+        List<TaskIndexRow> tasks = taskRepository.findIndexRows(groupId, sinceSeq);
+        Set<Long> deletedTaskIds = sinceSeq < 0
+                ? Set.of()
+                : deletedTaskRepository.findDeletedTaskIdsByGroupIdAndSeqAfter(groupId, sinceSeq);
+        return new Delta(sinceSeq, tasks, participantsByTask, deletedTaskIds);
+    }
+
+    private static void merge(GroupIndex index, Delta delta, GroupSeqsDto seqs) {
+        if (delta.sinceSeq() < 0) {
+            index.clear();
+            index.builtAt = Instant.now();
+        }
+        for (TaskIndexRow row : delta.tasks()) {
+            index.put(row, delta.participantsByTask().getOrDefault(row.taskId(), List.of()));
+        }
+        for (Long taskId : delta.deletedTaskIds()) {
+            index.remove(taskId);
+        }
+        // rows stamped after this seq may already be in; re-applying them next time is harmless
+        index.seq = seqs.changeSeq();
+        index.merges++;
+    }
+
+    // one group's bitmaps. not thread-safe on its own — TaskFilterIndex locks it.
+    private static final class GroupIndex {
+
+        private long seq;
+        private Instant builtAt;
+        // bumped by every merge, so a request can tell its read went stale
+        private long merges;
+
+        private final Map<Long, Integer> slotByTaskId = new HashMap<>();
+        private final List<Entry> entries = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final BitSet freeSlots = new BitSet();
+
+        private final EnumMap<TaskState, BitSet> byState = new EnumMap<>(TaskState.class);
+        private final TreeMap<Integer, BitSet> byPriority = new TreeMap<>();
+        // due dates bucketed per UTC day; the cutoff day is checked slot by slot
+        private final TreeMap<Long, BitSet> byDueDay = new TreeMap<>();
+        private final BitSet withFiles = new BitSet();
+        private final EnumMap<TaskParticipantRole, Map<Long, BitSet>> byParticipant = new EnumMap<>(TaskParticipantRole.class);
+
+        // what a slot was indexed under, so it can be taken out of exactly those bitmaps
+        private record Entry(Long taskId, TaskIndexRow row, List<TaskParticipantIndexRow> participants) {}
+
+        void clear() {
+            seq = 0;
+            slotByTaskId.clear();
+            entries.clear();
+            live.clear();
+            freeSlots.clear();
+            byState.clear();
+            byPriority.clear();
+            byDueDay.clear();
+            withFiles.clear();
+            byParticipant.clear();
+        }
+
+        void put(TaskIndexRow row, List<TaskParticipantIndexRow> participants) {
+            remove(row.taskId());
+
+            int slot = freeSlots.isEmpty() ? entries.size() : freeSlots.nextSetBit(0);
+            if (slot == entries.size()) {
+                entries.add(null);
+            }
+            freeSlots.clear(slot);
+            entries.set(slot, new Entry(row.taskId(), row, List.copyOf(participants)));
+            slotByTaskId.put(row.taskId(), slot);
+            live.set(slot);
+
+            if (row.taskState() != null) bitmap(byState, row.taskState()).set(slot);
+            if (row.priority() != null) bitmap(byPriority, row.priority()).set(slot);
+            if (row.dueDate() != null) bitmap(byDueDay, dueDay(row.dueDate())).set(slot);
+            if (row.hasFiles()) withFiles.set(slot);
+            for (var p : participants) {
+                bitmap(byParticipant.computeIfAbsent(p.role(), r -> new HashMap<>()), p.userId()).set(slot);
+            }
+        }
+
+        void remove(Long taskId) {
+            Integer slot = slotByTaskId.remove(taskId);
+            if (slot == null) return;
+
+            Entry entry = entries.get(slot);
+            TaskIndexRow row = entry.row();
+            if (row.taskState() != null) unset(byState, row.taskState(), slot);
+            if (row.priority() != null) unset(byPriority, row.priority(), slot);
+            if (row.dueDate() != null) unset(byDueDay, dueDay(row.dueDate()), slot);
+            withFiles.clear(slot);
+            for (var p : entry.participants()) {
+                Map<Long, BitSet> byUser = byParticipant.get(p.role());
+                if (byUser != null) unset(byUser, p.userId(), slot);
+            }
+
+            live.clear(slot);
+            entries.set(slot, null);
+            freeSlots.set(slot);
+        }
+
+        Set<Long> query(Criteria c) {
+            BitSet result = (BitSet) live.clone();
+
+            if (c.taskState() != null) {
+                result.and(byState.getOrDefault(c.taskState(), new BitSet()));
+            }
+            if (c.priorityMin() != null || c.priorityMax() != null) {
+                int min = c.priorityMin() != null ? c.priorityMin() : Integer.MIN_VALUE;
+                int max = c.priorityMax() != null ? c.priorityMax() : Integer.MAX_VALUE;
+                result.and(min > max ? new BitSet() : union(byPriority.subMap(min, true, max, true).values()));
+            }
+            if (c.dueDateBefore() != null) {
+                long cutoffDay = dueDay(c.dueDateBefore());
+                BitSet due = union(byDueDay.headMap(cutoffDay, false).values());
+                BitSet cutoffBucket = byDueDay.get(cutoffDay);
+                if (cutoffBucket != null) {
+                    for (int slot = cutoffBucket.nextSetBit(0); slot >= 0; slot = cutoffBucket.nextSetBit(slot + 1)) {
+                        if (!entries.get(slot).row().dueDate().isAfter(c.dueDateBefore())) due.set(slot);
+                    }
+                }
+                result.and(due);
+            }
+            if (Boolean.TRUE.equals(c.hasFiles())) {
+                result.and(withFiles);
+            } else if (Boolean.FALSE.equals(c.hasFiles())) {
+                result.andNot(withFiles);
+            }
+            if (c.creatorId() != null) result.and(participant(TaskParticipantRole.CREATOR, c.creatorId()));
+            if (c.reviewerId() != null) result.and(participant(TaskParticipantRole.REVIEWER, c.reviewerId()));
+            if (c.assigneeId() != null) result.and(participant(TaskParticipantRole.ASSIGNEE, c.assigneeId()));
+            if (c.participantUserId() != null) {
+                BitSet any = new BitSet();
+                for (TaskParticipantRole role : TaskParticipantRole.values()) {
+                    any.or(participant(role, c.participantUserId()));
+                }
+                result.and(any);
+            }
+
+            Set<Long> taskIds = new HashSet<>(result.cardinality() * 2);
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                taskIds.add(entries.get(slot).taskId());
+            }
+            return taskIds;
+        }
+
+        private BitSet participant(TaskParticipantRole role, Long userId) {
+            Map<Long, BitSet> byUser = byParticipant.get(role);
+            BitSet bits = byUser == null ? null : byUser.get(userId);
+            return bits != null ? bits : new BitSet();
+        }
+
+        private static <K> BitSet bitmap(Map<K, BitSet> map, K key) {
+            return map.computeIfAbsent(key, k -> new BitSet());
+        }
+
+        private static <K> void unset(Map<K, BitSet> map, K key, int slot) {
+            BitSet bits = map.get(key);
+            if (bits == null) return;
+            bits.clear(slot);
+            if (bits.isEmpty()) map.remove(key);
+        }
+
+        private static BitSet union(Collection<BitSet> bitmaps) {
+            BitSet result = new BitSet();
+            for (BitSet bits : bitmaps) result.or(bits);
+            return result;
+        }
+
+        private static long dueDay(Instant at) {
+            return LocalDate.ofInstant(at, ZoneOffset.UTC).toEpochDay();
+        }
+    }
+}
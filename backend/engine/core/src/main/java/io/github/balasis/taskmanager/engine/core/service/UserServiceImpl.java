@@ -9,6 +9,7 @@ import io.github.balasis.taskmanager.context.base.limits.PlanLimits;
 import io.github.balasis.taskmanager.context.base.model.User;
 import io.github.balasis.taskmanager.shared.enums.BlobContainerType;
 import io.github.balasis.taskmanager.engine.core.repository.UserRepository;
+import io.github.balasis.taskmanager.engine.core.repository.specification.UserSpecifications;
 import io.github.balasis.taskmanager.engine.core.validation.UserValidator;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
 
@@ -136,7 +137,7 @@ public class UserServiceImpl extends BaseComponent implements UserService {
     @Override
     public Page<User> searchUser(String q, Pageable pageable) {
         var normalized = (q == null || q.isBlank()) ? null : q.trim();
-        return userRepository.searchUser(normalized, pageable);
+        return userRepository.findAll(UserSpecifications.search(normalized), pageable);
     }
 
     @Override
@@ -157,7 +158,7 @@ public class UserServiceImpl extends BaseComponent implements UserService {
                 tenantId = me.getTenantId();
             }
         }
-        return userRepository.searchUserForInvites(groupId, normalized, tenantId, pageable);
+        return userRepository.findAll(UserSpecifications.inviteCandidates(groupId, normalized, tenantId), pageable);
     }
 
     // 5 minute cooldown so users cant spam refreshes trying to brute-force
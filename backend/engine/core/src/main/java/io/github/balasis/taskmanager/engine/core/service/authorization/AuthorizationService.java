@@ -3,11 +3,12 @@ package io.github.balasis.taskmanager.engine.core.service.authorization;
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
 import io.github.balasis.taskmanager.context.base.exception.authorization.InvalidRoleException;
 import io.github.balasis.taskmanager.context.base.exception.authorization.NotAGroupMemberException;
-import io.github.balasis.taskmanager.context.base.model.GroupMembership;
 import io.github.balasis.taskmanager.engine.core.repository.GroupMembershipRepository;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Set;
 
@@ -15,39 +16,53 @@ import java.util.Set;
 // touches a group calls one of these before doing anything. the idea is to keep
 // role checks out of the service layer so GroupServiceImpl doesnt have to care
 // about who the caller is — it just does business logic.
+// both checks return the caller's role so the service never has to look the
+// same membership up again; lookups go through MembershipCache.
 @Service
 @RequiredArgsConstructor
 public class AuthorizationService {
 
     private final EffectiveCurrentUser effectiveCurrentUser;
     private final GroupMembershipRepository membershipRepo;
+    private final MembershipCache membershipCache;
 
     // strict version: caller must be a member AND have one of the allowed roles
-    public void requireRoleIn(Long groupId, Set<Role> allowedRoles) {
-        var userId = effectiveCurrentUser.getUserId();
-
-        var membership = membershipRepo
-                .findByUserIdAndGroupId(userId,groupId)
-                .orElseThrow(() -> new NotAGroupMemberException("Not a member of this group"));
-
-        if (!allowedRoles.contains(membership.getRole())) {
+    public Role requireRoleIn(Long groupId, Set<Role> allowedRoles) {
+        Role role = requireAnyRoleIn(groupId);
+        if (!allowedRoles.contains(role)) {
             throw new InvalidRoleException("Insufficient role");
         }
+        return role;
     }
 
     // loose version: caller just needs to be a member, any role is fine
-    public void requireAnyRoleIn(Long groupId){
+    public Role requireAnyRoleIn(Long groupId){
         var userId = effectiveCurrentUser.getUserId();
-        membershipRepo.findByUserIdAndGroupId(userId,groupId)
-                .orElseThrow(() -> new NotAGroupMemberException("Not a member of this group"));
+
+        Role cached = membershipCache.get(userId, groupId);
+        if (cached != null) return cached;
+
+        Role role = membershipRepo.findByUserIdAndGroupId(userId, groupId)
+                .orElseThrow(() -> new NotAGroupMemberException("Not a member of this group"))
+                .getRole();
+        membershipCache.put(userId, groupId, role);
+        return role;
     }
 
-    // same as above but returns the membership so callers that need
-    // the Role later dont have to re-query
-    public GroupMembership requireAnyRoleInAndGet(Long groupId) {
-        var userId = effectiveCurrentUser.getUserId();
-        return membershipRepo.findByUserIdAndGroupId(userId, groupId)
-                .orElseThrow(() -> new NotAGroupMemberException("Not a member of this group"));
+    // called by every path that adds, removes or re-roles a membership. evicts
+    // now and again after commit, so a concurrent request that re-reads the
+    // old row before the commit can't leave it cached. other replicas drop
+    // the group when the MEMBERS change is broadcast.
+    public void invalidateMembership(Long groupId, Long userId) {
+        membershipCache.evict(userId, groupId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    membershipCache.evict(userId, groupId);
+                }
+            });
+        }
     }
 
 }
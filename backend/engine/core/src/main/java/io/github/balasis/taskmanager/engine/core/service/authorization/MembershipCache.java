@@ -0,0 +1,80 @@
+package io.github.balasis.taskmanager.engine.core.service.authorization;
+
+import io.github.balasis.taskmanager.context.base.enumeration.Role;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.ChangeType;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService.GroupChangeEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// in-process (userId, groupId) -> Role cache in front of the membership lookup
+// AuthorizationService does on nearly every group-scoped request.
+//
+// two ways an entry goes away besides the LRU bound:
+//  - the membership writers invalidate it directly (before and after commit)
+//  - every replica drops a whole group on the MEMBERS broadcast, which is
+//    already published after any committed membership change
+// the broadcast is best-effort, so the short TTL caps how long a missed
+// invalidation on another replica can let a stale role through.
+// only positive lookups are cached — a non-member always goes to SQL.
+@Component
+public class MembershipCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private record Key(Long userId, Long groupId) {}
+    private record Entry(Role role, long expiresAt) {}
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public MembershipCache(GroupChangeBroadcastService groupChangeBroadcastService) {
+        groupChangeBroadcastService.subscribe(this::onEvent);
+    }
+
+    public Role get(Long userId, Long groupId) {
+        Key key = new Key(userId, groupId);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.role();
+        }
+    }
+
+    public void put(Long userId, Long groupId, Role role) {
+        synchronized (entries) {
+            entries.put(new Key(userId, groupId), new Entry(role, System.nanoTime() + TTL_NANOS));
+        }
+    }
+
+    public void evict(Long userId, Long groupId) {
+        synchronized (entries) {
+            entries.remove(new Key(userId, groupId));
+        }
+    }
+
+    public void evictGroup(Long groupId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.groupId().equals(groupId));
+        }
+    }
+
+    // runs on the Redis I/O thread — a bounded in-memory sweep is cheap enough
+    private void onEvent(GroupChangeEvent event) {
+        if (event.type() == ChangeType.MEMBERS) {
+            evictGroup(event.groupId());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.balasis.taskmanager.engine.core.transfer;
+
+// the slice of a file a download serves, both ends inclusive like the
+// Content-Range header they end up in.
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.balasis.taskmanager.engine.core.transfer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+// counts the bytes handed to the response. closed before all expected bytes
+// were read (client went away, transfer timed out), it reports the absolute
+// file offset it got to: the download's resume point, and where the refund
+// of the unsent rest starts.
+public class ResumePointInputStream extends FilterInputStream {
+
+    private final long startOffset;
+    private final long expected;
+    private final LongConsumer onBreak;
+    private long read;
+    private boolean closed;
+
+    public ResumePointInputStream(InputStream in, long startOffset, long expected, LongConsumer onBreak) {
+        super(in);
+        this.startOffset = startOffset;
+        this.expected = expected;
+        this.onBreak = onBreak;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) read++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+        int n = super.read(buffer, off, len);
+        if (n > 0) read += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        read += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            if (read < expected) onBreak.accept(startOffset + read);
+        }
+    }
+}
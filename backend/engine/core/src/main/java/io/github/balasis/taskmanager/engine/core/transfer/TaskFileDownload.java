@@ -5,4 +5,24 @@ import java.io.InputStream;
 // internal transfer object for streaming file downloads. the InputStream
 // comes from blob storage and gets piped straight to the HTTP response —
 // we never buffer the whole file in memory.
-public record TaskFileDownload(InputStream content, String filename, long size) {}
+//
+// size is always the whole file's size. range is null for a full download;
+// otherwise content holds only the bytes of that range.
+//
+// large files come back with redirectUrl set and no content: the client is
+// sent to storage and the JVM never touches the bytes.
+public record TaskFileDownload(InputStream content, String filename, long size, ByteRange range,
+                               String redirectUrl) {
+
+    public TaskFileDownload(InputStream content, String filename, long size, ByteRange range) {
+        this(content, filename, size, range, null);
+    }
+
+    public static TaskFileDownload redirect(String redirectUrl, String filename, long size) {
+        return new TaskFileDownload(null, filename, size, null, redirectUrl);
+    }
+
+    public long contentLength() {
+        return range != null ? range.length() : size;
+    }
+}
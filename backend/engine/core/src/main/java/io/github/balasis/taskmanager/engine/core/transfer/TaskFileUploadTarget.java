@@ -0,0 +1,8 @@
+package io.github.balasis.taskmanager.engine.core.transfer;
+
+import java.time.OffsetDateTime;
+
+// where the client PUTs a task file for a direct upload. blobName goes back
+// to the finalize call once the PUT succeeded; uploadUrl stops working at
+// expiresAt.
+public record TaskFileUploadTarget(String blobName, String uploadUrl, OffsetDateTime expiresAt) {}
@@ -2,8 +2,11 @@ package io.github.balasis.taskmanager.engine.core.validation;
 
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
 import io.github.balasis.taskmanager.context.base.model.*;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -12,6 +15,8 @@ import java.util.Set;
 // to a service-layer operation and runs before the actual mutation.
 public interface GroupValidator extends BaseValidator<Group>{
     void validateForCreateTask(Long groupId, Set<Long> assignedIds, Set<Long> reviewerIds);
+    void validateForCreateTasks(Long groupId, Set<Long> assignedIds, Set<Long> reviewerIds);
+    void validateTaskParticipantChanges(Long groupId, Map<Long, Task> tasksById, List<TaskParticipantChangeDto> changes);
 
     void validateForPatchTask(Long groupId,Long taskId, Task task);
 
@@ -22,7 +27,10 @@ public interface GroupValidator extends BaseValidator<Group>{
     void validateRemoveTaskParticipant(Task task, Long groupId ,Long taskParticipantId);
 
     void validateAddTaskFile(Task task, Long groupId, MultipartFile file, int maxFiles);
+    // sizeBytes variants serve direct (SAS) uploads, where no file passes through us
+    void validateAddTaskFile(Task task, Long groupId, long sizeBytes, int maxFiles);
     void validateAddAssigneeTaskFile(Task task, Long groupId, MultipartFile file, int maxFiles);
+    void validateAddAssigneeTaskFile(Task task, Long groupId, long sizeBytes, int maxFiles);
 
     void validateDownloadTaskFile(Task task, Long groupId);
 
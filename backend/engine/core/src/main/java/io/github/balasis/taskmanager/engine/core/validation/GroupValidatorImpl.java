@@ -2,6 +2,7 @@ package io.github.balasis.taskmanager.engine.core.validation;
 
 import io.github.balasis.taskmanager.context.base.enumeration.InvitationStatus;
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantChangeType;
 import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
 import io.github.balasis.taskmanager.context.base.exception.authorization.InvalidRoleException;
 import io.github.balasis.taskmanager.context.base.exception.authorization.NotAGroupMemberException;
@@ -16,6 +17,7 @@ import io.github.balasis.taskmanager.context.base.exception.notfound.TaskPartici
 import io.github.balasis.taskmanager.context.base.exception.notfound.UserNotFoundException;
 import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFieldValueException;
 import io.github.balasis.taskmanager.context.base.model.*;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
 import io.github.balasis.taskmanager.engine.core.repository.*;
 import io.github.balasis.taskmanager.engine.core.service.authorization.RolePolicyService;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
@@ -24,6 +26,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -59,6 +65,97 @@ public class GroupValidatorImpl implements GroupValidator{
         validateToBeSetReviewersForTask(groupId, reviewerIds);
     }
 
+    // bulk variant: assignedIds / reviewerIds are the union over every task in
+    // the request, checked against one membership query
+    @Override
+    public void validateForCreateTasks(Long groupId, Set<Long> assignedIds, Set<Long> reviewerIds) {
+        validateToBeSetParticipants(groupId, assignedIds, reviewerIds);
+    }
+
+    // a participant diff over several tasks. the membership / role-policy checks
+    // run once over everyone who gains a role; the per-task checks mirror
+    // validateAddAssigneeToTask / validateRemoveTaskParticipant against the
+    // already loaded participants. one change per (task, user) keeps the
+    // outcome independent of the order of the entries.
+    @Override
+    public void validateTaskParticipantChanges(Long groupId, Map<Long, Task> tasksById,
+                                               List<TaskParticipantChangeDto> changes) {
+        Set<Long> assignedIds = new HashSet<>();
+        Set<Long> reviewerIds = new HashSet<>();
+        Set<List<Long>> seen = new HashSet<>();
+
+        for (TaskParticipantChangeDto change : changes) {
+            if (change.role() != TaskParticipantRole.ASSIGNEE && change.role() != TaskParticipantRole.REVIEWER) {
+                throw new InvalidFieldValueException("Currently you may not other roles than assignee or reviewer");
+            }
+            if (!seen.add(List.of(change.taskId(), change.userId()))) {
+                throw new InvalidFieldValueException("Only one change per user and task is allowed");
+            }
+            Task task = tasksById.get(change.taskId());
+            doesTaskBelongToGroup(task, groupId);
+
+            boolean hasRole = hasTaskRole(task, change.userId(), change.role());
+            switch (change.type()) {
+                case ADD -> {
+                    if (hasRole) {
+                        throw new InvalidFieldValueException("User already has role " + change.role()
+                                + " in task " + change.taskId());
+                    }
+                }
+                case REMOVE -> {
+                    if (!hasRole) {
+                        throw new TaskParticipantNotFoundException("User doesn't have role " + change.role()
+                                + " in task " + change.taskId());
+                    }
+                }
+                case CHANGE_ROLE -> {
+                    if (hasRole || !hasTaskRole(task, change.userId(), otherRole(change.role()))) {
+                        throw new InvalidFieldValueException("User must have role " + otherRole(change.role())
+                                + " and not " + change.role() + " in task " + change.taskId() + " to switch roles");
+                    }
+                }
+            }
+            if (change.type() != TaskParticipantChangeType.REMOVE) {
+                (change.role() == TaskParticipantRole.ASSIGNEE ? assignedIds : reviewerIds).add(change.userId());
+            }
+        }
+        validateToBeSetParticipants(groupId, assignedIds, reviewerIds);
+    }
+
+    private static boolean hasTaskRole(Task task, Long userId, TaskParticipantRole role) {
+        return task.getTaskParticipants().stream()
+                .anyMatch(tp -> tp.getTaskParticipantRole() == role && tp.getUser().getId().equals(userId));
+    }
+
+    private static TaskParticipantRole otherRole(TaskParticipantRole role) {
+        return role == TaskParticipantRole.ASSIGNEE ? TaskParticipantRole.REVIEWER : TaskParticipantRole.ASSIGNEE;
+    }
+
+    private void validateToBeSetParticipants(Long groupId, Set<Long> assignedIds, Set<Long> reviewerIds) {
+        Set<Long> userIds = new HashSet<>(assignedIds);
+        userIds.addAll(reviewerIds);
+        if (userIds.isEmpty()) return;
+
+        Map<Long, GroupMembership> byUserId = new HashMap<>();
+        for (GroupMembership membership : groupMembershipRepository.findByGroupIdAndUserIdIn(groupId, userIds)) {
+            byUserId.put(membership.getUser().getId(), membership);
+        }
+        for (Long assignedId : assignedIds) {
+            GroupMembership membership = byUserId.get(assignedId);
+            if (membership == null) {
+                throw new NotAGroupMemberException("Some of the Assigned users are no longer part of the group");
+            }
+            isUserRoleEnoughToBeAnAssignee(membership);
+        }
+        for (Long reviewerId : reviewerIds) {
+            GroupMembership membership = byUserId.get(reviewerId);
+            if (membership == null) {
+                throw new NotAGroupMemberException("Some of the Reviewers are no longer part of the group");
+            }
+            isUserRoleEnoughToBeAReviewer(membership);
+        }
+    }
+
     @Override
     public void validateForPatchTask(Long groupId, Long taskId, Task task) {
         if (task.getTitle() != null && task.getTitle().isBlank()){
@@ -89,6 +186,11 @@ public class GroupValidatorImpl implements GroupValidator{
     // assignee files have a separate method with broader access.
     @Override
     public void validateAddTaskFile(Task task, Long groupId, MultipartFile file, int maxFiles) {
+        validateAddTaskFile(task, groupId, file == null ? 0 : file.getSize(), maxFiles);
+    }
+
+    @Override
+    public void validateAddTaskFile(Task task, Long groupId, long sizeBytes, int maxFiles) {
         doesTaskBelongToGroup(task,groupId);
         var membership = groupMembershipRepository
                 .findByGroupIdAndUserId(groupId, effectiveCurrentUser.getUserId())
@@ -97,13 +199,18 @@ public class GroupValidatorImpl implements GroupValidator{
         if (!isLeaderOrManager) {
             throw new UnauthorizedException("You do not have the rights to upload in this task");
         }
-        isFileEmpty(file);
+        isFileEmpty(sizeBytes);
         ensureMaxFiles(task.getCreatorFiles().size(), maxFiles);
     }
 
     // assignee file uploads: leaders, managers, AND the actual assignees can upload
     @Override
     public void validateAddAssigneeTaskFile(Task task, Long groupId, MultipartFile file, int maxFiles) {
+        validateAddAssigneeTaskFile(task, groupId, file == null ? 0 : file.getSize(), maxFiles);
+    }
+
+    @Override
+    public void validateAddAssigneeTaskFile(Task task, Long groupId, long sizeBytes, int maxFiles) {
         doesTaskBelongToGroup(task, groupId);
         var membership = groupMembershipRepository
                 .findByGroupIdAndUserId(groupId, effectiveCurrentUser.getUserId())
@@ -119,7 +226,7 @@ public class GroupValidatorImpl implements GroupValidator{
             throw new UnauthorizedException("You do not have the rights to upload assignee files in this task");
         }
 
-        isFileEmpty(file);
+        isFileEmpty(sizeBytes);
         ensureMaxFiles(task.getAssigneeFiles().size(), maxFiles);
     }
 
@@ -478,8 +585,8 @@ public class GroupValidatorImpl implements GroupValidator{
                 .orElseThrow(() -> new NotAGroupMemberException("User to be set as reviewer is not a member of the group"));
     }
 
-    private void isFileEmpty(MultipartFile file){
-        if (file == null || file.isEmpty()) {
+    private void isFileEmpty(long sizeBytes){
+        if (sizeBytes <= 0) {
             throw new InvalidFieldValueException("File cannot be empty");
         }
     }
@@ -0,0 +1,24 @@
+-- V13: Per-group change sequence for exact delta polling
+-- ================================================================
+-- refreshGroup used to compare wall-clock Instants and needed fudge
+-- factors (minusSeconds(3) on tombstones, plusSeconds(5) on task polls)
+-- to cover clock skew between replicas. every mutation now takes the
+-- next number from Groups.changeSeq (atomic UPDATE, row-locked until
+-- commit) and stamps it on the rows it touched, so clients can ask for
+-- "everything after seq N" and get exactly that.
+--
+-- existing rows start at 0; the first change after deploy moves a group
+-- to 1, so clients that still send timestamps keep working meanwhile.
+
+ALTER TABLE [Groups] ADD [changeSeq]        BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Groups] ADD [noJoinsChangeSeq] BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Groups] ADD [memberChangeSeq]  BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Groups] ADD [deleteTaskSeq]    BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE [Tasks] ADD [changeSeq] BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE [DeletedTasks] ADD [seq] BIGINT NOT NULL DEFAULT 0;
+
+-- delta lookups: "tasks / tombstones of group X with seq > N"
+CREATE NONCLUSTERED INDEX [idx_task_group_seq] ON [Tasks] ([group_id] ASC, [changeSeq] ASC);
+CREATE NONCLUSTERED INDEX [idx_dt_group_seq]   ON [DeletedTasks] ([group_id] ASC, [seq] ASC);
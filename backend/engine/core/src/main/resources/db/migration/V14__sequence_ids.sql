@@ -0,0 +1,115 @@
+-- V14: Sequence ids instead of IDENTITY
+-- ================================================================
+-- with IDENTITY keys hibernate must execute every INSERT on its own
+-- to read the generated id back, so hibernate.jdbc.batch_size never
+-- applies to inserts. BaseModel now takes ids from one shared
+-- sequence (pooled-lo, blocks of 50), which needs the id columns to
+-- accept explicit values.
+--
+-- SQL Server can't drop the IDENTITY property in place, so for each
+-- table the id is copied to a plain BIGINT column that then replaces
+-- it. the primary keys keep their names; foreign keys pointing at the
+-- converted tables are dropped first and recreated as they were.
+-- existing ids don't change. the sequence starts after the highest id
+-- in any table, so new ids never collide with old ones.
+--
+-- the PK rebuild rewrites each table once; run during a quiet window.
+
+DECLARE @tables TABLE ([name] SYSNAME PRIMARY KEY);
+INSERT INTO @tables ([name]) VALUES
+    (N'Users'), (N'Groups'), (N'GroupMemberships'), (N'GroupInvitations'),
+    (N'GroupEvent'), (N'Tasks'), (N'TaskParticipants'), (N'TaskFiles'),
+    (N'TaskAssigneeFiles'), (N'TaskComments'), (N'DeletedTasks'),
+    (N'RefreshTokens'), (N'default_images'), (N'EmailOutbox'),
+    (N'ImageModerationQueue'), (N'TaskAnalysisRequests'),
+    (N'TaskAnalysisSnapshots'), (N'FileReviewStatuses'), (N'BootstrapLocks');
+
+-- 1. script out every FK that references a converted table, then drop it
+DECLARE @fks TABLE ([dropSql] NVARCHAR(MAX), [createSql] NVARCHAR(MAX));
+INSERT INTO @fks ([dropSql], [createSql])
+SELECT
+    N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(fk.parent_object_id))
+        + N' DROP CONSTRAINT ' + QUOTENAME(fk.name),
+    N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(fk.parent_object_id))
+        + N' ADD CONSTRAINT ' + QUOTENAME(fk.name) + N' FOREIGN KEY ('
+        + (SELECT STRING_AGG(QUOTENAME(COL_NAME(c.parent_object_id, c.parent_column_id)), N', ')
+                  WITHIN GROUP (ORDER BY c.constraint_column_id)
+           FROM sys.foreign_key_columns c WHERE c.constraint_object_id = fk.object_id)
+        + N') REFERENCES ' + QUOTENAME(OBJECT_NAME(fk.referenced_object_id)) + N' ('
+        + (SELECT STRING_AGG(QUOTENAME(COL_NAME(c.referenced_object_id, c.referenced_column_id)), N', ')
+                  WITHIN GROUP (ORDER BY c.constraint_column_id)
+           FROM sys.foreign_key_columns c WHERE c.constraint_object_id = fk.object_id)
+        + N') ON DELETE ' + REPLACE(fk.delete_referential_action_desc, N'_', N' ')
+        + N' ON UPDATE ' + REPLACE(fk.update_referential_action_desc, N'_', N' ')
+FROM sys.foreign_keys fk
+WHERE OBJECT_NAME(fk.referenced_object_id) IN (SELECT [name] FROM @tables);
+
+DECLARE @sql NVARCHAR(MAX);
+DECLARE fk_drop CURSOR LOCAL FAST_FORWARD FOR SELECT [dropSql] FROM @fks;
+OPEN fk_drop;
+FETCH NEXT FROM fk_drop INTO @sql;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    EXEC sp_executesql @sql;
+    FETCH NEXT FROM fk_drop INTO @sql;
+END;
+CLOSE fk_drop;
+DEALLOCATE fk_drop;
+
+-- 2. swap each IDENTITY id for a plain BIGINT, tracking the highest id seen
+DECLARE @table SYSNAME, @pk SYSNAME, @qt NVARCHAR(300), @tableMax BIGINT, @maxId BIGINT = 0;
+DECLARE conv CURSOR LOCAL FAST_FORWARD FOR SELECT [name] FROM @tables;
+OPEN conv;
+FETCH NEXT FROM conv INTO @table;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    SET @qt = QUOTENAME(@table);
+
+    SET @tableMax = NULL;
+    SET @sql = N'SELECT @m = MAX([id]) FROM ' + @qt;
+    EXEC sp_executesql @sql, N'@m BIGINT OUTPUT', @m = @tableMax OUTPUT;
+    IF @tableMax > @maxId SET @maxId = @tableMax;
+
+    SELECT @pk = kc.name
+    FROM sys.key_constraints kc
+    WHERE kc.parent_object_id = OBJECT_ID(@table) AND kc.type = 'PK';
+
+    SET @sql = N'ALTER TABLE ' + @qt + N' ADD [id_new] BIGINT NULL';
+    EXEC sp_executesql @sql;
+    SET @sql = N'UPDATE ' + @qt + N' SET [id_new] = [id]';
+    EXEC sp_executesql @sql;
+    SET @sql = N'ALTER TABLE ' + @qt + N' DROP CONSTRAINT ' + QUOTENAME(@pk);
+    EXEC sp_executesql @sql;
+    SET @sql = N'ALTER TABLE ' + @qt + N' DROP COLUMN [id]';
+    EXEC sp_executesql @sql;
+
+    SET @sql = @table + N'.id_new';
+    EXEC sp_rename @sql, N'id', N'COLUMN';
+
+    SET @sql = N'ALTER TABLE ' + @qt + N' ALTER COLUMN [id] BIGINT NOT NULL';
+    EXEC sp_executesql @sql;
+    SET @sql = N'ALTER TABLE ' + @qt + N' ADD CONSTRAINT ' + QUOTENAME(@pk) + N' PRIMARY KEY CLUSTERED ([id])';
+    EXEC sp_executesql @sql;
+
+    FETCH NEXT FROM conv INTO @table;
+END;
+CLOSE conv;
+DEALLOCATE conv;
+
+-- 3. put the foreign keys back
+DECLARE fk_create CURSOR LOCAL FAST_FORWARD FOR SELECT [createSql] FROM @fks;
+OPEN fk_create;
+FETCH NEXT FROM fk_create INTO @sql;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    EXEC sp_executesql @sql;
+    FETCH NEXT FROM fk_create INTO @sql;
+END;
+CLOSE fk_create;
+DEALLOCATE fk_create;
+
+-- 4. shared id sequence. INCREMENT BY must equal BaseModel's allocationSize,
+-- hibernate refuses to start on a mismatch.
+SET @sql = N'CREATE SEQUENCE [EntityIdSeq] AS BIGINT START WITH '
+    + CAST(@maxId + 1 AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
@@ -0,0 +1,15 @@
+-- V15: Background group deletion
+-- ================================================================
+-- deleting a group used to remove every task, comment, participant,
+-- file row and membership in the request's transaction. the request
+-- now only drops the memberships and stamps deletionRequestedAt; a
+-- background worker purges the rest in small transactions and keeps
+-- a running count of purged tasks. blobs are left to the orphan
+-- sweeper once their rows are gone.
+
+ALTER TABLE [Groups] ADD [deletionRequestedAt] DATETIMEOFFSET(6) NULL;
+ALTER TABLE [Groups] ADD [deletionPurgedTasks] BIGINT NOT NULL DEFAULT 0;
+
+-- the worker's "what is still pending" lookup
+CREATE NONCLUSTERED INDEX [idx_group_deletion_requested] ON [Groups] ([deletionRequestedAt] ASC)
+    WHERE [deletionRequestedAt] IS NOT NULL;
@@ -0,0 +1,17 @@
+-- V16: Versioned task edits
+-- ================================================================
+-- task edits used to be last-write-wins. Tasks.version is bumped by
+-- every edit through a guarded UPDATE, and clients send the version
+-- they saw back with their edit.
+--
+-- the five *Version columns record the version at which each field
+-- group last changed, so an edit sent against an older version can
+-- still be applied when nobody touched the same fields meanwhile.
+-- existing rows start at version 0 with every group stamped 0.
+
+ALTER TABLE [Tasks] ADD [version] BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Tasks] ADD [titleVersion] BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Tasks] ADD [descriptionVersion] BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Tasks] ADD [stateVersion] BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Tasks] ADD [dueDateVersion] BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE [Tasks] ADD [limitsVersion] BIGINT NOT NULL DEFAULT 0;
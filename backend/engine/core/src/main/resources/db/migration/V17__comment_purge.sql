@@ -0,0 +1,18 @@
+-- V17: Background comment purge
+-- ================================================================
+-- "delete comments before X" ran as one DELETE over a task's
+-- comments. on tasks with tens of thousands of comments that could
+-- escalate to a table lock on TaskComments and stall comment reads
+-- for every task. the request now only stamps commentPurgeBefore; a
+-- background worker deletes in batches of a few hundred rows, each in
+-- its own transaction, and counts its progress.
+
+ALTER TABLE [Tasks] ADD [commentPurgeBefore] DATETIMEOFFSET(6) NULL;
+ALTER TABLE [Tasks] ADD [commentPurgeDeleted] BIGINT NOT NULL DEFAULT 0;
+
+-- the worker's "what is still pending" lookup
+CREATE NONCLUSTERED INDEX [idx_task_comment_purge] ON [Tasks] ([commentPurgeBefore] ASC)
+    WHERE [commentPurgeBefore] IS NOT NULL;
+
+-- each batch seeks the oldest comments of one task
+CREATE NONCLUSTERED INDEX [idx_tc_task_created] ON [TaskComments] ([task_id] ASC, [createdAt] ASC);
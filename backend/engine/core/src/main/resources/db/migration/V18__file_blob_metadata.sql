@@ -0,0 +1,17 @@
+-- V18: Blob metadata on file rows
+-- ================================================================
+-- a download used to ask storage whether the blob exists and how big
+-- it is before opening the stream: three round trips before the
+-- first byte. the content type, the Content-MD5 and the blob ETag are
+-- now recorded when the file is uploaded, next to the existing
+-- fileSize, so a download is a single GET pinned to that ETag.
+--
+-- legacy rows keep NULLs; their downloads skip the ETag check.
+
+ALTER TABLE [TaskFiles] ADD [contentType] NVARCHAR(255) NULL;
+ALTER TABLE [TaskFiles] ADD [contentMd5]  NVARCHAR(24)  NULL;
+ALTER TABLE [TaskFiles] ADD [blobETag]    NVARCHAR(64)  NULL;
+
+ALTER TABLE [TaskAssigneeFiles] ADD [contentType] NVARCHAR(255) NULL;
+ALTER TABLE [TaskAssigneeFiles] ADD [contentMd5]  NVARCHAR(24)  NULL;
+ALTER TABLE [TaskAssigneeFiles] ADD [blobETag]    NVARCHAR(64)  NULL;
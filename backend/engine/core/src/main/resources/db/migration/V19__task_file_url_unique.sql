@@ -0,0 +1,13 @@
+-- V19: One file row per blob
+-- ================================================================
+-- finalizing a direct upload checks that the blob doesn't back a file
+-- row yet and then inserts one. the task row lock serializes that, and
+-- these indexes make a second row for the same blob impossible even
+-- if some other path skips the lock. filtered: legacy rows may have
+-- no fileUrl, and a plain unique index allows a single NULL.
+
+CREATE UNIQUE NONCLUSTERED INDEX [ux_tf_file_url] ON [TaskFiles] ([fileUrl] ASC)
+    WHERE [fileUrl] IS NOT NULL;
+
+CREATE UNIQUE NONCLUSTERED INDEX [ux_taf_file_url] ON [TaskAssigneeFiles] ([fileUrl] ASC)
+    WHERE [fileUrl] IS NOT NULL;
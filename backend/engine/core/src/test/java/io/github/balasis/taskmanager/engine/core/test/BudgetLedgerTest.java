@@ -0,0 +1,134 @@
+package io.github.balasis.taskmanager.engine.core.test;
+
+import io.github.balasis.taskmanager.context.base.model.User;
+import io.github.balasis.taskmanager.engine.core.repository.UserRepository;
+import io.github.balasis.taskmanager.engine.core.service.BudgetLedger;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService.Budget;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// BudgetLedger in front of a mocked Redis ledger: where a seed reads from,
+// which side a refund lands on, and that a flush only lets go of its deltas
+// once the SQL write went through
+class BudgetLedgerTest {
+
+    private static final long LIMIT = 10_000;
+
+    private BudgetLedgerService ledger;
+    private UserRepository userRepository;
+    private PlatformTransactionManager txManager;
+    private BudgetLedger budgetLedger;
+    private User leader;
+
+    @BeforeEach
+    void setUp() {
+        ledger = mock(BudgetLedgerService.class);
+        userRepository = mock(UserRepository.class);
+        txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        budgetLedger = new BudgetLedger(ledger, userRepository, txManager);
+
+        leader = User.builder().id(1L).build();
+    }
+
+    @Test
+    void chargeWithinTheLimitIsReserved() {
+        when(ledger.reserve(Budget.STORAGE, 1L, 500L, LIMIT)).thenReturn(Reservation.RESERVED);
+
+        assertTrue(budgetLedger.chargeStorage(leader, 500L, LIMIT));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void chargeOverTheLimitIsRefused() {
+        when(ledger.reserve(Budget.STORAGE, 1L, 500L, LIMIT)).thenReturn(Reservation.EXCEEDED);
+
+        assertFalse(budgetLedger.chargeStorage(leader, 500L, LIMIT));
+        verify(userRepository, never()).addStorageUsage(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void missSeedsFromAFreshReadNotTheCallersRow() {
+        leader.setUsedDownloadBytesMonth(100L); // loaded earlier in the request
+        when(ledger.reserve(Budget.DOWNLOAD, 1L, 500L, LIMIT))
+                .thenReturn(Reservation.MISS, Reservation.RESERVED);
+        when(ledger.flushEpoch(Budget.DOWNLOAD)).thenReturn(7L);
+        when(userRepository.findUsedDownloadBytesMonth(1L)).thenReturn(9_000L);
+
+        assertTrue(budgetLedger.chargeDownload(leader, 500L, LIMIT));
+
+        InOrder order = inOrder(ledger, userRepository);
+        order.verify(ledger).flushEpoch(Budget.DOWNLOAD);
+        order.verify(userRepository).findUsedDownloadBytesMonth(1L);
+        order.verify(ledger).seed(Budget.DOWNLOAD, 1L, 9_000L, 7L);
+        order.verify(ledger).reserve(Budget.DOWNLOAD, 1L, 500L, LIMIT);
+    }
+
+    @Test
+    void skippedSeedFallsBackToTheGuardedUpdate() {
+        when(ledger.reserve(Budget.STORAGE, 1L, 500L, LIMIT)).thenReturn(Reservation.MISS);
+        when(userRepository.findUsedStorageBytes(1L)).thenReturn(2_000L);
+        when(userRepository.addStorageUsage(1L, 500L, LIMIT)).thenReturn(1);
+
+        assertTrue(budgetLedger.chargeStorage(leader, 500L, LIMIT));
+        verify(userRepository).addStorageUsage(1L, 500L, LIMIT);
+    }
+
+    @Test
+    void refundGoesToTheLedgerWhileItHoldsATotal() {
+        when(ledger.refund(Budget.STORAGE, 1L, 300L)).thenReturn(true);
+
+        budgetLedger.refundStorage(leader, 300L);
+
+        verify(userRepository, never()).subtractStorageUsage(anyLong(), anyLong());
+    }
+
+    @Test
+    void refundWithoutACachedTotalGoesStraightToSql() {
+        when(ledger.refund(Budget.DOWNLOAD, 1L, 300L)).thenReturn(false);
+
+        budgetLedger.refundDownload(leader, 300L);
+
+        verify(userRepository).applyDownloadDelta(1L, -300L);
+    }
+
+    @Test
+    void flushConfirmsOnlyAfterTheDeltasAreWritten() {
+        when(ledger.drainPending(Budget.STORAGE)).thenReturn(Map.of(1L, 500L));
+        when(ledger.drainPending(Budget.DOWNLOAD)).thenReturn(Map.of());
+
+        budgetLedger.flush();
+
+        InOrder order = inOrder(userRepository, txManager, ledger);
+        order.verify(userRepository).applyStorageDelta(1L, 500L);
+        order.verify(txManager).commit(any());
+        order.verify(ledger).confirmFlushed(Budget.STORAGE);
+        verify(ledger, never()).confirmFlushed(Budget.DOWNLOAD);
+        verify(ledger, never()).restorePending(any());
+    }
+
+    @Test
+    void failedFlushHandsTheDeltasBack() {
+        when(ledger.drainPending(Budget.STORAGE)).thenReturn(Map.of(1L, 500L));
+        when(ledger.drainPending(Budget.DOWNLOAD)).thenReturn(Map.of());
+        when(userRepository.applyStorageDelta(1L, 500L)).thenThrow(new RuntimeException("deadlock"));
+
+        budgetLedger.flush();
+
+        verify(ledger).restorePending(Budget.STORAGE);
+        verify(ledger, never()).confirmFlushed(any());
+    }
+}
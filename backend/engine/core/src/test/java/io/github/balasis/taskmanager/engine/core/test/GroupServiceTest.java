@@ -2,13 +2,36 @@ package io.github.balasis.taskmanager.engine.core.test;
 
 import io.github.balasis.taskmanager.context.base.enumeration.Role;
 import io.github.balasis.taskmanager.context.base.enumeration.SubscriptionPlan;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskField;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantChangeType;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+import io.github.balasis.taskmanager.context.base.exception.authorization.NotAGroupMemberException;
+import io.github.balasis.taskmanager.context.base.exception.blob.upload.BlobUploadTaskFileException;
+import io.github.balasis.taskmanager.context.base.exception.business.BusinessRuleException;
+import io.github.balasis.taskmanager.context.base.exception.business.LimitExceededException;
+import io.github.balasis.taskmanager.context.base.exception.business.TaskVersionConflictException;
+import io.github.balasis.taskmanager.context.base.exception.notfound.TaskNotFoundException;
+import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFieldValueException;
 import io.github.balasis.taskmanager.context.base.limits.PlanLimits;
 import io.github.balasis.taskmanager.context.base.model.Group;
+import io.github.balasis.taskmanager.context.base.model.GroupMembership;
+import io.github.balasis.taskmanager.context.base.model.Task;
+import io.github.balasis.taskmanager.context.base.model.TaskAssigneeFile;
+import io.github.balasis.taskmanager.context.base.model.TaskFile;
+import io.github.balasis.taskmanager.context.base.model.TaskParticipant;
 import io.github.balasis.taskmanager.context.base.model.User;
+import io.github.balasis.taskmanager.engine.core.dto.GroupSnapshotStampDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskCreateDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
 import io.github.balasis.taskmanager.engine.core.repository.*;
+import io.github.balasis.taskmanager.engine.core.service.BudgetLedger;
 import io.github.balasis.taskmanager.engine.core.service.DefaultImageService;
+import io.github.balasis.taskmanager.engine.core.service.GroupChangeTracker;
+import io.github.balasis.taskmanager.engine.core.service.GroupDeletionWorker;
 import io.github.balasis.taskmanager.engine.core.service.GroupServiceImpl;
+import io.github.balasis.taskmanager.engine.core.service.TaskFilterIndex;
 import io.github.balasis.taskmanager.engine.core.service.authorization.AuthorizationService;
+import io.github.balasis.taskmanager.engine.core.transfer.ByteRange;
 import io.github.balasis.taskmanager.engine.core.validation.GroupValidator;
 import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
 import io.github.balasis.taskmanager.engine.infrastructure.blob.service.BlobStorageService;
@@ -20,10 +43,23 @@ import io.github.balasis.taskmanager.engine.infrastructure.redis.ImageChangeLimi
 import io.github.balasis.taskmanager.engine.infrastructure.textanalytics.TaskAnalysisService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpRange;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class GroupServiceTest {
@@ -54,6 +90,7 @@ class GroupServiceTest {
     private ImageModerationService imageModerationService;
     private TaskAnalysisService taskAnalysisService;
     private DefaultImageService defaultImageService;
+    private BudgetLedger budgetLedger;
 
     @BeforeEach
     void setUp() {
@@ -82,6 +119,7 @@ class GroupServiceTest {
         imageChangeLimiterService = mock(ImageChangeLimiterService.class);
         imageModerationService = mock(ImageModerationService.class);
         taskAnalysisService = mock(TaskAnalysisService.class);
+        budgetLedger = mock(BudgetLedger.class);
 
         groupService = new GroupServiceImpl(
                 groupRepository,
@@ -109,6 +147,10 @@ class GroupServiceTest {
                 imageChangeLimiterService,
                 imageModerationService,
                 taskAnalysisService,
+                mock(GroupChangeTracker.class),
+                mock(TaskFilterIndex.class),
+                budgetLedger,
+                mock(GroupDeletionWorker.class),
                 mock(org.springframework.core.env.Environment.class)
         );
     }
@@ -137,4 +179,413 @@ class GroupServiceTest {
                                 membership.getRole() == Role.GROUP_LEADER
                 ));
     }
+
+    @Test
+    void createTasks_rejectsDuplicateTitlesBeforeTouchingTheGroup() {
+        var tasks = List.of(
+                new TaskCreateDto(Task.builder().title("Onboard").build(), Set.of(), Set.of()),
+                new TaskCreateDto(Task.builder().title("Onboard").build(), Set.of(), Set.of()));
+
+        assertThrows(BusinessRuleException.class, () -> groupService.createTasks(100L, tasks));
+
+        verify(taskRepository, never()).countByGroup_Id(anyLong());
+        verify(taskRepository, never()).saveAll(anyIterable());
+    }
+
+    // task 7 of group 100: user 5 is an assignee, user 6 a reviewer
+    private Task taskWithAssigneeAndReviewer() {
+        Task task = Task.builder().id(7L).group(Group.builder().id(100L).build()).build();
+        task.getTaskParticipants().add(TaskParticipant.builder().id(1L).task(task)
+                .user(User.builder().id(5L).build()).taskParticipantRole(TaskParticipantRole.ASSIGNEE).build());
+        task.getTaskParticipants().add(TaskParticipant.builder().id(2L).task(task)
+                .user(User.builder().id(6L).build()).taskParticipantRole(TaskParticipantRole.REVIEWER).build());
+        when(taskRepository.findAllWithTaskParticipants(100L, Set.of(7L))).thenReturn(List.of(task));
+        return task;
+    }
+
+    private static boolean hasRole(Task task, Long userId, TaskParticipantRole role) {
+        return task.getTaskParticipants().stream()
+                .anyMatch(tp -> tp.getUser().getId().equals(userId) && tp.getTaskParticipantRole() == role);
+    }
+
+    @Test
+    void applyTaskParticipantChanges_appliesAddRemoveAndChangeRole() {
+        Task task = taskWithAssigneeAndReviewer();
+        when(userRepository.getReferenceById(8L)).thenReturn(User.builder().id(8L).build());
+        var changes = List.of(
+                new TaskParticipantChangeDto(7L, 8L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.ADD),
+                new TaskParticipantChangeDto(7L, 6L, TaskParticipantRole.REVIEWER, TaskParticipantChangeType.REMOVE),
+                new TaskParticipantChangeDto(7L, 5L, TaskParticipantRole.REVIEWER, TaskParticipantChangeType.CHANGE_ROLE));
+
+        groupService.applyTaskParticipantChanges(100L, changes);
+
+        verify(groupValidator).validateTaskParticipantChanges(eq(100L), anyMap(), eq(changes));
+        assertTrue(hasRole(task, 8L, TaskParticipantRole.ASSIGNEE));
+        assertFalse(hasRole(task, 6L, TaskParticipantRole.REVIEWER));
+        assertTrue(hasRole(task, 5L, TaskParticipantRole.REVIEWER));
+        assertFalse(hasRole(task, 5L, TaskParticipantRole.ASSIGNEE));
+        verify(taskRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void applyTaskParticipantChanges_rejectedDiffChangesNothing() {
+        Task task = taskWithAssigneeAndReviewer();
+        var changes = List.of(
+                new TaskParticipantChangeDto(7L, 9L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.ADD));
+        doThrow(new NotAGroupMemberException("not a member"))
+                .when(groupValidator).validateTaskParticipantChanges(eq(100L), anyMap(), eq(changes));
+
+        assertThrows(NotAGroupMemberException.class, () -> groupService.applyTaskParticipantChanges(100L, changes));
+
+        assertEquals(2, task.getTaskParticipants().size());
+        verify(taskRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void applyTaskParticipantChanges_taskOutsideTheGroupIsNotFound() {
+        when(taskRepository.findAllWithTaskParticipants(100L, Set.of(7L))).thenReturn(List.of());
+        var changes = List.of(
+                new TaskParticipantChangeDto(7L, 5L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.REMOVE));
+
+        assertThrows(TaskNotFoundException.class, () -> groupService.applyTaskParticipantChanges(100L, changes));
+
+        verify(groupValidator, never()).validateTaskParticipantChanges(anyLong(), anyMap(), anyList());
+    }
+
+    // version 3 changed the title; the client edited on version 2
+    private Task taskEditedSinceVersion2() {
+        Task task = Task.builder().id(7L).title("Old").description("Desc")
+                .group(Group.builder().id(100L).build())
+                .version(3).titleVersion(3).descriptionVersion(1).build();
+        when(taskRepository.findByIdWithFullFetchParticipantsAndFiles(7L)).thenReturn(Optional.of(task));
+        return task;
+    }
+
+    @Test
+    void patchTask_staleVersionConflictsOnFieldsChangedSince() {
+        taskEditedSinceVersion2();
+
+        var conflict = assertThrows(TaskVersionConflictException.class, () ->
+                groupService.patchTask(100L, 7L, Task.builder().title("Mine").build(), 2L));
+
+        assertEquals(Set.of(TaskField.TITLE), conflict.getConflictingFields());
+        verify(taskRepository, never()).claimNextVersion(anyLong(), anyLong());
+    }
+
+    @Test
+    void patchTask_staleVersionMergesUntouchedFields() {
+        Task task = taskEditedSinceVersion2();
+        when(taskRepository.claimNextVersion(7L, 3L)).thenReturn(1);
+
+        groupService.patchTask(100L, 7L, Task.builder().title("Old").description("Mine").build(), 2L);
+
+        assertEquals("Mine", task.getDescription());
+        assertEquals(4L, task.getVersion());
+        assertEquals(4L, task.getDescriptionVersion());
+        assertEquals(3L, task.getTitleVersion());
+        verify(taskRepository).save(task);
+    }
+
+    // task 7 holds file 9, 1000 bytes; the leader's budget has room
+    private User taskWithOneThousandByteFile() {
+        return taskWithOneThousandByteFile(false);
+    }
+
+    private User taskWithOneThousandByteFile(boolean dailyDownloadCap) {
+        User leader = User.builder().id(2L).build();
+        TaskFile file = TaskFile.builder().id(9L).name("big.zip").fileUrl("7-big.zip")
+                .fileSize(1000L).blobETag("\"0x8D1\"").build();
+        Task task = Task.builder().id(7L)
+                .group(Group.builder().id(100L).dailyDownloadCapEnabled(dailyDownloadCap).build())
+                .creatorFiles(new HashSet<>(Set.of(file))).build();
+        when(taskRepository.findByIdWithParticipantsAndFiles(7L)).thenReturn(Optional.of(task));
+        when(groupMembershipRepository.findByGroup_IdAndRole(100L, Role.GROUP_LEADER))
+                .thenReturn(Optional.of(GroupMembership.builder().user(leader).build()));
+        when(budgetLedger.chargeDownload(eq(leader), anyLong(), anyLong())).thenReturn(true);
+        return leader;
+    }
+
+    @Test
+    void downloadTaskFile_rangeChargesOnlyTheBytesServed() {
+        User leader = taskWithOneThousandByteFile();
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\"", 600L, 400L))
+                .thenReturn(new BlobStorageService.BlobDownload(InputStream.nullInputStream(), 1000L));
+
+        var download = groupService.downloadTaskFile(100L, 7L, 9L, HttpRange.createByteRange(600));
+
+        assertEquals(new ByteRange(600, 999), download.range());
+        assertEquals(400L, download.contentLength());
+        verify(budgetLedger).chargeDownload(eq(leader), eq(400L), anyLong());
+    }
+
+    @Test
+    void downloadTaskFile_aboveThresholdRedirectsWithoutReadingTheBlob() {
+        User leader = taskWithOneThousandByteFile();
+        when(planLimits.redirectsDownload(1000L)).thenReturn(true);
+        when(blobStorageService.taskFileDownloadUrl("7-big.zip", "big.zip")).thenReturn("https://blob/7-big.zip?sig");
+
+        var download = groupService.downloadTaskFile(100L, 7L, 9L, null);
+
+        assertEquals("https://blob/7-big.zip?sig", download.redirectUrl());
+        verify(budgetLedger).chargeDownload(eq(leader), eq(1000L), anyLong());
+        verify(blobStorageService, never()).downloadTaskFile(anyString(), any());
+    }
+
+    @Test
+    void downloadTaskFile_redirectWithARangeIsGuardedAndChargedAsTheWholeFile() {
+        User leader = taskWithOneThousandByteFile(true);
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(planLimits.redirectsDownload(1000L)).thenReturn(true);
+        when(blobStorageService.taskFileDownloadUrl("7-big.zip", "big.zip")).thenReturn("https://blob/7-big.zip?sig");
+
+        var download = groupService.downloadTaskFile(100L, 7L, 9L, HttpRange.createByteRange(999));
+
+        assertEquals("https://blob/7-big.zip?sig", download.redirectUrl());
+        verify(downloadGuardService).checkRepeatDownload(1L, 9L);
+        verify(downloadGuardService, never()).takeResumePoint(anyLong(), anyLong());
+        verify(budgetLedger).chargeDownload(eq(leader), eq(1000L), anyLong());
+    }
+
+    @Test
+    void downloadTaskFile_rangeWithoutAResumePointStillRunsTheRepeatGuard() {
+        taskWithOneThousandByteFile(true);
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(downloadGuardService.takeResumePoint(1L, 9L)).thenReturn(-1L);
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\"", 1L, 999L))
+                .thenReturn(new BlobStorageService.BlobDownload(InputStream.nullInputStream(), 1000L));
+
+        groupService.downloadTaskFile(100L, 7L, 9L, HttpRange.createByteRange(1));
+
+        verify(downloadGuardService).checkRepeatDownload(1L, 9L);
+    }
+
+    @Test
+    void downloadTaskFile_rangeResumingABrokenStreamSkipsTheRepeatGuard() {
+        taskWithOneThousandByteFile(true);
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(downloadGuardService.takeResumePoint(1L, 9L)).thenReturn(600L);
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\"", 600L, 400L))
+                .thenReturn(new BlobStorageService.BlobDownload(InputStream.nullInputStream(), 1000L));
+
+        groupService.downloadTaskFile(100L, 7L, 9L, HttpRange.createByteRange(600));
+
+        verify(downloadGuardService, never()).checkRepeatDownload(anyLong(), anyLong());
+    }
+
+    @Test
+    void downloadTaskFile_streamClosedEarlyRecordsWhereItStopped() throws Exception {
+        taskWithOneThousandByteFile(true);
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\""))
+                .thenReturn(new BlobStorageService.BlobDownload(new ByteArrayInputStream(new byte[1000]), 1000L));
+
+        var download = groupService.downloadTaskFile(100L, 7L, 9L, null);
+        try (InputStream in = download.content()) {
+            in.readNBytes(300);
+        }
+
+        verify(downloadGuardService).checkRepeatDownload(1L, 9L);
+        verify(downloadGuardService).recordResumePoint(1L, 9L, 300L);
+    }
+
+    @Test
+    void downloadTaskFile_streamReadToTheEndRecordsNothing() throws Exception {
+        taskWithOneThousandByteFile(true);
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\""))
+                .thenReturn(new BlobStorageService.BlobDownload(new ByteArrayInputStream(new byte[1000]), 1000L));
+
+        var download = groupService.downloadTaskFile(100L, 7L, 9L, null);
+        try (InputStream in = download.content()) {
+            in.readAllBytes();
+        }
+
+        verify(downloadGuardService, never()).recordResumePoint(anyLong(), anyLong(), anyLong());
+        verify(budgetLedger, never()).refundDownload(any(), anyLong());
+    }
+
+    @Test
+    void downloadTaskFile_droppedStreamRefundsTheRestAndTheResumePaysForItsRange() throws Exception {
+        User leader = taskWithOneThousandByteFile(true);
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\""))
+                .thenReturn(new BlobStorageService.BlobDownload(new ByteArrayInputStream(new byte[1000]), 1000L));
+
+        var first = groupService.downloadTaskFile(100L, 7L, 9L, null);
+        try (InputStream in = first.content()) {
+            in.readNBytes(300);
+        }
+
+        verify(budgetLedger).chargeDownload(eq(leader), eq(1000L), anyLong());
+        verify(budgetLedger).refundDownload(leader, 700L);
+
+        when(downloadGuardService.takeResumePoint(1L, 9L)).thenReturn(300L);
+        when(blobStorageService.downloadTaskFile("7-big.zip", "\"0x8D1\"", 300L, 700L))
+                .thenReturn(new BlobStorageService.BlobDownload(new ByteArrayInputStream(new byte[700]), 1000L));
+
+        var resumed = groupService.downloadTaskFile(100L, 7L, 9L, HttpRange.createByteRange(300));
+        try (InputStream in = resumed.content()) {
+            in.readAllBytes();
+        }
+
+        // 1000 charged, 700 back, 700 again for the resume: the file cost 1000
+        verify(budgetLedger).chargeDownload(eq(leader), eq(700L), anyLong());
+        verify(budgetLedger, times(1)).refundDownload(any(), anyLong());
+        verify(downloadGuardService, times(1)).checkRepeatDownload(1L, 9L);
+    }
+
+    // task 7 of group 100 takes a 1000 byte direct upload; the leader's storage budget has room
+    private User taskAwaitingFinalize() {
+        User leader = User.builder().id(2L).build();
+        Task task = Task.builder().id(7L).group(Group.builder().id(100L).build()).build();
+        when(taskRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(task));
+        when(taskRepository.findByIdWithFullFetchParticipantsAndFiles(7L)).thenReturn(Optional.of(task));
+        when(groupMembershipRepository.findByGroup_IdAndRole(100L, Role.GROUP_LEADER))
+                .thenReturn(Optional.of(GroupMembership.builder().user(leader).build()));
+        when(planLimits.maxFileSizeBytes(any())).thenReturn(10_000L);
+        when(budgetLedger.chargeStorage(eq(leader), anyLong(), anyLong())).thenReturn(true);
+        return leader;
+    }
+
+    private Task finalizeReport() {
+        return groupService.finalizeTaskFileUpload(100L, 7L, "7-u1-report.pdf.upload", "report.pdf", 1000L, "application/pdf");
+    }
+
+    @Test
+    void finalizeTaskFileUpload_recordsTheCopyUnderTheTaskLock() {
+        User leader = taskAwaitingFinalize();
+        when(blobStorageService.getTaskFileInfo("7-u1-report.pdf.upload"))
+                .thenReturn(new BlobStorageService.BlobInfo(1000L, "application/pdf", "md5==", "\"0x8D1\""));
+        when(blobStorageService.promoteTaskFileUpload("7-u1-report.pdf.upload", "\"0x8D1\""))
+                .thenReturn(new BlobStorageService.StoredBlob("7-u1-report.pdf", 1000L, "application/pdf", "md5==", "\"0x8D9\""));
+
+        finalizeReport();
+
+        var inOrder = inOrder(taskRepository, taskFileRepository);
+        inOrder.verify(taskRepository).findByIdForUpdate(7L);
+        inOrder.verify(taskFileRepository).existsByFileUrl("7-u1-report.pdf");
+        verify(budgetLedger).chargeStorage(eq(leader), eq(1000L), anyLong());
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(saved.capture());
+        TaskFile file = saved.getValue().getCreatorFiles().iterator().next();
+        // the row points at the copy the upload SAS doesn't cover
+        assertEquals("7-u1-report.pdf", file.getFileUrl());
+        assertEquals("\"0x8D9\"", file.getBlobETag());
+    }
+
+    @Test
+    void finalizeTaskFileUpload_rejectsANameThatWasNotStaged() {
+        taskAwaitingFinalize();
+
+        assertThrows(InvalidFieldValueException.class, () ->
+                groupService.finalizeTaskFileUpload(100L, 7L, "7-u1-report.pdf", "report.pdf", 1000L, "application/pdf"));
+
+        verify(blobStorageService, never()).getTaskFileInfo(anyString());
+    }
+
+    @Test
+    void finalizeTaskFileUpload_overBudgetDropsTheCopy() {
+        User leader = taskAwaitingFinalize();
+        when(blobStorageService.getTaskFileInfo("7-u1-report.pdf.upload"))
+                .thenReturn(new BlobStorageService.BlobInfo(1000L, "application/pdf", null, "\"0x8D1\""));
+        when(blobStorageService.promoteTaskFileUpload("7-u1-report.pdf.upload", "\"0x8D1\""))
+                .thenReturn(new BlobStorageService.StoredBlob("7-u1-report.pdf", 1000L, "application/pdf", null, "\"0x8D9\""));
+        when(budgetLedger.chargeStorage(eq(leader), anyLong(), anyLong())).thenReturn(false);
+
+        assertThrows(LimitExceededException.class, this::finalizeReport);
+
+        verify(blobStorageService).discardTaskFileUpload("7-u1-report.pdf");
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void finalizeTaskFileUpload_rejectsABlobNameOfAnotherTask() {
+        taskAwaitingFinalize();
+
+        assertThrows(InvalidFieldValueException.class, () ->
+                groupService.finalizeTaskFileUpload(100L, 7L, "8-u1-report.pdf.upload", "report.pdf", 1000L, "application/pdf"));
+
+        verify(blobStorageService, never()).getTaskFileInfo(anyString());
+    }
+
+    @Test
+    void finalizeTaskFileUpload_secondFinalizeOfTheSameBlobChargesNothing() {
+        taskAwaitingFinalize();
+        when(taskFileRepository.existsByFileUrl("7-u1-report.pdf")).thenReturn(true);
+
+        assertThrows(BusinessRuleException.class, this::finalizeReport);
+
+        verify(budgetLedger, never()).chargeStorage(any(), anyLong(), anyLong());
+        verify(blobStorageService, never()).discardTaskFileUpload(anyString());
+    }
+
+    @Test
+    void finalizeTaskFileUpload_sizeMismatchDiscardsTheBlob() {
+        taskAwaitingFinalize();
+        when(blobStorageService.getTaskFileInfo("7-u1-report.pdf.upload"))
+                .thenReturn(new BlobStorageService.BlobInfo(900L, "application/pdf", null, "\"0x8D1\""));
+
+        assertThrows(BlobUploadTaskFileException.class, this::finalizeReport);
+
+        verify(blobStorageService).discardTaskFileUpload("7-u1-report.pdf.upload");
+        verify(budgetLedger, never()).chargeStorage(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void finalizeTaskFileUpload_contentTypeMismatchDiscardsTheBlob() {
+        taskAwaitingFinalize();
+        when(blobStorageService.getTaskFileInfo("7-u1-report.pdf.upload"))
+                .thenReturn(new BlobStorageService.BlobInfo(1000L, "text/html", null, "\"0x8D1\""));
+
+        assertThrows(BlobUploadTaskFileException.class, this::finalizeReport);
+
+        verify(blobStorageService).discardTaskFileUpload("7-u1-report.pdf.upload");
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void finalizeTaskFileUpload_missingBlobHasNothingToDiscard() {
+        taskAwaitingFinalize();
+
+        assertThrows(BlobUploadTaskFileException.class, this::finalizeReport);
+
+        verify(blobStorageService, never()).discardTaskFileUpload(anyString());
+    }
+
+    @Test
+    void finalizeAssigneeTaskFileUpload_recordsTheCopyUnderTheTaskLock() {
+        taskAwaitingFinalize();
+        when(blobStorageService.getTaskAssigneeFileInfo("7-u1-work.zip.upload"))
+                .thenReturn(new BlobStorageService.BlobInfo(1000L, "application/octet-stream", null, "\"0x8D2\""));
+        when(blobStorageService.promoteTaskAssigneeFileUpload("7-u1-work.zip.upload", "\"0x8D2\""))
+                .thenReturn(new BlobStorageService.StoredBlob("7-u1-work.zip", 1000L, "application/octet-stream", null, "\"0x8D3\""));
+
+        groupService.finalizeAssigneeTaskFileUpload(100L, 7L, "7-u1-work.zip.upload", "work.zip", 1000L, null);
+
+        var inOrder = inOrder(taskRepository, taskAssigneeFileRepository);
+        inOrder.verify(taskRepository).findByIdForUpdate(7L);
+        inOrder.verify(taskAssigneeFileRepository).existsByFileUrl("7-u1-work.zip");
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(saved.capture());
+        TaskAssigneeFile file = saved.getValue().getAssigneeFiles().iterator().next();
+        assertEquals("7-u1-work.zip", file.getFileUrl());
+    }
+
+    @Test
+    void groupSnapshotVersion_keysOnTheSeqAndEveryStampedField() {
+        Instant eventAt = Instant.parse("2026-03-10T12:00:00Z");
+        when(effectiveCurrentUser.getUserId()).thenReturn(1L);
+        when(groupMembershipRepository.findSnapshotStamp(100L, 1L)).thenReturn(
+                Optional.of(new GroupSnapshotStampDto(42L, eventAt, Role.MEMBER, SubscriptionPlan.FREE, "Ann", null)),
+                Optional.of(new GroupSnapshotStampDto(42L, eventAt, Role.MEMBER, SubscriptionPlan.FREE, "Ann", null)),
+                Optional.of(new GroupSnapshotStampDto(42L, eventAt, Role.MEMBER, SubscriptionPlan.FREE, "Anne", null)),
+                Optional.of(new GroupSnapshotStampDto(42L, eventAt, Role.MEMBER, SubscriptionPlan.FREE, "Ann", eventAt)));
+
+        String first = groupService.findGroupSnapshotVersion(100L);
+
+        assertTrue(first.startsWith("42-"));
+        assertEquals(first, groupService.findGroupSnapshotVersion(100L));
+        assertNotEquals(first, groupService.findGroupSnapshotVersion(100L));
+        assertNotEquals(first, groupService.findGroupSnapshotVersion(100L));
+    }
 }
@@ -0,0 +1,135 @@
+package io.github.balasis.taskmanager.engine.core.test;
+
+import io.github.balasis.taskmanager.context.base.enumeration.Role;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantChangeType;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+import io.github.balasis.taskmanager.context.base.exception.authorization.InvalidRoleException;
+import io.github.balasis.taskmanager.context.base.exception.authorization.NotAGroupMemberException;
+import io.github.balasis.taskmanager.context.base.exception.notfound.TaskParticipantNotFoundException;
+import io.github.balasis.taskmanager.context.base.exception.validation.InvalidFieldValueException;
+import io.github.balasis.taskmanager.context.base.model.Group;
+import io.github.balasis.taskmanager.context.base.model.GroupMembership;
+import io.github.balasis.taskmanager.context.base.model.Task;
+import io.github.balasis.taskmanager.context.base.model.TaskParticipant;
+import io.github.balasis.taskmanager.context.base.model.User;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantChangeDto;
+import io.github.balasis.taskmanager.engine.core.repository.*;
+import io.github.balasis.taskmanager.engine.core.service.authorization.RolePolicyService;
+import io.github.balasis.taskmanager.engine.core.validation.GroupValidatorImpl;
+import io.github.balasis.taskmanager.engine.infrastructure.auth.loggedinuser.EffectiveCurrentUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+// validateTaskParticipantChanges: the checks of the bulk participant diff
+class GroupValidatorTest {
+
+    private GroupMembershipRepository groupMembershipRepository;
+    private GroupValidatorImpl groupValidator;
+
+    // task 7 of group 100: user 5 is an assignee
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        groupMembershipRepository = mock(GroupMembershipRepository.class);
+        groupValidator = new GroupValidatorImpl(
+                mock(GroupRepository.class),
+                groupMembershipRepository,
+                mock(EffectiveCurrentUser.class),
+                new RolePolicyService(),
+                mock(GroupInvitationRepository.class),
+                mock(UserRepository.class));
+
+        task = Task.builder().id(7L).group(Group.builder().id(100L).build()).build();
+        task.getTaskParticipants().add(TaskParticipant.builder().task(task)
+                .user(User.builder().id(5L).build()).taskParticipantRole(TaskParticipantRole.ASSIGNEE).build());
+    }
+
+    private void members(Object... userIdAndRole) {
+        var memberships = new ArrayList<GroupMembership>();
+        for (int i = 0; i < userIdAndRole.length; i += 2) {
+            memberships.add(GroupMembership.builder()
+                    .user(User.builder().id((Long) userIdAndRole[i]).build())
+                    .role((Role) userIdAndRole[i + 1]).build());
+        }
+        when(groupMembershipRepository.findByGroupIdAndUserIdIn(eq(100L), anyCollection())).thenReturn(memberships);
+    }
+
+    private void validate(TaskParticipantChangeDto... changes) {
+        groupValidator.validateTaskParticipantChanges(100L, Map.of(7L, task), List.of(changes));
+    }
+
+    private static TaskParticipantChangeDto change(Long userId, TaskParticipantRole role, TaskParticipantChangeType type) {
+        return new TaskParticipantChangeDto(7L, userId, role, type);
+    }
+
+    @Test
+    void validDiffChecksMembershipOnce() {
+        members(6L, Role.MEMBER, 5L, Role.REVIEWER);
+
+        assertDoesNotThrow(() -> validate(
+                change(6L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.ADD),
+                change(5L, TaskParticipantRole.REVIEWER, TaskParticipantChangeType.CHANGE_ROLE)));
+
+        verify(groupMembershipRepository, times(1)).findByGroupIdAndUserIdIn(100L, Set.of(5L, 6L));
+    }
+
+    @Test
+    void addOfAnExistingRoleIsRejected() {
+        assertThrows(InvalidFieldValueException.class, () ->
+                validate(change(5L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.ADD)));
+    }
+
+    @Test
+    void addOfANonMemberIsRejected() {
+        members();
+
+        assertThrows(NotAGroupMemberException.class, () ->
+                validate(change(6L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.ADD)));
+    }
+
+    @Test
+    void removeOfAMissingRoleIsRejected() {
+        assertThrows(TaskParticipantNotFoundException.class, () ->
+                validate(change(5L, TaskParticipantRole.REVIEWER, TaskParticipantChangeType.REMOVE)));
+    }
+
+    @Test
+    void removeNeedsNoMembership() {
+        // a user who already left the group can still be taken off the task
+        assertDoesNotThrow(() ->
+                validate(change(5L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.REMOVE)));
+
+        verify(groupMembershipRepository, never()).findByGroupIdAndUserIdIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void changeRoleNeedsTheOtherRole() {
+        assertThrows(InvalidFieldValueException.class, () ->
+                validate(change(5L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.CHANGE_ROLE)));
+    }
+
+    @Test
+    void changeRoleToReviewerChecksReviewerRank() {
+        members(5L, Role.MEMBER);
+
+        assertThrows(InvalidRoleException.class, () ->
+                validate(change(5L, TaskParticipantRole.REVIEWER, TaskParticipantChangeType.CHANGE_ROLE)));
+    }
+
+    @Test
+    void secondChangeForTheSameTaskAndUserIsRejected() {
+        assertThrows(InvalidFieldValueException.class, () -> validate(
+                change(6L, TaskParticipantRole.ASSIGNEE, TaskParticipantChangeType.ADD),
+                change(6L, TaskParticipantRole.REVIEWER, TaskParticipantChangeType.ADD)));
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.balasis.taskmanager.engine.core.test;
+
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.Lookup;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.Outcome;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService.StoredResponse;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisIdempotencyStoreService;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// the store runs against a map standing in for Redis: GET and SET NX on the
+// claim path, and the complete / release scripts played against the map
+class RedisIdempotencyStoreServiceTest {
+
+    private static final String KEY = "5:POST:/api/groups/1/invite:abcdefgh12";
+
+    private final Map<String, byte[]> redis = new HashMap<>();
+    private RedisCommands<byte[], byte[]> commands;
+    private RedisIdempotencyStoreService store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        commands = mock(RedisCommands.class);
+        StatefulRedisConnection<byte[], byte[]> connection = mock(StatefulRedisConnection.class);
+        when(connection.sync()).thenReturn(commands);
+
+        when(commands.get(any())).thenAnswer(inv -> redis.get(key(inv.getArgument(0))));
+        when(commands.set(any(), any(), any(SetArgs.class))).thenAnswer(inv ->
+                redis.putIfAbsent(key(inv.getArgument(0)), inv.getArgument(1)) == null ? "OK" : null);
+        when(commands.scriptLoad(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        doAnswer(inv -> {
+            Object[] args = inv.getArguments(); // sha, type, keys, then the script's ARGV
+            String key = key(((byte[][]) args[2])[0]);
+            byte[] marker = (byte[]) args[3];
+            byte[] current = redis.get(key);
+            if (current != null && !Arrays.equals(current, marker)) return 0L;
+            if (((String) args[0]).contains("DEL")) {
+                return redis.remove(key) != null ? 1L : 0L;
+            }
+            redis.put(key, (byte[]) args[4]);
+            return 1L;
+        }).when(commands).evalsha(anyString(), any(ScriptOutputType.class), any(byte[][].class), any(byte[][].class));
+
+        store = new RedisIdempotencyStoreService(connection, "");
+    }
+
+    private static String key(byte[] raw) {
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void firstClaimWinsAndASecondWithTheSameRequestWaits() {
+        assertEquals(Outcome.CLAIMED, store.claim(KEY, "aa11").outcome());
+        assertEquals(Outcome.IN_FLIGHT, store.claim(KEY, "aa11").outcome());
+    }
+
+    @Test
+    void anotherRequestOnAKeyInFlightIsAMismatch() {
+        store.claim(KEY, "aa11");
+
+        assertEquals(Outcome.MISMATCH, store.claim(KEY, "bb22").outcome());
+    }
+
+    @Test
+    void completedResponseIsReplayedForTheSameRequest() {
+        store.claim(KEY, "aa11");
+        byte[] body = "{\"id\":7}".getBytes(StandardCharsets.UTF_8);
+        store.complete(KEY, "aa11", new StoredResponse(201, "application/json", body));
+
+        Lookup lookup = store.claim(KEY, "aa11");
+
+        assertEquals(Outcome.COMPLETED, lookup.outcome());
+        assertEquals(201, lookup.response().status());
+        assertEquals("application/json", lookup.response().contentType());
+        assertArrayEquals(body, lookup.response().body());
+    }
+
+    @Test
+    void completedResponseIsNotReplayedForAnotherRequest() {
+        store.claim(KEY, "aa11");
+        store.complete(KEY, "aa11", new StoredResponse(200, "application/json", new byte[0]));
+
+        assertEquals(Outcome.MISMATCH, store.claim(KEY, "bb22").outcome());
+    }
+
+    @Test
+    void emptyResponseReplaysWithoutAContentType() {
+        store.claim(KEY, "aa11");
+        store.complete(KEY, "aa11", new StoredResponse(204, null, new byte[0]));
+
+        Lookup lookup = store.claim(KEY, "aa11");
+
+        assertEquals(204, lookup.response().status());
+        assertNull(lookup.response().contentType());
+        assertEquals(0, lookup.response().body().length);
+    }
+
+    @Test
+    void releaseFreesTheKeyForTheNextRequest() {
+        store.claim(KEY, "aa11");
+        store.release(KEY, "aa11");
+
+        assertEquals(Outcome.CLAIMED, store.claim(KEY, "bb22").outcome());
+    }
+
+    @Test
+    void lateReleaseLeavesTheNextRequestsClaimAlone() {
+        store.claim(KEY, "aa11");
+        redis.clear(); // the in-flight marker ran out
+        store.claim(KEY, "bb22");
+
+        store.release(KEY, "aa11");
+
+        assertEquals(Outcome.IN_FLIGHT, store.claim(KEY, "bb22").outcome());
+    }
+
+    @Test
+    void lateCompleteDoesNotOverwriteTheNextRequestsClaim() {
+        store.claim(KEY, "aa11");
+        redis.clear();
+        store.claim(KEY, "bb22");
+
+        store.complete(KEY, "aa11", new StoredResponse(201, "application/json", new byte[0]));
+
+        assertEquals(Outcome.IN_FLIGHT, store.claim(KEY, "bb22").outcome());
+    }
+
+    @Test
+    void redisFailureLetsTheRequestRun() {
+        doThrow(new RuntimeException("connection refused")).when(commands).get(any());
+
+        assertEquals(Outcome.CLAIMED, store.claim(KEY, "aa11").outcome());
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.balasis.taskmanager.engine.core.test;
+
+import io.github.balasis.taskmanager.context.base.enumeration.TaskParticipantRole;
+import io.github.balasis.taskmanager.context.base.enumeration.TaskState;
+import io.github.balasis.taskmanager.engine.core.dto.GroupSeqsDto;
+import io.github.balasis.taskmanager.engine.core.dto.TaskIndexRow;
+import io.github.balasis.taskmanager.engine.core.dto.TaskParticipantIndexRow;
+import io.github.balasis.taskmanager.engine.core.repository.DeletedTaskRepository;
+import io.github.balasis.taskmanager.engine.core.repository.GroupRepository;
+import io.github.balasis.taskmanager.engine.core.repository.TaskParticipantRepository;
+import io.github.balasis.taskmanager.engine.core.repository.TaskRepository;
+import io.github.balasis.taskmanager.engine.core.service.TaskFilterIndex;
+import io.github.balasis.taskmanager.engine.core.service.TaskFilterIndex.Criteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// the index is rebuilt from the repository rows on first use and then only
+// pulls rows stamped after the group seq it last saw
+class TaskFilterIndexTest {
+
+    private static final Long GROUP = 1L;
+    private static final Instant DAY = Instant.parse("2026-03-10T12:00:00Z");
+
+    private GroupRepository groupRepository;
+    private TaskRepository taskRepository;
+    private TaskParticipantRepository taskParticipantRepository;
+    private DeletedTaskRepository deletedTaskRepository;
+    private TaskFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        groupRepository = mock(GroupRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        taskParticipantRepository = mock(TaskParticipantRepository.class);
+        deletedTaskRepository = mock(DeletedTaskRepository.class);
+        index = new TaskFilterIndex(groupRepository, taskRepository, taskParticipantRepository, deletedTaskRepository);
+
+        when(groupRepository.findSeqs(GROUP)).thenReturn(Optional.of(new GroupSeqsDto(5, 1)));
+        when(taskRepository.findIndexRows(GROUP, -1)).thenReturn(List.of(
+                new TaskIndexRow(10L, TaskState.TODO, 1, DAY, 0L, 0L),
+                new TaskIndexRow(11L, TaskState.TODO, 3, DAY.plusSeconds(3600), 1L, 0L),
+                new TaskIndexRow(12L, TaskState.DONE, 5, null, 0L, 2L)));
+        when(taskParticipantRepository.findIndexRows(GROUP, -1)).thenReturn(List.of(
+                new TaskParticipantIndexRow(10L, 7L, TaskParticipantRole.ASSIGNEE),
+                new TaskParticipantIndexRow(11L, 7L, TaskParticipantRole.REVIEWER),
+                new TaskParticipantIndexRow(12L, 8L, TaskParticipantRole.ASSIGNEE)));
+    }
+
+    private static Criteria criteria(Long assigneeId, Long participantUserId, Instant dueDateBefore,
+                                     Integer priorityMin, TaskState taskState, Boolean hasFiles) {
+        return new Criteria(null, null, assigneeId, participantUserId, dueDateBefore, priorityMin, null, taskState, hasFiles);
+    }
+
+    @Test
+    void filter_intersectsCriteria() {
+        assertEquals(Set.of(10L, 11L, 12L), index.filter(GROUP, criteria(null, null, null, null, null, null)));
+        assertEquals(Set.of(10L, 11L), index.filter(GROUP, criteria(null, 7L, null, null, null, null)));
+        assertEquals(Set.of(10L), index.filter(GROUP, criteria(7L, null, null, null, TaskState.TODO, null)));
+        assertEquals(Set.of(11L, 12L), index.filter(GROUP, criteria(null, null, null, 2, null, true)));
+        // same-day cutoff is compared exactly, not by bucket
+        assertEquals(Set.of(10L), index.filter(GROUP, criteria(null, null, DAY.plusSeconds(60), null, null, null)));
+    }
+
+    @Test
+    void filter_appliesOnlyTheDeltaAfterTheGroupSeqMoves() {
+        index.filter(GROUP, criteria(null, null, null, null, null, null));
+
+        when(groupRepository.findSeqs(GROUP)).thenReturn(Optional.of(new GroupSeqsDto(7, 1)));
+        when(taskRepository.findIndexRows(GROUP, 5)).thenReturn(List.of(
+                new TaskIndexRow(11L, TaskState.DONE, 3, null, 0L, 0L)));
+        when(taskParticipantRepository.findIndexRows(GROUP, 5)).thenReturn(List.of());
+        when(deletedTaskRepository.findDeletedTaskIdsByGroupIdAndSeqAfter(GROUP, 5)).thenReturn(Set.of(12L));
+
+        assertEquals(Set.of(11L), index.filter(GROUP, criteria(null, null, null, null, TaskState.DONE, null)));
+        assertEquals(Set.of(10L), index.filter(GROUP, criteria(null, 7L, null, null, null, null)));
+        verify(taskRepository, times(1)).findIndexRows(GROUP, -1);
+    }
+
+    @Test
+    void filter_doesNotHoldTheGroupWhileReadingTheDelta() throws Exception {
+        index.filter(GROUP, criteria(null, null, null, null, null, null));
+
+        when(groupRepository.findSeqs(GROUP)).thenReturn(Optional.of(new GroupSeqsDto(7, 1)));
+        when(taskParticipantRepository.findIndexRows(GROUP, 5)).thenReturn(List.of());
+        when(deletedTaskRepository.findDeletedTaskIdsByGroupIdAndSeqAfter(eq(GROUP), anyLong())).thenReturn(Set.of());
+        // the first reader's query runs a second filter on another thread; that one
+        // has to get through (and merge) while the first is still reading
+        when(taskRepository.findIndexRows(GROUP, 5))
+                .thenAnswer(inv -> {
+                    Set<Long> other = CompletableFuture
+                            .supplyAsync(() -> index.filter(GROUP, criteria(null, null, null, null, TaskState.DONE, null)))
+                            .get(5, TimeUnit.SECONDS);
+                    assertEquals(Set.of(11L, 12L), other);
+                    return List.of(new TaskIndexRow(11L, TaskState.DONE, 3, null, 0L, 0L));
+                })
+                .thenReturn(List.of(new TaskIndexRow(11L, TaskState.DONE, 3, null, 0L, 0L)));
+
+        assertEquals(Set.of(11L, 12L), index.filter(GROUP, criteria(null, null, null, null, TaskState.DONE, null)));
+        // the first reader's delta went stale, so it took the index the other one merged
+        verify(taskRepository, times(2)).findIndexRows(GROUP, 5);
+    }
+}
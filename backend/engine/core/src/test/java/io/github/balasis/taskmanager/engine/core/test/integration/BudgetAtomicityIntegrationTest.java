@@ -134,6 +134,31 @@ class BudgetAtomicityIntegrationTest {
         assertEquals(4500L, updated.getUsedDownloadBytesMonth());
     }
 
+    // ledger deltas (no budget guard, clamped at zero)
+
+    @Test
+    void applyStorageDelta_addsAndClampsToZero() {
+        userRepository.applyStorageDelta(user.getId(), 700L);
+        userRepository.applyStorageDelta(user.getId(), -200L);
+
+        em.clear();
+        assertEquals(500L, userRepository.findById(user.getId()).orElseThrow().getUsedStorageBytes());
+
+        userRepository.applyStorageDelta(user.getId(), -900L);
+
+        em.clear();
+        assertEquals(0L, userRepository.findById(user.getId()).orElseThrow().getUsedStorageBytes());
+    }
+
+    @Test
+    void applyDownloadDelta_addsWithoutBudgetGuard() {
+        int rows = userRepository.applyDownloadDelta(user.getId(), 6000L);
+        assertEquals(1, rows);
+
+        em.clear();
+        assertEquals(6000L, userRepository.findById(user.getId()).orElseThrow().getUsedDownloadBytesMonth());
+    }
+
     // email quota
 
     @Test
@@ -160,6 +185,19 @@ class BudgetAtomicityIntegrationTest {
         assertEquals(3, updated.getUsedEmailsMonth());
     }
 
+    @Test
+    void chargeEmailUsage_chargesAllOrNothing() {
+        int rows = userRepository.chargeEmailUsage(user.getId(), 4, 5);
+        assertEquals(1, rows);
+
+        rows = userRepository.chargeEmailUsage(user.getId(), 2, 5);
+        assertEquals(0, rows);
+
+        em.clear();
+        User updated = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(4, updated.getUsedEmailsMonth());
+    }
+
     // image scan quota
 
     @Test
@@ -5,9 +5,11 @@ import io.github.balasis.taskmanager.context.base.enumeration.SubscriptionPlan;
 import io.github.balasis.taskmanager.context.base.model.Group;
 import io.github.balasis.taskmanager.context.base.model.GroupMembership;
 import io.github.balasis.taskmanager.context.base.model.User;
+import io.github.balasis.taskmanager.engine.core.dto.GroupChangeStampDto;
 import io.github.balasis.taskmanager.engine.core.repository.GroupMembershipRepository;
 import io.github.balasis.taskmanager.engine.core.repository.GroupRepository;
 import io.github.balasis.taskmanager.engine.core.repository.UserRepository;
+import io.github.balasis.taskmanager.engine.core.repository.specification.GroupMembershipSpecifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -17,6 +19,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestConstructor;
 import org.springframework.test.context.TestConstructor.AutowireMode;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -137,17 +140,17 @@ class GroupMembershipIntegrationTest {
     }
 
     @Test
-    void searchByGroupIdAndUser_filtersCorrectly() {
-        Page<GroupMembership> results = membershipRepository
-                .searchByGroupIdAndUser(group.getId(), "Lead", PageRequest.of(0, 10));
+    void searchInGroup_filtersCorrectly() {
+        Page<GroupMembership> results = membershipRepository.findAll(
+                GroupMembershipSpecifications.searchInGroup(group.getId(), "Lead"), PageRequest.of(0, 10));
         assertEquals(1, results.getTotalElements());
         assertEquals("Leader", results.getContent().get(0).getUser().getName());
     }
 
     @Test
-    void searchByGroupIdAndUser_nullQuery_returnsAll() {
-        Page<GroupMembership> results = membershipRepository
-                .searchByGroupIdAndUser(group.getId(), null, PageRequest.of(0, 10));
+    void searchInGroup_nullQuery_returnsAll() {
+        Page<GroupMembership> results = membershipRepository.findAll(
+                GroupMembershipSpecifications.searchInGroup(group.getId(), null), PageRequest.of(0, 10));
         assertEquals(2, results.getTotalElements());
     }
 
@@ -207,4 +210,40 @@ class GroupMembershipIntegrationTest {
         assertEquals(1, membershipRepository.countByGroup_Id(secondGroup.getId()));
         assertEquals(2, membershipRepository.countByUser_Id(leader.getId()));
     }
+
+    @Test
+    void findChangeStampsForMember_onlyReturnsGroupsTheUserBelongsTo() {
+        Instant changedAt = Instant.parse("2026-01-01T10:00:00Z");
+        groupRepository.advanceLastChange(group.getId(), changedAt);
+
+        Group foreignGroup = groupRepository.save(Group.builder()
+                .name("Foreign Group")
+                .owner(leader)
+                .build());
+
+        List<GroupChangeStampDto> stamps = membershipRepository.findChangeStampsForMember(
+                member.getId(), List.of(group.getId(), foreignGroup.getId()));
+
+        assertEquals(1, stamps.size());
+        assertEquals(group.getId(), stamps.get(0).groupId());
+        assertEquals(changedAt, stamps.get(0).lastChangeInGroup());
+    }
+
+    @Test
+    void findSnapshotStamp_returnsCallersRoleAndOwnerPlan_emptyForNonMember() {
+        User outsider = userRepository.save(User.builder()
+                .azureKey("azure-outsider")
+                .email("outsider@test.com")
+                .name("Outsider")
+                .subscriptionPlan(SubscriptionPlan.FREE)
+                .build());
+
+        var stamp = membershipRepository.findSnapshotStamp(group.getId(), member.getId());
+        assertTrue(stamp.isPresent());
+        assertEquals(Role.MEMBER, stamp.get().role());
+        assertEquals(SubscriptionPlan.ORGANIZER, stamp.get().ownerPlan());
+        assertNull(stamp.get().lastSeenComments());
+
+        assertTrue(membershipRepository.findSnapshotStamp(group.getId(), outsider.getId()).isEmpty());
+    }
 }
@@ -16,6 +16,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestConstructor;
 import org.springframework.test.context.TestConstructor.AutowireMode;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -205,4 +207,68 @@ class GroupRepositoryIntegrationTest {
 
         assertEquals(0, groupMembershipRepository.countByGroup_Id(group.getId()));
     }
+
+    @Test
+    void bumpChangeSeq_incrementsAndIsNotOverwrittenByEntityFlush() {
+        Group group = groupRepository.save(Group.builder()
+                .name("Seq Group")
+                .owner(owner)
+                .build());
+        em.flush();
+
+        assertEquals(1, groupRepository.bumpChangeSeq(group.getId()));
+        groupRepository.bumpChangeSeq(group.getId());
+        assertEquals(2L, groupRepository.findChangeSeq(group.getId()));
+
+        // the managed entity still holds the stale seq; changeSeq is not
+        // updatable so flushing another field must not roll it back
+        group.setName("Seq Group Renamed");
+        em.flush();
+        em.clear();
+
+        assertEquals(2L, groupRepository.findChangeSeq(group.getId()));
+    }
+
+    @Test
+    void advanceLastChange_onlyMovesForward() {
+        Group group = groupRepository.save(Group.builder()
+                .name("Stamp Group")
+                .owner(owner)
+                .build());
+        em.flush();
+
+        Instant later = Instant.parse("2026-02-01T10:00:00Z");
+        Instant earlier = later.minusSeconds(60);
+
+        assertEquals(1, groupRepository.advanceLastChange(group.getId(), later));
+        assertEquals(0, groupRepository.advanceLastChange(group.getId(), earlier));
+        em.clear();
+
+        assertEquals(later, groupRepository.findById(group.getId()).orElseThrow().getLastChangeInGroup());
+    }
+
+    @Test
+    void addDeletionProgress_onlyCountsForGroupsPendingDeletion() {
+        Group group = groupRepository.save(Group.builder()
+                .name("Doomed Group")
+                .owner(owner)
+                .build());
+        em.flush();
+
+        assertEquals(0, groupRepository.addDeletionProgress(group.getId(), 5));
+        assertTrue(groupRepository.findIdsPendingDeletion().isEmpty());
+
+        group.setDeletionRequestedAt(Instant.now());
+        em.flush();
+
+        assertEquals(1, groupRepository.addDeletionProgress(group.getId(), 5));
+        assertEquals(1, groupRepository.addDeletionProgress(group.getId(), 3));
+        assertEquals(List.of(group.getId()), groupRepository.findIdsPendingDeletion());
+        em.clear();
+
+        assertEquals(8L, groupRepository.findById(group.getId()).orElseThrow().getDeletionPurgedTasks());
+
+        groupRepository.purgeById(group.getId());
+        assertEquals(0, groupRepository.addDeletionProgress(group.getId(), 0));
+    }
 }
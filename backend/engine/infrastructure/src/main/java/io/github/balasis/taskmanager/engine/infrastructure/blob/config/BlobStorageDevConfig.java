@@ -1,7 +1,9 @@
 package io.github.balasis.taskmanager.engine.infrastructure.blob.config;
 
+import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import io.github.balasis.taskmanager.engine.infrastructure.blob.service.BlobSasSigner;
 import io.github.balasis.taskmanager.engine.infrastructure.secret.SecretClientProvider;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +14,8 @@ import org.springframework.context.annotation.Profile;
 // Azurite runs as a Docker container (see backend-blob-compose.yml) and
 // exposes the same REST API as real Azure Blob Storage on localhost:10000.
 // the connection string is a well-known dev string (like SQL Server's sa password).
+// it carries the account key, so direct-upload SAS URLs are signed with it;
+// the compose file's AZURITE_BLOB_CORS lets the browser PUT to them.
 @Configuration
 @Profile({"dev-mssql", "dev-h2", "dev-flyway-mssql"})
 @AllArgsConstructor
@@ -26,4 +30,9 @@ public class BlobStorageDevConfig {
                 .connectionString(connectionString)
                 .buildClient();
     }
+
+    @Bean
+    public BlobSasSigner blobSasSigner() {
+        return BlobClient::generateSas;
+    }
 }
@@ -3,6 +3,8 @@ package io.github.balasis.taskmanager.engine.infrastructure.blob.config;
 import com.azure.identity.ManagedIdentityCredential;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import io.github.balasis.taskmanager.engine.infrastructure.blob.service.BlobSasSigner;
+import io.github.balasis.taskmanager.engine.infrastructure.blob.service.UserDelegationBlobSasSigner;
 import io.github.balasis.taskmanager.engine.infrastructure.secret.SecretClientProvider;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -28,4 +30,10 @@ public class BlobStorageProdConfig {
                 .credential(managedIdentityCredential)
                 .buildClient();
     }
+
+    // no account key under managed identity: SAS URLs use a user delegation key
+    @Bean
+    public BlobSasSigner blobSasSigner(BlobServiceClient blobServiceClient) {
+        return new UserDelegationBlobSasSigner(blobServiceClient);
+    }
 }
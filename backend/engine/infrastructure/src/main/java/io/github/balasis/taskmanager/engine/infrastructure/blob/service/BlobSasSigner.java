@@ -0,0 +1,12 @@
+package io.github.balasis.taskmanager.engine.infrastructure.blob.service;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+
+// signs a blob-scoped SAS. dev (Azurite) signs with the account key from the
+// connection string; prod has no account key, only the managed identity, so
+// it signs with a user delegation key. see BlobStorageDevConfig / ProdConfig.
+public interface BlobSasSigner {
+
+    String sign(BlobClient blobClient, BlobServiceSasSignatureValues values);
+}
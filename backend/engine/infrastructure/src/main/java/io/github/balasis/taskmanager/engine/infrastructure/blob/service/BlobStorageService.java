@@ -1,13 +1,29 @@
 package io.github.balasis.taskmanager.engine.infrastructure.blob.service;
 
+import com.azure.core.http.RequestConditions;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.BlockBlobItem;
 import com.azure.storage.blob.models.PublicAccessType;
+import com.azure.storage.blob.options.BlobCopyFromUrlOptions;
+import com.azure.storage.blob.options.BlobInputStreamOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import com.azure.storage.blob.specialized.BlobInputStream;
+import io.github.balasis.taskmanager.context.base.exception.blob.download.BlobDownloadTaskFileException;
 import io.github.balasis.taskmanager.context.base.exception.blob.upload.BlobUploadException;
 import io.github.balasis.taskmanager.context.base.exception.blob.upload.BlobUploadImageException;
 import io.github.balasis.taskmanager.context.base.exception.blob.upload.BlobUploadTaskFileException;
 import io.github.balasis.taskmanager.context.base.exception.critical.CriticalBlobStorageException;
+import io.github.balasis.taskmanager.context.base.exception.notfound.TaskFileBlobNotFoundException;
 import io.github.balasis.taskmanager.context.base.limits.PlanLimits;
 import io.github.balasis.taskmanager.context.base.utils.StringSanitizer;
 import io.github.balasis.taskmanager.shared.enums.BlobContainerType;
@@ -19,6 +35,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -40,14 +59,34 @@ public class BlobStorageService {
 
     private static final Logger log = LoggerFactory.getLogger(BlobStorageService.class);
 
+    // the blob stream buffers one block at a time (the SDK default is 4 MB), so
+    // memory held by proxied downloads is about app.download-max-streams x this
+    static final int DOWNLOAD_BLOCK_SIZE = 1024 * 1024;
+
+    // how long a direct-upload URL stays usable. the orphan sweeper skips blobs
+    // younger than its own grace period, so this has to stay well below that.
+    public static final Duration UPLOAD_URL_TTL = Duration.ofMinutes(15);
+
+    // how long a redirected download URL can be started with. the check is at
+    // request start, so a slow transfer isn't cut off when it runs past this.
+    public static final Duration DOWNLOAD_URL_TTL = Duration.ofMinutes(5);
+
+    // direct uploads go to "<final name>.upload". the upload SAS only covers
+    // that staged name, and finalize copies it to the final name, so nothing
+    // the client still holds can write to a blob a file row points at.
+    public static final String STAGED_UPLOAD_SUFFIX = ".upload";
+
     private final ImageResizeService imageResizeService;
+    private final BlobSasSigner sasSigner;
 
     private final Map<BlobContainerType, BlobContainerClient> containers =
             new EnumMap<>(BlobContainerType.class);
 
     public BlobStorageService(BlobServiceClient blobServiceClient,
-                              ImageResizeService imageResizeService) {
+                              ImageResizeService imageResizeService,
+                              BlobSasSigner sasSigner) {
         this.imageResizeService = imageResizeService;
+        this.sasSigner = sasSigner;
 
         for (BlobContainerType type : BlobContainerType.values()) {
             BlobContainerClient container =
@@ -64,24 +103,84 @@ public class BlobStorageService {
         }
     }
 
-    public BlobDownload downloadTaskAssigneeFile(String blobName){
-        return downloadInternal(BlobContainerType.TASK_ASSIGNEE_FILES, blobName);
+    // etag is the one recorded on the file row; null for rows from before we kept it
+    public BlobDownload downloadTaskAssigneeFile(String blobName, String etag){
+        return downloadInternal(BlobContainerType.TASK_ASSIGNEE_FILES, blobName, etag, null);
     }
 
-    public String uploadTaskAssigneeFile(MultipartFile file, Long prefixId, long maxSizeBytes){
+    public BlobDownload downloadTaskAssigneeFile(String blobName, String etag, long offset, long count){
+        return downloadInternal(BlobContainerType.TASK_ASSIGNEE_FILES, blobName, etag, new BlobRange(offset, count));
+    }
+
+    public StoredBlob uploadTaskAssigneeFile(MultipartFile file, Long prefixId, long maxSizeBytes){
         assertTaskAssigneeFile(file, maxSizeBytes);
         return uploadInternal(BlobContainerType.TASK_ASSIGNEE_FILES, file, prefixId);
     }
 
-    public BlobDownload downloadTaskFile(String blobName){
-        return downloadInternal(BlobContainerType.TASK_FILES, blobName);
+    public BlobDownload downloadTaskFile(String blobName, String etag){
+        return downloadInternal(BlobContainerType.TASK_FILES, blobName, etag, null);
+    }
+
+    public BlobDownload downloadTaskFile(String blobName, String etag, long offset, long count){
+        return downloadInternal(BlobContainerType.TASK_FILES, blobName, etag, new BlobRange(offset, count));
     }
 
-    public String uploadTaskFile(MultipartFile file, Long prefixId, long maxSizeBytes){
+    public StoredBlob uploadTaskFile(MultipartFile file, Long prefixId, long maxSizeBytes){
         assertTaskFile(file, maxSizeBytes);
         return uploadInternal(BlobContainerType.TASK_FILES, file, prefixId);
     }
 
+    // large downloads: the caller has done the membership and budget checks,
+    // the client then fetches the bytes from storage itself.
+    public String taskFileDownloadUrl(String blobName, String filename){
+        return downloadUrl(BlobContainerType.TASK_FILES, blobName, filename);
+    }
+
+    public String taskAssigneeFileDownloadUrl(String blobName, String filename){
+        return downloadUrl(BlobContainerType.TASK_ASSIGNEE_FILES, blobName, filename);
+    }
+
+    // direct uploads: the client PUTs the bytes to uploadUrl itself, then the
+    // caller finalizes with the (staged) blob name. nothing here touches the
+    // request thread beyond signing the URL.
+    public UploadTarget prepareTaskFileUpload(String filename, long sizeBytes, Long prefixId, long maxSizeBytes){
+        assertUploadSize("Task file", filename, sizeBytes, maxSizeBytes);
+        return prepareUpload(BlobContainerType.TASK_FILES, filename, prefixId);
+    }
+
+    public UploadTarget prepareTaskAssigneeFileUpload(String filename, long sizeBytes, Long prefixId, long maxSizeBytes){
+        assertUploadSize("TaskAssignee file", filename, sizeBytes, maxSizeBytes);
+        return prepareUpload(BlobContainerType.TASK_ASSIGNEE_FILES, filename, prefixId);
+    }
+
+    // null when nothing was uploaded under that name
+    public BlobInfo getTaskFileInfo(String blobName){
+        return infoInternal(BlobContainerType.TASK_FILES, blobName);
+    }
+
+    public BlobInfo getTaskAssigneeFileInfo(String blobName){
+        return infoInternal(BlobContainerType.TASK_ASSIGNEE_FILES, blobName);
+    }
+
+    // copies a checked staged upload to its final name; see promoteInternal
+    public StoredBlob promoteTaskFileUpload(String stagedName, String etag){
+        return promoteInternal(BlobContainerType.TASK_FILES, stagedName, etag);
+    }
+
+    public StoredBlob promoteTaskAssigneeFileUpload(String stagedName, String etag){
+        return promoteInternal(BlobContainerType.TASK_ASSIGNEE_FILES, stagedName, etag);
+    }
+
+    // a direct upload that failed finalize never gets a row, so it's dropped
+    // right away instead of waiting for the orphan sweep
+    public void discardTaskFileUpload(String blobName){
+        tryDeleteAsync(BlobContainerType.TASK_FILES, blobName);
+    }
+
+    public void discardTaskAssigneeFileUpload(String blobName){
+        tryDeleteAsync(BlobContainerType.TASK_ASSIGNEE_FILES, blobName);
+    }
+
     public String uploadProfileImage(MultipartFile file, Long prefixId){
         validateImageFormat(file);
         byte[] resized = imageResizeService.resize(file, ImageResizeService.PROFILE_SIZE);
@@ -101,31 +200,136 @@ public class BlobStorageService {
         return uploadBytes(BlobContainerType.PROFILE_IMAGES, resized, userId, "ms-photo.jpg");
     }
 
-    private String uploadInternal(BlobContainerType type, MultipartFile file, Long prefixId){
+    // the upload response already carries the ETag and Content-MD5, so the
+    // caller can record them without asking storage again
+    private StoredBlob uploadInternal(BlobContainerType type, MultipartFile file, Long prefixId){
         BlobContainerClient container = containers.get(type);
         String blobName = StringSanitizer.toSafeBlobKey(prefixId,file.getOriginalFilename());
         BlobClient blobClient = container.getBlobClient(blobName);
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
         try {
-            blobClient.upload(file.getInputStream(), file.getSize(), true);
+            var options = new BlobParallelUploadOptions(BinaryData.fromStream(file.getInputStream(), file.getSize()))
+                    .setHeaders(new BlobHttpHeaders().setContentType(contentType));
+            BlockBlobItem item = blobClient.uploadWithResponse(options, null, Context.NONE).getValue();
+            return new StoredBlob(blobName, file.getSize(), contentType, base64(item.getContentMd5()), item.getETag());
         } catch (Exception e) {
             throw new CriticalBlobStorageException("Blob upload failed: " + e.getMessage());
         }
+    }
 
-        return blobName;
+    // one GET: opening the stream downloads the first block, and its response
+    // carries the blob's properties, so there's no exists() / getProperties()
+    // round trip in front of it. range null reads the whole blob; with a range
+    // only those bytes come off storage, size still reports the whole blob.
+    // etag (when the row has one) makes sure we serve the bytes that were
+    // uploaded — anything else counts as gone, like a missing blob.
+    private BlobDownload downloadInternal(BlobContainerType type, String blobName, String etag, BlobRange range){
+        BlobClient blobClient = containers.get(type).getBlobClient(blobName);
+        var options = new BlobInputStreamOptions().setBlockSize(DOWNLOAD_BLOCK_SIZE);
+        if (range != null) options.setRange(range);
+        if (etag != null) options.setRequestConditions(new BlobRequestConditions().setIfMatch(etag));
+        try {
+            BlobInputStream inputStream = blobClient.openInputStream(options);
+            return new BlobDownload(inputStream, inputStream.getProperties().getBlobSize());
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 404 || e.getStatusCode() == 412) {
+                throw new TaskFileBlobNotFoundException("The file's content is no longer available");
+            }
+            throw new BlobDownloadTaskFileException("Could not read the file from storage");
+        }
     }
 
-    private BlobDownload downloadInternal(BlobContainerType type, String blobName){
+    public record BlobDownload(java.io.InputStream inputStream, long size) {}
+
+    // what a server-side upload stored: the blob name plus the metadata the
+    // file row keeps so downloads don't have to look it up
+    public record StoredBlob(String blobName, long size, String contentType, String contentMd5, String etag) {}
+
+    public record UploadTarget(String blobName, String uploadUrl, OffsetDateTime expiresAt) {}
+
+    public record BlobInfo(long size, String contentType, String contentMd5, String etag) {}
+
+    // write-only (create + write) on one blob. create without read
+    // or delete means a leaked URL can't be used to fetch or remove anything.
+    private UploadTarget prepareUpload(BlobContainerType type, String filename, Long prefixId){
+        String blobName = StringSanitizer.toSafeBlobKey(prefixId, filename) + STAGED_UPLOAD_SUFFIX;
+        BlobClient blobClient = containers.get(type).getBlobClient(blobName);
+        OffsetDateTime expiresAt = OffsetDateTime.now().plus(UPLOAD_URL_TTL);
+        var values = new BlobServiceSasSignatureValues(expiresAt,
+                new BlobSasPermission().setCreatePermission(true).setWritePermission(true));
+        try {
+            String sas = sasSigner.sign(blobClient, values);
+            return new UploadTarget(blobName, blobClient.getBlobUrl() + "?" + sas, expiresAt);
+        } catch (Exception e) {
+            throw new CriticalBlobStorageException("Could not prepare upload: " + e.getMessage());
+        }
+    }
+
+    // the upload SAS stays usable for its whole TTL, so the staged blob can be
+    // rewritten after finalize has checked it. storage copies it server-side
+    // (synchronous copy, fine up to 256 MB) with If-Match on the checked ETag:
+    // a PUT that lands between the check and the copy fails the copy instead
+    // of slipping through. If-None-Match keeps it from replacing a final blob.
+    // the staged blob is dropped after; a later PUT only recreates a row-less
+    // blob the orphan sweep collects.
+    private StoredBlob promoteInternal(BlobContainerType type, String stagedName, String etag){
         BlobContainerClient container = containers.get(type);
-        BlobClient blobClient = container.getBlobClient(blobName);
-        if (!blobClient.exists()) {
-            throw new RuntimeException("Blob not found: " + blobName);
+        BlobClient staged = container.getBlobClient(stagedName);
+        String blobName = stagedName.substring(0, stagedName.length() - STAGED_UPLOAD_SUFFIX.length());
+        var readValues = new BlobServiceSasSignatureValues(OffsetDateTime.now().plus(DOWNLOAD_URL_TTL),
+                new BlobSasPermission().setReadPermission(true));
+        try {
+            String source = staged.getBlobUrl() + "?" + sasSigner.sign(staged, readValues);
+            container.getBlobClient(blobName).copyFromUrlWithResponse(new BlobCopyFromUrlOptions(source)
+                            .setSourceRequestConditions(new RequestConditions().setIfMatch(etag))
+                            .setDestinationRequestConditions(new BlobRequestConditions().setIfNoneMatch("*")),
+                    null, Context.NONE);
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 412) {
+                throw new BlobUploadTaskFileException("The uploaded file changed while it was being added");
+            }
+            throw new CriticalBlobStorageException("Could not store the upload: " + e.getMessage());
+        } catch (Exception e) {
+            throw new CriticalBlobStorageException("Could not store the upload: " + e.getMessage());
         }
-        long size = blobClient.getProperties().getBlobSize();
-        var inputStream = blobClient.openInputStream();
-        return new BlobDownload(inputStream, size);
+        tryDeleteAsync(type, stagedName);
+
+        BlobInfo stored = infoInternal(type, blobName);
+        if (stored == null) throw new CriticalBlobStorageException("Copied upload is missing: " + blobName);
+        return new StoredBlob(blobName, stored.size(), stored.contentType(), stored.contentMd5(), stored.etag());
     }
 
-    public record BlobDownload(java.io.InputStream inputStream, long size) {}
+    // read-only on one blob. the response headers are baked into the signature,
+    // so the URL always downloads as an attachment under the task file's name
+    // and can't be turned into an inline page on the storage origin.
+    private String downloadUrl(BlobContainerType type, String blobName, String filename){
+        BlobClient blobClient = containers.get(type).getBlobClient(blobName);
+        var values = new BlobServiceSasSignatureValues(OffsetDateTime.now().plus(DOWNLOAD_URL_TTL),
+                new BlobSasPermission().setReadPermission(true))
+                .setContentDisposition("attachment; filename=\"" + StringSanitizer.sanitizeFilenameForHeader(filename) + "\"")
+                .setContentType("application/octet-stream");
+        try {
+            return blobClient.getBlobUrl() + "?" + sasSigner.sign(blobClient, values);
+        } catch (Exception e) {
+            throw new CriticalBlobStorageException("Could not sign download: " + e.getMessage());
+        }
+    }
+
+    private BlobInfo infoInternal(BlobContainerType type, String blobName){
+        BlobClient blobClient = containers.get(type).getBlobClient(blobName);
+        try {
+            if (!blobClient.exists()) return null;
+            var properties = blobClient.getProperties();
+            return new BlobInfo(properties.getBlobSize(), properties.getContentType(),
+                    base64(properties.getContentMd5()), properties.getETag());
+        } catch (Exception e) {
+            throw new CriticalBlobStorageException("Blob lookup failed: " + e.getMessage());
+        }
+    }
+
+    private static String base64(byte[] md5) {
+        return md5 == null ? null : Base64.getEncoder().encodeToString(md5);
+    }
 
     private void deleteInternal(BlobContainerType type, String blobName) {
         BlobContainerClient container = containers.get(type);
@@ -199,6 +403,25 @@ public class BlobStorageService {
 
     }
 
+    private void assertUploadSize(String label, String filename, long sizeBytes, long maxSizeBytes) {
+        if (sizeBytes <= 0) {
+            throw new BlobUploadTaskFileException(label + " is empty");
+        }
+
+        if (sizeBytes > PlanLimits.HARD_CAP_FILE_SIZE_BYTES) {
+            throw new BlobUploadTaskFileException("File exceeds the absolute maximum of 100 MB");
+        }
+
+        if (sizeBytes > maxSizeBytes) {
+            throw new BlobUploadTaskFileException(
+                    label + " exceeds max size of " + (maxSizeBytes / (1024 * 1024)) + " MB");
+        }
+
+        if (filename == null || filename.isBlank()) {
+            throw new BlobUploadTaskFileException(label + " must have a name");
+        }
+    }
+
     private void validateImageFormat(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new BlobUploadImageException("File is empty");
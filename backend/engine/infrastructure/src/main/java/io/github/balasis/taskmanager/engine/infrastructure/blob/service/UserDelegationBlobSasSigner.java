@@ -0,0 +1,46 @@
+package io.github.balasis.taskmanager.engine.infrastructure.blob.service;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.UserDelegationKey;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+// prod signer. a user delegation key is requested with the managed identity
+// (Storage Blob Data Contributor covers generateUserDelegationKey) and reused
+// for KEY_LIFETIME, so signing a SAS is normally a local HMAC, not a round trip.
+// a SAS can't outlive its key, hence the renewal margin.
+public class UserDelegationBlobSasSigner implements BlobSasSigner {
+
+    private static final Duration KEY_LIFETIME = Duration.ofHours(6);
+    private static final Duration RENEW_MARGIN = Duration.ofHours(1);
+
+    private final BlobServiceClient blobServiceClient;
+    private volatile UserDelegationKey key;
+
+    public UserDelegationBlobSasSigner(BlobServiceClient blobServiceClient) {
+        this.blobServiceClient = blobServiceClient;
+    }
+
+    @Override
+    public String sign(BlobClient blobClient, BlobServiceSasSignatureValues values) {
+        return blobClient.generateUserDelegationSas(values, currentKey());
+    }
+
+    private UserDelegationKey currentKey() {
+        UserDelegationKey current = key;
+        OffsetDateTime now = OffsetDateTime.now();
+        if (current != null && current.getSignedExpiry().isAfter(now.plus(RENEW_MARGIN))) {
+            return current;
+        }
+        synchronized (this) {
+            if (key == null || !key.getSignedExpiry().isAfter(now.plus(RENEW_MARGIN))) {
+                // start a bit in the past so clock skew doesn't make fresh SAS URLs "not yet valid"
+                key = blobServiceClient.getUserDelegationKey(now.minusMinutes(5), now.plus(KEY_LIFETIME));
+            }
+            return key;
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package io.github.balasis.taskmanager.engine.infrastructure.email;
 
+import java.util.List;
+
 // Enqueues an outbound email for rate-limited delivery.
 // Prod and dev impls persist to the EmailOutbox table; arena profiles use a no-op.
 public interface EmailQueueService {
 
     void enqueue(String to, String subject, String body);
+
+    // same message to many recipients. impls that persist should write the
+    // rows as one batch instead of a round-trip per recipient.
+    default void enqueueAll(List<String> to, String subject, String body) {
+        for (String address : to) {
+            enqueue(address, subject, body);
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis;
+
+import java.util.Map;
+
+// Redis-held running totals for the byte budgets that get charged on the
+// hot path (storage on upload, download bytes on every blob read). A charge
+// is a single atomic check-and-add in Redis instead of a guarded UPDATE on
+// the group leader's Users row, so a burst of downloads in one group no
+// longer queues on that row lock.
+//
+// Every charge and refund is also added to a per-budget pending hash; the
+// caller drains that periodically, applies the deltas to SQL and confirms
+// once that committed — drained deltas keep counting towards a seed until
+// then. The cached
+// total expires a few minutes after it was seeded and is then re-seeded from
+// SQL (plus whatever is still pending), so SQL — and the maintenance
+// reconciliation that corrects it — stays the source of truth.
+//
+// Best-effort: any Redis failure reads as MISS and the caller falls back to
+// the SQL-only path.
+public interface BudgetLedgerService {
+
+    enum Budget { STORAGE, DOWNLOAD }
+
+    enum Reservation {
+        RESERVED,
+        EXCEEDED,
+        // no cached total for this user (or Redis unavailable) — seed or use SQL
+        MISS
+    }
+
+    // adds amount when used + amount <= limit
+    Reservation reserve(Budget budget, long userId, long amount, long limit);
+
+    // takes amount back off the cached total. never below zero: only what
+    // actually comes off the total goes to pending, so total = SQL + pending
+    // still holds. false on a miss, in which case the caller refunds SQL
+    // directly.
+    boolean refund(Budget budget, long userId, long amount);
+
+    // read before the SQL value handed to seed()
+    long flushEpoch(Budget budget);
+
+    // caches used + anything still pending or being flushed for the user,
+    // unless a total is already cached or a flush was confirmed since epoch
+    // was read (used may already include it then)
+    void seed(Budget budget, long userId, long used, long epoch);
+
+    // atomically takes all pending deltas (userId -> bytes, may be negative)
+    // and holds them aside until confirmFlushed or restorePending. empty while
+    // an earlier drain is still held.
+    Map<Long, Long> drainPending(Budget budget);
+
+    // the drained deltas are in SQL now
+    void confirmFlushed(Budget budget);
+
+    // puts the drained deltas back after a failed SQL write so the next drain
+    // retries them
+    void restorePending(Budget budget);
+}
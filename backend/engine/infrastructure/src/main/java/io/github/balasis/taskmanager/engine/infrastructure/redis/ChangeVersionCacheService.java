@@ -0,0 +1,32 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis;
+
+import java.time.Instant;
+
+// Shared cache of the change-tracking timestamps that the has-changed
+// polling endpoints compare against. One Redis hash per group, written
+// through after each committed change and read before falling back to SQL.
+// Values only ever move forward, so a late or duplicate write can never
+// hide a newer change. Best-effort — every read treats Redis errors as a
+// miss and every write swallows them.
+public interface ChangeVersionCacheService {
+
+    // lastChangeInGroup and lastDeleteTaskDate of a group. EPOCH stands in
+    // for a null column so a cached "never changed" is still a hit.
+    record GroupVersions(Instant lastChange, Instant lastDelete) {}
+
+    // raises the cached timestamps to the ones in the change set and drops
+    // the fields of deleted tasks. also used to seed the cache after a miss.
+    void record(Long groupId, GroupChangeSet changes);
+
+    // drops the whole group hash; the next poll re-seeds it from SQL
+    void evict(Long groupId);
+
+    // null on a miss
+    GroupVersions getGroupVersions(Long groupId);
+
+    // null on a miss, EPOCH when the task is cached as never changed
+    Instant getTaskChange(Long groupId, Long taskId);
+
+    // null on a miss, EPOCH when the task is cached as having no comment changes
+    Instant getCommentChange(Long groupId, Long taskId);
+}
@@ -13,4 +13,13 @@ public interface DownloadGuardService {
     // On success, records the download so future checks within the
     // cooldown window will block.
     void checkRepeatDownload(long userId, long fileId);
+
+    // Remembers the offset where a streamed download of the file broke
+    // off, so the client's Range request resuming from there isn't
+    // counted as another download. Kept for a short while only.
+    void recordResumePoint(long userId, long fileId, long offset);
+
+    // Returns the recorded resume point and forgets it (one resume per
+    // break), or -1 when there is none.
+    long takeResumePoint(long userId, long fileId);
 }
@@ -0,0 +1,23 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis;
+
+import java.util.function.Consumer;
+
+// Cross-replica fan-out of "something changed in group X" notifications.
+// Every App Service replica publishes committed changes and receives everyone
+// else's, so each one can push them to the SSE streams it holds locally.
+// Notifications carry no data — clients refetch through the normal endpoints,
+// which do the authorization. Best-effort: a lost message only delays the UI
+// until the next reconnect or fallback poll.
+public interface GroupChangeBroadcastService {
+
+    enum ChangeType { GROUP, TASK, TASK_DELETED, COMMENTS, MEMBERS, PRESENCE }
+
+    // taskId is null for group-level changes
+    record GroupChangeEvent(Long groupId, ChangeType type, Long taskId) {}
+
+    void publish(GroupChangeEvent event);
+
+    // registers a listener for events from every replica (including this one).
+    // listeners run on the Redis I/O thread, so they must hand off anything slow.
+    void subscribe(Consumer<GroupChangeEvent> listener);
+}
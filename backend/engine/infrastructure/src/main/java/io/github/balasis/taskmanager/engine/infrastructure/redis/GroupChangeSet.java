@@ -0,0 +1,74 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// collects every change-tracking timestamp one transaction bumped for a
+// single group, so the version cache can be updated in one round trip
+// after commit. every setter keeps the later of the old and new value —
+// a transaction that touches the same task twice only ships the last bump.
+// Instant.EPOCH is used for "known to be null in SQL" when seeding.
+public class GroupChangeSet {
+
+    private Instant groupChange;
+    private Instant taskDelete;
+    private Instant memberChange;
+    private final Map<Long, Instant> taskChanges = new HashMap<>();
+    private final Map<Long, Instant> commentChanges = new HashMap<>();
+    private final Set<Long> deletedTaskIds = new HashSet<>();
+
+    public GroupChangeSet groupChanged(Instant at) {
+        groupChange = later(groupChange, at);
+        return this;
+    }
+
+    public GroupChangeSet taskDeleted(Long taskId, Instant at) {
+        taskDelete = later(taskDelete, at);
+        if (taskId != null) {
+            deletedTaskIds.add(taskId);
+            taskChanges.remove(taskId);
+            commentChanges.remove(taskId);
+        }
+        return this;
+    }
+
+    public GroupChangeSet memberChanged(Instant at) {
+        memberChange = later(memberChange, at);
+        return this;
+    }
+
+    public GroupChangeSet taskChanged(Long taskId, Instant at) {
+        if (taskId != null && !deletedTaskIds.contains(taskId)) {
+            taskChanges.merge(taskId, at, GroupChangeSet::later);
+        }
+        return this;
+    }
+
+    public GroupChangeSet commentsChanged(Long taskId, Instant at) {
+        if (taskId != null && !deletedTaskIds.contains(taskId)) {
+            commentChanges.merge(taskId, at, GroupChangeSet::later);
+        }
+        return this;
+    }
+
+    public Instant getGroupChange()              { return groupChange; }
+    public Instant getTaskDelete()               { return taskDelete; }
+    public Instant getMemberChange()             { return memberChange; }
+    public Map<Long, Instant> getTaskChanges()   { return taskChanges; }
+    public Map<Long, Instant> getCommentChanges() { return commentChanges; }
+    public Set<Long> getDeletedTaskIds()         { return deletedTaskIds; }
+
+    public boolean isEmpty() {
+        return groupChange == null && taskDelete == null && memberChange == null
+                && taskChanges.isEmpty() && commentChanges.isEmpty() && deletedTaskIds.isEmpty();
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+}
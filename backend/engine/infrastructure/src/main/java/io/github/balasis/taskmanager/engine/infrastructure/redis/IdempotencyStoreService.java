@@ -0,0 +1,44 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis;
+
+// short-lived response store behind the Idempotency-Key header.
+//
+// the first request with a key claims it (an in-flight marker with a short
+// TTL), runs, and on a 2xx stores its response under the key. a retry with
+// the same key gets that response replayed instead of running the write path
+// again. a failed request releases the key so the retry runs for real.
+// complete and release only act on the caller's own in-flight marker: once
+// the marker has run out, the key may already belong to the next request.
+//
+// the claim also keeps a fingerprint of the request (query and body). a
+// key coming back with another fingerprint is a client bug or a reused key,
+// not a retry, and is reported as MISMATCH instead of being replayed.
+//
+// best-effort: any Redis failure reads as "not claimed by anyone" and the
+// request just runs, same as without the header.
+public interface IdempotencyStoreService {
+
+    enum Outcome {
+        // key is ours, run the request
+        CLAIMED,
+        // another request with the key is still running
+        IN_FLIGHT,
+        // a previous request completed, replay its response
+        COMPLETED,
+        // the key belongs to a request with another fingerprint
+        MISMATCH
+    }
+
+    record Lookup(Outcome outcome, StoredResponse response) {
+        public static final Lookup CLAIMED = new Lookup(Outcome.CLAIMED, null);
+        public static final Lookup IN_FLIGHT = new Lookup(Outcome.IN_FLIGHT, null);
+        public static final Lookup MISMATCH = new Lookup(Outcome.MISMATCH, null);
+    }
+
+    record StoredResponse(int status, String contentType, byte[] body) {}
+
+    Lookup claim(String key, String fingerprint);
+
+    void complete(String key, String fingerprint, StoredResponse response);
+
+    void release(String key, String fingerprint);
+}
@@ -2,15 +2,23 @@ package io.github.balasis.taskmanager.engine.infrastructure.redis.config;
 
 import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
 import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.ChangeVersionCacheService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.DownloadGuardService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.EmailDrainLockService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.ImageChangeLimiterService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.CommentAnalysisLockService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.ImageModerationLockService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.PresenceService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.RateLimitService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisBudgetLedgerService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisChangeVersionCacheService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisDownloadGuardService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisEmailDrainLockService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisGroupChangeBroadcastService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisIdempotencyStoreService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisImageChangeLimiterService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisCommentAnalysisLockService;
 import io.github.balasis.taskmanager.engine.infrastructure.redis.service.RedisImageModerationLockService;
@@ -20,6 +28,7 @@ import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,8 +48,8 @@ public class RateLimitDevConfig {
 
     private static final Logger log = LoggerFactory.getLogger(RateLimitDevConfig.class);
 
-    @Bean
-    public StatefulRedisConnection<byte[], byte[]> redisConnection() {
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient redisClient() {
         String host = System.getenv("REDIS_HOST");
         String portStr = System.getenv("REDIS_PORT");
         String password = System.getenv("REDIS_PASSWORD");
@@ -63,11 +72,16 @@ public class RateLimitDevConfig {
 
         RedisURI uri = uriBuilder.build();
 
-        RedisClient client = RedisClient.create(uri);
+        log.info("Redis client targeting {}:{}", host, port);
+        return RedisClient.create(uri);
+    }
+
+    @Bean
+    public StatefulRedisConnection<byte[], byte[]> redisConnection(RedisClient redisClient) {
         StatefulRedisConnection<byte[], byte[]> connection =
-                client.connect(new ByteArrayCodec());
+                redisClient.connect(new ByteArrayCodec());
 
-        log.info("Redis connected to {}:{}", host, port);
+        log.info("Redis connected");
         return connection;
     }
 
@@ -95,11 +109,40 @@ public class RateLimitDevConfig {
         return new RedisPresenceService(redisConnection, "");
     }
 
+    @Bean
+    public ChangeVersionCacheService changeVersionCacheService(StatefulRedisConnection<byte[], byte[]> redisConnection) {
+        return new RedisChangeVersionCacheService(redisConnection, "");
+    }
+
+    // pub/sub needs a dedicated connection: once subscribed, a connection
+    // can only receive messages, not run regular commands
+    @Bean
+    public StatefulRedisPubSubConnection<byte[], byte[]> redisPubSubConnection(RedisClient redisClient) {
+        return redisClient.connectPubSub(new ByteArrayCodec());
+    }
+
+    @Bean
+    public GroupChangeBroadcastService groupChangeBroadcastService(
+            StatefulRedisConnection<byte[], byte[]> redisConnection,
+            StatefulRedisPubSubConnection<byte[], byte[]> redisPubSubConnection) {
+        return new RedisGroupChangeBroadcastService(redisConnection, redisPubSubConnection, "");
+    }
+
     @Bean
     public DownloadGuardService downloadGuardService(StatefulRedisConnection<byte[], byte[]> redisConnection) {
         return new RedisDownloadGuardService(redisConnection, "");
     }
 
+    @Bean
+    public BudgetLedgerService budgetLedgerService(StatefulRedisConnection<byte[], byte[]> redisConnection) {
+        return new RedisBudgetLedgerService(redisConnection, "");
+    }
+
+    @Bean
+    public IdempotencyStoreService idempotencyStoreService(StatefulRedisConnection<byte[], byte[]> redisConnection) {
+        return new RedisIdempotencyStoreService(redisConnection, "");
+    }
+
     @Bean
     public ImageChangeLimiterService imageChangeLimiterService(StatefulRedisConnection<byte[], byte[]> redisConnection) {
         return new RedisImageChangeLimiterService(redisConnection, "");
@@ -0,0 +1,255 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis.service;
+
+import io.github.balasis.taskmanager.context.base.component.BaseComponent;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.BudgetLedgerService;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Redis-backed budget ledger.
+//
+// Structure (b = "s" storage / "d" download):
+//   Key  = bud:{b}:{userId}   cached used bytes, TTL = 5 min from seeding
+//   Key  = bud:{b}:pending    hash userId -> bytes not yet written to SQL
+//   Key  = bud:{b}:flushing   the pending hash a flush took, until its SQL
+//                             write commits (TTL = 5 min in case it never does)
+//   Key  = bud:{b}:epoch      bumped each time a flush has committed
+//
+// The TTL is set when a total is seeded and never refreshed by charges, so
+// even a constantly busy leader is re-read from SQL every few minutes. That
+// bounds how long a maintenance correction or a monthly reset can be masked
+// by the cached value.
+//
+// All the scripts touch the total and the pending hash together, so a
+// charge can never land in one and not the other.
+//
+// A flush is a two-phase handoff: drain renames pending to flushing, and
+// flushing is only deleted once the SQL write committed. Until then a seed
+// still counts it, so nothing is ever missing from SQL + pending + flushing.
+// The epoch covers the other end: a seed whose SQL read may predate a flush
+// that has since been confirmed is skipped instead of cached. What's left is
+// a seed between the commit and the confirm, which counts the flushed bytes
+// twice — that only overcounts, and only until the total expires.
+public class RedisBudgetLedgerService extends BaseComponent implements BudgetLedgerService {
+
+    private static final long TOTAL_TTL_SECONDS = 300;
+    private static final long FLUSHING_TTL_SECONDS = 300;
+
+    // KEYS = total, pending   ARGV = userId, amount, limit
+    // 1 = reserved, 0 = over the limit, -1 = no cached total
+    private static final String RESERVE_SCRIPT = """
+            local used = redis.call('GET', KEYS[1])
+            if not used then return -1 end
+            local amount = tonumber(ARGV[2])
+            if tonumber(used) + amount > tonumber(ARGV[3]) then return 0 end
+            redis.call('INCRBY', KEYS[1], amount)
+            redis.call('HINCRBY', KEYS[2], ARGV[1], amount)
+            return 1
+            """;
+
+    // KEYS = total, pending   ARGV = userId, amount
+    private static final String REFUND_SCRIPT = """
+            local used = redis.call('GET', KEYS[1])
+            if not used then return -1 end
+            local take = math.min(tonumber(ARGV[2]), tonumber(used))
+            redis.call('SET', KEYS[1], tonumber(used) - take, 'KEEPTTL')
+            redis.call('HINCRBY', KEYS[2], ARGV[1], -take)
+            return 1
+            """;
+
+    // KEYS = total, pending, flushing, epoch   ARGV = userId, sqlUsed, ttl, epoch
+    // 1 = seeded, 0 = already cached, -1 = a flush committed since the SQL read
+    private static final String SEED_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            if (redis.call('GET', KEYS[4]) or '0') ~= ARGV[4] then return -1 end
+            local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+            local flushing = tonumber(redis.call('HGET', KEYS[3], ARGV[1]) or '0')
+            local used = tonumber(ARGV[2]) + pending + flushing
+            if used < 0 then used = 0 end
+            redis.call('SET', KEYS[1], used, 'EX', ARGV[3])
+            return 1
+            """;
+
+    // KEYS = pending, flushing   ARGV = ttl
+    // nothing while an earlier flush is still unconfirmed (another instance,
+    // or a write that is still running)
+    private static final String DRAIN_SCRIPT = """
+            if redis.call('EXISTS', KEYS[2]) == 1 then return {} end
+            if redis.call('EXISTS', KEYS[1]) == 0 then return {} end
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[1])
+            return redis.call('HGETALL', KEYS[2])
+            """;
+
+    // KEYS = flushing, epoch
+    private static final String CONFIRM_SCRIPT = """
+            redis.call('DEL', KEYS[1])
+            return redis.call('INCR', KEYS[2])
+            """;
+
+    // KEYS = pending, flushing
+    private static final String RESTORE_SCRIPT = """
+            local all = redis.call('HGETALL', KEYS[2])
+            for i = 1, #all, 2 do
+                redis.call('HINCRBY', KEYS[1], all[i], all[i + 1])
+            end
+            redis.call('DEL', KEYS[2])
+            return #all / 2
+            """;
+
+    private final StatefulRedisConnection<byte[], byte[]> redisConnection;
+    private final String keyPrefix;
+
+    // script name -> SHA1, loaded lazily so startup never depends on Redis
+    private final Map<String, String> shas = new ConcurrentHashMap<>();
+
+    public RedisBudgetLedgerService(StatefulRedisConnection<byte[], byte[]> redisConnection,
+                                    String redisKeyPrefix) {
+        this.redisConnection = redisConnection;
+        this.keyPrefix = redisKeyPrefix + "bud:";
+    }
+
+    @Override
+    public Reservation reserve(Budget budget, long userId, long amount, long limit) {
+        try {
+            Long result = eval(RESERVE_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{totalKey(budget, userId), pendingKey(budget)},
+                    toBytes(userId), toBytes(amount), toBytes(limit));
+            if (result == null || result < 0) return Reservation.MISS;
+            return result == 1 ? Reservation.RESERVED : Reservation.EXCEEDED;
+        } catch (Exception e) {
+            logger.warn("Budget reserve failed for {} user {}: {}",
+                    budget, userId, e.getMessage() != null ? e.getMessage() : "");
+            return Reservation.MISS;
+        }
+    }
+
+    @Override
+    public boolean refund(Budget budget, long userId, long amount) {
+        try {
+            Long result = eval(REFUND_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{totalKey(budget, userId), pendingKey(budget)},
+                    toBytes(userId), toBytes(amount));
+            return result != null && result == 1;
+        } catch (Exception e) {
+            logger.warn("Budget refund failed for {} user {}: {}",
+                    budget, userId, e.getMessage() != null ? e.getMessage() : "");
+            return false;
+        }
+    }
+
+    @Override
+    public long flushEpoch(Budget budget) {
+        try {
+            byte[] raw = redisConnection.sync().get(epochKey(budget));
+            return raw == null ? 0 : Long.parseLong(fromBytes(raw));
+        } catch (Exception e) {
+            logger.warn("Budget epoch read failed for {}: {}",
+                    budget, e.getMessage() != null ? e.getMessage() : "");
+            return -1; // never matches, so the seed is skipped
+        }
+    }
+
+    @Override
+    public void seed(Budget budget, long userId, long used, long epoch) {
+        try {
+            eval(SEED_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{totalKey(budget, userId), pendingKey(budget),
+                            flushingKey(budget), epochKey(budget)},
+                    toBytes(userId), toBytes(used), toBytes(TOTAL_TTL_SECONDS), toBytes(epoch));
+        } catch (Exception e) {
+            logger.warn("Budget seed failed for {} user {}: {}",
+                    budget, userId, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    @Override
+    public Map<Long, Long> drainPending(Budget budget) {
+        Map<Long, Long> deltas = new HashMap<>();
+        try {
+            List<byte[]> flat = eval(DRAIN_SCRIPT, ScriptOutputType.MULTI,
+                    new byte[][]{pendingKey(budget), flushingKey(budget)},
+                    toBytes(FLUSHING_TTL_SECONDS));
+            for (int i = 0; i + 1 < flat.size(); i += 2) {
+                long delta = Long.parseLong(fromBytes(flat.get(i + 1)));
+                if (delta != 0) deltas.put(Long.parseLong(fromBytes(flat.get(i))), delta);
+            }
+        } catch (Exception e) {
+            logger.warn("Budget drain failed for {}: {}",
+                    budget, e.getMessage() != null ? e.getMessage() : "");
+        }
+        return deltas;
+    }
+
+    @Override
+    public void confirmFlushed(Budget budget) {
+        try {
+            eval(CONFIRM_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{flushingKey(budget), epochKey(budget)});
+        } catch (Exception e) {
+            // flushing expires on its own; until then seeds count it twice
+            logger.warn("Budget flush confirm failed for {}: {}",
+                    budget, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    @Override
+    public void restorePending(Budget budget) {
+        try {
+            eval(RESTORE_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{pendingKey(budget), flushingKey(budget)});
+        } catch (Exception e) {
+            logger.warn("Budget restore failed for {} (lost until reconciliation): {}",
+                    budget, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    // EVALSHA first so the script body isnt resent on every call.
+    // NOSCRIPT means Redis restarted or flushed its script cache — reload once.
+    private <T> T eval(String script, ScriptOutputType type, byte[][] keys, byte[]... args) {
+        RedisCommands<byte[], byte[]> cmd = redisConnection.sync();
+        String sha = shas.computeIfAbsent(script, cmd::scriptLoad);
+        try {
+            return cmd.evalsha(sha, type, keys, args);
+        } catch (RedisNoScriptException e) {
+            sha = cmd.scriptLoad(script);
+            shas.put(script, sha);
+            return cmd.evalsha(sha, type, keys, args);
+        }
+    }
+
+    private byte[] totalKey(Budget budget, long userId) {
+        return (keyPrefix + code(budget) + ":" + userId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] pendingKey(Budget budget) {
+        return (keyPrefix + code(budget) + ":pending").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] flushingKey(Budget budget) {
+        return (keyPrefix + code(budget) + ":flushing").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] epochKey(Budget budget) {
+        return (keyPrefix + code(budget) + ":epoch").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String code(Budget budget) {
+        return budget == Budget.STORAGE ? "s" : "d";
+    }
+
+    private static byte[] toBytes(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String fromBytes(byte[] raw) {
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
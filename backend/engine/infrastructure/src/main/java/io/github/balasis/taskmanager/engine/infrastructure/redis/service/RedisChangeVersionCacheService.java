@@ -0,0 +1,203 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis.service;
+
+import io.github.balasis.taskmanager.context.base.component.BaseComponent;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.ChangeVersionCacheService;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeSet;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Redis-backed change-version cache — one hash per group.
+//
+// Structure:
+//   Key     = chg:{groupId}
+//   g       = lastChangeInGroup     (epoch micros, 0 = null in SQL)
+//   d       = lastDeleteTaskDate
+//   m       = lastMemberChangeDate
+//   t:{id}  = task lastChangeDate
+//   c:{id}  = task lastChangeDateInComments
+//   TTL     = 10 min, refreshed on every write
+//
+// writes go through a small Lua script that only replaces a field when the
+// new value is greater. write-through runs after commit, so two transactions
+// can land in either order — "set if greater" keeps the newest one either way,
+// and it makes seeding from a possibly stale SQL read safe too.
+//
+// micros are rounded UP so the cached value is never earlier than the row:
+// worst case a poll sees a false "changed" and refetches, never a missed change.
+// epoch micros fit exactly in Lua's doubles (2^53 is ~285 years of micros).
+//
+// the TTL bounds how long a failed write-through can leave a stale value.
+public class RedisChangeVersionCacheService extends BaseComponent implements ChangeVersionCacheService {
+
+    private static final long KEY_TTL_SECONDS = 600;
+
+    // ARGV = field, value, field, value, ..., ttl
+    private static final String RAISE_SCRIPT = """
+            local key = KEYS[1]
+            for i = 1, #ARGV - 1, 2 do
+              local cur = redis.call('HGET', key, ARGV[i])
+              if (not cur) or tonumber(ARGV[i + 1]) > tonumber(cur) then
+                redis.call('HSET', key, ARGV[i], ARGV[i + 1])
+              end
+            end
+            redis.call('EXPIRE', key, ARGV[#ARGV])
+            return 1
+            """;
+
+    private static final byte[] GROUP_FIELD  = "g".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DELETE_FIELD = "d".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MEMBER_FIELD = "m".getBytes(StandardCharsets.UTF_8);
+
+    private final StatefulRedisConnection<byte[], byte[]> redisConnection;
+    private final String keyPrefix;
+
+    // SHA1 of RAISE_SCRIPT, loaded lazily so startup never depends on Redis
+    private volatile String raiseSha;
+
+    public RedisChangeVersionCacheService(StatefulRedisConnection<byte[], byte[]> redisConnection,
+                                          String redisKeyPrefix) {
+        this.redisConnection = redisConnection;
+        this.keyPrefix = redisKeyPrefix + "chg:";
+    }
+
+    // --- write ---
+
+    @Override
+    public void record(Long groupId, GroupChangeSet changes) {
+        if (groupId == null || changes == null || changes.isEmpty()) return;
+        try {
+            RedisCommands<byte[], byte[]> cmd = redisConnection.sync();
+            byte[] key = key(groupId);
+
+            if (!changes.getDeletedTaskIds().isEmpty()) {
+                List<byte[]> gone = new ArrayList<>();
+                for (Long taskId : changes.getDeletedTaskIds()) {
+                    gone.add(field("t:", taskId));
+                    gone.add(field("c:", taskId));
+                }
+                cmd.hdel(key, gone.toArray(new byte[0][]));
+            }
+
+            List<byte[]> args = new ArrayList<>();
+            addPair(args, GROUP_FIELD, changes.getGroupChange());
+            addPair(args, DELETE_FIELD, changes.getTaskDelete());
+            addPair(args, MEMBER_FIELD, changes.getMemberChange());
+            for (Map.Entry<Long, Instant> e : changes.getTaskChanges().entrySet()) {
+                addPair(args, field("t:", e.getKey()), e.getValue());
+            }
+            for (Map.Entry<Long, Instant> e : changes.getCommentChanges().entrySet()) {
+                addPair(args, field("c:", e.getKey()), e.getValue());
+            }
+            if (args.isEmpty()) return;
+            args.add(toBytes(KEY_TTL_SECONDS));
+
+            raise(cmd, key, args.toArray(new byte[0][]));
+        } catch (Exception e) {
+            logger.warn("Change-version write failed for group {}: {}",
+                    groupId, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    @Override
+    public void evict(Long groupId) {
+        if (groupId == null) return;
+        try {
+            redisConnection.sync().del(key(groupId));
+        } catch (Exception e) {
+            logger.warn("Change-version evict failed for group {}: {}",
+                    groupId, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    // --- read ---
+
+    @Override
+    public GroupVersions getGroupVersions(Long groupId) {
+        try {
+            var values = redisConnection.sync().hmget(key(groupId), GROUP_FIELD, DELETE_FIELD);
+            if (values.size() < 2 || !values.get(0).hasValue() || !values.get(1).hasValue()) {
+                return null;
+            }
+            return new GroupVersions(fromBytes(values.get(0).getValue()), fromBytes(values.get(1).getValue()));
+        } catch (Exception e) {
+            logger.warn("Change-version read failed for group {}: {}",
+                    groupId, e.getMessage() != null ? e.getMessage() : "");
+            return null;
+        }
+    }
+
+    @Override
+    public Instant getTaskChange(Long groupId, Long taskId) {
+        return readField(groupId, field("t:", taskId));
+    }
+
+    @Override
+    public Instant getCommentChange(Long groupId, Long taskId) {
+        return readField(groupId, field("c:", taskId));
+    }
+
+    private Instant readField(Long groupId, byte[] field) {
+        try {
+            byte[] raw = redisConnection.sync().hget(key(groupId), field);
+            return raw == null ? null : fromBytes(raw);
+        } catch (Exception e) {
+            logger.warn("Change-version read failed for group {}: {}",
+                    groupId, e.getMessage() != null ? e.getMessage() : "");
+            return null;
+        }
+    }
+
+    // EVALSHA first so the script body isnt resent on every write.
+    // NOSCRIPT means Redis restarted or flushed its script cache — reload once.
+    private void raise(RedisCommands<byte[], byte[]> cmd, byte[] key, byte[][] args) {
+        String sha = raiseSha;
+        if (sha == null) {
+            sha = cmd.scriptLoad(RAISE_SCRIPT);
+            raiseSha = sha;
+        }
+        try {
+            cmd.evalsha(sha, ScriptOutputType.INTEGER, new byte[][]{key}, args);
+        } catch (RedisNoScriptException e) {
+            raiseSha = cmd.scriptLoad(RAISE_SCRIPT);
+            cmd.evalsha(raiseSha, ScriptOutputType.INTEGER, new byte[][]{key}, args);
+        }
+    }
+
+    private static void addPair(List<byte[]> args, byte[] field, Instant value) {
+        if (value == null) return;
+        args.add(field);
+        args.add(toBytes(toMicros(value)));
+    }
+
+    // ceil to whole micros so the cached value is never before the real one
+    private static long toMicros(Instant at) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, at);
+        return at.getNano() % 1_000 == 0 ? micros : micros + 1;
+    }
+
+    private static Instant fromBytes(byte[] raw) {
+        long micros = Long.parseLong(new String(raw, StandardCharsets.UTF_8));
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static byte[] toBytes(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] field(String prefix, Long taskId) {
+        return (prefix + taskId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] key(Long groupId) {
+        return (keyPrefix + groupId).getBytes(StandardCharsets.UTF_8);
+    }
+}
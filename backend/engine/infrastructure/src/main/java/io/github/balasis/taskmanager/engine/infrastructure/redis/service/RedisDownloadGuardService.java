@@ -21,6 +21,10 @@ import java.time.Instant;
 // all file entries in one shot. Within a window each file is capped
 // at 3 blob downloads — ETag 304s never reach this guard.
 //
+// Resume points live next to it as dl:r:{userId}:{fileId} = offset,
+// 1 h TTL. Taking one deletes it, and only the caller whose DEL removed
+// the key gets the offset, so two racing resumes can't both use it.
+//
 // Worst-case hash size within one window is bounded by the user's
 // download budget (50 GB/month for TEAM), not by file count: the
 // budget will run out long before the hash can grow meaningfully.
@@ -31,6 +35,7 @@ public class RedisDownloadGuardService extends BaseComponent implements Download
     private static final int  MAX_PER_WINDOW  = 3;
     private static final long WINDOW_SECONDS  = 28_800;  // 8 hours
     private static final long KEY_TTL_SECONDS = 32_400;  // 9 hours safety
+    private static final long RESUME_TTL_SECONDS = 3_600;  // 1 hour
 
     private static final byte[] WINDOW_FIELD = "_w".getBytes(StandardCharsets.UTF_8);
 
@@ -89,6 +94,35 @@ public class RedisDownloadGuardService extends BaseComponent implements Download
         }
     }
 
+    @Override
+    public void recordResumePoint(long userId, long fileId, long offset) {
+        try {
+            redisConnection.sync().setex(resumeKey(userId, fileId), RESUME_TTL_SECONDS, toBytes(offset));
+        } catch (Exception e) {
+            logger.warn("Could not record resume point for user {} file {}: {}",
+                    userId, fileId, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    @Override
+    public long takeResumePoint(long userId, long fileId) {
+        try {
+            RedisCommands<byte[], byte[]> cmd = redisConnection.sync();
+            byte[] key = resumeKey(userId, fileId);
+            byte[] raw = cmd.get(key);
+            if (raw == null || cmd.del(key) == 0) return -1;
+            return Long.parseLong(new String(raw, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            logger.warn("Could not read resume point for user {} file {}: {}",
+                    userId, fileId, e.getMessage() != null ? e.getMessage() : "");
+            return -1;
+        }
+    }
+
+    private byte[] resumeKey(long userId, long fileId) {
+        return (keyPrefix + "r:" + userId + ":" + fileId).getBytes(StandardCharsets.UTF_8);
+    }
+
     private static byte[] toBytes(long value) {
         return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
     }
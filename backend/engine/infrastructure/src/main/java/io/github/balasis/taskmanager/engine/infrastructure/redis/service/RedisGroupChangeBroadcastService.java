@@ -0,0 +1,88 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis.service;
+
+import io.github.balasis.taskmanager.context.base.component.BaseComponent;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.GroupChangeBroadcastService;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Redis pub/sub implementation — one channel shared by all groups.
+//
+// Message format: "{groupId}|{type}|{taskId or empty}", kept as plain text so
+// it can be watched with redis-cli SUBSCRIBE while debugging.
+//
+// publishing goes over the shared command connection. subscribing needs its
+// own connection because a Redis connection in subscribe mode cant run normal
+// commands. Lettuce re-subscribes automatically after a reconnect, and the
+// SUBSCRIBE is sent async so startup never blocks on Redis.
+//
+// pub/sub is fire-and-forget: replicas that are disconnected while a message
+// is published just miss it. clients cover that gap with the poll fallback.
+public class RedisGroupChangeBroadcastService extends BaseComponent implements GroupChangeBroadcastService {
+
+    private final StatefulRedisConnection<byte[], byte[]> redisConnection;
+    private final byte[] channel;
+    private final List<Consumer<GroupChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisGroupChangeBroadcastService(StatefulRedisConnection<byte[], byte[]> redisConnection,
+                                            StatefulRedisPubSubConnection<byte[], byte[]> pubSubConnection,
+                                            String redisKeyPrefix) {
+        this.redisConnection = redisConnection;
+        this.channel = (redisKeyPrefix + "grpchg").getBytes(StandardCharsets.UTF_8);
+
+        pubSubConnection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(byte[] ch, byte[] message) {
+                if (Arrays.equals(ch, channel)) {
+                    dispatch(message);
+                }
+            }
+        });
+        pubSubConnection.async().subscribe(channel);
+    }
+
+    @Override
+    public void publish(GroupChangeEvent event) {
+        try {
+            String payload = event.groupId() + "|" + event.type().name() + "|"
+                    + (event.taskId() != null ? event.taskId() : "");
+            redisConnection.async().publish(channel, payload.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            logger.warn("Group change publish failed for group {}: {}",
+                    event.groupId(), e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<GroupChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private void dispatch(byte[] message) {
+        GroupChangeEvent event;
+        try {
+            String[] parts = new String(message, StandardCharsets.UTF_8).split("\\|", -1);
+            event = new GroupChangeEvent(
+                    Long.parseLong(parts[0]),
+                    ChangeType.valueOf(parts[1]),
+                    parts[2].isEmpty() ? null : Long.parseLong(parts[2]));
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed group change message: {}", e.getMessage());
+            return;
+        }
+        for (Consumer<GroupChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                logger.warn("Group change listener failed for group {}: {}",
+                        event.groupId(), e.getMessage() != null ? e.getMessage() : "");
+            }
+        }
+    }
+}
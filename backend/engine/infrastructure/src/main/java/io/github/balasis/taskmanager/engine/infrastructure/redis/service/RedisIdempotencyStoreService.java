@@ -0,0 +1,149 @@
+package io.github.balasis.taskmanager.engine.infrastructure.redis.service;
+
+import io.github.balasis.taskmanager.context.base.component.BaseComponent;
+import io.github.balasis.taskmanager.engine.infrastructure.redis.IdempotencyStoreService;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Key   = idem:{caller's key}
+// Value = "{status} {fingerprint} {contentType}\n" followed by the raw body bytes.
+//         the in-flight marker is the same header with status 0 and no body.
+//         the fingerprint is hex, so it never contains the separating spaces.
+//
+// a repeat is a single GET. a first request is GET + SET NX; if the SET loses
+// a race the winner's value is read back once more. complete and release are
+// Lua compare-and-set / compare-and-delete on the in-flight marker, so a
+// request that outlived IN_FLIGHT_TTL_SECONDS can't overwrite or drop the
+// claim of whichever request took the key after it.
+public class RedisIdempotencyStoreService extends BaseComponent implements IdempotencyStoreService {
+
+    // long enough for a slow multipart upload, short enough that a crashed
+    // instance doesn't block the key for long
+    private static final long IN_FLIGHT_TTL_SECONDS = 120;
+    // clients retry within seconds to minutes, nothing needs a day-old replay
+    private static final long COMPLETED_TTL_SECONDS = 600;
+
+    // KEYS = key   ARGV = in-flight marker, value, ttl
+    private static final String COMPLETE_SCRIPT = """
+            local current = redis.call('GET', KEYS[1])
+            if current and current ~= ARGV[1] then return 0 end
+            redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+            return 1
+            """;
+
+    // KEYS = key   ARGV = in-flight marker
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private final StatefulRedisConnection<byte[], byte[]> redisConnection;
+    private final String keyPrefix;
+
+    // script name -> SHA1, loaded lazily so startup never depends on Redis
+    private final Map<String, String> shas = new ConcurrentHashMap<>();
+
+    public RedisIdempotencyStoreService(StatefulRedisConnection<byte[], byte[]> redisConnection,
+                                        String redisKeyPrefix) {
+        this.redisConnection = redisConnection;
+        this.keyPrefix = redisKeyPrefix + "idem:";
+    }
+
+    @Override
+    public Lookup claim(String key, String fingerprint) {
+        try {
+            RedisCommands<byte[], byte[]> cmd = redisConnection.sync();
+            byte[] redisKey = key(key);
+
+            byte[] existing = cmd.get(redisKey);
+            if (existing == null) {
+                String ok = cmd.set(redisKey, head(0, fingerprint, null),
+                        SetArgs.Builder.nx().ex(IN_FLIGHT_TTL_SECONDS));
+                if ("OK".equals(ok)) return Lookup.CLAIMED;
+                existing = cmd.get(redisKey);
+                if (existing == null) return Lookup.CLAIMED; // expired in between
+            }
+            return decode(existing, fingerprint);
+        } catch (Exception e) {
+            logger.warn("Idempotency claim failed for key {}: {}",
+                    key, e.getMessage() != null ? e.getMessage() : "");
+            return Lookup.CLAIMED;
+        }
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        try {
+            byte[] head = head(response.status(), fingerprint, response.contentType());
+            byte[] value = Arrays.copyOf(head, head.length + response.body().length);
+            System.arraycopy(response.body(), 0, value, head.length, response.body().length);
+
+            eval(COMPLETE_SCRIPT, new byte[][]{key(key)},
+                    head(0, fingerprint, null), value,
+                    String.valueOf(COMPLETED_TTL_SECONDS).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            logger.warn("Idempotency store failed for key {}: {}",
+                    key, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    @Override
+    public void release(String key, String fingerprint) {
+        try {
+            eval(RELEASE_SCRIPT, new byte[][]{key(key)}, head(0, fingerprint, null));
+        } catch (Exception e) {
+            // the in-flight marker just runs out on its own
+            logger.warn("Idempotency release failed for key {}: {}",
+                    key, e.getMessage() != null ? e.getMessage() : "");
+        }
+    }
+
+    // EVALSHA first so the script body isnt resent on every call.
+    // NOSCRIPT means Redis restarted or flushed its script cache — reload once.
+    private Long eval(String script, byte[][] keys, byte[]... args) {
+        RedisCommands<byte[], byte[]> cmd = redisConnection.sync();
+        String sha = shas.computeIfAbsent(script, cmd::scriptLoad);
+        try {
+            return cmd.evalsha(sha, ScriptOutputType.INTEGER, keys, args);
+        } catch (RedisNoScriptException e) {
+            sha = cmd.scriptLoad(script);
+            shas.put(script, sha);
+            return cmd.evalsha(sha, ScriptOutputType.INTEGER, keys, args);
+        }
+    }
+
+    private static byte[] head(int status, String fingerprint, String contentType) {
+        return (status + " " + fingerprint + " " + (contentType != null ? contentType : "") + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Lookup decode(byte[] value, String fingerprint) {
+        int newline = 0;
+        while (newline < value.length && value[newline] != '\n') newline++;
+
+        String[] head = new String(value, 0, newline, StandardCharsets.UTF_8).split(" ", 3);
+        if (head.length < 3 || !head[1].equals(fingerprint)) return Lookup.MISMATCH;
+        int status = Integer.parseInt(head[0]);
+        if (status == 0) return Lookup.IN_FLIGHT;
+
+        String contentType = head[2].isEmpty() ? null : head[2];
+        byte[] body = newline < value.length
+                ? Arrays.copyOfRange(value, newline + 1, value.length)
+                : new byte[0];
+        return new Lookup(Outcome.COMPLETED, new StoredResponse(status, contentType, body));
+    }
+
+    private byte[] key(String key) {
+        return (keyPrefix + key).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -23,8 +23,9 @@ import java.util.List;
 // the whole key gets a safety TTL (5 min) so it auto-deletes if everyone
 // leaves and no more heartbeats come in — prevents key leaks.
 //
-// this is NOT pub/sub or SSE — it's pure query-on-demand. the frontend polls
-// the /groups/{id}/presence endpoint every 30-60s via the smart poll hook.
+// the set itself is query-on-demand: clients read it via /groups/{id}/presence.
+// heartbeat() reports arrivals so the caller can push a PRESENCE notification
+// over the group stream instead of every tab polling the list on a timer.
 public class RedisPresenceService extends BaseComponent implements PresenceService {
 
     // Users not seen within this window are treated as offline
@@ -46,22 +47,28 @@ public class RedisPresenceService extends BaseComponent implements PresenceServi
     // --- write ---
 
     @Override
-    public void heartbeat(Long groupId, Long userId) {
+    public boolean heartbeat(Long groupId, Long userId) {
         try {
             RedisCommands<byte[], byte[]> cmd = redisConnection.sync();
             byte[] key    = key(groupId);
             byte[] member = String.valueOf(userId).getBytes(StandardCharsets.UTF_8);
             double score  = Instant.now().getEpochSecond();
 
+            // ZSCORE: the previous heartbeat, if any. a score older than the TTL
+            // window is a user who went offline but hasnt been evicted yet.
+            Double previous = cmd.zscore(key, member);
+
             // ZADD: if the member exists, just updates its score (last-seen timestamp).
             // if it doesn't exist, adds it. O(log N) for the sorted set.
             cmd.zadd(key, score, member);
             // EXPIRE resets the safety TTL so the key doesn't die while users are active
             cmd.expire(key, KEY_TTL_SECONDS);
+            return previous == null || previous < score - HEARTBEAT_TTL_SECONDS;
         } catch (Exception e) {
             // best-effort, never fail the caller's request
             logger.warn("Presence heartbeat failed for group {}: {}",
                     groupId, e.getMessage() != null ? e.getMessage() : "");
+            return false;
         }
     }
 
@@ -1,7 +1,8 @@
 import { useContext, useEffect, useRef, useState } from "react";
 import { useNavigate, useLocation } from "react-router-dom";
 import { AuthContext } from "@context/AuthContext";
-import { apiGet, apiPost } from "@assets/js/apiClient.js";
+import { GroupContext } from "@context/GroupContext";
+import { apiPost } from "@assets/js/apiClient.js";
 import { FiCopy, FiRefreshCw } from "react-icons/fi";
 import { useToast } from "@context/ToastContext";
 import Footer from "@components/footer/Footer";
@@ -11,11 +12,16 @@ import AiStatusBanner from "@components/layout/AiStatusBanner";
 import "@styles/Layout.css";
 
 // main shell: collapsible sidebar + top mini-info bar + content area.
-// polls /group-invitations/check-new with 3-tier idle backoff
-// (1min active / 3min idle / 45min deep-idle) and shows a badge on the
-// invitations nav link when 409 comes back (meaning new invites exist).
+// runs the batched group poll (POST /groups/changes via checkGroupChanges)
+// with 3-tier idle backoff (1min active / 3min idle / 45min deep-idle): one
+// request covers every cached group plus the new-invitations check, and
+// shows a badge on the invitations nav link when hasNewInvitations is set.
 export default function Layout({ children }) {
     const { user, setUser, logout } = useContext(AuthContext);
+    const { checkGroupChanges } = useContext(GroupContext);
+    // the poll effect below shouldn't restart every time the groups list changes
+    const checkGroupChangesRef = useRef(checkGroupChanges);
+    checkGroupChangesRef.current = checkGroupChanges;
     const navigate = useNavigate();
     const showToast = useToast();
     const [refreshingCode, setRefreshingCode] = useState(false);
@@ -78,12 +84,9 @@ export default function Layout({ children }) {
             if (cancelled) return;
 
             try {
-                await apiGet("/api/group-invitations/check-new");
-
-                if (!cancelled) setHasNewInvites(false);
-            } catch (err) {
+                const changes = await checkGroupChangesRef.current();
                 if (cancelled) return;
-                if (err?.status === 409) {
+                if (changes?.hasNewInvitations) {
                     if (onInvitationsPage()) {
 
                         setHasNewInvites(false);
@@ -91,8 +94,11 @@ export default function Layout({ children }) {
                     } else {
                         setHasNewInvites(true);
                     }
+                } else {
+                    setHasNewInvites(false);
                 }
-
+            } catch {
+                // best-effort - try again next cycle
             }
 
             if (!cancelled) schedulePoll();
@@ -2,6 +2,9 @@
 // auto-JSON for non-FormData bodies, 401 retry via registered handler
 // (AuthProvider's refresh-cookie flow), 429 extracts Retry-After, 503
 // passes error up for StartupGate-style blocking.
+// writes can pass options.idempotencyKey; reuse the same key when retrying
+// the same action and the server replays the first response instead of
+// running it twice.
 let authHandlers = {
     onUnauthorized: null,
 };
@@ -10,6 +13,16 @@ export function registerAuthHandlers(handlers) {
     authHandlers = { ...authHandlers, ...handlers };
 }
 
+// one key per user action: keep it while the same action is retried and
+// take a new one for the next action. the server answers 422 if a key
+// comes back with a different body.
+export function newIdempotencyKey() {
+    if (crypto.randomUUID) return crypto.randomUUID();
+    // plain-http origins (dev over the LAN) have no randomUUID
+    return Array.from(crypto.getRandomValues(new Uint8Array(16)),
+        (b) => b.toString(16).padStart(2, "0")).join("");
+}
+
 export const apiGet = (path, options) =>
     apiRequest(path, { method: "GET", ...options});
 
@@ -35,6 +48,10 @@ async function apiRequest(path, options = {}, retry = true) {
         headers["Content-Type"] = "application/json";
     }
 
+    if (options.idempotencyKey) {
+        headers["Idempotency-Key"] = options.idempotencyKey;
+    }
+
     const fetchOptions = {
         method,
         headers,
@@ -113,14 +130,16 @@ async function apiRequest(path, options = {}, retry = true) {
 }
 
 export async function apiMultipart(path, formData, options = {}) {
+    const { idempotencyKey, ...rest } = options;
     const fetchOptions = {
-        method: options.method || "POST",
+        method: rest.method || "POST",
         body: formData,
         credentials: "include",
+        ...rest,
         headers: {
-            ...(options.headers || {}),
+            ...(rest.headers || {}),
+            ...(idempotencyKey ? { "Idempotency-Key": idempotencyKey } : {}),
         },
-        ...options,
     };
 
     let res;
@@ -133,11 +133,15 @@ export default function AnalysisPanel({ groupId, taskId, groupDetail, showToast
         if (!snapshot?.analyzedAt) return;
         setBulkDeleting(true);
         try {
-            const res = await apiDelete(
-                `/api/groups/${groupId}/task/${taskId}/comments/bulk?before=${encodeURIComponent(snapshot.analyzedAt)}`
-            );
-            showToast(`Deleted ${res?.deleted ?? 0} comment(s).`, "success");
+            const base = `/api/groups/${groupId}/task/${taskId}/comments/bulk`;
+            // the server deletes in the background; poll until it's done
+            let status = await apiDelete(`${base}?before=${encodeURIComponent(snapshot.analyzedAt)}`);
             setBulkConfirm(false);
+            while (status?.running) {
+                await new Promise(resolve => setTimeout(resolve, 1500));
+                status = await apiGet(base);
+            }
+            showToast(`Deleted ${status?.deleted ?? 0} comment(s).`, "success");
             fetchEstimate();
             fetchSnapshot();
         } catch (err) {
@@ -14,6 +14,7 @@ import "@styles/dashboard/DashboardTopBar.css";
 // to decide whether to show the unseen-events indicator dot.
 export default function DashboardTopBar({
     groups,
+    groupsWithUpdates,
     activeGroup,
     members,
     myRole,
@@ -184,6 +185,7 @@ export default function DashboardTopBar({
 
                             <TopBarGroupSelector
                                 groups={groups}
+                                groupsWithUpdates={groupsWithUpdates}
                                 activeGroup={activeGroup}
                                 onSelectGroup={onSelectGroup}
                                 onOpenNewGroup={onOpenNewGroup}
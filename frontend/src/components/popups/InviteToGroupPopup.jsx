@@ -1,5 +1,5 @@
-import { useState } from "react";
-import { apiPost } from "@assets/js/apiClient";
+import { useState, useRef } from "react";
+import { apiPost, newIdempotencyKey } from "@assets/js/apiClient";
 import { useToast } from "@context/ToastContext";
 import { LIMITS } from "@assets/js/inputValidation";
 import "@styles/popups/Popup.css";
@@ -22,6 +22,7 @@ export default function InviteToGroupPopup({ groupId, groupDetail, onClose }) {
     const [comment, setComment] = useState("");
     const [busy, setBusy] = useState(false);
     const [error, setError] = useState("");
+    const idempotencyKey = useRef(newIdempotencyKey());
 
     const emailAvailable = groupDetail?.op !== "FREE" && groupDetail?.op !== "STUDENT";
     const [sendEmail, setSendEmail] = useState(false);
@@ -41,11 +42,12 @@ export default function InviteToGroupPopup({ groupId, groupDetail, onClose }) {
                 userToBeInvitedRole: role,
                 comment: comment.trim(),
                 sendEmail: emailAvailable && sendEmail,
-            });
+            }, { idempotencyKey: idempotencyKey.current });
             onClose();
             showToast("If the code is valid, the invitation has been sent.", "success");
         } catch (err) {
             setError(err?.message || "Something went wrong.");
+            if (err?.status === 422) idempotencyKey.current = newIdempotencyKey();
         } finally {
             setBusy(false);
         }
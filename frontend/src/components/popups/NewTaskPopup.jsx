@@ -1,5 +1,5 @@
-﻿import { useState, useEffect } from "react";
-import { apiMultipart } from "@assets/js/apiClient";
+﻿import { useState, useEffect, useRef } from "react";
+import { apiMultipart, newIdempotencyKey } from "@assets/js/apiClient";
 import { LIMITS } from "@assets/js/inputValidation";
 import { useBlobUrl } from "@context/BlobSasContext";
 import NtMemberPicker from "@components/newtask/NtMemberPicker";
@@ -38,6 +38,9 @@ export default function NewTaskPopup({ groupId, initialState, members, groupDeta
     const [assigneeSearch, setAssigneeSearch] = useState("");
     const [busy, setBusy] = useState(false);
     const [error, setError] = useState("");
+    // same key for every retry of this form, so a create whose response got
+    // lost is replayed instead of making a second task
+    const idempotencyKey = useRef(newIdempotencyKey());
 
     const isFree = groupDetail?.op === "FREE";
 
@@ -98,10 +101,13 @@ export default function NewTaskPopup({ groupId, initialState, members, groupDeta
             );
             for (const f of files) fd.append("files", f);
 
-            const created = await apiMultipart(`/api/groups/${groupId}/tasks`, fd);
+            const created = await apiMultipart(`/api/groups/${groupId}/tasks`, fd,
+                { idempotencyKey: idempotencyKey.current });
             onCreated(created);
         } catch (err) {
             setError(err?.message || "Failed to create task.");
+            // 422: the key went with an earlier version of the form
+            if (err?.status === 422) idempotencyKey.current = newIdempotencyKey();
 
             if (onRefresh) onRefresh();
         } finally {
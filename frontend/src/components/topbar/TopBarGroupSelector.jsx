@@ -5,11 +5,13 @@ import { useTierUpgrade } from "@context/TierUpgradeContext";
 import "@styles/topbar/TopBarGroupSelector.css";
 import "@styles/popups/Popup.css";
 
-// group selector dropdown in the top bar. shows all user's groups as a list.
+// group selector dropdown in the top bar. shows all user's groups as a list,
+// with a dot on groups the batched poll saw change since they were last opened.
 // if the user hit their maxGroups cap and isn't on TEAMS_PRO, shows a limit
 // message with an upgrade option instead of opening the new-group popup.
 export default function TopBarGroupSelector({
     groups,
+    groupsWithUpdates,
     activeGroup,
     onSelectGroup,
     onOpenNewGroup,
@@ -62,6 +64,7 @@ export default function TopBarGroupSelector({
                     )}
                 </span>
                 <span className="topbar-group-name" title={activeGroup?.name || "Select group"}>{activeGroup?.name || "Select group"}</span>
+                {groupsWithUpdates?.size > 0 && <span className="topbar-group-updated" title="Other groups have updates" />}
                 <span className="caret">▾</span>
             </button>
             {/* Hide + only at max tier when cap reached; otherwise always show */}
@@ -94,6 +97,7 @@ export default function TopBarGroupSelector({
                                 <span className="topbar-group-img-small placeholder" />
                             )}
                             <span className="topbar-dropdown-group-name" title={g.name}>{g.name}</span>
+                            {groupsWithUpdates?.has(g.id) && <span className="topbar-group-updated" title="New activity" />}
                         </div>
                     ))}
                 </div>
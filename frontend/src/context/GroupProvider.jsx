@@ -1,7 +1,7 @@
 ﻿import { useState, useEffect, useCallback, useContext, useRef } from "react";
 import { GroupContext } from "./GroupContext";
 import { AuthContext } from "./AuthContext";
-import { apiGet } from "@assets/js/apiClient.js";
+import { apiGet, apiPost } from "@assets/js/apiClient.js";
 import { encryptForCache, decryptFromCache, cacheMatchesKey } from "@assets/js/cacheCrypto.js";
 
 /*
@@ -28,8 +28,8 @@ import { encryptForCache, decryptFromCache, cacheMatchesKey } from "@assets/js/c
  *   dd = dueDate   cc = commentCount  a = accessible  nc = newCommentsToBeRead
  *   cn = creatorName  p = priority   dl = deletable
  *
- * GroupRefreshDto (delta - GET /api/groups/{id}/refresh?lastSeen=):
- *   sn  = serverNow   c   = changed      mc  = membersChanged
+ * GroupRefreshDto (delta - GET /api/groups/{id}/refresh?sinceSeq= or ?lastSeen=):
+ *   sn  = serverNow   sq  = serverSeq    c   = changed      mc  = membersChanged
  *   ct  = changedTasks (array of TaskPreviewDto)
  *   dti = deletedTaskIds (array of Long)
  *   op  = ownerPlan    db  = downloadBudgetBytes  udb = usedDownloadBytesMonth
@@ -64,6 +64,7 @@ function groupsListKey(userId)               { return `${userPrefix(userId)}grou
 function activeGroupIdKey(userId)            { return `${userPrefix(userId)}active_group`; }
 function groupDetailKey(userId, groupId)     { return `${userPrefix(userId)}gd_${groupId}`; }
 function groupLastSeenKey(userId, groupId)   { return `${userPrefix(userId)}ls_${groupId}`; }
+function groupSeqKey(userId, groupId)        { return `${userPrefix(userId)}sq_${groupId}`; }
 
 
 // =====================================================================
@@ -196,8 +197,11 @@ function applyDeltaToDetail(cachedDetail, delta) {
 // the heaviest context: manages group list + active group detail + members +
 // encrypted localStorage cache (AES-GCM via cacheCrypto, keyed to user.cacheKey).
 // on active-group switch: tries cache-then-delta-refresh via /groups/{id}/refresh,
-// falls back to full fetch if no cache. polling uses has-changed (409=stale, 204=fresh)
-// with 3-tier idle backoff (30s active / 60s slow / stop after 15min idle).
+// falls back to full fetch if no cache. live updates come from the SSE stream at
+// /groups/{id}/stream; while it's connected the poll skips its has-changed call.
+// polling uses has-changed (409=stale, 204=fresh) with 3-tier idle backoff
+// (30s active / 60s slow / stop after 15min idle) and is the fallback when the
+// stream is down.
 // multi-user eviction: keeps at most 3 users in localStorage, purges oldest.
 export default function GroupProvider({ children }) {
     const { user } = useContext(AuthContext);
@@ -216,6 +220,7 @@ export default function GroupProvider({ children }) {
     const [loadingDetail, setLoadingDetail] = useState(false);
     const [myRole, setMyRole]               = useState(null);
     const [presenceUserIds, setPresenceUserIds] = useState([]);
+    const [groupsWithUpdates, setGroupsWithUpdates] = useState(() => new Set());
 
     // Prevents re-fetching members when we already have them for this group
     const membersLoadedForGroupRef = useRef(null);
@@ -360,7 +365,9 @@ export default function GroupProvider({ children }) {
     // loadOrRefreshGroupDetail - loads the dashboard data for a group
     //
     // If we have a cached detail + lastSeen timestamp, we use the delta
-    // endpoint (/refresh?lastSeen=) which returns only what changed.
+    // endpoint which returns only what changed. Once a delta has handed us
+    // the group's change seq we ask by seq (/refresh?sinceSeq=), which is
+    // exact; the timestamp (/refresh?lastSeen=) is only used until then.
     // Otherwise we do a full fetch of detail + members.
     // =================================================================
 
@@ -371,6 +378,7 @@ export default function GroupProvider({ children }) {
         let   cachedDetail       = null;
         const storedDetailBlob   = storageGetRaw(groupDetailKey(user.id, groupId));
         const storedLastSeen     = storageGetJson(groupLastSeenKey(user.id, groupId));
+        const storedSeq          = storageGetJson(groupSeqKey(user.id, groupId));
 
         if (encryptionKey && storedDetailBlob && cacheMatchesKey(encryptionKey, storedDetailBlob)) {
             cachedDetail = await decryptFromCache(encryptionKey, storedDetailBlob);
@@ -383,6 +391,7 @@ export default function GroupProvider({ children }) {
             cachedDetail = null;
             storageRemove(groupDetailKey(user.id, groupId));
             storageRemove(groupLastSeenKey(user.id, groupId));
+            storageRemove(groupSeqKey(user.id, groupId));
         }
 
         // Show cached detail instantly while we check for updates
@@ -391,9 +400,10 @@ export default function GroupProvider({ children }) {
         try {
             if (cachedDetail && storedLastSeen) {
                 // -- Delta refresh path ------------------------------
-                const delta = await apiGet(
-                    `/api/groups/${groupId}/refresh?lastSeen=${encodeURIComponent(storedLastSeen)}`
-                );
+                const since = Number.isFinite(storedSeq)
+                    ? `sinceSeq=${storedSeq}`
+                    : `lastSeen=${encodeURIComponent(storedLastSeen)}`;
+                const delta = await apiGet(`/api/groups/${groupId}/refresh?${since}`);
 
                 // Reload members if the server says they changed, or if we
                 // haven't loaded members for this group yet
@@ -422,6 +432,7 @@ export default function GroupProvider({ children }) {
                     storageSetRaw(groupDetailKey(user.id, groupId), encrypted);
                 }
                 storageSetJson(groupLastSeenKey(user.id, groupId), delta.sn);
+                if (Number.isFinite(delta.sq)) storageSetJson(groupSeqKey(user.id, groupId), delta.sq);
 
             } else {
                 // -- Full fetch path (no cache available) ------------
@@ -440,6 +451,8 @@ export default function GroupProvider({ children }) {
                     storageSetRaw(groupDetailKey(user.id, groupId), encrypted);
                 }
                 storageSetJson(groupLastSeenKey(user.id, groupId), new Date().toISOString());
+                // the full payload carries no seq - the next delta switches to it
+                storageRemove(groupSeqKey(user.id, groupId));
             }
             // Fetch who's online right away so the UI shows presence
             // immediately instead of waiting for the first poll cycle.
@@ -459,6 +472,7 @@ export default function GroupProvider({ children }) {
                 // User lost access to this group - clean up and redirect
                 storageRemove(groupDetailKey(user.id, groupId));
                 storageRemove(groupLastSeenKey(user.id, groupId));
+                storageRemove(groupSeqKey(user.id, groupId));
                 setGroupDetail(null);
                 setMembers([]);
                 membersLoadedForGroupRef.current = null;
@@ -488,6 +502,12 @@ export default function GroupProvider({ children }) {
         detailLoadedForGroupRef.current = null;
         setPresenceUserIds([]);
         setActiveGroup(group);
+        setGroupsWithUpdates(prev => {
+            if (!prev.has(group?.id)) return prev;
+            const next = new Set(prev);
+            next.delete(group.id);
+            return next;
+        });
     }, []);
 
     /** Encrypts and persists the groups list to LS (fire-and-forget). */
@@ -540,10 +560,11 @@ export default function GroupProvider({ children }) {
             return remaining;
         });
 
-        // Clean up this group's cached detail and timestamp
+        // Clean up this group's cached detail, timestamp and seq
         if (user?.id) {
             storageRemove(groupDetailKey(user.id, groupId));
             storageRemove(groupLastSeenKey(user.id, groupId));
+            storageRemove(groupSeqKey(user.id, groupId));
         }
     }, [user, activeGroup, persistGroupsListToStorage]);
 
@@ -551,6 +572,34 @@ export default function GroupProvider({ children }) {
         if (user) loadGroupsList();
     }, [user]);
 
+    /**
+     * Batched check for every cached group in one request (POST /groups/changes)
+     * instead of a has-changed per group. Marks changed non-active groups so the
+     * selector can flag them, reloads the list if we were removed from any, and
+     * returns the server answer (the caller uses hasNewInvitations).
+     */
+    const checkGroupChanges = useCallback(async () => {
+        if (!user) return null;
+        const lastSeenByGroup = {};
+        for (const g of groups) {
+            const lastSeen = storageGetJson(groupLastSeenKey(user.id, g.id));
+            if (lastSeen) lastSeenByGroup[g.id] = lastSeen;
+        }
+
+        const changes = await apiPost("/api/groups/changes", lastSeenByGroup);
+        if (!changes) return null;
+
+        // the active group is kept fresh by its own stream/poll
+        const changedOthers = (changes.changedGroupIds ?? []).filter(id => id !== activeGroup?.id);
+        if (changedOthers.length) {
+            setGroupsWithUpdates(prev => new Set([...prev, ...changedOthers]));
+        }
+        if ((changes.removedGroupIds ?? []).length) {
+            loadGroupsList();
+        }
+        return changes;
+    }, [user, groups, activeGroup]);
+
     /** Optimistically marks group events as seen for the current user. */
     const markGroupEventsSeen = useCallback(() => {
         if (!user) return;
@@ -586,6 +635,7 @@ export default function GroupProvider({ children }) {
     const [isStale, setIsStale]  = useState(false);
 
     const pollTimerRef    = useRef(null);
+    const streamOpenRef   = useRef(false); // SSE stream connected - poll skips has-changed
     const lastActivityRef = useRef(Date.now());
     const sessionStartRef = useRef(Date.now());
     const presenceCycleRef = useRef(0);  // fetch /presence every 2nd poll cycle
@@ -622,7 +672,9 @@ export default function GroupProvider({ children }) {
 
             if (activeGroup) {
                 const lastSeen = storageGetJson(groupLastSeenKey(user.id, activeGroup.id));
-                if (lastSeen) {
+                if (streamOpenRef.current) {
+                    // the stream pushes changes - nothing to check here
+                } else if (lastSeen) {
                     // Lightweight check: has anything changed since lastSeen?
                     // Server returns 204 (no) or 409 (yes)
                     try {
@@ -641,8 +693,10 @@ export default function GroupProvider({ children }) {
                 }
 
                 // Fetch who's online every 2nd cycle (economy mode).
-                // has-changed still piggybacks a heartbeat every cycle,
-                // so the server always knows we're alive.
+                // has-changed still piggybacks a heartbeat every cycle
+                // (the stream heartbeats on its own), so the server always
+                // knows we're alive. The stream only announces arrivals,
+                // so departures are still picked up here.
                 presenceCycleRef.current += 1;
                 if (presenceCycleRef.current % 2 === 0) {
                     try {
@@ -714,6 +768,67 @@ export default function GroupProvider({ children }) {
     }, [activeGroup, user, schedulePoll]);
 
 
+    // =================================================================
+    // Effect: live updates over SSE (/groups/{id}/stream)
+    //
+    // Events only name what changed; we refetch through the usual delta
+    // path. Bursts (e.g. a bulk task edit) are coalesced into one refresh.
+    // EventSource reconnects on its own (the server closes streams every
+    // 5 min); after a drop we refresh once to pick up anything missed.
+    // The stream is closed while the page is stale (idle) and reopened
+    // with the poll cycle when the user comes back.
+    // =================================================================
+
+    const STREAM_REFRESH_DEBOUNCE_MS = 300;
+
+    useEffect(() => {
+        if (!activeGroup || !user || isStale || typeof EventSource === "undefined") return;
+
+        const groupId = activeGroup.id;
+        const source  = new EventSource(`/api/groups/${groupId}/stream`, { withCredentials: true });
+        let refreshTimer = null;
+        let droppedOnce  = false;
+
+        const scheduleRefresh = () => {
+            if (refreshTimer) return;
+            refreshTimer = setTimeout(() => {
+                refreshTimer = null;
+                loadOrRefreshGroupDetail(groupId);
+            }, STREAM_REFRESH_DEBOUNCE_MS);
+        };
+
+        const refreshPresence = async () => {
+            try {
+                const ids = await apiGet(`/api/groups/${groupId}/presence`);
+                if (Array.isArray(ids)) {
+                    const withSelf = ids.includes(user.id) ? ids : [...ids, user.id];
+                    setPresenceUserIds(withSelf);
+                }
+            } catch { /* best-effort - presence is non-critical */ }
+        };
+
+        source.addEventListener("ready", () => {
+            streamOpenRef.current = true;
+            if (droppedOnce) scheduleRefresh();
+        });
+        ["group", "task", "task_deleted", "members"].forEach(name =>
+            source.addEventListener(name, scheduleRefresh));
+        source.addEventListener("presence", refreshPresence);
+        source.onerror = () => {
+            // fall back to polling until "ready" arrives again; if the
+            // browser gave up (readyState CLOSED) polling just carries on
+            streamOpenRef.current = false;
+            droppedOnce = true;
+        };
+
+        return () => {
+            streamOpenRef.current = false;
+            if (refreshTimer) clearTimeout(refreshTimer);
+            source.close();
+        };
+    }, [activeGroup, user, isStale]);
+
+
     // =================================================================
     // Effect: listen for user activity (click, keydown, scroll, pointer)
     // =================================================================
@@ -749,6 +864,8 @@ export default function GroupProvider({ children }) {
             manualRefresh,
             markGroupEventsSeen,
             presenceUserIds,
+            groupsWithUpdates,
+            checkGroupChanges,
         }}>
             {children}
         </GroupContext.Provider>
@@ -11,7 +11,7 @@ import {
 import { AuthContext } from "@context/AuthContext";
 import { GroupContext } from "@context/GroupContext";
 import { useToast } from "@context/ToastContext";
-import { apiGet, apiPost, apiPatch, apiDelete } from "@assets/js/apiClient.js";
+import { apiGet, apiPost, apiPatch, apiDelete, newIdempotencyKey } from "@assets/js/apiClient.js";
 import { LIMITS } from "@assets/js/inputValidation";
 import useSmartPoll from "@hooks/useSmartPoll";
 import { useBlobUrl } from "@context/BlobSasContext";
@@ -48,6 +48,9 @@ export default function Comments() {
 
     const [newComment, setNewComment] = useState("");
     const [submitting, setSubmitting] = useState(false);
+    // kept until the comment goes through, so resending after a lost
+    // response doesn't post it twice
+    const commentKeyRef = useRef(newIdempotencyKey());
     const [showEmojis, setShowEmojis] = useState(false);
     const textareaRef = useRef(null);
 
@@ -142,8 +145,10 @@ export default function Comments() {
         try {
             await apiPost(
                 `/api/groups/${groupId}/task/${taskId}/comments`,
-                { comment: newComment.trim() }
+                { comment: newComment.trim() },
+                { idempotencyKey: commentKeyRef.current }
             );
+            commentKeyRef.current = newIdempotencyKey();
             setNewComment("");
             setShowEmojis(false);
             // navigate directly to last page instead of clearing params
@@ -156,6 +161,7 @@ export default function Comments() {
             setRefreshKey(k => k + 1);
         } catch (err) {
             showToast(err?.message || "Failed to add comment");
+            if (err?.status === 422) commentKeyRef.current = newIdempotencyKey();
             refreshActiveGroup();
         } finally {
             setSubmitting(false);
@@ -70,6 +70,7 @@ export default function Dashboard() {
         manualRefresh,
         markGroupEventsSeen,
         presenceUserIds,
+        groupsWithUpdates,
     } = useContext(GroupContext);
     const { user } = useContext(AuthContext);
     const navigate = useNavigate();
@@ -255,6 +256,7 @@ export default function Dashboard() {
         <div className="dashboard">
             <DashboardTopBar
                 groups={groups}
+                groupsWithUpdates={groupsWithUpdates}
                 activeGroup={activeGroup}
                 members={members}
                 myRole={myRole}
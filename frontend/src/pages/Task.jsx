@@ -7,7 +7,7 @@ import { FiChevronRight, FiChevronLeft, FiRefreshCw, FiMail } from "react-icons/
 import { AuthContext } from "@context/AuthContext";
 import { GroupContext } from "@context/GroupContext";
 import { useToast } from "@context/ToastContext";
-import { apiGet, apiPatch, apiPost, apiDelete } from "@assets/js/apiClient.js";
+import { apiGet, apiPatch, apiPost, apiDelete, newIdempotencyKey } from "@assets/js/apiClient.js";
 import { LIMITS, groupFileLimits } from "@assets/js/inputValidation";
 import { isFileTooLarge, formatFileSize } from "@assets/js/fileUtils";
 import useSmartPoll from "@hooks/useSmartPoll";
@@ -178,7 +178,7 @@ export default function Task() {
 
     async function handleSave() {
         try {
-            const body = {};
+            const body = { expectedVersion: task.version };
             if (editTitle !== task.title) body.title = editTitle;
             if (editDesc !== task.description) body.description = editDesc;
             if (editState !== task.taskState) body.taskState = editState;
@@ -190,7 +190,9 @@ export default function Task() {
 
     async function handleStateChange(newState) {
         try {
-            const updated = await apiPatch(`/api/groups/${groupId}/task/${taskId}`, { taskState: newState });
+            const updated = await apiPatch(`/api/groups/${groupId}/task/${taskId}`, {
+                taskState: newState, expectedVersion: task?.version,
+            });
             applyTask(updated);
         } catch (err) { showToast(err?.message || "Failed to change state"); autoHeal(); }
     }
@@ -199,7 +201,7 @@ export default function Task() {
         setSubmittingReview(true);
         try {
             const updated = await apiPost(`/api/groups/${groupId}/task/${taskId}/review`, {
-                reviewComment, reviewersDecision: reviewDecision,
+                reviewComment, reviewersDecision: reviewDecision, expectedVersion: task?.version,
             });
             applyTask(updated);
             setReviewComment("");
@@ -277,7 +279,9 @@ export default function Task() {
 
     async function handleMoveToBeReviewed() {
         try {
-            const updated = await apiPost(`/api/groups/${groupId}/task/${taskId}/to-be-reviewed`);
+            const updated = await apiPost(
+                `/api/groups/${groupId}/task/${taskId}/to-be-reviewed`
+                + (task?.version != null ? `?expectedVersion=${task.version}` : ""));
             applyTask(updated);
         } catch (err) { showToast(err?.message || "Failed to move task to review"); autoHeal(); }
     }
@@ -290,12 +294,29 @@ export default function Task() {
             showToast(`File exceeds ${formatFileSize(effectiveMaxFileSizeBytes)} limit`);
             return;
         }
-        const fd = new FormData();
-        fd.append("file", file);
         const endpoint = isAssignee
-            ? `/api/groups/${groupId}/task/${taskId}/assignee-files`
-            : `/api/groups/${groupId}/task/${taskId}/files`;
-        try { const updated = await apiPost(endpoint, fd); applyTask(updated); }
+            ? `/api/groups/${groupId}/task/${taskId}/assignee-files/uploads`
+            : `/api/groups/${groupId}/task/${taskId}/files/uploads`;
+        // direct upload: the server hands out a short-lived storage URL, the
+        // browser PUTs the file there, then the server checks it and adds it
+        const contentType = file.type || "application/octet-stream";
+        const idempotencyKey = newIdempotencyKey();
+        try {
+            const target = await apiPost(endpoint, { name: file.name, size: file.size }, { idempotencyKey });
+            const put = await fetch(target.uploadUrl, {
+                method: "PUT",
+                headers: { "x-ms-blob-type": "BlockBlob", "x-ms-blob-content-type": contentType },
+                body: file,
+            });
+            if (!put.ok) throw { message: "Upload to storage failed" };
+            // the file is already in storage: a finalize whose response was
+            // lost is sent once more with the same key and replays the answer
+            const finalize = () => apiPost(`${endpoint}/finalize`, {
+                blobName: target.blobName, name: file.name, size: file.size, contentType,
+            }, { idempotencyKey });
+            const updated = await finalize().catch((err) => (err?.status === 0 ? finalize() : Promise.reject(err)));
+            applyTask(updated);
+        }
         catch (err) { showToast(err?.message || `Failed to upload ${isAssignee ? "assignee " : ""}file`); autoHeal(); }
     }
 
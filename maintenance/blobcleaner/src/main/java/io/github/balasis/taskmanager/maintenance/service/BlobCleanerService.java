@@ -7,16 +7,25 @@ import io.github.balasis.taskmanager.maintenance.repository.MaintenanceRepositor
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 // scans a blob container for orphans (blobs not referenced by any DB row)
 // and deletes them. processes in batches of 50 with 200ms pauses to stay
 // gentle on Azure storage rate limits.
+// task-file blobs younger than UPLOAD_GRACE are skipped: a direct upload
+// lands in storage before its finalize call inserts the row. staged
+// "*.upload" blobs never get a row (finalize copies them), so they go once
+// they're past the grace.
 @Service
 @AllArgsConstructor
 public class BlobCleanerService extends BaseComponent {
 
+    // well above the app's 15-minute upload URL lifetime
+    private static final Duration UPLOAD_GRACE = Duration.ofHours(1);
+
     private final MaintenanceRepository repository;
     private final BlobAccessService blobAccessService;
 
@@ -58,9 +67,12 @@ public class BlobCleanerService extends BaseComponent {
         boolean isTaskContainer = type == BlobContainerType.TASK_FILES
                 || type == BlobContainerType.TASK_ASSIGNEE_FILES;
 
+        Instant uploadCutoff = Instant.now().minus(UPLOAD_GRACE);
+
         for (BlobItem blob : batch) {
             boolean isOrphan;
             if (isTaskContainer) {
+                if (isRecent(blob, uploadCutoff)) continue;
                 isOrphan = !repository.existsByBlobName(type, blob.getName());
             } else {
                 long id = extractId(blob.getName());
@@ -76,6 +88,11 @@ public class BlobCleanerService extends BaseComponent {
         return deleted;
     }
 
+    private boolean isRecent(BlobItem blob, Instant cutoff) {
+        var lastModified = blob.getProperties() != null ? blob.getProperties().getLastModified() : null;
+        return lastModified != null && lastModified.toInstant().isAfter(cutoff);
+    }
+
     private void sleep(long millis) {
         try {
             Thread.sleep(millis);